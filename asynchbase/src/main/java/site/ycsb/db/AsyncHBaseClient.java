@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 
 import org.hbase.async.Bytes;
 import org.hbase.async.Config;
@@ -35,6 +36,10 @@ import org.hbase.async.KeyValue;
 import org.hbase.async.PutRequest;
 import org.hbase.async.Scanner;
 
+import com.stumbleupon.async.Callback;
+import com.stumbleupon.async.Deferred;
+
+import site.ycsb.AsyncDB;
 import site.ycsb.ByteArrayByteIterator;
 import site.ycsb.ByteIterator;
 import site.ycsb.DBException;
@@ -49,8 +54,12 @@ import static site.ycsb.workloads.CoreWorkload.TABLENAME_PROPERTY_DEFAULT;
  * This client provides a subset of the main HBase client and uses a completely
  * asynchronous pipeline for all calls. It is particularly useful for write heavy
  * workloads. It is also compatible with all production versions of HBase. 
+ * 
+ * Reads, updates, inserts and deletes are also available without blocking
+ * through the {@link AsyncDB} methods, which complete straight from the
+ * AsyncHBase callback chain.
  */
-public class AsyncHBaseClient extends site.ycsb.DB {
+public class AsyncHBaseClient extends AsyncDB {
   public static final Charset UTF8_CHARSET = Charset.forName("UTF8");
   private static final String CLIENT_SIDE_BUFFERING_PROPERTY = "clientbuffering";
   private static final String DURABILITY_PROPERTY = "durability";
@@ -307,24 +316,7 @@ public class AsyncHBaseClient extends site.ycsb.DB {
       System.out.println("Setting up put for key: " + key);
     }
     
-    final byte[][] qualifiers = new byte[values.size()][];
-    final byte[][] byteValues = new byte[values.size()][];
-    
-    int idx = 0;
-    for (final Entry<String, ByteIterator> entry : values.entrySet()) {
-      qualifiers[idx] = entry.getKey().getBytes();
-      byteValues[idx++] = entry.getValue().toArray();
-      if (debug) {
-        System.out.println("Adding field/value " + entry.getKey() + "/"
-            + Bytes.pretty(entry.getValue().toArray()) + " to put request");
-      }
-    }
-    
-    final PutRequest put = new PutRequest(lastTableBytes, key.getBytes(), 
-        columnFamilyBytes, qualifiers, byteValues);
-    if (!durability) {
-      put.setDurable(false);
-    }
+    final PutRequest put = newPutRequest(key, values);
     if (!clientSideBuffering) {
       put.setBufferable(false);
       try {
@@ -385,6 +377,144 @@ public class AsyncHBaseClient extends site.ycsb.DB {
     return Status.OK;
   }
 
+  @Override
+  public CompletableFuture<Status> readAsync(String table, final String key,
+      Set<String> fields, final Map<String, ByteIterator> result) {
+    setTable(table);
+    
+    final GetRequest get = new GetRequest(
+        lastTableBytes, key.getBytes(), columnFamilyBytes);
+    if (fields != null) {
+      get.qualifiers(getQualifierList(fields));
+    }
+    
+    final CompletableFuture<Status> pending = new CompletableFuture<Status>();
+    client.get(get).addCallbacks(
+        new Callback<Object, ArrayList<KeyValue>>() {
+          @Override
+          public Object call(final ArrayList<KeyValue> row) {
+            if (row == null || row.isEmpty()) {
+              pending.complete(Status.NOT_FOUND);
+              return null;
+            }
+            for (final KeyValue column : row) {
+              result.put(new String(column.qualifier()), 
+                  new ByteArrayByteIterator(column.value()));
+            }
+            pending.complete(Status.OK);
+            return null;
+          }
+        },
+        newErrback(pending, "Failure reading from row with key " + key));
+    return pending;
+  }
+
+  @Override
+  public CompletableFuture<Status> updateAsync(String table, String key,
+      Map<String, ByteIterator> values) {
+    setTable(table);
+    
+    final PutRequest put = newPutRequest(key, values);
+    if (clientSideBuffering) {
+      // the buffered write is not acknowledged until the next flush, so the
+      // blocking path already treats it as fire and forget.
+      return completed(update(table, key, values));
+    }
+    put.setBufferable(false);
+    return toFuture(client.put(put), "Failure writing to row with key " + key);
+  }
+
+  @Override
+  public CompletableFuture<Status> insertAsync(String table, String key,
+      Map<String, ByteIterator> values) {
+    return updateAsync(table, key, values);
+  }
+
+  @Override
+  public CompletableFuture<Status> deleteAsync(String table, String key) {
+    if (clientSideBuffering) {
+      return completed(delete(table, key));
+    }
+    setTable(table);
+    
+    final DeleteRequest delete = new DeleteRequest(
+        lastTableBytes, key.getBytes(), columnFamilyBytes);
+    if (!durability) {
+      delete.setDurable(false);
+    }
+    delete.setBufferable(false);
+    return toFuture(client.delete(delete), "Failure deleting row with key " + key);
+  }
+
+  /**
+   * Little helper to build the put request for an update or insert against
+   * the current table.
+   * @param key The row key.
+   * @param values The field/value pairs to write.
+   * @return The put request, not yet sent.
+   */
+  private PutRequest newPutRequest(final String key, 
+      final Map<String, ByteIterator> values) {
+    final byte[][] qualifiers = new byte[values.size()][];
+    final byte[][] byteValues = new byte[values.size()][];
+    
+    int idx = 0;
+    for (final Entry<String, ByteIterator> entry : values.entrySet()) {
+      qualifiers[idx] = entry.getKey().getBytes();
+      byteValues[idx++] = entry.getValue().toArray();
+      if (debug) {
+        System.out.println("Adding field/value " + entry.getKey() + "/"
+            + Bytes.pretty(entry.getValue().toArray()) + " to put request");
+      }
+    }
+    
+    final PutRequest put = new PutRequest(lastTableBytes, key.getBytes(), 
+        columnFamilyBytes, qualifiers, byteValues);
+    if (!durability) {
+      put.setDurable(false);
+    }
+    return put;
+  }
+
+  /**
+   * Little helper to complete a future with OK when the deferred succeeds.
+   * @param deferred The pending AsyncHBase call.
+   * @param failureMessage Printed along with the cause if the call fails.
+   * @return A future completed once the deferred is.
+   */
+  private static CompletableFuture<Status> toFuture(final Deferred<Object> deferred,
+      final String failureMessage) {
+    final CompletableFuture<Status> pending = new CompletableFuture<Status>();
+    deferred.addCallbacks(
+        new Callback<Object, Object>() {
+          @Override
+          public Object call(final Object ignored) {
+            pending.complete(Status.OK);
+            return null;
+          }
+        },
+        newErrback(pending, failureMessage));
+    return pending;
+  }
+
+  /**
+   * Little helper to build an errback completing the future with an error.
+   * @param pending The future to complete.
+   * @param failureMessage Printed along with the cause.
+   * @return The errback.
+   */
+  private static Callback<Object, Exception> newErrback(
+      final CompletableFuture<Status> pending, final String failureMessage) {
+    return new Callback<Object, Exception>() {
+      @Override
+      public Object call(final Exception e) {
+        System.err.println(failureMessage + ": " + e.getMessage());
+        pending.complete(Status.ERROR);
+        return null;
+      }
+    };
+  }
+
   /**
    * Little helper to set the table byte array. If it's different than the last
    * table we reset the byte array. Otherwise we just use the existing array.
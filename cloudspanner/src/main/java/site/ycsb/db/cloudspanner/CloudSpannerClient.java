@@ -41,6 +41,7 @@ import site.ycsb.Client;
 import site.ycsb.DB;
 import site.ycsb.DBException;
 import site.ycsb.Pair;
+import site.ycsb.RowConsumer;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
 import site.ycsb.Utils;
@@ -315,8 +316,7 @@ public class CloudSpannerClient extends DB {
   }
 
   private Status scanUsingQuery(
-      String table, String startKey, int recordCount, Set<String> fields,
-      Vector<HashMap<String, ByteIterator>> result) {
+      String table, String startKey, int recordCount, Set<String> fields, RowConsumer consumer) {
     Iterable<String> columns = fields == null ? JOBS_FIELDS : fields;
     Statement query;
     if (fields == null || fields.size() == fieldCount) {
@@ -347,11 +347,7 @@ public class CloudSpannerClient extends DB {
     }
 
     try (ResultSet resultSet = dbClient.singleUse(timestampBound).executeQuery(query)) {
-      while (resultSet.next()) {
-        HashMap<String, ByteIterator> row = new HashMap<>();
-        decodeStruct(columns, resultSet, row);
-        result.add(row);
-      }
+      streamRows(columns, resultSet, consumer);
       return Status.OK;
     } catch (Exception e) {
       LOGGER.log(Level.INFO, "scanUsingQuery()", e);
@@ -364,8 +360,15 @@ public class CloudSpannerClient extends DB {
   public Status scan(
       String table, String startKey, int recordCount, Set<String> fields,
       Vector<HashMap<String, ByteIterator>> result) {
+    return streamScan(table, startKey, recordCount, fields, RowConsumer.collectInto(result));
+  }
+
+  //Works with jobs and dac_namespace schema as well
+  @Override
+  public Status streamScan(
+      String table, String startKey, int recordCount, Set<String> fields, RowConsumer consumer) {
     if (queriesForReads) {
-      return scanUsingQuery(table, startKey, recordCount, fields, result);
+      return scanUsingQuery(table, startKey, recordCount, fields, consumer);
     }
 
     Iterable<String> columns;
@@ -383,11 +386,7 @@ public class CloudSpannerClient extends DB {
         KeySet.newBuilder().addRange(KeyRange.closedClosed(Key.of(startKey), Key.of())).build();
     try (ResultSet resultSet = dbClient.singleUse(timestampBound)
                                        .read(table, keySet, columns, Options.limit(recordCount))) {
-      while (resultSet.next()) {
-        HashMap<String, ByteIterator> row = new HashMap<>();
-        decodeStruct(columns, resultSet, row);
-        result.add(row);
-      }
+      streamRows(columns, resultSet, consumer);
       return Status.OK;
     } catch (Exception e) {
       LOGGER.log(Level.INFO, "scan()", e);
@@ -535,6 +534,13 @@ public class CloudSpannerClient extends DB {
   @Override
   public Status scanWithCreatedTimeFilter(String table, String startRange, String endRange, int recordCount,
                                           Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
+    return streamScanWithCreatedTimeFilter(table, startRange, endRange, recordCount, fields,
+        RowConsumer.collectInto(result));
+  }
+
+  @Override
+  public Status streamScanWithCreatedTimeFilter(String table, String startRange, String endRange, int recordCount,
+                                                Set<String> fields, RowConsumer consumer) {
     String filterClause = "WHERE startTime";
     if (startRange != null && endRange != null) {
       filterClause = filterClause.concat(" BETWEEN ").concat(startRange).concat(" AND ").concat(endRange)
@@ -555,12 +561,19 @@ public class CloudSpannerClient extends DB {
     }
 
     return scanWithFilterHelper(filterClause, JOBS_TABLE_NAME, JOBS_FIELDS,
-        fields, result, "scanWithCreatedTimeFilter");
+        fields, consumer, "scanWithCreatedTimeFilter");
   }
 
   @Override
   public Status scanWithNamespaceKeyFilter(String table, String startKey, String endKey, int recordCount,
                                            Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
+    return streamScanWithNamespaceKeyFilter(table, startKey, endKey, recordCount, fields,
+        RowConsumer.collectInto(result));
+  }
+
+  @Override
+  public Status streamScanWithNamespaceKeyFilter(String table, String startKey, String endKey, int recordCount,
+                                                 Set<String> fields, RowConsumer consumer) {
     String filterClause = "WHERE entityPathKey";
     if (startKey != null && endKey != null) {
       filterClause = filterClause.concat(" BETWEEN '").concat(startKey).concat("' AND '").concat(endKey)
@@ -581,12 +594,12 @@ public class CloudSpannerClient extends DB {
     }
 
     return scanWithFilterHelper(filterClause, DAC_NAMESPACE_TABLE_NAME, DAC_NAMESPACE_FIELDS,
-        fields, result, "scanWithNamespaceKeyFilter");
+        fields, consumer, "scanWithNamespaceKeyFilter");
   }
 
   //Scan with filter only supports selecting all fields (select *)
   private Status scanWithFilterHelper(String filterClause, String tableName, ArrayList tableFields,
-                                      Set<String> fields, Vector<HashMap<String, ByteIterator>> result,
+                                      Set<String> fields, RowConsumer consumer,
                                       String operationName) {
     Iterable<String> columns = fields == null ? tableFields : fields;
     Statement query = Statement.newBuilder("SELECT * FROM ").append(tableName).append(" ").append(filterClause).build();
@@ -594,11 +607,7 @@ public class CloudSpannerClient extends DB {
     LOGGER.log(Level.FINE, operationName + " - SQL Query: {0}", query.getSql());
 
     try (ResultSet resultSet = dbClient.singleUse(timestampBound).executeQuery(query)) {
-      while (resultSet.next()) {
-        HashMap<String, ByteIterator> row = new HashMap<>();
-        decodeStruct(columns, resultSet, row);
-        result.add(row);
-      }
+      streamRows(columns, resultSet, consumer);
       return Status.OK;
     } catch (Exception e) {
       LOGGER.log(Level.INFO, operationName, e);
@@ -606,6 +615,21 @@ public class CloudSpannerClient extends DB {
     }
   }
 
+  /**
+   * Hands the rows of the result set to the consumer in one reused map, until it ends the scan. Closing the result
+   * set then stops the rest of the rows from streaming in.
+   */
+  private static void streamRows(Iterable<String> columns, ResultSet resultSet, RowConsumer consumer) {
+    HashMap<String, ByteIterator> row = new HashMap<>();
+    while (resultSet.next()) {
+      row.clear();
+      decodeStruct(columns, resultSet, row);
+      if (!consumer.accept(row)) {
+        break;
+      }
+    }
+  }
+
   private static void decodeStruct(
       Iterable<String> columns, StructReader structReader, Map<String, ByteIterator> result) {
     for (String col : columns) {
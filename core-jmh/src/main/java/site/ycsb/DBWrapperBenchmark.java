@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2017 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import site.ycsb.measurements.Measurements;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The overhead DBWrapper adds around each operation: tracing, timing and measuring. Compare the wrapped to the
+ * bare BasicDB results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class DBWrapperBenchmark {
+  /**
+   * One DB per thread, as one per client thread.
+   */
+  @State(Scope.Thread)
+  public static class Databases {
+    private DB bare;
+    private DB wrapped;
+    private final Map<String, ByteIterator> result = new HashMap<>();
+
+    @Setup
+    public void setup() throws DBException {
+      Properties props = new Properties();
+      props.setProperty(BasicDB.VERBOSE, "false");
+      Measurements.setProperties(props);
+      Tracer tracer = new Tracer.Builder("YCSB benchmark")
+          .conf(HTraceConfiguration.fromMap(Collections.<String, String>emptyMap()))
+          .build();
+
+      bare = new BasicDB();
+      bare.setProperties(props);
+      bare.init();
+      wrapped = new DBWrapper(new BasicDB(), tracer);
+      wrapped.setProperties(props);
+      wrapped.init();
+    }
+  }
+
+  @Benchmark
+  public Status bareRead(Databases dbs) {
+    return dbs.bare.read("usertable", "user1", null, dbs.result);
+  }
+
+  @Benchmark
+  public Status wrappedRead(Databases dbs) {
+    return dbs.wrapped.read("usertable", "user1", null, dbs.result);
+  }
+}
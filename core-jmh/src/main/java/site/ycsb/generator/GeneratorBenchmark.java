@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2017 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of drawing the next key or operation, which every client thread pays once per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+  @Param({"1000000", "100000000"})
+  private long items;
+
+  private ZipfianGenerator zipfian;
+  private ScrambledZipfianGenerator scrambledZipfian;
+  private DiscreteGenerator discrete;
+  private DiscreteGenerator discreteMany;
+  private HistogramGenerator histogram;
+
+  @Setup
+  public void setup() {
+    zipfian = new ZipfianGenerator(items);
+    scrambledZipfian = new ScrambledZipfianGenerator(items);
+    // the operation chooser of workload a
+    discrete = new DiscreteGenerator();
+    discrete.addValue(0.5, "READ");
+    discrete.addValue(0.5, "UPDATE");
+    // a mix of many operation types and a field length histogram of many buckets, skewed to the small ones
+    discreteMany = new DiscreteGenerator();
+    for (int i = 0; i < 32; i++) {
+      discreteMany.addValue(1.0 / (i + 1), "OPERATION" + i);
+    }
+    long[] buckets = new long[10000];
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = 1000000 / (i + 1);
+    }
+    histogram = new HistogramGenerator(buckets, 1);
+  }
+
+  @Benchmark
+  public long zipfianNextValue() {
+    return zipfian.nextValue();
+  }
+
+  @Benchmark
+  public long scrambledZipfianNextValue() {
+    return scrambledZipfian.nextValue();
+  }
+
+  @Benchmark
+  public String discreteNextString() {
+    return discrete.nextString();
+  }
+
+  @Benchmark
+  public String discreteManyNextString() {
+    return discreteMany.nextString();
+  }
+
+  @Benchmark
+  public long histogramNextValue() {
+    return histogram.nextValue();
+  }
+}
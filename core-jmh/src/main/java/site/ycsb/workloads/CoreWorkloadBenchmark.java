@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2017 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.workloads;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.ycsb.ByteIterator;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of building the key and the record of an insert or update with the default CoreWorkload settings, with
+ * and without a reused record buffer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CoreWorkloadBenchmark {
+  private CoreWorkload workload;
+  private CoreWorkload.RecordBuffer buffer;
+  private long keynum;
+
+  @Setup
+  public void setup() throws WorkloadException {
+    Properties props = new Properties();
+    props.setProperty("recordcount", "1000000");
+    Measurements.setProperties(props);
+    props.setProperty(CoreWorkload.REUSE_BUFFERS_PROPERTY, "true");
+    workload = new CoreWorkload();
+    workload.init(props);
+    buffer = (CoreWorkload.RecordBuffer) workload.initThread(props, 0, 1);
+  }
+
+  @Benchmark
+  public String buildKeyName() {
+    return workload.buildKeyName(keynum++);
+  }
+
+  @Benchmark
+  public Map<String, ByteIterator> buildValues() {
+    return workload.buildValues("user1");
+  }
+
+  @Benchmark
+  public Map<String, ByteIterator> buildValuesReused() {
+    return workload.buildValues("user1", buffer);
+  }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import org.apache.htrace.core.Tracer;
+import site.ycsb.measurements.Measurements;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * One of the client processes of a {@link Coordinator} run.
+ *
+ * The agent connects to the coordinator, receives its properties, initializes the workload and its client threads
+ * and then waits for the coordinator to start all agents at once. When its client threads are done it sends back
+ * the number of operations and its HdrHistograms.
+ *
+ * Usage: java site.ycsb.Agent host:port
+ */
+public final class Agent {
+  private static final int CONNECT_ATTEMPTS = 60;
+
+  private Agent() {
+    // not used
+  }
+
+  public static void main(String[] args) {
+    if (args.length != 1 || args[0].indexOf(':') < 0) {
+      System.out.println("Usage: java site.ycsb.Agent host:port");
+      System.exit(0);
+    }
+    String host = args[0].substring(0, args[0].lastIndexOf(':'));
+    int port = Integer.parseInt(args[0].substring(args[0].lastIndexOf(':') + 1));
+
+    try (Socket socket = connect(host, port)) {
+      run(socket);
+    } catch (Exception e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+    }
+    System.exit(0);
+  }
+
+  /**
+   * Connects to the coordinator, retrying for about a minute in case the agent was started first.
+   */
+  private static Socket connect(String host, int port) throws IOException, InterruptedException {
+    for (int attempt = 1;; attempt++) {
+      try {
+        return new Socket(host, port);
+      } catch (ConnectException e) {
+        if (attempt == CONNECT_ATTEMPTS) {
+          throw e;
+        }
+        Thread.sleep(1000);
+      }
+    }
+  }
+
+  private static void run(Socket socket) throws Exception {
+    ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    out.flush();
+    ObjectInputStream in = new Coordinator.MessageInputStream(new BufferedInputStream(socket.getInputStream()));
+
+    Properties props = (Properties) in.readObject();
+    int threadcount = Integer.parseInt(props.getProperty(Client.THREAD_COUNT_PROPERTY, "1"));
+    String dbname = props.getProperty(Client.DB_PROPERTY, "site.ycsb.BasicDB");
+    int target = Integer.parseInt(props.getProperty(Client.TARGET_PROPERTY, "0"));
+    long maxExecutionTime = Integer.parseInt(props.getProperty(Client.MAX_EXECUTION_TIME, "0"));
+
+    Thread warningthread = Client.setupWarningThread();
+    warningthread.start();
+    Measurements.setProperties(props);
+    Workload workload = Client.getWorkload(props);
+    Tracer tracer = Client.getTracer(props, workload);
+    Client.initWorkload(props, warningthread, workload, tracer);
+
+    final double targetperthreadperms = target > 0 ? target / (double) threadcount / 1000.0 : 0;
+    final List<ClientThread> clients = Client.initDb(dbname, props, threadcount, targetperthreadperms, workload,
+        tracer, new CountDownLatch(threadcount));
+    if (!ClientThread.initThreads(clients)) {
+      out.writeObject(Coordinator.FAILED);
+      out.flush();
+      return;
+    }
+    out.writeObject(Coordinator.READY);
+    out.flush();
+
+    if (!Coordinator.START.equals(in.readObject())) {
+      throw new IOException("Expected the coordinator to start the run");
+    }
+    System.err.println("Starting test.");
+
+    List<Thread> threads = new ArrayList<>(clients.size());
+    for (final ClientThread client : clients) {
+      threads.add(new Thread(tracer.wrap(() -> {
+          try {
+            client.runTrial(targetperthreadperms, true);
+          } catch (Exception e) {
+            e.printStackTrace();
+            e.printStackTrace(System.out);
+          }
+        }, "ClientThread")));
+    }
+
+    long st = System.currentTimeMillis();
+    for (Thread t : threads) {
+      t.start();
+    }
+    Thread terminator = null;
+    if (maxExecutionTime > 0) {
+      terminator = new TerminatorThread(maxExecutionTime, threads, workload);
+      terminator.start();
+    }
+    long opsDone = 0;
+    for (int i = 0; i < threads.size(); i++) {
+      threads.get(i).join();
+      opsDone += clients.get(i).getOpsDone();
+    }
+    long en = System.currentTimeMillis();
+    if (terminator != null) {
+      terminator.interrupt();
+    }
+
+    for (ClientThread client : clients) {
+      client.cleanupThread();
+    }
+    workload.cleanup();
+    Measurements.getMeasurements().closeRawLog();
+
+    out.writeObject(new Coordinator.AgentReport(opsDone, en - st,
+        Measurements.getMeasurements().getTotalHistograms(), Measurements.getMeasurements().getStatusCounts()));
+    out.flush();
+  }
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.generator.ExponentialGenerator;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A thread generating operation arrivals for an open-loop run.
+ *
+ * In the default closed-loop mode every {@link ClientThread} paces itself, so a stalled database also stalls the
+ * thread issuing to it and the offered load silently drops. In open-loop mode this scheduler alone decides when
+ * operations arrive, following a constant, Poisson or replayed inter-arrival process, and hands the intended start
+ * time of each arrival to whichever client thread is free. Arrivals nobody can serve yet wait in a queue, and the
+ * time they spend there is reported separately as the {@link #QUEUE_MEASUREMENT} metric.
+ */
+public class ArrivalScheduler extends Thread {
+  /**
+   * The arrival process to use: "closed" (the default, no scheduler), "constant", "poisson" or "replay".
+   * The constant and Poisson processes take their rate from the "target" property.
+   */
+  public static final String ARRIVAL_PROCESS_PROPERTY = "arrivalprocess";
+  public static final String ARRIVAL_PROCESS_PROPERTY_DEFAULT = "closed";
+
+  /**
+   * The file read by the "replay" arrival process. It holds one inter-arrival time in microseconds per line,
+   * which are replayed in order and cycled over until the run ends.
+   */
+  public static final String ARRIVAL_REPLAY_FILE_PROPERTY = "arrivalprocess.replayfile";
+
+  /**
+   * The most arrivals that can be waiting for a free client thread. Once full the scheduler falls behind, but
+   * arrivals keep their scheduled start times so the delay still shows up in the measurements.
+   */
+  public static final String ARRIVAL_QUEUE_CAPACITY_PROPERTY = "arrivalprocess.queuecapacity";
+  public static final String ARRIVAL_QUEUE_CAPACITY_PROPERTY_DEFAULT = "1000000";
+
+  /** The name of the metric holding the time arrivals spent waiting for a client thread. */
+  public static final String QUEUE_MEASUREMENT = "QUEUE";
+
+  private static final long POLL_INTERVAL_MS = 100;
+
+  private final BlockingQueue<Long> arrivals;
+  private final Workload workload;
+  private final long opcount;
+  private final InterArrivals interArrivals;
+  private volatile boolean finished;
+
+  /**
+   * Generates the gap between two consecutive arrivals.
+   */
+  private interface InterArrivals {
+    long nextNs();
+  }
+
+  /**
+   * @param props The properties of the run.
+   * @param workload The workload, checked for stop requests.
+   * @param opcount The number of arrivals to generate, or 0 to generate them until the workload is stopped.
+   * @return The scheduler for the configured arrival process, or null when the run is closed-loop.
+   * @throws WorkloadException if the arrival process is unknown or misconfigured.
+   */
+  public static ArrivalScheduler create(Properties props, Workload workload, long opcount) throws WorkloadException {
+    String process = props.getProperty(ARRIVAL_PROCESS_PROPERTY, ARRIVAL_PROCESS_PROPERTY_DEFAULT);
+    if (process.equals("closed")) {
+      return null;
+    }
+
+    double target = Double.parseDouble(props.getProperty(Client.TARGET_PROPERTY, "0"));
+    InterArrivals interArrivals;
+    if (process.equals("constant")) {
+      final long gap = (long) (1e9 / requireTarget(process, target));
+      interArrivals = () -> gap;
+    } else if (process.equals("poisson")) {
+      final ExponentialGenerator gaps = new ExponentialGenerator(1e9 / requireTarget(process, target));
+      interArrivals = () -> (long) gaps.nextValue().doubleValue();
+    } else if (process.equals("replay")) {
+      final long[] gaps = readReplayFile(props.getProperty(ARRIVAL_REPLAY_FILE_PROPERTY));
+      interArrivals = new InterArrivals() {
+        private int next = 0;
+
+        @Override
+        public long nextNs() {
+          long gap = gaps[next];
+          next = (next + 1) % gaps.length;
+          return gap;
+        }
+      };
+    } else {
+      throw new WorkloadException("Unknown " + ARRIVAL_PROCESS_PROPERTY + " \"" + process + "\"");
+    }
+
+    int capacity = Integer.parseInt(props.getProperty(ARRIVAL_QUEUE_CAPACITY_PROPERTY,
+        ARRIVAL_QUEUE_CAPACITY_PROPERTY_DEFAULT));
+    return new ArrivalScheduler(workload, opcount, interArrivals, capacity);
+  }
+
+  private ArrivalScheduler(Workload workload, long opcount, InterArrivals interArrivals, int capacity) {
+    super("ArrivalScheduler");
+    setDaemon(true);
+    this.workload = workload;
+    this.opcount = opcount;
+    this.interArrivals = interArrivals;
+    this.arrivals = new LinkedBlockingQueue<>(capacity);
+  }
+
+  private static double requireTarget(String process, double target) throws WorkloadException {
+    if (target <= 0) {
+      throw new WorkloadException("The " + process + " arrival process needs a positive " + Client.TARGET_PROPERTY);
+    }
+    return target;
+  }
+
+  private static long[] readReplayFile(String path) throws WorkloadException {
+    if (path == null) {
+      throw new WorkloadException("The replay arrival process needs " + ARRIVAL_REPLAY_FILE_PROPERTY);
+    }
+    try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+      long[] gaps = new long[1024];
+      int count = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        if (count == gaps.length) {
+          long[] grown = new long[gaps.length * 2];
+          System.arraycopy(gaps, 0, grown, 0, count);
+          gaps = grown;
+        }
+        gaps[count++] = (long) (Double.parseDouble(line) * 1000);
+      }
+      if (count == 0) {
+        throw new WorkloadException("No inter-arrival times found in " + path);
+      }
+      long[] result = new long[count];
+      System.arraycopy(gaps, 0, result, 0, count);
+      return result;
+    } catch (IOException | NumberFormatException e) {
+      throw new WorkloadException("Could not read inter-arrival times from " + path, e);
+    }
+  }
+
+  @Override
+  public void run() {
+    long arrival = System.nanoTime();
+    try {
+      for (long scheduled = 0; (opcount == 0 || scheduled < opcount) && !workload.isStopRequested(); scheduled++) {
+        arrival += interArrivals.nextNs();
+        while (System.nanoTime() < arrival) {
+          LockSupport.parkNanos(arrival - System.nanoTime());
+          if (isInterrupted()) {
+            return;
+          }
+        }
+        arrivals.put(arrival);
+      }
+    } catch (InterruptedException e) {
+      // the client threads are gone, nobody is left to serve the arrivals
+    } finally {
+      finished = true;
+    }
+  }
+
+  /**
+   * Waits for the next arrival.
+   *
+   * @return The intended start time of the arrival in nanoseconds, or null once all arrivals have been handed out.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  Long next() throws InterruptedException {
+    while (true) {
+      Long arrival = arrivals.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+      if (arrival != null) {
+        return arrival;
+      }
+      if (finished && arrivals.isEmpty()) {
+        return null;
+      }
+    }
+  }
+}
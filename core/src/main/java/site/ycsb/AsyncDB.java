@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link DB} that can have many operations outstanding at once. Each method returns a
+ * {@link CompletableFuture} that is completed once the database has answered, so a single
+ * client thread can keep up to "asyncwindow" operations in flight.
+ *
+ * Bindings whose driver is natively asynchronous should extend this class and override the
+ * operations they support. Every method defaults to calling its blocking counterpart and
+ * returning an already completed future, so a binding may override only a subset of them.
+ *
+ * Futures may be completed on a driver owned thread. The result map or vector passed in is
+ * owned by the binding until the returned future completes.
+ */
+public abstract class AsyncDB extends DB {
+
+  /**
+   * Read a record from the database. Each field/value pair from the result will be stored in a HashMap.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to read.
+   * @param fields The list of fields to read, or null for all of them
+   * @param result A HashMap of field/value pairs for the result
+   * @return A future completed with the result of the operation.
+   */
+  public CompletableFuture<Status> readAsync(String table, String key, Set<String> fields,
+                                             Map<String, ByteIterator> result) {
+    return completed(read(table, key, fields, result));
+  }
+
+  /**
+   * Perform a range scan for a set of records in the database. Each field/value pair from the result will be stored
+   * in a HashMap.
+   *
+   * @param table The name of the table
+   * @param startkey The record key of the first record to read.
+   * @param recordcount The number of records to read
+   * @param fields The list of fields to read, or null for all of them
+   * @param result A Vector of HashMaps, where each HashMap is a set field/value pairs for one record
+   * @return A future completed with the result of the operation.
+   */
+  public CompletableFuture<Status> scanAsync(String table, String startkey, int recordcount, Set<String> fields,
+                                             Vector<HashMap<String, ByteIterator>> result) {
+    return completed(scan(table, startkey, recordcount, fields, result));
+  }
+
+  /**
+   * Update a record in the database. Any field/value pairs in the specified values HashMap will be written into the
+   * record with the specified record key, overwriting any existing values with the same field name.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to write.
+   * @param values A HashMap of field/value pairs to update in the record
+   * @return A future completed with the result of the operation.
+   */
+  public CompletableFuture<Status> updateAsync(String table, String key, Map<String, ByteIterator> values) {
+    return completed(update(table, key, values));
+  }
+
+  /**
+   * Finds a record by the specific query and version and updates it.
+   *
+   * @param table   The name of the table
+   * @param key     The record key of the record to write.
+   * @param version The version to update to
+   * @param values  A HashMap of field/value pairs to update in the record
+   * @return A future completed with the status and the new version of the record.
+   */
+  public CompletableFuture<Pair> findAndUpdateAsync(String table, String key, Object version,
+                                                    Map<String, ByteIterator> values) {
+    return CompletableFuture.completedFuture(findAndUpdate(table, key, version, values));
+  }
+
+  /**
+   * Insert a record in the database. Any field/value pairs in the specified values HashMap will be written into the
+   * record with the specified record key.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to insert.
+   * @param values A HashMap of field/value pairs to insert in the record
+   * @return A future completed with the result of the operation.
+   */
+  public CompletableFuture<Status> insertAsync(String table, String key, Map<String, ByteIterator> values) {
+    return completed(insert(table, key, values));
+  }
+
+  /**
+   * Delete a record from the database.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to delete.
+   * @return A future completed with the result of the operation.
+   */
+  public CompletableFuture<Status> deleteAsync(String table, String key) {
+    return completed(delete(table, key));
+  }
+
+  /**
+   * @return An already completed future holding the given status.
+   */
+  protected static CompletableFuture<Status> completed(Status status) {
+    return CompletableFuture.completedFuture(status);
+  }
+}
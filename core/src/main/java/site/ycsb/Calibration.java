@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import org.HdrHistogram.Histogram;
+import org.apache.htrace.core.Tracer;
+import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+import site.ycsb.trace.TraceWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures how fast the client itself can go, so that a run can tell whether it measured the database or its own
+ * limits.
+ *
+ * Before the real run, the configured workload runs unthrottled for a short time against a {@link CalibrationDB},
+ * which does nothing, with the same number of threads. The throughput reached is the ceiling of the client on this
+ * machine, and the time each thread spends between two DB calls is the overhead the client adds to every operation.
+ * The workload is a separate instance, so the calibration does not advance the key sequences of the real run, and
+ * everything it measured is discarded before the real run starts.
+ *
+ * A real run whose throughput is within the configured margin of the ceiling is flagged, as its throughput and
+ * latencies are likely bound by the client rather than the database.
+ */
+public class Calibration {
+  /** Set to true to calibrate the client before the run. */
+  public static final String CALIBRATE_PROPERTY = "calibrate";
+
+  /** The length of the calibration in seconds. */
+  public static final String TIME_PROPERTY = "calibrate.time";
+  public static final String TIME_PROPERTY_DEFAULT = "10";
+
+  /** A run is flagged once its throughput is above this fraction below the ceiling. */
+  public static final String MARGIN_PROPERTY = "calibrate.margin";
+  public static final String MARGIN_PROPERTY_DEFAULT = "0.2";
+
+  private final Properties props;
+  private final int threadcount;
+  private final Tracer tracer;
+  private final long timeMs;
+  private final double margin;
+  private final Histogram gaps = new Histogram(3);
+  private long runTimeMs;
+  private long opsDone;
+  private double ceiling;
+
+  /**
+   * @param props The properties of the run.
+   * @param threadcount The number of client threads of the run.
+   * @param tracer The tracer of the run.
+   * @return The calibration, not yet run, or null if none is configured.
+   */
+  public static Calibration create(Properties props, int threadcount, Tracer tracer) {
+    if (!Boolean.parseBoolean(props.getProperty(CALIBRATE_PROPERTY, String.valueOf(false)))) {
+      return null;
+    }
+    return new Calibration(props, threadcount, tracer);
+  }
+
+  Calibration(Properties props, int threadcount, Tracer tracer) {
+    this.props = props;
+    this.threadcount = threadcount;
+    this.tracer = tracer;
+    timeMs = 1000L * Integer.parseInt(props.getProperty(TIME_PROPERTY, TIME_PROPERTY_DEFAULT));
+    margin = Double.parseDouble(props.getProperty(MARGIN_PROPERTY, MARGIN_PROPERTY_DEFAULT));
+    if (timeMs <= 0) {
+      throw new IllegalArgumentException(TIME_PROPERTY + " must be positive");
+    }
+    if (margin < 0 || margin >= 1) {
+      throw new IllegalArgumentException(MARGIN_PROPERTY + " must be at least 0 and less than 1");
+    }
+  }
+
+  /**
+   * Runs the workload against the calibration DB, then discards what it measured.
+   *
+   * @return false if a client thread failed to initialize.
+   * @throws Exception if the workload could not be created or an operation failed unexpectedly.
+   */
+  public boolean run() throws Exception {
+    Workload workload = (Workload) Calibration.class.getClassLoader()
+        .loadClass(props.getProperty(Client.WORKLOAD_PROPERTY)).newInstance();
+    workload.init(props);
+    boolean dotransactions = Boolean.valueOf(props.getProperty(Client.DO_TRANSACTIONS_PROPERTY,
+        String.valueOf(true)));
+
+    // the calibration operations are not part of a recorded trace
+    Properties dbProps = (Properties) props.clone();
+    dbProps.remove(TraceWriter.RECORD_PROPERTY);
+    List<CalibrationDB> dbs = new ArrayList<>(threadcount);
+    List<ClientThread> clients = new ArrayList<>(threadcount);
+    CountDownLatch completeLatch = new CountDownLatch(threadcount);
+    for (int threadid = 0; threadid < threadcount; threadid++) {
+      CalibrationDB db = new CalibrationDB();
+      db.setProperties(dbProps);
+      dbs.add(db);
+      ClientThread client = new ClientThread(new DBWrapper(db, tracer), dotransactions, workload, props, 0, 0,
+          completeLatch);
+      client.setThreadId(threadid);
+      client.setThreadCount(threadcount);
+      clients.add(client);
+    }
+
+    System.err.println("Calibrating the client for " + timeMs / 1000 + " s.");
+    // the calibration operations are not part of the run, and the raw latency log cannot be reset
+    Measurements.getMeasurements().setRawLogPaused(true);
+    try {
+      if (!ClientThread.initThreads(clients)) {
+        return false;
+      }
+      try {
+        runClients(clients);
+      } finally {
+        for (ClientThread client : clients) {
+          client.cleanupThread();
+        }
+      }
+    } finally {
+      workload.cleanup();
+      Measurements.getMeasurements().reset();
+      Measurements.getMeasurements().setRawLogPaused(false);
+    }
+
+    for (CalibrationDB db : dbs) {
+      gaps.add(db.getGaps());
+    }
+    System.err.println(String.format("Client ceiling: %.1f ops/sec, overhead p50=%dns, p99=%dns", ceiling,
+        gaps.getValueAtPercentile(50), gaps.getValueAtPercentile(99)));
+    return true;
+  }
+
+  private void runClients(List<ClientThread> clients) throws Exception {
+    final Exception[] failure = new Exception[1];
+    List<Thread> threads = new ArrayList<>(clients.size());
+    for (final ClientThread client : clients) {
+      threads.add(new Thread(() -> {
+          try {
+            client.runTrial(0, false);
+          } catch (Exception e) {
+            e.printStackTrace();
+            failure[0] = e;
+          }
+        }, "CalibrationThread"));
+    }
+
+    long st = System.nanoTime();
+    for (Thread t : threads) {
+      t.start();
+    }
+    // a workload may run out of operations before the time is up
+    long deadline = System.currentTimeMillis() + timeMs;
+    for (Thread t : threads) {
+      long remaining = deadline - System.currentTimeMillis();
+      if (remaining > 0) {
+        t.join(remaining);
+      }
+    }
+    for (ClientThread client : clients) {
+      client.requestStop();
+    }
+    for (int i = 0; i < threads.size(); i++) {
+      threads.get(i).join();
+      opsDone += clients.get(i).getOpsDone();
+    }
+    long en = System.nanoTime();
+    if (failure[0] != null) {
+      throw failure[0];
+    }
+
+    runTimeMs = (en - st) / 1000000;
+    ceiling = opsDone * 1e9 / (en - st);
+  }
+
+  /**
+   * @return The throughput reached against the calibration DB, in operations per second.
+   */
+  public double getCeiling() {
+    return ceiling;
+  }
+
+  /**
+   * @return The times the client threads spent between two DB calls, in nanoseconds.
+   */
+  public Histogram getOverhead() {
+    return gaps;
+  }
+
+  /**
+   * @param throughput The throughput of the real run in operations per second.
+   * @return Whether the throughput is within the margin of the ceiling.
+   */
+  public boolean isNearCeiling(double throughput) {
+    return throughput >= (1 - margin) * ceiling;
+  }
+
+  /**
+   * Export the ceiling and overhead of the client next to the results of the real run.
+   *
+   * @param exporter Exporter representing the type of format to write to.
+   * @param throughput The throughput of the real run in operations per second.
+   * @throws IOException Thrown if the export failed.
+   */
+  public void exportMeasurements(MeasurementsExporter exporter, double throughput) throws IOException {
+    exporter.write("CALIBRATION", "RunTime(ms)", runTimeMs);
+    exporter.write("CALIBRATION", "Operations", opsDone);
+    exporter.write("CALIBRATION", "Throughput(ops/sec)", ceiling);
+    exporter.write("CALIBRATION", "AverageOverhead(ns)", gaps.getMean());
+    exporter.write("CALIBRATION", "50thPercentileOverhead(ns)", gaps.getValueAtPercentile(50));
+    exporter.write("CALIBRATION", "99thPercentileOverhead(ns)", gaps.getValueAtPercentile(99));
+    exporter.write("CALIBRATION", "99.9PercentileOverhead(ns)", gaps.getValueAtPercentile(99.9));
+    exporter.write("CALIBRATION", "MaxOverhead(ns)", gaps.getMaxValue());
+    exporter.write("CALIBRATION", "CeilingUsed(%)", ceiling > 0 ? 100 * throughput / ceiling : 0);
+    exporter.write("CALIBRATION", "NearCeiling", isNearCeiling(throughput) ? 1 : 0);
+  }
+}
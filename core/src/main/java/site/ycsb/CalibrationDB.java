@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+
+/**
+ * A DB that does nothing at all, so that a run against it measures only the client itself. It is what the
+ * {@link Calibration} runs against.
+ *
+ * Each call records the time since the previous call of the same instance, which is the time the client thread
+ * spent outside the DB: choosing the operation, building keys and values, measuring and pacing. As there is one
+ * DB instance per client thread, the histogram needs no locking.
+ */
+public class CalibrationDB extends DB {
+  private final Histogram gaps = new Histogram(3);
+  private long lastCallNs;
+
+  private void call() {
+    long now = System.nanoTime();
+    if (lastCallNs != 0) {
+      gaps.recordValue(now - lastCallNs);
+    }
+    lastCallNs = now;
+  }
+
+  /**
+   * @return The times between consecutive calls in nanoseconds. Only to be read once the client thread is done.
+   */
+  public Histogram getGaps() {
+    return gaps;
+  }
+
+  @Override
+  public Status read(String table, String key, Set<String> fields, Map<String, ByteIterator> result) {
+    call();
+    return Status.OK;
+  }
+
+  @Override
+  public Status scan(String table, String startkey, int recordcount, Set<String> fields,
+                     Vector<HashMap<String, ByteIterator>> result) {
+    call();
+    return Status.OK;
+  }
+
+  @Override
+  public Status update(String table, String key, Map<String, ByteIterator> values) {
+    call();
+    return Status.OK;
+  }
+
+  @Override
+  public Pair findAndUpdate(String table, String key, Object version, Map<String, ByteIterator> values) {
+    call();
+    return new Pair(Status.OK, version);
+  }
+
+  @Override
+  public Status insert(String table, String key, Map<String, ByteIterator> values) {
+    call();
+    return Status.OK;
+  }
+
+  @Override
+  public Status delete(String table, String key) {
+    call();
+    return Status.OK;
+  }
+
+  @Override
+  public Status scanWithCreatedTimeFilter(String table, String startRange, String endRange, int recordCount,
+                                          Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
+    call();
+    return Status.OK;
+  }
+
+  @Override
+  public Status scanWithNamespaceKeyFilter(String table, String startKey, String endKey, int recordCount,
+                                           Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
+    call();
+    return Status.OK;
+  }
+}
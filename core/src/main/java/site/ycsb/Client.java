@@ -18,6 +18,7 @@
 package site.ycsb;
 
 import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.MetricsServer;
 import site.ycsb.measurements.exporter.MeasurementsExporter;
 import site.ycsb.measurements.exporter.TextMeasurementsExporter;
 import org.apache.htrace.core.HTraceConfiguration;
@@ -193,6 +194,9 @@ public final class Client {
     System.out.println("To run the load phase from multiple servers, start a separate client on each; additionally,");
     System.out.println("use the \"insertcount\" and \"insertstart\" properties to divide up the records " +
         "to be inserted");
+    System.out.println("Alternatively run site.ycsb.Coordinator with these options and -p coordinator.agents=n,");
+    System.out.println("then start site.ycsb.Agent host:port n times; the coordinator divides up the work and");
+    System.out.println("merges the results.");
   }
 
   public static boolean checkRequiredProperties(Properties props) {
@@ -211,35 +215,24 @@ public final class Client {
    *
    * @throws IOException Either failed to write to output stream or failed to close it.
    */
-  private static void exportMeasurements(Properties props, int opcount, long runtime)
-      throws IOException {
+  private static void exportMeasurements(Properties props, int opcount, long runtime, long initTime,
+                                         Calibration calibration) throws IOException {
     MeasurementsExporter exporter = null;
     try {
-      // if no destination file is provided the results will be written to stdout
-      OutputStream out;
-      String exportFile = props.getProperty(EXPORT_FILE_PROPERTY);
-      if (exportFile == null) {
-        out = System.out;
-      } else {
-        out = new FileOutputStream(exportFile);
-      }
-
-      // if no exporter is provided the default text one will be used
-      String exporterStr = props.getProperty(EXPORTER_PROPERTY,
-          "site.ycsb.measurements.exporter.TextMeasurementsExporter");
-      try {
-        exporter = (MeasurementsExporter) Class.forName(exporterStr).getConstructor(OutputStream.class)
-            .newInstance(out);
-      } catch (Exception e) {
-        System.err.println("Could not find exporter " + exporterStr
-            + ", will use default text reporter.");
-        e.printStackTrace();
-        exporter = new TextMeasurementsExporter(out);
-      }
+      exporter = newExporter(props);
 
       exporter.write("OVERALL", "RunTime(ms)", runtime);
       double throughput = 1000.0 * (opcount) / (runtime);
       exporter.write("OVERALL", "Throughput(ops/sec)", throughput);
+      exporter.write("INIT", "RunTime(ms)", initTime);
+      if (calibration != null) {
+        calibration.exportMeasurements(exporter, throughput);
+        if (calibration.isNearCeiling(throughput)) {
+          System.err.println(String.format("Warning: the throughput of %.1f ops/sec is close to the %.1f ops/sec "
+              + "the client reaches on its own, the results may be bound by the client rather than the DB.",
+              throughput, calibration.getCeiling()));
+        }
+      }
 
       final Map<String, Long[]> gcs = Utils.getGCStatst();
       long totalGCCount = 0;
@@ -273,6 +266,48 @@ public final class Client {
     }
   }
 
+  /**
+   * Exports the throughput-vs-latency curve of a throughput search using the exporter loaded from conf.
+   *
+   * @throws IOException Either failed to write to output stream or failed to close it.
+   */
+  private static void exportMeasurements(Properties props, ThroughputSearch search) throws IOException {
+    Measurements.getMeasurements().closeRawLog();
+    MeasurementsExporter exporter = null;
+    try {
+      exporter = newExporter(props);
+      search.exportMeasurements(exporter);
+    } finally {
+      if (exporter != null) {
+        exporter.close();
+      }
+    }
+  }
+
+  static MeasurementsExporter newExporter(Properties props) throws IOException {
+    // if no destination file is provided the results will be written to stdout
+    OutputStream out;
+    String exportFile = props.getProperty(EXPORT_FILE_PROPERTY);
+    if (exportFile == null) {
+      out = System.out;
+    } else {
+      out = new FileOutputStream(exportFile);
+    }
+
+    // if no exporter is provided the default text one will be used
+    String exporterStr = props.getProperty(EXPORTER_PROPERTY,
+        "site.ycsb.measurements.exporter.TextMeasurementsExporter");
+    try {
+      return (MeasurementsExporter) Class.forName(exporterStr).getConstructor(OutputStream.class)
+          .newInstance(out);
+    } catch (Exception e) {
+      System.err.println("Could not find exporter " + exporterStr
+          + ", will use default text reporter.");
+      e.printStackTrace();
+      return new TextMeasurementsExporter(out);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   public static void main(String[] args) {
     Properties props = parseArguments(args);
@@ -289,7 +324,8 @@ public final class Client {
 
     //compute the target throughput
     double targetperthreadperms = -1;
-    if (target > 0) {
+    if (target > 0 && props.getProperty(ArrivalScheduler.ARRIVAL_PROCESS_PROPERTY,
+        ArrivalScheduler.ARRIVAL_PROCESS_PROPERTY_DEFAULT).equals("closed")) {
       double targetperthread = ((double) target) / ((double) threadcount);
       targetperthreadperms = targetperthread / 1000.0;
     }
@@ -305,12 +341,48 @@ public final class Client {
 
     initWorkload(props, warningthread, workload, tracer);
 
+    Calibration calibration = null;
+    if (!Boolean.parseBoolean(props.getProperty(ThroughputSearch.SLO_SEARCH_PROPERTY, String.valueOf(false)))) {
+      calibration = runCalibration(props, threadcount, tracer);
+    }
+
+    try {
+      MetricsServer metrics = MetricsServer.create(props);
+      if (metrics != null) {
+        metrics.start();
+        System.err.println("Serving metrics on port " + metrics.getPort() + " at /metrics");
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+      System.exit(0);
+    }
+
+    ArrivalScheduler arrivals = null;
+    try {
+      arrivals = ArrivalScheduler.create(props, workload, getOpCount(props));
+    } catch (WorkloadException e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+      System.exit(0);
+    }
+
     System.err.println("Starting test.");
     final CountDownLatch completeLatch = new CountDownLatch(threadcount);
 
     final List<ClientThread> clients = initDb(dbname, props, threadcount, targetperthreadperms,
         workload, tracer, completeLatch);
 
+    if (Boolean.parseBoolean(props.getProperty(ThroughputSearch.SLO_SEARCH_PROPERTY, String.valueOf(false)))) {
+      runThroughputSearch(props, clients, workload, tracer);
+    }
+
+    if (arrivals != null) {
+      for (ClientThread client : clients) {
+        client.setArrivalScheduler(arrivals);
+      }
+    }
+
     if (status) {
       boolean standardstatus = false;
       if (props.getProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "").compareTo("timeseries") == 0) {
@@ -327,6 +399,7 @@ public final class Client {
     Thread terminator = null;
     long st;
     long en;
+    long initTime;
     int opsDone;
 
     try (final TraceScope span = tracer.newScope(CLIENT_WORKLOAD_SPAN)) {
@@ -336,11 +409,36 @@ public final class Client {
         threads.put(new Thread(tracer.wrap(client, "ClientThread")), client);
       }
 
-      st = System.currentTimeMillis();
+      final WarmupThread warmup = WarmupThread.create(props, clients);
+
+      // every client initializes its DB on its own thread, then waits until all are done
+      final CountDownLatch initLatch = new CountDownLatch(clients.size());
+      final CountDownLatch startLatch = new CountDownLatch(1);
+      for (ClientThread client : clients) {
+        client.setStartBarrier(initLatch, startLatch);
+      }
 
+      long initStart = System.currentTimeMillis();
       for (Thread t : threads.keySet()) {
         t.start();
       }
+      try {
+        initLatch.await();
+      } catch (InterruptedException ignored) {
+        // ignored
+      }
+
+      st = System.currentTimeMillis();
+      initTime = st - initStart;
+      startLatch.countDown();
+
+      if (warmup != null) {
+        warmup.start();
+      }
+
+      if (arrivals != null) {
+        arrivals.start();
+      }
 
       if (maxExecutionTime > 0) {
         terminator = new TerminatorThread(maxExecutionTime, threads.keySet(), workload);
@@ -359,6 +457,24 @@ public final class Client {
       }
 
       en = System.currentTimeMillis();
+
+      if (warmup != null) {
+        warmup.interrupt();
+        try {
+          warmup.join();
+        } catch (InterruptedException ignored) {
+          // ignored
+        }
+        // the OVERALL figures start where the warm-up ended
+        if (warmup.isFinished()) {
+          st = warmup.getEndTimeMs();
+          opsDone -= warmup.getOpsDone();
+        }
+      }
+
+      if (arrivals != null) {
+        arrivals.interrupt();
+      }
     }
 
     try {
@@ -389,7 +505,69 @@ public final class Client {
 
     try {
       try (final TraceScope span = tracer.newScope(CLIENT_EXPORT_MEASUREMENTS_SPAN)) {
-        exportMeasurements(props, opsDone, en - st);
+        exportMeasurements(props, opsDone, en - st, initTime, calibration);
+      }
+    } catch (IOException e) {
+      System.err.println("Could not export measurements, error: " + e.getMessage());
+      e.printStackTrace();
+      System.exit(-1);
+    }
+
+    System.exit(0);
+  }
+
+  /**
+   * Runs the calibration, if one is configured, before the client threads of the real run are created.
+   *
+   * @return The finished calibration, or null if none is configured.
+   */
+  private static Calibration runCalibration(Properties props, int threadcount, Tracer tracer) {
+    Calibration calibration = null;
+    try {
+      calibration = Calibration.create(props, threadcount, tracer);
+      if (calibration != null && !calibration.run()) {
+        System.err.println("Error initializing the calibration.");
+        System.exit(0);
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+      System.exit(0);
+    }
+    return calibration;
+  }
+
+  /**
+   * Runs the throughput search on the already created client threads, exports its curve and exits.
+   */
+  private static void runThroughputSearch(Properties props, List<ClientThread> clients, Workload workload,
+                                          Tracer tracer) {
+    ThroughputSearch search = null;
+    try (final TraceScope span = tracer.newScope(CLIENT_WORKLOAD_SPAN)) {
+      search = new ThroughputSearch(props, clients);
+      if (!search.run()) {
+        System.err.println("Error initializing datastore bindings.");
+        System.exit(0);
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+      System.exit(0);
+    }
+
+    try {
+      try (final TraceScope span = tracer.newScope(CLIENT_CLEANUP_SPAN)) {
+        workload.cleanup();
+      }
+    } catch (WorkloadException e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+      System.exit(0);
+    }
+
+    try {
+      try (final TraceScope span = tracer.newScope(CLIENT_EXPORT_MEASUREMENTS_SPAN)) {
+        exportMeasurements(props, search);
       }
     } catch (IOException e) {
       System.err.println("Could not export measurements, error: " + e.getMessage());
@@ -400,7 +578,7 @@ public final class Client {
     System.exit(0);
   }
 
-  private static List<ClientThread> initDb(String dbname, Properties props, int threadcount,
+  static List<ClientThread> initDb(String dbname, Properties props, int threadcount,
                                            double targetperthreadperms, Workload workload, Tracer tracer,
                                            CountDownLatch completeLatch) {
     boolean initFailed = false;
@@ -408,16 +586,7 @@ public final class Client {
 
     final List<ClientThread> clients = new ArrayList<>(threadcount);
     try (final TraceScope span = tracer.newScope(CLIENT_INIT_SPAN)) {
-      int opcount;
-      if (dotransactions) {
-        opcount = Integer.parseInt(props.getProperty(OPERATION_COUNT_PROPERTY, "0"));
-      } else {
-        if (props.containsKey(INSERT_COUNT_PROPERTY)) {
-          opcount = Integer.parseInt(props.getProperty(INSERT_COUNT_PROPERTY, "0"));
-        } else {
-          opcount = Integer.parseInt(props.getProperty(RECORD_COUNT_PROPERTY, DEFAULT_RECORD_COUNT));
-        }
-      }
+      int opcount = getOpCount(props);
       if (threadcount > opcount){
         threadcount = opcount;
         System.out.println("Warning: the threadcount is bigger than recordcount, the threadcount will be recordcount!");
@@ -454,13 +623,27 @@ public final class Client {
     return clients;
   }
 
-  private static Tracer getTracer(Properties props, Workload workload) {
+  /**
+   * @return The total number of operations of the run: transactions, or inserts during the load phase.
+   */
+  private static int getOpCount(Properties props) {
+    boolean dotransactions = Boolean.valueOf(props.getProperty(DO_TRANSACTIONS_PROPERTY, String.valueOf(true)));
+    if (dotransactions) {
+      return Integer.parseInt(props.getProperty(OPERATION_COUNT_PROPERTY, "0"));
+    }
+    if (props.containsKey(INSERT_COUNT_PROPERTY)) {
+      return Integer.parseInt(props.getProperty(INSERT_COUNT_PROPERTY, "0"));
+    }
+    return Integer.parseInt(props.getProperty(RECORD_COUNT_PROPERTY, DEFAULT_RECORD_COUNT));
+  }
+
+  static Tracer getTracer(Properties props, Workload workload) {
     return new Tracer.Builder("YCSB " + workload.getClass().getSimpleName())
         .conf(getHTraceConfiguration(props))
         .build();
   }
 
-  private static void initWorkload(Properties props, Thread warningthread, Workload workload, Tracer tracer) {
+  static void initWorkload(Properties props, Thread warningthread, Workload workload, Tracer tracer) {
     try {
       try (final TraceScope span = tracer.newScope(CLIENT_WORKLOAD_INIT_SPAN)) {
         workload.init(props);
@@ -483,7 +666,7 @@ public final class Client {
     return HTraceConfiguration.fromMap(filteredProperties);
   }
 
-  private static Thread setupWarningThread() {
+  static Thread setupWarningThread() {
     //show a warning message that creating the workload is taking a while
     //but only do so if it is taking longer than 2 seconds
     //(showing the message right away if the setup wasn't taking very long was confusing people)
@@ -500,7 +683,7 @@ public final class Client {
     };
   }
 
-  private static Workload getWorkload(Properties props) {
+  static Workload getWorkload(Properties props) {
     ClassLoader classLoader = Client.class.getClassLoader();
 
     try {
@@ -526,7 +709,7 @@ public final class Client {
     return null;
   }
 
-  private static Properties parseArguments(String[] args) {
+  static Properties parseArguments(String[] args) {
     Properties props = new Properties();
     System.err.print("Command line:");
     for (String arg : args) {
@@ -18,15 +18,28 @@
 package site.ycsb;
 
 import site.ycsb.measurements.Measurements;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.LockSupport;
 
 /**
  * A thread for executing transactions or data inserts to the database.
  */
 public class ClientThread implements Runnable {
+  /**
+   * The maximum number of operations each client thread keeps outstanding. Values above 1 drive the
+   * workload through {@link Workload#doTransactionAsync(AsyncDB, Object)} and
+   * {@link Workload#doInsertAsync(AsyncDB, Object)}.
+   */
+  public static final String ASYNC_WINDOW_PROPERTY = "asyncwindow";
+  public static final String ASYNC_WINDOW_PROPERTY_DEFAULT = "1";
+
   // Counts down each of the clients completing.
   private final CountDownLatch completeLatch;
 
@@ -44,6 +57,13 @@ public class ClientThread implements Runnable {
   private Properties props;
   private long targetOpsTickNs;
   private final Measurements measurements;
+  private final int asyncWindow;
+  private ArrivalScheduler arrivals;
+  private volatile boolean stopRequested;
+  /** Whether the running operations stop at the thread's opcount. */
+  private boolean bounded = true;
+  private CountDownLatch initLatch;
+  private CountDownLatch startLatch;
 
   /**
    * Constructor.
@@ -70,6 +90,7 @@ public class ClientThread implements Runnable {
     this.props = props;
     measurements = Measurements.getMeasurements();
     spinSleep = Boolean.valueOf(this.props.getProperty("spin.sleep", "false"));
+    asyncWindow = Integer.parseInt(this.props.getProperty(ASYNC_WINDOW_PROPERTY, ASYNC_WINDOW_PROPERTY_DEFAULT));
     this.completeLatch = completeLatch;
   }
 
@@ -81,18 +102,84 @@ public class ClientThread implements Runnable {
     threadcount = threadCount;
   }
 
+  /**
+   * Switches this thread to open-loop mode, in which it serves the arrivals generated by the scheduler instead of
+   * pacing itself. The thread's own opcount and target are ignored.
+   *
+   * @param scheduler The scheduler shared by all client threads of the run.
+   */
+  public void setArrivalScheduler(final ArrivalScheduler scheduler) {
+    arrivals = scheduler;
+  }
+
+  /**
+   * Makes this thread count down initLatch once its DB and workload state are initialized, successfully or not,
+   * and then wait for startLatch before issuing any operation. This keeps initialization out of the measured run.
+   *
+   * @param initLatch The latch tracking the initialization of all clients.
+   * @param startLatch The latch releasing all clients at once.
+   */
+  public void setStartBarrier(final CountDownLatch initLatch, final CountDownLatch startLatch) {
+    this.initLatch = initLatch;
+    this.startLatch = startLatch;
+  }
+
   public int getOpsDone() {
     return opsdone;
   }
 
   @Override
   public void run() {
+    boolean initialized = initThread();
+    if (initLatch != null) {
+      initLatch.countDown();
+      try {
+        startLatch.await();
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+    if (!initialized) {
+      return;
+    }
+
+    //NOTE: Switching to using nanoTime and parkNanos for time management here such that the measurements
+    // and the client thread have the same view on time.
+
+    //spread the thread operations out so they don't all hit the DB at the same time
+    // GH issue 4 - throws exception if _target>1 because random.nextInt argument must be >0
+    // and the sleep() doesn't make sense for granularities < 1 ms anyway
+    if ((targetOpsPerMs > 0) && (targetOpsPerMs <= 1.0)) {
+      long randomMinorDelay = ThreadLocalRandom.current().nextInt((int) targetOpsTickNs);
+      sleepUntil(System.nanoTime() + randomMinorDelay);
+    }
+    try {
+      runOperations();
+    } catch (Exception e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+      System.exit(0);
+    }
+
+    try {
+      cleanupThread();
+    } finally {
+      completeLatch.countDown();
+    }
+  }
+
+  /**
+   * Initializes the DB and the workload state of this thread.
+   *
+   * @return false if either failed to initialize.
+   */
+  boolean initThread() {
     try {
       db.init();
     } catch (DBException e) {
       e.printStackTrace();
       e.printStackTrace(System.out);
-      return;
+      return false;
     }
 
     try {
@@ -100,62 +187,176 @@ public class ClientThread implements Runnable {
     } catch (WorkloadException e) {
       e.printStackTrace();
       e.printStackTrace(System.out);
-      return;
+      return false;
     }
+    return true;
+  }
 
-    //NOTE: Switching to using nanoTime and parkNanos for time management here such that the measurements
-    // and the client thread have the same view on time.
+  /**
+   * Initializes the given client threads in parallel, each on its own thread.
+   *
+   * @param clients The client threads to initialize.
+   * @return false if any of them failed to initialize.
+   * @throws InterruptedException if interrupted while waiting for the initialization to finish.
+   */
+  static boolean initThreads(final List<ClientThread> clients) throws InterruptedException {
+    final boolean[] ok = new boolean[clients.size()];
+    List<Thread> threads = new ArrayList<>(clients.size());
+    for (int i = 0; i < clients.size(); i++) {
+      final int idx = i;
+      threads.add(new Thread(() -> ok[idx] = clients.get(idx).initThread()));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    boolean allOk = true;
+    for (int i = 0; i < threads.size(); i++) {
+      threads.get(i).join();
+      allOk &= ok[i];
+    }
+    return allOk;
+  }
 
-    //spread the thread operations out so they don't all hit the DB at the same time
-    // GH issue 4 - throws exception if _target>1 because random.nextInt argument must be >0
-    // and the sleep() doesn't make sense for granularities < 1 ms anyway
-    if ((targetOpsPerMs > 0) && (targetOpsPerMs <= 1.0)) {
-      long randomMinorDelay = ThreadLocalRandom.current().nextInt((int) targetOpsTickNs);
-      sleepUntil(System.nanoTime() + randomMinorDelay);
+  /**
+   * Cleans up the DB of this thread once it is done issuing operations.
+   */
+  void cleanupThread() {
+    try {
+      measurements.setIntendedStartTimeNs(0);
+      db.cleanup();
+    } catch (DBException e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
     }
+  }
+
+  /**
+   * Runs one trial on an already initialized thread, reusing its DB and workload state. The trial runs until
+   * {@link #requestStop()} is called, the workload is stopped or, if the trial is bounded, the thread's opcount is
+   * reached.
+   *
+   * @param targetperthreadperms target number of operations per thread per ms, or 0 for no throttling.
+   * @param boundedByOpcount     whether the trial ends at the thread's opcount. A timed trial ignores it, so that every
+   *                             thread runs for the whole trial.
+   * @throws Exception if an operation failed unexpectedly.
+   */
+  void runTrial(double targetperthreadperms, boolean boundedByOpcount) throws Exception {
+    targetOpsPerMs = targetperthreadperms > 0 ? targetperthreadperms : 0;
+    targetOpsTickNs = targetOpsPerMs > 0 ? (long) (1000000 / targetOpsPerMs) : 0;
+    opsdone = 0;
+    stopRequested = false;
+    bounded = boundedByOpcount;
     try {
-      if (dotransactions) {
-        long startTimeNanos = System.nanoTime();
+      runOperations();
+    } finally {
+      bounded = true;
+    }
+  }
+
+  /**
+   * Asks the running trial to stop after its current operation.
+   */
+  void requestStop() {
+    stopRequested = true;
+  }
 
-        while (((opcount == 0) || (opsdone < opcount)) && !workload.isStopRequested()) {
+  private boolean keepRunning() {
+    return (!bounded || (opcount == 0) || (opsdone < opcount)) && !workload.isStopRequested() && !stopRequested;
+  }
 
-          if (!workload.doTransaction(db, workloadstate)) {
-            break;
-          }
+  private void runOperations() throws Exception {
+    if (arrivals != null) {
+      runOpenLoop();
+    } else if (asyncWindow > 1 && db instanceof AsyncDB) {
+      runAsync((AsyncDB) db);
+    } else if (dotransactions) {
+      long startTimeNanos = System.nanoTime();
 
-          opsdone++;
+      while (keepRunning()) {
 
-          throttleNanos(startTimeNanos);
+        if (!workload.doTransaction(db, workloadstate)) {
+          break;
         }
-      } else {
-        long startTimeNanos = System.nanoTime();
 
-        while (((opcount == 0) || (opsdone < opcount)) && !workload.isStopRequested()) {
+        opsdone++;
 
-          if (!workload.doInsert(db, workloadstate)) {
-            break;
-          }
+        throttleNanos(startTimeNanos);
+      }
+    } else {
+      long startTimeNanos = System.nanoTime();
 
-          opsdone++;
+      while (keepRunning()) {
 
-          throttleNanos(startTimeNanos);
+        if (!workload.doInsert(db, workloadstate)) {
+          break;
         }
+
+        opsdone++;
+
+        throttleNanos(startTimeNanos);
       }
-    } catch (Exception e) {
-      e.printStackTrace();
-      e.printStackTrace(System.out);
-      System.exit(0);
     }
+  }
 
-    try {
-      measurements.setIntendedStartTimeNs(0);
-      db.cleanup();
-    } catch (DBException e) {
-      e.printStackTrace();
-      e.printStackTrace(System.out);
-    } finally {
-      completeLatch.countDown();
+  /**
+   * Serves arrivals from the scheduler until it runs out of them. Each operation is measured from its scheduled
+   * arrival, and the time it waited for this thread is reported on its own.
+   */
+  private void runOpenLoop() throws InterruptedException {
+    Long arrival;
+    while (!workload.isStopRequested() && (arrival = arrivals.next()) != null) {
+      measurements.setIntendedStartTimeNs(arrival);
+      measurements.measure(ArrivalScheduler.QUEUE_MEASUREMENT, (int) ((System.nanoTime() - arrival) / 1000));
+
+      boolean ok = dotransactions ?
+          workload.doTransaction(db, workloadstate) :
+          workload.doInsert(db, workloadstate);
+      if (!ok) {
+        break;
+      }
+
+      opsdone++;
+    }
+  }
+
+  /**
+   * Issues operations while keeping at most {@link #asyncWindow} of them outstanding. An operation that
+   * completes with false or with an exception stops the thread from issuing more, just as a false return
+   * from the blocking calls does. All outstanding operations are drained before returning.
+   */
+  private void runAsync(AsyncDB asyncDb) {
+    final Semaphore inflight = new Semaphore(asyncWindow);
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    long startTimeNanos = System.nanoTime();
+
+    while (keepRunning() && !failed.get()) {
+      inflight.acquireUninterruptibly();
+
+      CompletableFuture<Boolean> pending;
+      try {
+        pending = dotransactions ?
+            workload.doTransactionAsync(asyncDb, workloadstate) :
+            workload.doInsertAsync(asyncDb, workloadstate);
+      } catch (RuntimeException e) {
+        inflight.release();
+        throw e;
+      }
+      pending.whenComplete((ok, error) -> {
+        if (error != null) {
+          error.printStackTrace();
+          failed.set(true);
+        } else if (ok == null || !ok) {
+          failed.set(true);
+        }
+        inflight.release();
+      });
+
+      opsdone++;
+
+      throttleNanos(startTimeNanos);
     }
+
+    inflight.acquireUninterruptibly(asyncWindow);
   }
 
   private static void sleepUntil(long deadline) {
@@ -0,0 +1,380 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import org.HdrHistogram.Histogram;
+import site.ycsb.measurements.OneMeasurementHdrHistogram;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+
+/**
+ * Runs one benchmark across several {@link Agent} processes, so the client side can scale past a single JVM.
+ *
+ * The coordinator waits for the configured number of agents to connect, hands each its own copy of the
+ * properties with a slice of the key range, operation count and target, and starts all of them at once when every
+ * agent has initialized its DB instances. When the agents are done it merges their HdrHistograms into one exact
+ * report. The threadcount applies to each agent.
+ *
+ * Usage: java site.ycsb.Coordinator [Client options] -p coordinator.agents=N, then start N times
+ * java site.ycsb.Agent host:port.
+ */
+public final class Coordinator {
+  /** The number of agents to wait for. */
+  public static final String AGENTS_PROPERTY = "coordinator.agents";
+  public static final String AGENTS_PROPERTY_DEFAULT = "1";
+
+  /** The address the coordinator listens on. */
+  public static final String HOST_PROPERTY = "coordinator.host";
+  public static final String HOST_PROPERTY_DEFAULT = "localhost";
+
+  /** The port the coordinator listens on, or 0 for any free port. */
+  public static final String PORT_PROPERTY = "coordinator.port";
+  public static final String PORT_PROPERTY_DEFAULT = "7700";
+
+  /** Sent by an agent once its DB instances and workload are initialized. */
+  static final String READY = "READY";
+
+  /** Sent by an agent whose initialization failed. */
+  static final String FAILED = "FAILED";
+
+  /** Sent by the coordinator once all agents are ready. */
+  static final String START = "START";
+
+  /**
+   * What an agent sends back once its run is over.
+   */
+  static final class AgentReport implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long opsDone;
+    private final long runtimeMs;
+    private final HashMap<String, byte[]> histograms;
+    private final HashMap<String, HashMap<String, Long>> statusCounts;
+
+    AgentReport(long opsDone, long runtimeMs, Map<String, Histogram> histograms,
+                Map<String, Map<String, Long>> statusCounts) {
+      this.opsDone = opsDone;
+      this.runtimeMs = runtimeMs;
+      this.statusCounts = new HashMap<>();
+      for (Map.Entry<String, Map<String, Long>> entry : statusCounts.entrySet()) {
+        this.statusCounts.put(entry.getKey(), new HashMap<>(entry.getValue()));
+      }
+      this.histograms = new HashMap<>();
+      for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+        Histogram histogram = entry.getValue();
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] encoded = new byte[length];
+        buffer.flip();
+        buffer.get(encoded);
+        this.histograms.put(entry.getKey(), encoded);
+      }
+    }
+
+    long getOpsDone() {
+      return opsDone;
+    }
+
+    long getRuntimeMs() {
+      return runtimeMs;
+    }
+
+    Map<String, Histogram> getHistograms() throws DataFormatException {
+      Map<String, Histogram> decoded = new HashMap<>();
+      for (Map.Entry<String, byte[]> entry : histograms.entrySet()) {
+        decoded.put(entry.getKey(), Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(entry.getValue()), 0));
+      }
+      return decoded;
+    }
+
+    /**
+     * @return The number of times each status was reported, keyed by measurement name and status name.
+     */
+    Map<String, HashMap<String, Long>> getStatusCounts() {
+      return statusCounts;
+    }
+  }
+
+  /**
+   * Reads the messages exchanged by the coordinator and its agents, refusing any class but theirs so that a peer
+   * cannot make the other side deserialize arbitrary objects.
+   */
+  static final class MessageInputStream extends ObjectInputStream {
+    private static final Set<String> ALLOWED = new HashSet<>(Arrays.asList(
+        AgentReport.class.getName(), String.class.getName(), Long.class.getName(), Number.class.getName(),
+        HashMap.class.getName(), Properties.class.getName(), "java.util.Hashtable", byte[].class.getName()));
+
+    MessageInputStream(InputStream in) throws IOException {
+      super(in);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      if (!ALLOWED.contains(desc.getName())) {
+        throw new InvalidClassException(desc.getName(), "not a coordinator message");
+      }
+      return super.resolveClass(desc);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+      throw new InvalidClassException("proxy", "not a coordinator message");
+    }
+  }
+
+  private final Properties props;
+  private final int agents;
+  private final ServerSocket server;
+  private final List<AgentReport> reports = new ArrayList<>();
+  private long runtimeMs;
+
+  public Coordinator(Properties props) throws IOException {
+    this.props = props;
+    agents = Integer.parseInt(props.getProperty(AGENTS_PROPERTY, AGENTS_PROPERTY_DEFAULT));
+    server = new ServerSocket(Integer.parseInt(props.getProperty(PORT_PROPERTY, PORT_PROPERTY_DEFAULT)), agents,
+        InetAddress.getByName(props.getProperty(HOST_PROPERTY, HOST_PROPERTY_DEFAULT)));
+  }
+
+  /**
+   * @return The port the coordinator listens on.
+   */
+  public int getPort() {
+    return server.getLocalPort();
+  }
+
+  /**
+   * Waits for all agents, runs the benchmark on them and collects their reports.
+   *
+   * @return false if an agent failed to initialize.
+   * @throws IOException if talking to an agent failed.
+   */
+  public boolean run() throws IOException {
+    List<Socket> sockets = new ArrayList<>(agents);
+    List<ObjectOutputStream> outs = new ArrayList<>(agents);
+    List<ObjectInputStream> ins = new ArrayList<>(agents);
+    try {
+      for (int agent = 0; agent < agents; agent++) {
+        Socket socket = server.accept();
+        sockets.add(socket);
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        out.writeObject(agentProperties(props, agent, agents));
+        out.flush();
+        outs.add(out);
+        ins.add(new MessageInputStream(new BufferedInputStream(socket.getInputStream())));
+        System.err.println("Agent " + agent + " connected from " + socket.getRemoteSocketAddress());
+      }
+
+      boolean allReady = true;
+      for (int agent = 0; agent < agents; agent++) {
+        if (!READY.equals(ins.get(agent).readObject())) {
+          System.err.println("Agent " + agent + " failed to initialize.");
+          allReady = false;
+        }
+      }
+      if (!allReady) {
+        return false;
+      }
+
+      // the barrier: every agent is initialized, so release them all at once
+      long st = System.currentTimeMillis();
+      for (ObjectOutputStream out : outs) {
+        out.writeObject(START);
+        out.flush();
+      }
+      for (ObjectInputStream in : ins) {
+        reports.add((AgentReport) in.readObject());
+      }
+      runtimeMs = System.currentTimeMillis() - st;
+      return true;
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Unexpected message from agent", e);
+    } finally {
+      for (Socket socket : sockets) {
+        socket.close();
+      }
+      server.close();
+    }
+  }
+
+  /**
+   * Derives the properties of one agent: its share of the records to insert during the load phase, of the
+   * operations during the transaction phase, and of the target throughput.
+   *
+   * @param props The properties of the whole run.
+   * @param agent The index of the agent.
+   * @param agents The number of agents.
+   * @return The properties for the given agent.
+   */
+  static Properties agentProperties(Properties props, int agent, int agents) {
+    Properties agentProps = new Properties();
+    agentProps.putAll(props);
+
+    boolean dotransactions = Boolean.valueOf(props.getProperty(Client.DO_TRANSACTIONS_PROPERTY,
+        String.valueOf(true)));
+    if (dotransactions) {
+      long opcount = Long.parseLong(props.getProperty(Client.OPERATION_COUNT_PROPERTY, "0"));
+      agentProps.setProperty(Client.OPERATION_COUNT_PROPERTY, String.valueOf(share(opcount, agent, agents)));
+    } else {
+      long insertstart = Long.parseLong(props.getProperty(Workload.INSERT_START_PROPERTY,
+          Workload.INSERT_START_PROPERTY_DEFAULT));
+      long insertcount;
+      if (props.containsKey(Client.INSERT_COUNT_PROPERTY)) {
+        insertcount = Long.parseLong(props.getProperty(Client.INSERT_COUNT_PROPERTY));
+      } else {
+        insertcount = Long.parseLong(props.getProperty(Client.RECORD_COUNT_PROPERTY, Client.DEFAULT_RECORD_COUNT))
+            - insertstart;
+      }
+      agentProps.setProperty(Workload.INSERT_START_PROPERTY,
+          String.valueOf(insertstart + offset(insertcount, agent, agents)));
+      agentProps.setProperty(Client.INSERT_COUNT_PROPERTY, String.valueOf(share(insertcount, agent, agents)));
+    }
+
+    long target = Long.parseLong(props.getProperty(Client.TARGET_PROPERTY, "0"));
+    if (target > 0) {
+      agentProps.setProperty(Client.TARGET_PROPERTY, String.valueOf(Math.max(1, share(target, agent, agents))));
+    }
+
+    // agents on the same host must not overwrite each other's histogram logs
+    agentProps.setProperty("hdrhistogram.output.path",
+        props.getProperty("hdrhistogram.output.path", "") + "agent" + agent + "-");
+    return agentProps;
+  }
+
+  private static long share(long total, int agent, int agents) {
+    return total / agents + (agent < total % agents ? 1 : 0);
+  }
+
+  private static long offset(long total, int agent, int agents) {
+    return agent * (total / agents) + Math.min(agent, total % agents);
+  }
+
+  /**
+   * Export the merged measurements of all agents.
+   *
+   * @param exporter Exporter representing the type of format to write to.
+   * @throws IOException Thrown if the export failed.
+   */
+  public void exportMeasurements(MeasurementsExporter exporter) throws IOException {
+    long opsDone = 0;
+    for (AgentReport report : reports) {
+      opsDone += report.getOpsDone();
+    }
+    exporter.write("OVERALL", "RunTime(ms)", runtimeMs);
+    exporter.write("OVERALL", "Throughput(ops/sec)", 1000.0 * opsDone / runtimeMs);
+
+    Properties mergeProps = new Properties();
+    mergeProps.putAll(props);
+    mergeProps.setProperty("hdrhistogram.fileoutput", "false");
+    Map<String, OneMeasurementHdrHistogram> merged = new TreeMap<>();
+    for (int agent = 0; agent < reports.size(); agent++) {
+      AgentReport report = reports.get(agent);
+      exporter.write("AGENT-" + agent, "Operations", report.getOpsDone());
+      exporter.write("AGENT-" + agent, "RunTime(ms)", report.getRuntimeMs());
+
+      Map<String, Histogram> histograms;
+      try {
+        histograms = report.getHistograms();
+      } catch (DataFormatException e) {
+        throw new IOException("Could not decode the histograms of agent " + agent, e);
+      }
+      for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+        OneMeasurementHdrHistogram measurement = merged.get(entry.getKey());
+        if (measurement == null) {
+          measurement = new OneMeasurementHdrHistogram(entry.getKey(), mergeProps);
+          merged.put(entry.getKey(), measurement);
+        }
+        measurement.add(entry.getValue());
+      }
+      for (Map.Entry<String, HashMap<String, Long>> entry : report.getStatusCounts().entrySet()) {
+        OneMeasurementHdrHistogram measurement = merged.get(entry.getKey());
+        if (measurement == null) {
+          measurement = new OneMeasurementHdrHistogram(entry.getKey(), mergeProps);
+          merged.put(entry.getKey(), measurement);
+        }
+        for (Map.Entry<String, Long> count : entry.getValue().entrySet()) {
+          // only the name of a status is exported
+          measurement.reportStatus(new Status(count.getKey(), count.getKey()), count.getValue());
+        }
+      }
+    }
+
+    for (OneMeasurementHdrHistogram measurement : merged.values()) {
+      measurement.exportMeasurements(exporter);
+    }
+  }
+
+  public static void main(String[] args) {
+    Properties props = Client.parseArguments(args);
+
+    Coordinator coordinator = null;
+    try {
+      coordinator = new Coordinator(props);
+      System.err.println("Waiting for " + coordinator.agents + " agents on port " + coordinator.getPort());
+      if (!coordinator.run()) {
+        System.exit(0);
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+      System.exit(0);
+    }
+
+    MeasurementsExporter exporter = null;
+    try {
+      exporter = Client.newExporter(props);
+      coordinator.exportMeasurements(exporter);
+    } catch (IOException e) {
+      System.err.println("Could not export measurements, error: " + e.getMessage());
+      e.printStackTrace();
+      System.exit(-1);
+    } finally {
+      if (exporter != null) {
+        try {
+          exporter.close();
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }
+    }
+
+    System.exit(0);
+  }
+}
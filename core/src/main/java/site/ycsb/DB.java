@@ -128,7 +128,7 @@ public abstract class DB {
   public Pair findAndUpdate(
       String table, String key,
       Object version, Map<String, ByteIterator> values) {
-    return null;
+    return new Pair(Status.NOT_IMPLEMENTED, version);
   }
 
   /**
@@ -181,5 +181,70 @@ public abstract class DB {
     return Status.NOT_IMPLEMENTED;
   }
 
+  /**
+   * Perform a range scan for a set of records in the database, handing each record to the consumer as it is read
+   * rather than collecting them all. The consumer may end the scan early.
+   *
+   * The default collects the records with {@link #scan(String, String, int, Set, Vector)} and then hands them over;
+   * bindings override it to stream the records from the database.
+   *
+   * @param table The name of the table
+   * @param startkey The record key of the first record to read.
+   * @param recordcount The number of records to read
+   * @param fields The list of fields to read, or null for all of them
+   * @param consumer Receives the field/value pairs of each record
+   * @return The result of the operation.
+   */
+  public Status streamScan(String table, String startkey, int recordcount, Set<String> fields,
+                           RowConsumer consumer) {
+    Vector<HashMap<String, ByteIterator>> result = new Vector<>();
+    return feed(scan(table, startkey, recordcount, fields, result), result, consumer);
+  }
 
+  /**
+   * The streaming variant of {@link #scanWithCreatedTimeFilter(String, String, String, int, Set, Vector)}.
+   *
+   * @param table The name of the table.
+   * @param startRange The start range of created_time field value to filter on, start range inclusive.
+   * @param endRange The end range of created_time field value to filter on, end range inclusive.
+   * @param recordCount The number of records to retrieve.
+   * @param fields The list of fields to read, or null for all of them.
+   * @param consumer Receives the field/value pairs of each record.
+   * @return The result of the operation.
+   */
+  public Status streamScanWithCreatedTimeFilter(String table, String startRange, String endRange, int recordCount,
+                                                Set<String> fields, RowConsumer consumer) {
+    Vector<HashMap<String, ByteIterator>> result = new Vector<>();
+    return feed(scanWithCreatedTimeFilter(table, startRange, endRange, recordCount, fields, result), result,
+        consumer);
+  }
+
+  /**
+   * The streaming variant of {@link #scanWithNamespaceKeyFilter(String, String, String, int, Set, Vector)}.
+   *
+   * @param table The name of the table.
+   * @param startKey the start range of namespaceKey, start range inclusive.
+   * @param endKey the end range of namespaceKey, end range inclusive.
+   * @param recordCount The number of records to retrieve.
+   * @param fields The list of fields to read, or null for all of them.
+   * @param consumer Receives the field/value pairs of each record.
+   * @return The result of the operation.
+   */
+  public Status streamScanWithNamespaceKeyFilter(String table, String startKey, String endKey, int recordCount,
+                                                 Set<String> fields, RowConsumer consumer) {
+    Vector<HashMap<String, ByteIterator>> result = new Vector<>();
+    return feed(scanWithNamespaceKeyFilter(table, startKey, endKey, recordCount, fields, result), result,
+        consumer);
+  }
+
+  private static Status feed(Status status, Vector<HashMap<String, ByteIterator>> result, RowConsumer consumer) {
+    if (status.isOk()) {
+      for (HashMap<String, ByteIterator> row : result) {
+        if (!consumer.accept(row)) {
+          break;
+        }
+      }
+    }
+    return status;
+  }
 }
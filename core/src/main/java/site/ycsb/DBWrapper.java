@@ -20,19 +20,38 @@ package site.ycsb;
 import java.util.Map;
 
 import site.ycsb.measurements.Measurements;
+import site.ycsb.trace.TraceWriter;
 import org.apache.htrace.core.TraceScope;
 import org.apache.htrace.core.Tracer;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Wrapper around a "real" DB that measures latencies and counts return codes.
  * Also reports latency separately between OK and failed operations.
+ *
+ * The asynchronous operations are forwarded to the wrapped DB if it is an {@link AsyncDB}, and are measured
+ * from the time they were issued until their future completes. Any other DB is called in the blocking way
+ * and handed back as an already completed future.
+ *
+ * With {@link TraceWriter#RECORD_PROPERTY} set, reads, scans, updates, inserts and deletes are also recorded to a
+ * trace for the {@link site.ycsb.workloads.TraceReplayWorkload}; versioned updates are recorded as updates.
+ *
+ * The streaming scans are measured under the same names as the materializing ones, from the call until the last
+ * record was consumed, and additionally as &lt;scan&gt;-FIRST_ROW until the first record arrived. FIRST_ROW is only
+ * measured for the streaming scans the DB overrides: the default ones collect all records before handing over the
+ * first, so the time to it would be the time of the whole scan.
  */
-public class DBWrapper extends DB {
+public class DBWrapper extends AsyncDB {
   private final DB db;
+  private final AsyncDB asyncDb;
   private final Measurements measurements;
   private final Tracer tracer;
+  private TraceWriter trace;
 
   private boolean reportLatencyForEachError = false;
   private Set<String> latencyTrackedErrors = new HashSet<String>();
@@ -42,6 +61,54 @@ public class DBWrapper extends DB {
 
   private static final String LATENCY_TRACKED_ERRORS_PROPERTY = "latencytrackederrors";
 
+  /**
+   * The measurement IDs of one operation and of its failures, registered up front so that measuring an operation
+   * neither looks up nor builds measurement names.
+   */
+  private final class OperationIds {
+    private final String op;
+    private final int id;
+    private final int failedId;
+    private final ConcurrentHashMap<Status, Integer> errorIds = new ConcurrentHashMap<>();
+
+    private OperationIds(String op) {
+      this.op = op;
+      this.id = measurements.registerOperation(op);
+      this.failedId = measurements.registerOperation(op + "-FAILED");
+    }
+
+    /**
+     * @return The ID under which the latency of an operation with the given result is measured.
+     */
+    private int measurementId(Status result) {
+      if (result.isOk()) {
+        return id;
+      }
+      if (!reportLatencyForEachError && !latencyTrackedErrors.contains(result.getName())) {
+        return failedId;
+      }
+      Integer errorId = errorIds.get(result);
+      if (errorId == null) {
+        errorId = measurements.registerOperation(op + "-" + result.getName());
+        errorIds.put(result, errorId);
+      }
+      return errorId;
+    }
+  }
+
+  private final OperationIds cleanupIds;
+  private final OperationIds readIds;
+  private final OperationIds scanIds;
+  private final OperationIds updateIds;
+  private final OperationIds versionedUpdateIds;
+  private final OperationIds insertIds;
+  private final OperationIds deleteIds;
+  private final OperationIds scanWithCreatedTimeFilterIds;
+  private final OperationIds scanWithNamespaceKeyFilterIds;
+  private final int scanFirstRowId;
+  private final int scanWithCreatedTimeFilterFirstRowId;
+  private final int scanWithNamespaceKeyFilterFirstRowId;
+
   private final String scopeStringCleanup;
   private final String scopeStringDelete;
   private final String scopeStringInit;
@@ -55,8 +122,26 @@ public class DBWrapper extends DB {
 
   public DBWrapper(final DB db, final Tracer tracer) {
     this.db = db;
+    this.asyncDb = db instanceof AsyncDB ? (AsyncDB) db : null;
     measurements = Measurements.getMeasurements();
     this.tracer = tracer;
+    cleanupIds = new OperationIds("CLEANUP");
+    readIds = new OperationIds("READ");
+    scanIds = new OperationIds("SCAN");
+    updateIds = new OperationIds("UPDATE");
+    versionedUpdateIds = new OperationIds("VERSIONED_UPDATE");
+    insertIds = new OperationIds("INSERT");
+    deleteIds = new OperationIds("DELETE");
+    scanWithCreatedTimeFilterIds = new OperationIds("SCAN_WITH_CREATED_TIME_FILTER");
+    scanWithNamespaceKeyFilterIds = new OperationIds("SCAN_WITH_NAMESPACE_KEY_FILTER");
+    scanFirstRowId = streams(db, "streamScan", String.class, String.class, int.class, Set.class, RowConsumer.class)
+        ? measurements.registerOperation("SCAN-FIRST_ROW") : -1;
+    scanWithCreatedTimeFilterFirstRowId = streams(db, "streamScanWithCreatedTimeFilter", String.class, String.class,
+        String.class, int.class, Set.class, RowConsumer.class)
+        ? measurements.registerOperation("SCAN_WITH_CREATED_TIME_FILTER-FIRST_ROW") : -1;
+    scanWithNamespaceKeyFilterFirstRowId = streams(db, "streamScanWithNamespaceKeyFilter", String.class,
+        String.class, String.class, int.class, Set.class, RowConsumer.class)
+        ? measurements.registerOperation("SCAN_WITH_NAMESPACE_KEY_FILTER-FIRST_ROW") : -1;
     final String simple = db.getClass().getSimpleName();
     scopeStringCleanup = simple + "#cleanup";
     scopeStringDelete = simple + "#delete";
@@ -93,6 +178,11 @@ public class DBWrapper extends DB {
   public void init() throws DBException {
     try (final TraceScope span = tracer.newScope(scopeStringInit)) {
       db.init();
+      try {
+        trace = TraceWriter.acquire(getProperties());
+      } catch (IOException e) {
+        throw new DBException("Could not create the trace file", e);
+      }
 
       this.reportLatencyForEachError = Boolean.parseBoolean(getProperties().
           getProperty(REPORT_LATENCY_FOR_EACH_ERROR_PROPERTY,
@@ -119,10 +209,22 @@ public class DBWrapper extends DB {
   public void cleanup() throws DBException {
     try (final TraceScope span = tracer.newScope(scopeStringCleanup)) {
       long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
       long st = System.nanoTime();
-      db.cleanup();
+      try {
+        db.cleanup();
+      } finally {
+        measurements.operationCompleted();
+      }
       long en = System.nanoTime();
-      measure("CLEANUP", Status.OK, ist, st, en);
+      measurements.measureCost(cleanupIds.id);
+      measure(cleanupIds, Status.OK, ist, st, en);
+    } finally {
+      if (trace != null) {
+        trace.release();
+        trace = null;
+      }
     }
   }
 
@@ -139,12 +241,23 @@ public class DBWrapper extends DB {
   public Status read(String table, String key, Set<String> fields,
                      Map<String, ByteIterator> result) {
     try (final TraceScope span = tracer.newScope(scopeStringRead)) {
+      if (trace != null) {
+        trace.read(table, key, fields);
+      }
       long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
       long st = System.nanoTime();
-      Status res = db.read(table, key, fields, result);
+      Status res;
+      try {
+        res = db.read(table, key, fields, result);
+      } finally {
+        measurements.operationCompleted();
+      }
       long en = System.nanoTime();
-      measure("READ", res, ist, st, en);
-      measurements.reportStatus("READ", res);
+      measurements.measureCost(readIds.id);
+      measure(readIds, res, ist, st, en);
+      measurements.reportStatus(readIds.id, res);
       return res;
     }
   }
@@ -163,31 +276,35 @@ public class DBWrapper extends DB {
   public Status scan(String table, String startkey, int recordcount,
                      Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
     try (final TraceScope span = tracer.newScope(scopeStringScan)) {
+      if (trace != null) {
+        trace.scan(table, startkey, recordcount, fields);
+      }
       long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
       long st = System.nanoTime();
-      Status res = db.scan(table, startkey, recordcount, fields, result);
+      Status res;
+      try {
+        res = db.scan(table, startkey, recordcount, fields, result);
+      } finally {
+        measurements.operationCompleted();
+      }
       long en = System.nanoTime();
-      measure("SCAN", res, ist, st, en);
-      measurements.reportStatus("SCAN", res);
+      measurements.measureCost(scanIds.id);
+      measure(scanIds, res, ist, st, en);
+      measurements.reportStatus(scanIds.id, res);
       return res;
     }
   }
 
-  private void measure(String op, Status result, long intendedStartTimeNanos,
+  private void measure(OperationIds op, Status result, long intendedStartTimeNanos,
                        long startTimeNanos, long endTimeNanos) {
-    String measurementName = op;
-    if (result == null || !result.isOk()) {
-      if (this.reportLatencyForEachError ||
-          this.latencyTrackedErrors.contains(result.getName())) {
-        measurementName = op + "-" + result.getName();
-      } else {
-        measurementName = op + "-FAILED";
-      }
-    }
-    measurements.measure(measurementName,
+    int measurementId = op.measurementId(result);
+    measurements.measure(measurementId,
         (int) ((endTimeNanos - startTimeNanos) / 1000));
-    measurements.measureIntended(measurementName,
+    measurements.measureIntended(measurementId,
         (int) ((endTimeNanos - intendedStartTimeNanos) / 1000));
+    measurements.logOperation(op.id, result, intendedStartTimeNanos, startTimeNanos, endTimeNanos);
   }
 
   /**
@@ -202,12 +319,23 @@ public class DBWrapper extends DB {
   public Status update(String table, String key,
                        Map<String, ByteIterator> values) {
     try (final TraceScope span = tracer.newScope(scopeStringUpdate)) {
+      if (trace != null) {
+        trace.update(table, key, values);
+      }
       long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
       long st = System.nanoTime();
-      Status res = db.update(table, key, values);
+      Status res;
+      try {
+        res = db.update(table, key, values);
+      } finally {
+        measurements.operationCompleted();
+      }
       long en = System.nanoTime();
-      measure("UPDATE", res, ist, st, en);
-      measurements.reportStatus("UPDATE", res);
+      measurements.measureCost(updateIds.id);
+      measure(updateIds, res, ist, st, en);
+      measurements.reportStatus(updateIds.id, res);
       return res;
     }
   }
@@ -228,13 +356,24 @@ public class DBWrapper extends DB {
       String table, String key,
       Object version, Map<String, ByteIterator> values) {
     try (final TraceScope span = tracer.newScope(scopeStringVersionedUpdate)) {
+      if (trace != null) {
+        trace.update(table, key, values);
+      }
       long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
       long st = System.nanoTime();
-      Pair statusVersionPair = db.findAndUpdate(table, key, version, values);
+      Pair statusVersionPair;
+      try {
+        statusVersionPair = db.findAndUpdate(table, key, version, values);
+      } finally {
+        measurements.operationCompleted();
+      }
       Status res = statusVersionPair.getStatus();
       long en = System.nanoTime();
-      measure("VERSIONED_UPDATE", res, ist, st, en);
-      measurements.reportStatus("VERSIONED_UPDATE", res);
+      measurements.measureCost(versionedUpdateIds.id);
+      measure(versionedUpdateIds, res, ist, st, en);
+      measurements.reportStatus(versionedUpdateIds.id, res);
       return new Pair(res, statusVersionPair.getVersion());
     }
   }
@@ -252,12 +391,23 @@ public class DBWrapper extends DB {
   public Status insert(String table, String key,
                        Map<String, ByteIterator> values) {
     try (final TraceScope span = tracer.newScope(scopeStringInsert)) {
+      if (trace != null) {
+        trace.insert(table, key, values);
+      }
       long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
       long st = System.nanoTime();
-      Status res = db.insert(table, key, values);
+      Status res;
+      try {
+        res = db.insert(table, key, values);
+      } finally {
+        measurements.operationCompleted();
+      }
       long en = System.nanoTime();
-      measure("INSERT", res, ist, st, en);
-      measurements.reportStatus("INSERT", res);
+      measurements.measureCost(insertIds.id);
+      measure(insertIds, res, ist, st, en);
+      measurements.reportStatus(insertIds.id, res);
       return res;
     }
   }
@@ -271,16 +421,225 @@ public class DBWrapper extends DB {
    */
   public Status delete(String table, String key) {
     try (final TraceScope span = tracer.newScope(scopeStringDelete)) {
+      if (trace != null) {
+        trace.delete(table, key);
+      }
+      long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
+      long st = System.nanoTime();
+      Status res;
+      try {
+        res = db.delete(table, key);
+      } finally {
+        measurements.operationCompleted();
+      }
+      long en = System.nanoTime();
+      measurements.measureCost(deleteIds.id);
+      measure(deleteIds, res, ist, st, en);
+      measurements.reportStatus(deleteIds.id, res);
+      return res;
+    }
+  }
+
+  /**
+   * Read a record from the database without blocking the calling thread.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to read.
+   * @param fields The list of fields to read, or null for all of them
+   * @param result A HashMap of field/value pairs for the result
+   * @return A future completed with the result of the operation.
+   */
+  @Override
+  public CompletableFuture<Status> readAsync(String table, String key, Set<String> fields,
+                                            Map<String, ByteIterator> result) {
+    if (asyncDb == null) {
+      return completed(read(table, key, fields, result));
+    }
+    try (final TraceScope span = tracer.newScope(scopeStringRead)) {
+      if (trace != null) {
+        trace.read(table, key, fields);
+      }
+      long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
+      long st = System.nanoTime();
+      return measureAsync(readIds, () -> asyncDb.readAsync(table, key, fields, result), ist, st);
+    }
+  }
+
+  /**
+   * Perform a range scan for a set of records in the database without blocking the calling thread.
+   *
+   * @param table The name of the table
+   * @param startkey The record key of the first record to read.
+   * @param recordcount The number of records to read
+   * @param fields The list of fields to read, or null for all of them
+   * @param result A Vector of HashMaps, where each HashMap is a set field/value pairs for one record
+   * @return A future completed with the result of the operation.
+   */
+  @Override
+  public CompletableFuture<Status> scanAsync(String table, String startkey, int recordcount,
+                                            Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
+    if (asyncDb == null) {
+      return completed(scan(table, startkey, recordcount, fields, result));
+    }
+    try (final TraceScope span = tracer.newScope(scopeStringScan)) {
+      if (trace != null) {
+        trace.scan(table, startkey, recordcount, fields);
+      }
+      long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
+      long st = System.nanoTime();
+      return measureAsync(scanIds, () -> asyncDb.scanAsync(table, startkey, recordcount, fields, result), ist, st);
+    }
+  }
+
+  /**
+   * Update a record in the database without blocking the calling thread.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to write.
+   * @param values A HashMap of field/value pairs to update in the record
+   * @return A future completed with the result of the operation.
+   */
+  @Override
+  public CompletableFuture<Status> updateAsync(String table, String key, Map<String, ByteIterator> values) {
+    if (asyncDb == null) {
+      return completed(update(table, key, values));
+    }
+    try (final TraceScope span = tracer.newScope(scopeStringUpdate)) {
+      if (trace != null) {
+        trace.update(table, key, values);
+      }
+      long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
+      long st = System.nanoTime();
+      return measureAsync(updateIds, () -> asyncDb.updateAsync(table, key, values), ist, st);
+    }
+  }
+
+  /**
+   * Finds a record by the specific query and version and updates it without blocking the calling thread.
+   *
+   * @param table   The name of the table
+   * @param key     The record key of the record to write.
+   * @param version The version to update to
+   * @param values  A HashMap of field/value pairs to update in the record
+   * @return A future completed with the status and the new version of the record.
+   */
+  @Override
+  public CompletableFuture<Pair> findAndUpdateAsync(String table, String key, Object version,
+                                                    Map<String, ByteIterator> values) {
+    if (asyncDb == null) {
+      return CompletableFuture.completedFuture(findAndUpdate(table, key, version, values));
+    }
+    try (final TraceScope span = tracer.newScope(scopeStringVersionedUpdate)) {
+      if (trace != null) {
+        trace.update(table, key, values);
+      }
+      final long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
+      final long st = System.nanoTime();
+      CompletableFuture<Pair> pending = issue(() -> asyncDb.findAndUpdateAsync(table, key, version, values));
+      measurements.measureCost(versionedUpdateIds.id);
+      return pending.handle((statusVersionPair, error) -> {
+        measurements.operationCompleted();
+        Status res = error == null && statusVersionPair != null ? statusVersionPair.getStatus() : Status.ERROR;
+        long en = System.nanoTime();
+        measure(versionedUpdateIds, res, ist, st, en);
+        measurements.reportStatus(versionedUpdateIds.id, res);
+        return new Pair(res, statusVersionPair == null ? null : statusVersionPair.getVersion());
+      });
+    }
+  }
+
+  /**
+   * Insert a record in the database without blocking the calling thread.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to insert.
+   * @param values A HashMap of field/value pairs to insert in the record
+   * @return A future completed with the result of the operation.
+   */
+  @Override
+  public CompletableFuture<Status> insertAsync(String table, String key, Map<String, ByteIterator> values) {
+    if (asyncDb == null) {
+      return completed(insert(table, key, values));
+    }
+    try (final TraceScope span = tracer.newScope(scopeStringInsert)) {
+      if (trace != null) {
+        trace.insert(table, key, values);
+      }
+      long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
+      long st = System.nanoTime();
+      return measureAsync(insertIds, () -> asyncDb.insertAsync(table, key, values), ist, st);
+    }
+  }
+
+  /**
+   * Delete a record from the database without blocking the calling thread.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to delete.
+   * @return A future completed with the result of the operation.
+   */
+  @Override
+  public CompletableFuture<Status> deleteAsync(String table, String key) {
+    if (asyncDb == null) {
+      return completed(delete(table, key));
+    }
+    try (final TraceScope span = tracer.newScope(scopeStringDelete)) {
+      if (trace != null) {
+        trace.delete(table, key);
+      }
       long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
       long st = System.nanoTime();
-      Status res = db.delete(table, key);
+      return measureAsync(deleteIds, () -> asyncDb.deleteAsync(table, key), ist, st);
+    }
+  }
+
+  /**
+   * Measures an asynchronous operation once its future completes. The start times are taken on the issuing
+   * thread, the end time on whichever thread completes the future. A future completed exceptionally is
+   * reported as {@link Status#ERROR}. Only the cost of issuing the operation counts towards its CPU time and
+   * allocations, as it is called right after the operation was issued.
+   */
+  private CompletableFuture<Status> measureAsync(final OperationIds op, Supplier<CompletableFuture<Status>> issue,
+                                                 final long intendedStartTimeNanos, final long startTimeNanos) {
+    CompletableFuture<Status> pending = issue(issue);
+    measurements.measureCost(op.id);
+    return pending.handle((status, error) -> {
+      measurements.operationCompleted();
+      Status res = error == null && status != null ? status : Status.ERROR;
       long en = System.nanoTime();
-      measure("DELETE", res, ist, st, en);
-      measurements.reportStatus("DELETE", res);
+      measure(op, res, intendedStartTimeNanos, startTimeNanos, en);
+      measurements.reportStatus(op.id, res);
       return res;
+    });
+  }
+  /**
+   * Issues an asynchronous operation, no longer counting it as in flight if the binding throws instead of
+   * returning a future.
+   */
+  private <T> CompletableFuture<T> issue(Supplier<CompletableFuture<T>> operation) {
+    try {
+      return operation.get();
+    } catch (RuntimeException e) {
+      measurements.operationCompleted();
+      throw e;
     }
   }
 
+
   /**
    *
    * @param table The name of the table.
@@ -299,13 +658,21 @@ public class DBWrapper extends DB {
       Vector<HashMap<String, ByteIterator>> result) {
     try (final TraceScope span = tracer.newScope(scopeStringScanWithCreatedTimeFilter)) {
       long intendedtartTimeNs = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
       long startTime = System.nanoTime();
-      Status res = db.scanWithCreatedTimeFilter(table, startRange, endRange,
-          recordCount, fields, result);
+      Status res;
+      try {
+        res = db.scanWithCreatedTimeFilter(table, startRange, endRange,
+              recordCount, fields, result);
+      } finally {
+        measurements.operationCompleted();
+      }
       long endTime = System.nanoTime();
-      final String op = "SCAN_WITH_CREATED_TIME_FILTER";
+      measurements.measureCost(scanWithCreatedTimeFilterIds.id);
+      final OperationIds op = scanWithCreatedTimeFilterIds;
       measure(op, res, intendedtartTimeNs, startTime, endTime);
-      measurements.reportStatus(op, res);
+      measurements.reportStatus(op.id, res);
       return res;
     }
   }
@@ -329,13 +696,163 @@ public class DBWrapper extends DB {
       Vector<HashMap<String, ByteIterator>> result) {
     try (final TraceScope span = tracer.newScope(scopeStringScanWithNamespaceKeyFilter)) {
       long intendedtartTimeNs = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
       long startTime = System.nanoTime();
-      Status res = db.scanWithNamespaceKeyFilter(table, startKey, endKey,
-          recordCount, fields, result);
+      Status res;
+      try {
+        res = db.scanWithNamespaceKeyFilter(table, startKey, endKey,
+              recordCount, fields, result);
+      } finally {
+        measurements.operationCompleted();
+      }
       long endTime = System.nanoTime();
-      final String op = "SCAN_WITH_NAMESPACE_KEY_FILTER";
+      measurements.measureCost(scanWithNamespaceKeyFilterIds.id);
+      final OperationIds op = scanWithNamespaceKeyFilterIds;
       measure(op, res, intendedtartTimeNs, startTime, endTime);
-      measurements.reportStatus(op, res);
+      measurements.reportStatus(op.id, res);
+      return res;
+    }
+  }
+
+  /**
+   * Hands the records to the consumer and notes when the first one arrived.
+   */
+  private static final class FirstRowTimer implements RowConsumer {
+    private final RowConsumer consumer;
+    private long firstRowNs;
+
+    private FirstRowTimer(RowConsumer consumer) {
+      this.consumer = consumer;
+    }
+
+    @Override
+    public boolean accept(Map<String, ByteIterator> row) {
+      if (firstRowNs == 0) {
+        firstRowNs = System.nanoTime();
+      }
+      return consumer.accept(row);
+    }
+  }
+
+  /**
+   * @return Whether the DB overrides a streaming scan of {@link DB}, rather than collecting the records first.
+   */
+  private static boolean streams(DB db, String name, Class<?>... parameterTypes) {
+    try {
+      return db.getClass().getMethod(name, parameterTypes).getDeclaringClass() != DB.class;
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @param firstRowId The ID of the FIRST_ROW measurement, or -1 if the DB does not stream the scan.
+   */
+  private void measureStream(OperationIds op, int firstRowId, Status result, FirstRowTimer timer,
+                             long intendedStartTimeNanos, long startTimeNanos, long endTimeNanos) {
+    measurements.measureCost(op.id);
+    if (firstRowId >= 0 && timer.firstRowNs != 0) {
+      measurements.measure(firstRowId, (int) ((timer.firstRowNs - startTimeNanos) / 1000));
+    }
+    measure(op, result, intendedStartTimeNanos, startTimeNanos, endTimeNanos);
+    measurements.reportStatus(op.id, result);
+  }
+
+  /**
+   * Perform a range scan for a set of records in the database, handing each record to the consumer as it is read.
+   *
+   * @param table The name of the table
+   * @param startkey The record key of the first record to read.
+   * @param recordcount The number of records to read
+   * @param fields The list of fields to read, or null for all of them
+   * @param consumer Receives the field/value pairs of each record
+   * @return The result of the operation.
+   */
+  @Override
+  public Status streamScan(String table, String startkey, int recordcount, Set<String> fields,
+                           RowConsumer consumer) {
+    try (final TraceScope span = tracer.newScope(scopeStringScan)) {
+      if (trace != null) {
+        trace.scan(table, startkey, recordcount, fields);
+      }
+      long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
+      FirstRowTimer timer = new FirstRowTimer(consumer);
+      long st = System.nanoTime();
+      Status res;
+      try {
+        res = db.streamScan(table, startkey, recordcount, fields, timer);
+      } finally {
+        measurements.operationCompleted();
+      }
+      long en = System.nanoTime();
+      measureStream(scanIds, scanFirstRowId, res, timer, ist, st, en);
+      return res;
+    }
+  }
+
+  /**
+   * The streaming variant of {@link #scanWithCreatedTimeFilter(String, String, String, int, Set, Vector)}.
+   *
+   * @param table The name of the table.
+   * @param startRange The start range of created_time field value to filter on, start range inclusive.
+   * @param endRange The end range of created_time field value to filter on, end range inclusive.
+   * @param recordCount The number of records to retrieve.
+   * @param fields The list of fields to read, or null for all of them.
+   * @param consumer Receives the field/value pairs of each record.
+   * @return The result of the operation.
+   */
+  @Override
+  public Status streamScanWithCreatedTimeFilter(String table, String startRange, String endRange, int recordCount,
+                                                Set<String> fields, RowConsumer consumer) {
+    try (final TraceScope span = tracer.newScope(scopeStringScanWithCreatedTimeFilter)) {
+      long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
+      FirstRowTimer timer = new FirstRowTimer(consumer);
+      long st = System.nanoTime();
+      Status res;
+      try {
+        res = db.streamScanWithCreatedTimeFilter(table, startRange, endRange, recordCount, fields, timer);
+      } finally {
+        measurements.operationCompleted();
+      }
+      long en = System.nanoTime();
+      measureStream(scanWithCreatedTimeFilterIds, scanWithCreatedTimeFilterFirstRowId, res, timer, ist, st, en);
+      return res;
+    }
+  }
+
+  /**
+   * The streaming variant of {@link #scanWithNamespaceKeyFilter(String, String, String, int, Set, Vector)}.
+   *
+   * @param table The name of the table.
+   * @param startKey the start range of namespaceKey, start range inclusive.
+   * @param endKey the end range of namespaceKey, end range inclusive.
+   * @param recordCount The number of records to retrieve.
+   * @param fields The list of fields to read, or null for all of them.
+   * @param consumer Receives the field/value pairs of each record.
+   * @return The result of the operation.
+   */
+  @Override
+  public Status streamScanWithNamespaceKeyFilter(String table, String startKey, String endKey, int recordCount,
+                                                 Set<String> fields, RowConsumer consumer) {
+    try (final TraceScope span = tracer.newScope(scopeStringScanWithNamespaceKeyFilter)) {
+      long ist = measurements.getIntendedtartTimeNs();
+      measurements.operationStarted();
+      measurements.startCost();
+      FirstRowTimer timer = new FirstRowTimer(consumer);
+      long st = System.nanoTime();
+      Status res;
+      try {
+        res = db.streamScanWithNamespaceKeyFilter(table, startKey, endKey, recordCount, fields, timer);
+      } finally {
+        measurements.operationCompleted();
+      }
+      long en = System.nanoTime();
+      measureStream(scanWithNamespaceKeyFilterIds, scanWithNamespaceKeyFilterFirstRowId, res, timer, ist, st, en);
       return res;
     }
   }
@@ -22,7 +22,7 @@ import java.util.concurrent.ThreadLocalRandom;
  *  A ByteIterator that generates a random sequence of bytes.
  */
 public class RandomByteIterator extends ByteIterator {
-  private final long len;
+  private long len;
   private long off;
   private int bufOff;
   private final byte[] buf;
@@ -62,8 +62,16 @@ public class RandomByteIterator extends ByteIterator {
   }
 
   public RandomByteIterator(long len) {
-    this.len = len;
     this.buf = new byte[6];
+    restart(len);
+  }
+
+  /**
+   * Start a new random sequence of the given length, so that one iterator can produce the values of many
+   * operations without being allocated again.
+   */
+  public void restart(long length) {
+    this.len = length;
     this.bufOff = buf.length;
     fillBytes();
     this.off = 0;
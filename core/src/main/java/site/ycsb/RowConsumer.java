@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * Receives the rows of a streaming scan one at a time, as the DB reads them, so that a scan need not hold all of its
+ * rows in memory. The consumer can end the scan early by returning false.
+ *
+ * The DB may reuse the map of a row for the next one, so a consumer that keeps a row must copy it. The field values
+ * are not reused.
+ */
+@FunctionalInterface
+public interface RowConsumer {
+  /**
+   * @param row The field/value pairs of the next row.
+   * @return true to receive the next row, false to end the scan.
+   */
+  boolean accept(Map<String, ByteIterator> row);
+
+  /**
+   * @param result The Vector to add a copy of each row to.
+   * @return A consumer that collects all rows as the materializing scans do.
+   */
+  static RowConsumer collectInto(Vector<HashMap<String, ByteIterator>> result) {
+    return row -> {
+      result.add(new HashMap<>(row));
+      return true;
+    };
+  }
+}
@@ -0,0 +1,311 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Searches for the highest target throughput at which the latency SLO still holds.
+ *
+ * The search runs a series of short trials, each at a fixed target, on the same initialized client threads and DB
+ * instances. A trial passes when the highest 99th and 99.9th percentile latency of any operation stays under the
+ * configured SLO and the achieved throughput is close enough to the target. Either a ramp, which raises the target
+ * by a fixed step until a trial fails, or a binary search between a lower and an upper bound can be used.
+ */
+public class ThroughputSearch {
+  /** Set to true to run a throughput search instead of a single run. */
+  public static final String SLO_SEARCH_PROPERTY = "slosearch";
+
+  /** The SLO on the 99th percentile latency in microseconds, or 0 to not check it. */
+  public static final String SLO_P99_PROPERTY = "slosearch.p99";
+  public static final String SLO_P99_PROPERTY_DEFAULT = "0";
+
+  /** The SLO on the 99.9th percentile latency in microseconds, or 0 to not check it. */
+  public static final String SLO_P999_PROPERTY = "slosearch.p999";
+  public static final String SLO_P999_PROPERTY_DEFAULT = "0";
+
+  /** How to pick the next target: "binary" or "ramp". */
+  public static final String STRATEGY_PROPERTY = "slosearch.strategy";
+  public static final String STRATEGY_PROPERTY_DEFAULT = "binary";
+
+  /** The lowest target tried, in operations per second. */
+  public static final String MIN_TARGET_PROPERTY = "slosearch.mintarget";
+  public static final String MIN_TARGET_PROPERTY_DEFAULT = "100";
+
+  /**
+   * The highest target tried, in operations per second. With 0 an unthrottled trial is run first and its
+   * throughput is used instead.
+   */
+  public static final String MAX_TARGET_PROPERTY = "slosearch.maxtarget";
+  public static final String MAX_TARGET_PROPERTY_DEFAULT = "0";
+
+  /** The amount the ramp raises the target by after each passing trial, in operations per second. */
+  public static final String STEP_PROPERTY = "slosearch.step";
+  public static final String STEP_PROPERTY_DEFAULT = "1000";
+
+  /** The binary search stops once its bounds are within this fraction of the upper bound. */
+  public static final String PRECISION_PROPERTY = "slosearch.precision";
+  public static final String PRECISION_PROPERTY_DEFAULT = "0.05";
+
+  /** The length of each trial in seconds. */
+  public static final String TRIAL_TIME_PROPERTY = "slosearch.trialtime";
+  public static final String TRIAL_TIME_PROPERTY_DEFAULT = "30";
+
+  /** The fraction of the target a trial must achieve to pass. */
+  public static final String MIN_THROUGHPUT_RATIO_PROPERTY = "slosearch.minthroughputratio";
+  public static final String MIN_THROUGHPUT_RATIO_PROPERTY_DEFAULT = "0.95";
+
+  /**
+   * The outcome of a single trial.
+   */
+  public static final class Trial {
+    private final double target;
+    private final double throughput;
+    private final long p99;
+    private final long p999;
+    private final boolean passed;
+
+    Trial(double target, double throughput, long p99, long p999, boolean passed) {
+      this.target = target;
+      this.throughput = throughput;
+      this.p99 = p99;
+      this.p999 = p999;
+      this.passed = passed;
+    }
+
+    /** @return The target in operations per second, 0 if unthrottled. */
+    public double getTarget() {
+      return target;
+    }
+
+    public double getThroughput() {
+      return throughput;
+    }
+
+    public long getP99() {
+      return p99;
+    }
+
+    public long getP999() {
+      return p999;
+    }
+
+    public boolean isPassed() {
+      return passed;
+    }
+  }
+
+  private final List<ClientThread> clients;
+  private final Measurements measurements;
+  private final long sloP99;
+  private final long sloP999;
+  private final String strategy;
+  private final double minTarget;
+  private final double maxTarget;
+  private final double step;
+  private final double precision;
+  private final long trialTimeMs;
+  private final double minThroughputRatio;
+  private final List<Trial> trials = new ArrayList<>();
+  private Trial best;
+
+  public ThroughputSearch(Properties props, List<ClientThread> clients) {
+    this.clients = clients;
+    this.measurements = Measurements.getMeasurements();
+    sloP99 = Long.parseLong(props.getProperty(SLO_P99_PROPERTY, SLO_P99_PROPERTY_DEFAULT));
+    sloP999 = Long.parseLong(props.getProperty(SLO_P999_PROPERTY, SLO_P999_PROPERTY_DEFAULT));
+    strategy = props.getProperty(STRATEGY_PROPERTY, STRATEGY_PROPERTY_DEFAULT);
+    minTarget = Double.parseDouble(props.getProperty(MIN_TARGET_PROPERTY, MIN_TARGET_PROPERTY_DEFAULT));
+    maxTarget = Double.parseDouble(props.getProperty(MAX_TARGET_PROPERTY, MAX_TARGET_PROPERTY_DEFAULT));
+    step = Double.parseDouble(props.getProperty(STEP_PROPERTY, STEP_PROPERTY_DEFAULT));
+    precision = Double.parseDouble(props.getProperty(PRECISION_PROPERTY, PRECISION_PROPERTY_DEFAULT));
+    trialTimeMs = 1000L * Integer.parseInt(props.getProperty(TRIAL_TIME_PROPERTY, TRIAL_TIME_PROPERTY_DEFAULT));
+    minThroughputRatio = Double.parseDouble(props.getProperty(MIN_THROUGHPUT_RATIO_PROPERTY,
+        MIN_THROUGHPUT_RATIO_PROPERTY_DEFAULT));
+
+    if (sloP99 <= 0 && sloP999 <= 0) {
+      throw new IllegalArgumentException("The throughput search needs " + SLO_P99_PROPERTY + " or "
+          + SLO_P999_PROPERTY);
+    }
+    if (!strategy.equals("binary") && !strategy.equals("ramp")) {
+      throw new IllegalArgumentException("unknown " + STRATEGY_PROPERTY + "=" + strategy);
+    }
+    if (!Measurements.getMeasurements().keepsPercentiles()) {
+      throw new IllegalArgumentException("The throughput search needs a " + Measurements.MEASUREMENT_TYPE_PROPERTY
+          + " that keeps percentiles: hdrhistogram, hdrhistogram+histogram, hdrhistogram+raw or hdrtimeseries");
+    }
+  }
+
+  /**
+   * Initializes all client threads, runs the trials and cleans the client threads up again.
+   *
+   * @return false if a client thread failed to initialize.
+   * @throws Exception if a trial failed unexpectedly.
+   */
+  public boolean run() throws Exception {
+    if (!ClientThread.initThreads(clients)) {
+      return false;
+    }
+    try {
+      if (strategy.equals("ramp")) {
+        ramp();
+      } else {
+        binarySearch();
+      }
+    } finally {
+      for (ClientThread client : clients) {
+        client.cleanupThread();
+      }
+    }
+    return true;
+  }
+
+  private void ramp() throws Exception {
+    for (double target = minTarget; maxTarget <= 0 || target <= maxTarget; target += step) {
+      if (!runTrial(target).isPassed()) {
+        break;
+      }
+    }
+  }
+
+  private void binarySearch() throws Exception {
+    double high = maxTarget;
+    if (high <= 0) {
+      high = runTrial(0).getThroughput();
+    }
+    double low = minTarget;
+    if (!runTrial(low).isPassed()) {
+      return;
+    }
+    if (runTrial(high).isPassed()) {
+      return;
+    }
+    while (high - low > precision * high) {
+      double mid = (low + high) / 2;
+      if (runTrial(mid).isPassed()) {
+        low = mid;
+      } else {
+        high = mid;
+      }
+    }
+  }
+
+  /**
+   * Runs every client thread at its share of the target for one trial length, whatever their opcount.
+   *
+   * @param target The target in operations per second, or 0 for an unthrottled trial.
+   */
+  private Trial runTrial(double target) throws Exception {
+    System.err.println("Starting trial at target " + (target > 0 ? String.format("%.0f ops/sec", target) :
+        "unlimited"));
+    measurements.reset();
+
+    final double targetperthreadperms = target / clients.size() / 1000.0;
+    final Exception[] failure = new Exception[1];
+    List<Thread> threads = new ArrayList<>(clients.size());
+    for (final ClientThread client : clients) {
+      threads.add(new Thread(() -> {
+          try {
+            client.runTrial(targetperthreadperms, false);
+          } catch (Exception e) {
+            e.printStackTrace();
+            failure[0] = e;
+          }
+        }, "ClientThread"));
+    }
+
+    long st = System.nanoTime();
+    for (Thread t : threads) {
+      t.start();
+    }
+    // a workload may run out of operations before the time is up
+    long deadline = System.currentTimeMillis() + trialTimeMs;
+    for (Thread t : threads) {
+      long remaining = deadline - System.currentTimeMillis();
+      if (remaining > 0) {
+        t.join(remaining);
+      }
+    }
+    for (ClientThread client : clients) {
+      client.requestStop();
+    }
+    long opsDone = 0;
+    for (int i = 0; i < threads.size(); i++) {
+      threads.get(i).join();
+      opsDone += clients.get(i).getOpsDone();
+    }
+    long en = System.nanoTime();
+    if (failure[0] != null) {
+      throw failure[0];
+    }
+
+    double throughput = opsDone * 1e9 / (en - st);
+    long p99 = measurements.getMaxPercentileLatency(99);
+    long p999 = measurements.getMaxPercentileLatency(99.9);
+    boolean passed = (sloP99 <= 0 || p99 <= sloP99) && (sloP999 <= 0 || p999 <= sloP999)
+        && (target <= 0 || throughput >= minThroughputRatio * target);
+    // the unthrottled trial only bounds the search, its latency is not expected to meet the SLO
+    passed &= target > 0;
+
+    Trial trial = new Trial(target, throughput, p99, p999, passed);
+    trials.add(trial);
+    if (passed && (best == null || throughput > best.getThroughput())) {
+      best = trial;
+    }
+    System.err.println(String.format("Trial at target %.0f: %.1f ops/sec, p99=%dus, p99.9=%dus, %s", target,
+        throughput, p99, p999, passed ? "meets SLO" : "misses SLO"));
+    return trial;
+  }
+
+  public List<Trial> getTrials() {
+    return trials;
+  }
+
+  /**
+   * @return The passing trial with the highest throughput, or null if none passed.
+   */
+  public Trial getBest() {
+    return best;
+  }
+
+  /**
+   * Export the throughput-vs-latency curve of all trials, in the order they ran, followed by the result.
+   *
+   * @param exporter Exporter representing the type of format to write to.
+   * @throws IOException Thrown if the export failed.
+   */
+  public void exportMeasurements(MeasurementsExporter exporter) throws IOException {
+    for (int i = 0; i < trials.size(); i++) {
+      Trial trial = trials.get(i);
+      String metric = "SLOSEARCH-TRIAL-" + (i + 1);
+      exporter.write(metric, "Target(ops/sec)", trial.getTarget());
+      exporter.write(metric, "Throughput(ops/sec)", trial.getThroughput());
+      exporter.write(metric, "99thPercentileLatency(us)", trial.getP99());
+      exporter.write(metric, "99.9PercentileLatency(us)", trial.getP999());
+      exporter.write(metric, "MeetsSLO", trial.isPassed() ? 1 : 0);
+    }
+    exporter.write("SLOSEARCH", "Trials", trials.size());
+    exporter.write("SLOSEARCH", "MaxSustainableThroughput(ops/sec)", best == null ? 0 : best.getThroughput());
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.measurements.Measurements;
+
+import java.util.Collection;
+import java.util.Properties;
+
+/**
+ * A thread that ends the warm-up of the run.
+ *
+ * Operations issued during the warm-up execute normally, but they are measured under {@link
+ * Measurements#WARMUP_PREFIX} names. Once the warm-up time has elapsed and the warm-up operations are done, the
+ * measurements are swapped for fresh ones and the time and operation count at that point become the start of the
+ * OVERALL figures.
+ */
+public class WarmupThread extends Thread {
+  /** The length of the warm-up in seconds. */
+  public static final String WARMUP_TIME_PROPERTY = "warmuptime";
+  public static final String WARMUP_TIME_PROPERTY_DEFAULT = "0";
+
+  /** The number of operations, across all client threads, making up the warm-up. */
+  public static final String WARMUP_OPS_PROPERTY = "warmupops";
+  public static final String WARMUP_OPS_PROPERTY_DEFAULT = "0";
+
+  /** Whether the warm-up measurements are exported too, or discarded. */
+  public static final String WARMUP_EXPORT_PROPERTY = "warmup.export";
+  public static final String WARMUP_EXPORT_PROPERTY_DEFAULT = "false";
+
+  private static final long POLL_INTERVAL_MS = 1;
+
+  private final Collection<ClientThread> clients;
+  private final Measurements measurements;
+  private final long warmupTimeMs;
+  private final long warmupOps;
+  private final boolean export;
+  private volatile boolean finished;
+  private long endTimeMs;
+  private long opsDone;
+
+  /**
+   * @param props The properties of the run.
+   * @param clients The client threads whose operations make up the warm-up.
+   * @return The thread ending the warm-up, or null if no warm-up is configured.
+   */
+  public static WarmupThread create(Properties props, Collection<ClientThread> clients) {
+    long warmupTimeMs = 1000L * Long.parseLong(props.getProperty(WARMUP_TIME_PROPERTY, WARMUP_TIME_PROPERTY_DEFAULT));
+    long warmupOps = Long.parseLong(props.getProperty(WARMUP_OPS_PROPERTY, WARMUP_OPS_PROPERTY_DEFAULT));
+    if (warmupTimeMs <= 0 && warmupOps <= 0) {
+      return null;
+    }
+    boolean export = Boolean.parseBoolean(props.getProperty(WARMUP_EXPORT_PROPERTY, WARMUP_EXPORT_PROPERTY_DEFAULT));
+    return new WarmupThread(clients, warmupTimeMs, warmupOps, export);
+  }
+
+  private WarmupThread(Collection<ClientThread> clients, long warmupTimeMs, long warmupOps, boolean export) {
+    super("WarmupThread");
+    setDaemon(true);
+    this.clients = clients;
+    this.measurements = Measurements.getMeasurements();
+    this.warmupTimeMs = warmupTimeMs;
+    this.warmupOps = warmupOps;
+    this.export = export;
+    measurements.startWarmup();
+  }
+
+  @Override
+  public void run() {
+    long st = System.currentTimeMillis();
+    try {
+      if (warmupTimeMs > 0) {
+        Thread.sleep(warmupTimeMs);
+      }
+      while (getTotalOpsDone() < warmupOps) {
+        Thread.sleep(POLL_INTERVAL_MS);
+      }
+    } catch (InterruptedException e) {
+      System.err.println("The run ended before the warm-up did, all measurements are warm-up measurements.");
+      return;
+    }
+
+    measurements.endWarmup(export);
+    opsDone = getTotalOpsDone();
+    endTimeMs = System.currentTimeMillis();
+    finished = true;
+    System.err.println("Warm-up done after " + (endTimeMs - st) + " ms and " + opsDone + " operations.");
+  }
+
+  private long getTotalOpsDone() {
+    long total = 0;
+    for (ClientThread client : clients) {
+      total += client.getOpsDone();
+    }
+    return total;
+  }
+
+  /**
+   * @return Whether the warm-up ended before the run did.
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * @return The time the warm-up ended, in milliseconds since the epoch.
+   */
+  public long getEndTimeMs() {
+    return endTimeMs;
+  }
+
+  /**
+   * @return The number of operations done during the warm-up.
+   */
+  public long getOpsDone() {
+    return opsDone;
+  }
+}
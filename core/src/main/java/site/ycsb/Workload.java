@@ -17,6 +17,7 @@
 
 package site.ycsb;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.Properties;
 
@@ -105,6 +106,28 @@ public abstract class Workload {
    */
   public abstract boolean doTransaction(DB db, Object threadstate);
 
+  /**
+   * Start one insert operation without waiting for it to complete. Used by client threads running with an
+   * "asyncwindow" greater than one, which keep several of these in flight at once. The returned future
+   * completes with the same meaning as the return value of {@link #doInsert(DB, Object)}; it may complete on a
+   * thread other than the client thread, so anything touched on completion must be thread safe.
+   *
+   * The default implementation performs a blocking {@link #doInsert(DB, Object)}.
+   */
+  public CompletableFuture<Boolean> doInsertAsync(AsyncDB db, Object threadstate) {
+    return CompletableFuture.completedFuture(doInsert(db, threadstate));
+  }
+
+  /**
+   * Start one transaction operation without waiting for it to complete. See
+   * {@link #doInsertAsync(AsyncDB, Object)} for the threading rules.
+   *
+   * The default implementation performs a blocking {@link #doTransaction(DB, Object)}.
+   */
+  public CompletableFuture<Boolean> doTransactionAsync(AsyncDB db, Object threadstate) {
+    return CompletableFuture.completedFuture(doTransaction(db, threadstate));
+  }
+
   /**
    * Allows scheduling a request to stop the workload.
    */
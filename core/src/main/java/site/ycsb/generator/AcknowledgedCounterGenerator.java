@@ -16,31 +16,38 @@
  */
 package site.ycsb.generator;
 
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * A CounterGenerator that reports generated integers via lastInt()
  * only after they have been acknowledged.
+ *
+ * Acknowledgements are bits in segments of {@value #SEGMENT_SIZE} values, which are created as values get
+ * acknowledged and dropped once the limit has passed them, so any number of values may be pending. Bits are set
+ * with a compare-and-set and the limit is advanced with one, by any thread that finds the value after it
+ * acknowledged, so no thread waits for another.
  */
 public class AcknowledgedCounterGenerator extends CounterGenerator {
-  /** The size of the window of pending id ack's. 2^20 = {@value} */
-  static final int WINDOW_SIZE = Integer.rotateLeft(1, 20);
+  /** The number of values of a segment of acknowledgement bits. 2^16 = {@value} */
+  static final int SEGMENT_SIZE = 1 << 16;
 
-  /** The mask to use to turn an id into a slot in {@link #window}. */
-  private static final int WINDOW_MASK = WINDOW_SIZE - 1;
+  private static final int SEGMENT_SHIFT = 16;
+  private static final int WORDS = SEGMENT_SIZE / Long.SIZE;
 
-  private final ReentrantLock lock;
-  private final boolean[] window;
-  private volatile long limit;
+  private final long countstart;
+  private final ConcurrentMap<Long, AtomicLongArray> segments = new ConcurrentHashMap<>();
+  private final AtomicLong limit;
 
   /**
    * Create a counter that starts at countstart.
    */
   public AcknowledgedCounterGenerator(long countstart) {
     super(countstart);
-    lock = new ReentrantLock();
-    window = new boolean[WINDOW_SIZE];
-    limit = countstart - 1;
+    this.countstart = countstart;
+    limit = new AtomicLong(countstart - 1);
   }
 
   /**
@@ -49,40 +56,71 @@ public class AcknowledgedCounterGenerator extends CounterGenerator {
    */
   @Override
   public Long lastValue() {
-    return limit;
+    return limit.get();
   }
 
   /**
    * Make a generated counter value available via lastInt().
    */
   public void acknowledge(long value) {
-    final int currentSlot = (int)(value & WINDOW_MASK);
-    if (window[currentSlot]) {
-      throw new RuntimeException("Too many unacknowledged insertion keys.");
+    if (value <= limit.get()) {
+      throw new IllegalStateException("Insertion key " + value + " was already acknowledged.");
     }
+    long offset = value - countstart;
+    AtomicLongArray segment = segments.get(offset >>> SEGMENT_SHIFT);
+    if (segment == null) {
+      segment = segments.computeIfAbsent(offset >>> SEGMENT_SHIFT, s -> new AtomicLongArray(WORDS));
+    }
+    int word = (int) (offset >>> 6) & (WORDS - 1);
+    long bit = 1L << offset;
+    long bits;
+    do {
+      bits = segment.get(word);
+      if ((bits & bit) != 0) {
+        throw new IllegalStateException("Insertion key " + value + " was already acknowledged.");
+      }
+    } while (!segment.compareAndSet(word, bits, bits | bit));
 
-    window[currentSlot] = true;
-
-    if (lock.tryLock()) {
-      // move a contiguous sequence from the window
-      // over to the "limit" variable
-      try {
-        // Only loop through the entire window at most once.
-        long beforeFirstSlot = (limit & WINDOW_MASK);
-        long index;
-        for (index = limit + 1; index != beforeFirstSlot; ++index) {
-          int slot = (int)(index & WINDOW_MASK);
-          if (!window[slot]) {
-            break;
-          }
+    advance();
+  }
 
-          window[slot] = false;
+  /**
+   * Move the limit over the acknowledged values that follow it. Whichever thread sets the last bit of a contiguous
+   * run sees all of it, so the limit never stays behind an acknowledged value.
+   */
+  private void advance() {
+    while (true) {
+      long current = limit.get();
+      long next = firstUnacknowledged(current + 1 - countstart) + countstart - 1;
+      if (next == current) {
+        return;
+      }
+      if (limit.compareAndSet(current, next)) {
+        // drop the segments the limit has passed completely
+        for (long s = (current + 1 - countstart) >>> SEGMENT_SHIFT; s < (next + 1 - countstart) >>> SEGMENT_SHIFT;
+             s++) {
+          segments.remove(s);
         }
+      }
+    }
+  }
 
-        limit = index - 1;
-      } finally {
-        lock.unlock();
+  /**
+   * @return The offset of the first value at or after the given offset that is not acknowledged.
+   */
+  private long firstUnacknowledged(long offset) {
+    while (true) {
+      AtomicLongArray segment = segments.get(offset >>> SEGMENT_SHIFT);
+      if (segment == null) {
+        return offset;
+      }
+      int word = (int) (offset >>> 6) & (WORDS - 1);
+      long unset = ~segment.get(word) >>> offset;
+      if (unset != 0) {
+        return offset + Long.numberOfTrailingZeros(unset);
       }
+      // the rest of the word is acknowledged
+      offset = (offset | (Long.SIZE - 1)) + 1;
     }
   }
 }
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws indexes with given weights in constant time, whatever the number of weights, using Vose's alias method.
+ *
+ * Each index owns a slot of equal probability. A slot is split between its own index and one alias, so a draw
+ * picks a slot uniformly and then one of its two indexes with a biased coin. The table is built once and never
+ * changes, so any number of threads can draw from it without locking.
+ */
+final class AliasSampler {
+  private final double[] probability;
+  private final int[] alias;
+
+  /**
+   * @param weights The non-negative weight of each index; at least one must be positive.
+   */
+  AliasSampler(double[] weights) {
+    int n = weights.length;
+    double sum = 0;
+    for (double weight : weights) {
+      if (!(weight >= 0) || Double.isInfinite(weight)) {
+        throw new IllegalArgumentException("Weights must be finite and not negative: " + weight);
+      }
+      sum += weight;
+    }
+    if (!(sum > 0)) {
+      throw new IllegalArgumentException("At least one weight must be positive");
+    }
+
+    probability = new double[n];
+    alias = new int[n];
+    int[] small = new int[n];
+    int[] large = new int[n];
+    int smalls = 0;
+    int larges = 0;
+    for (int i = 0; i < n; i++) {
+      probability[i] = weights[i] * n / sum;
+      if (probability[i] < 1) {
+        small[smalls++] = i;
+      } else {
+        large[larges++] = i;
+      }
+    }
+    // fill each slot that is short of 1 from one that has more, which keeps the rest of the latter
+    while (smalls > 0 && larges > 0) {
+      int s = small[--smalls];
+      int l = large[--larges];
+      alias[s] = l;
+      probability[l] = (probability[l] + probability[s]) - 1;
+      if (probability[l] < 1) {
+        small[smalls++] = l;
+      } else {
+        large[larges++] = l;
+      }
+    }
+    // what is left is 1 up to rounding errors
+    while (larges > 0) {
+      probability[large[--larges]] = 1;
+    }
+    while (smalls > 0) {
+      probability[small[--smalls]] = 1;
+    }
+  }
+
+  /**
+   * @return The number of indexes.
+   */
+  int size() {
+    return probability.length;
+  }
+
+  /**
+   * @return The next index, drawn with the probability of its weight.
+   */
+  int next() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int slot = random.nextInt(probability.length);
+    return random.nextDouble() < probability[slot] ? slot : alias[slot];
+  }
+}
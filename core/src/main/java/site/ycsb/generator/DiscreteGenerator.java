@@ -18,13 +18,15 @@
 package site.ycsb.generator;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Generates a distribution by choosing from a discrete set of values.
+ *
+ * The values are drawn from an {@link AliasSampler}, in constant time however many there are. It is built on the
+ * first draw after a value was added, so values should all be added before the generator is shared between threads.
  */
 public class DiscreteGenerator extends Generator<String> {
   private static class Pair {
@@ -37,7 +39,8 @@ public class DiscreteGenerator extends Generator<String> {
     }
   }
 
-  private final Collection<Pair> values = new ArrayList<>();
+  private final List<Pair> values = new ArrayList<>();
+  private volatile AliasSampler sampler;
   private String lastvalue;
 
   public DiscreteGenerator() {
@@ -49,25 +52,22 @@ public class DiscreteGenerator extends Generator<String> {
    */
   @Override
   public String nextValue() {
-    double sum = 0;
-
-    for (Pair p : values) {
-      sum += p.weight;
+    AliasSampler s = sampler;
+    if (s == null) {
+      s = buildSampler();
     }
+    return values.get(s.next()).value;
+  }
 
-    double val = ThreadLocalRandom.current().nextDouble();
-
-    for (Pair p : values) {
-      double pw = p.weight / sum;
-      if (val < pw) {
-        return p.value;
+  private synchronized AliasSampler buildSampler() {
+    if (sampler == null) {
+      double[] weights = new double[values.size()];
+      for (int i = 0; i < weights.length; i++) {
+        weights[i] = values.get(i).weight;
       }
-
-      val -= pw;
+      sampler = new AliasSampler(weights);
     }
-
-    throw new AssertionError("oops. should not get here.");
-
+    return sampler;
   }
 
   /**
@@ -83,8 +83,9 @@ public class DiscreteGenerator extends Generator<String> {
     return lastvalue;
   }
 
-  public void addValue(double weight, String value) {
+  public synchronized void addValue(double weight, String value) {
     values.add(new Pair(weight, value));
+    sampler = null;
   }
 
 }
@@ -19,8 +19,7 @@ package site.ycsb.generator;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Arrays;
 
 /**
  * Generate integers according to a histogram distribution.  The histogram
@@ -31,11 +30,15 @@ import java.util.concurrent.ThreadLocalRandom;
  *
  * The minimum value this distribution returns is blockSize (not zero).
  *
+ * Buckets are drawn from an {@link AliasSampler}, in constant time however many there are. A histogram file
+ * starts with a "BlockSize\t&lt;size&gt;" line, followed by one "&lt;bucket&gt;\t&lt;count&gt;" line per bucket;
+ * buckets may come in any order and those not listed are empty.
  */
 public class HistogramGenerator extends NumberGenerator {
 
   private final long blockSize;
   private final long[] buckets;
+  private final AliasSampler sampler;
   private long area;
   private long weightedArea = 0;
   private double meanSize = 0;
@@ -45,8 +48,6 @@ public class HistogramGenerator extends NumberGenerator {
       String str;
       String[] line;
 
-      ArrayList<Integer> a = new ArrayList<>();
-
       str = in.readLine();
       if (str == null) {
         throw new IOException("Empty input file!\n");
@@ -57,48 +58,45 @@ public class HistogramGenerator extends NumberGenerator {
       }
       blockSize = Integer.parseInt(line[1]);
 
+      long[] a = new long[16];
+      int size = 0;
       while ((str = in.readLine()) != null) {
         // [0] is the bucket, [1] is the value
         line = str.split("\t");
 
-        a.add(Integer.parseInt(line[0]), Integer.parseInt(line[1]));
-      }
-      buckets = new long[a.size()];
-      for (int i = 0; i < a.size(); i++) {
-        buckets[i] = a.get(i);
+        int bucket = Integer.parseInt(line[0]);
+        if (bucket >= a.length) {
+          a = Arrays.copyOf(a, Math.max(bucket + 1, 2 * a.length));
+        }
+        a[bucket] = Long.parseLong(line[1]);
+        size = Math.max(size, bucket + 1);
       }
+      buckets = Arrays.copyOf(a, size);
     }
-    init();
+    sampler = init();
   }
 
   public HistogramGenerator(long[] buckets, int blockSize) {
     this.blockSize = blockSize;
     this.buckets = buckets;
-    init();
+    sampler = init();
   }
 
-  private void init() {
+  private AliasSampler init() {
+    double[] weights = new double[buckets.length];
     for (int i = 0; i < buckets.length; i++) {
       area += buckets[i];
       weightedArea += i * buckets[i];
+      weights[i] = buckets[i];
     }
     // calculate average file size
     meanSize = ((double) blockSize) * ((double) weightedArea) / (area);
+    return new AliasSampler(weights);
   }
 
   @Override
   public Long nextValue() {
-    int number = ThreadLocalRandom.current().nextInt((int) area);
-    int i;
-
-    for (i = 0; i < (buckets.length - 1); i++) {
-      number -= buckets[i];
-      if (number <= 0) {
-        return (i + 1) * blockSize;
-      }
-    }
-
-    return i * blockSize;
+    return (sampler.next() + 1) * blockSize;
   }
 
   @Override
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The keys of a tree of namespace entities, like the sources, folders and datasets of a catalog, numbered so that
+ * loading the entities and querying ranges of them derive the same keys from numbers alone.
+ *
+ * The tree is given level by level as {@code name:fanout[:skew]}, separated by commas: every entity of a level has
+ * fanout children at the next one, and the entities of the first level are the roots. The key of an entity is the
+ * path from its root, each level adding a slash, its name and the zero-padded index of the entity among its
+ * siblings, such as {@code /source042/folder7/dataset3}. As siblings have names of the same length, the keys of the
+ * subtree of an entity are exactly those from its key to {@link #subtreeEnd(StringBuilder)}, even when the slashes
+ * are replaced by another character.
+ *
+ * The entities are numbered level by level, so loading the first n entities loads whole levels first. The skew of a
+ * level is the zipfian constant with which {@link #nextEntity(int)} picks among siblings, 0 to pick them uniformly.
+ */
+public final class NamespaceKeyGenerator {
+  private final String[] names;
+  private final long[] fanouts;
+  private final int[] widths;
+  private final ZipfianGenerator[] skews;
+  /** The number of entities of each level. */
+  private final long[] levelSizes;
+  /** The number of the first entity of each level. */
+  private final long[] levelStarts;
+  private final long size;
+
+  /**
+   * @param levels The levels of the tree, as {@code name:fanout[:skew]} separated by commas.
+   */
+  public NamespaceKeyGenerator(String levels) {
+    String[] specs = levels.split(",");
+    names = new String[specs.length];
+    fanouts = new long[specs.length];
+    widths = new int[specs.length];
+    skews = new ZipfianGenerator[specs.length];
+    levelSizes = new long[specs.length];
+    levelStarts = new long[specs.length];
+    long entities = 0;
+    for (int i = 0; i < specs.length; i++) {
+      String[] spec = specs[i].trim().split(":");
+      if (spec.length < 2 || spec.length > 3 || !spec[0].matches("[A-Za-z]+")) {
+        throw new IllegalArgumentException("Expected name:fanout[:skew] with a name of letters, got \"" + specs[i]
+            + "\"");
+      }
+      names[i] = spec[0];
+      fanouts[i] = Long.parseLong(spec[1]);
+      double skew = spec.length == 3 ? Double.parseDouble(spec[2]) : 0;
+      if (fanouts[i] <= 0 || !(skew >= 0 && skew < 1)) {
+        throw new IllegalArgumentException("The fanout of " + names[i] + " must be positive and its skew at least 0 "
+            + "and less than 1");
+      }
+      widths[i] = Long.toString(fanouts[i] - 1).length();
+      if (skew > 0) {
+        skews[i] = new ZipfianGenerator(fanouts[i], skew);
+      }
+      levelSizes[i] = i == 0 ? fanouts[i] : Math.multiplyExact(levelSizes[i - 1], fanouts[i]);
+      levelStarts[i] = entities;
+      entities = Math.addExact(entities, levelSizes[i]);
+    }
+    size = entities;
+  }
+
+  /**
+   * @return The number of levels of the tree.
+   */
+  public int depth() {
+    return names.length;
+  }
+
+  /**
+   * @param level A level of the tree, from 0 for the roots.
+   * @return The name of the level.
+   */
+  public String name(int level) {
+    return names[level];
+  }
+
+  /**
+   * @return The number of entities of the tree.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * @param level A level of the tree, from 0 for the roots.
+   * @return The number of entities in the subtree of an entity of the level, the entity included.
+   */
+  public long subtreeSize(int level) {
+    long subtree = 1;
+    long below = 1;
+    for (int i = level + 1; i < names.length; i++) {
+      below *= fanouts[i];
+      subtree += below;
+    }
+    return subtree;
+  }
+
+  /**
+   * @param entity The number of an entity, less than {@link #size()}.
+   * @return The level of the entity, from 0 for the roots.
+   */
+  public int level(long entity) {
+    int level = names.length - 1;
+    while (entity < levelStarts[level]) {
+      level--;
+    }
+    return level;
+  }
+
+  /**
+   * @param entity The number of an entity, less than {@link #size()}.
+   * @return The number of its parent, or -1 for a root.
+   */
+  public long parent(long entity) {
+    int level = level(entity);
+    if (level == 0) {
+      return -1;
+    }
+    return levelStarts[level - 1] + (entity - levelStarts[level]) / fanouts[level];
+  }
+
+  /**
+   * Appends the key of an entity, without allocating anything once the builder has grown to hold it.
+   *
+   * @param entity The number of an entity, less than {@link #size()}.
+   * @param key The builder to append the key to.
+   */
+  public void appendKey(long entity, StringBuilder key) {
+    int level = level(entity);
+    long index = entity - levelStarts[level];
+    for (int i = 0; i <= level; i++) {
+      // the entities of level i under one of level i - 1 are a run of levelSizes[level] / levelSizes[i] numbers
+      long sibling = index / (levelSizes[level] / levelSizes[i]) % fanouts[i];
+      key.append('/').append(names[i]);
+      int digits = 1;
+      for (long bound = 10; bound <= sibling; bound *= 10) {
+        digits++;
+      }
+      for (; digits < widths[i]; digits++) {
+        key.append('0');
+      }
+      key.append(sibling);
+    }
+  }
+
+  /**
+   * @param entity The number of an entity, less than {@link #size()}.
+   * @return The key of the entity.
+   */
+  public String key(long entity) {
+    StringBuilder key = new StringBuilder();
+    appendKey(entity, key);
+    return key.toString();
+  }
+
+  /**
+   * Turns the key of an entity into the last key of its subtree, which is after the keys of all its descendants
+   * and before the key of its next sibling.
+   *
+   * @param key The builder holding the key of an entity.
+   */
+  public static void subtreeEnd(StringBuilder key) {
+    key.append("/~");
+  }
+
+  /**
+   * @param level A level of the tree, from 0 for the roots.
+   * @return The number of an entity of the level, picking among siblings with the skew of each level down to it.
+   */
+  public long nextEntity(int level) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long index = 0;
+    for (int i = 0; i <= level; i++) {
+      long sibling = skews[i] != null ? skews[i].nextValue() : random.nextLong(fanouts[i]);
+      index = index * fanouts[i] + sibling;
+    }
+    return levelStarts[level] + index;
+  }
+}
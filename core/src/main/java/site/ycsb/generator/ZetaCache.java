@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * A file of the zeta constants computed for the {@link ZipfianGenerator}, keyed by zipfian constant and item count,
+ * so that only the first run over a large keyspace pays for computing zeta.
+ *
+ * A value that is not in the file is computed from the cached value of the nearest item count of the same zipfian
+ * constant, adding or subtracting the terms in between, or from scratch if that is closer. The file is rewritten
+ * after each new value; it is a properties file whose keys are {@code <zipfian constant>:<item count>}.
+ */
+final class ZetaCache {
+  /** Item counts below this are computed faster than they are looked up, so they are not cached. */
+  static final long MIN_ITEMS = ZipfianGenerator.ZETA_CHUNK;
+
+  private final File file;
+  private final Map<Double, TreeMap<Long, Double>> zetas = new HashMap<>();
+
+  ZetaCache(File file) {
+    this.file = file;
+    load();
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  /**
+   * @param n The number of items to compute zeta over.
+   * @param theta The zipfian constant.
+   * @return The zeta constant of n items.
+   */
+  synchronized double zeta(long n, double theta) {
+    TreeMap<Long, Double> known = zetas.computeIfAbsent(theta, t -> new TreeMap<>());
+    Double cached = known.get(n);
+    if (cached != null) {
+      return cached;
+    }
+
+    Map.Entry<Long, Double> below = known.floorEntry(n);
+    Map.Entry<Long, Double> above = known.ceilingEntry(n);
+    long fromBelow = below == null ? n : n - below.getKey();
+    long fromAbove = above == null ? Long.MAX_VALUE : above.getKey() - n;
+    double zeta;
+    if (fromAbove < fromBelow) {
+      zeta = ZipfianGenerator.zetashrink(above.getKey(), n, theta, above.getValue());
+    } else if (below != null) {
+      zeta = ZipfianGenerator.zetastatic(below.getKey(), n, theta, below.getValue());
+    } else {
+      zeta = ZipfianGenerator.zetastatic(0, n, theta, 0);
+    }
+    known.put(n, zeta);
+    save();
+    return zeta;
+  }
+
+  private void load() {
+    if (!file.exists()) {
+      return;
+    }
+    Properties values = new Properties();
+    try (InputStream in = new FileInputStream(file)) {
+      values.load(in);
+    } catch (IOException e) {
+      System.err.println("WARNING: Could not read the zeta cache " + file + ": " + e.getMessage());
+      return;
+    }
+    for (String key : values.stringPropertyNames()) {
+      int colon = key.lastIndexOf(':');
+      try {
+        double theta = Double.parseDouble(key.substring(0, colon));
+        long n = Long.parseLong(key.substring(colon + 1));
+        zetas.computeIfAbsent(theta, t -> new TreeMap<>()).put(n, Double.parseDouble(values.getProperty(key)));
+      } catch (RuntimeException e) {
+        System.err.println("WARNING: Ignoring the malformed zeta cache entry " + key + " in " + file);
+      }
+    }
+  }
+
+  private void save() {
+    Properties values = new Properties();
+    for (Map.Entry<Double, TreeMap<Long, Double>> theta : zetas.entrySet()) {
+      for (Map.Entry<Long, Double> zeta : theta.getValue().entrySet()) {
+        values.setProperty(theta.getKey() + ":" + zeta.getKey(), String.valueOf(zeta.getValue()));
+      }
+    }
+    // write a copy and move it over the file, so that a concurrent run never reads half a file
+    File tmp = null;
+    try {
+      tmp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+      try (OutputStream out = new FileOutputStream(tmp)) {
+        values.store(out, "Zipfian zeta constants by <zipfian constant>:<item count>");
+      }
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      if (tmp != null) {
+        tmp.delete();
+      }
+      System.err.println("WARNING: Could not write the zeta cache " + file + ": " + e.getMessage());
+    }
+  }
+}
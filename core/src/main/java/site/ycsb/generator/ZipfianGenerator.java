@@ -17,7 +17,9 @@
 
 package site.ycsb.generator;
 
+import java.io.File;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
 
 /**
  * A generator of a zipfian distribution. It produces a sequence of items, such that some items are more popular than
@@ -34,14 +36,29 @@ import java.util.concurrent.ThreadLocalRandom;
  * minute for 100 million objects). This is because certain mathematical values need to be computed to properly
  * generate a zipfian skew, and one of those values (zeta) is a sum sequence from 1 to n, where n is the itemcount.
  * Note that if you increase the number of items in the set, we can compute a new zeta incrementally, so it should be
- * fast unless you have added millions of items. However, if you decrease the number of items, we recompute zeta from
- * scratch, so this can take a long time.
+ * fast unless you have added millions of items. Likewise, if you decrease the number of items, we subtract the terms
+ * of the items that went away, unless more items went away than are left.
+ *
+ * Sums over many items are computed in parallel on the common fork-join pool. With
+ * {@link #setZetaCacheFile(String)}, zeta values computed from scratch for large item counts are also kept in a local
+ * file, so that later runs over the same or a nearby item count do not compute them again.
  *
  * The algorithm used here is from "Quickly Generating Billion-Record Synthetic Databases", Jim Gray et al, SIGMOD 1994.
  */
 public class ZipfianGenerator extends NumberGenerator {
   public static final double ZIPFIAN_CONSTANT = 0.99;
 
+  /**
+   * The number of terms of zeta summed by one task. Sums over more terms are split into tasks of this size, which
+   * are added up in order, so the result does not depend on the number of threads.
+   */
+  static final long ZETA_CHUNK = 1L << 20;
+
+  /**
+   * Where zeta values are cached, or null if they are not.
+   */
+  private static volatile ZetaCache zetaCache;
+
   /**
    * Number of items.
    */
@@ -81,6 +98,20 @@ public class ZipfianGenerator extends NumberGenerator {
    */
   private boolean allowitemcountdecrease = false;
 
+  /**
+   * Keep the zeta values computed for large item counts in a file, and use the values found there. A missing file is
+   * created.
+   *
+   * @param file The path of the cache file, or null to not cache zeta values.
+   */
+  public static synchronized void setZetaCacheFile(String file) {
+    if (file == null) {
+      zetaCache = null;
+    } else if (zetaCache == null || !zetaCache.getFile().equals(new File(file))) {
+      zetaCache = new ZetaCache(new File(file));
+    }
+  }
+
   /******************************* Constructors **************************************/
 
   /**
@@ -163,12 +194,17 @@ public class ZipfianGenerator extends NumberGenerator {
 
   /**
    * Compute the zeta constant needed for the distribution. Do this from scratch for a distribution with n items,
-   * using the zipfian constant theta. This is a static version of the function which will not remember n.
+   * using the zipfian constant theta, unless the zeta cache has it or a nearby value. This is a static version of
+   * the function which will not remember n.
    * @param n The number of items to compute zeta over.
    * @param theta The zipfian constant.
    */
   static double zetastatic(long n, double theta) {
-    return zetastatic(0, n, theta, 0);
+    ZetaCache cache = zetaCache;
+    if (cache == null || n < ZetaCache.MIN_ITEMS) {
+      return zetastatic(0, n, theta, 0);
+    }
+    return cache.zeta(n, theta);
   }
 
   /**
@@ -196,14 +232,39 @@ public class ZipfianGenerator extends NumberGenerator {
    * @param initialsum The value of zeta we are computing incrementally from.
    */
   static double zetastatic(long st, long n, double theta, double initialsum) {
+    if (n - st <= ZETA_CHUNK) {
+      return zetarange(st, n, theta, initialsum);
+    }
+    long chunks = (n - st + ZETA_CHUNK - 1) / ZETA_CHUNK;
+    double[] sums = LongStream.range(0, chunks).parallel()
+        .mapToDouble(c -> zetarange(st + c * ZETA_CHUNK, Math.min(n, st + (c + 1) * ZETA_CHUNK), theta, 0))
+        .toArray();
+    double sum = initialsum;
+    for (double chunk : sums) {
+      sum += chunk;
+    }
+    return sum;
+  }
+
+  /**
+   * Compute the zeta constant needed for the distribution. Do this decrementally for a distribution that has n
+   * items now but used to have st items, by subtracting the terms of the items that went away. Use the zipfian
+   * constant theta.
+   * @param st The number of items used to compute the last initialsum, more than n.
+   * @param n The number of items to compute zeta over.
+   * @param theta The zipfian constant.
+   * @param initialsum The value of zeta we are computing decrementally from.
+   */
+  static double zetashrink(long st, long n, double theta, double initialsum) {
+    return initialsum - zetastatic(n, st, theta, 0);
+  }
+
+  private static double zetarange(long st, long n, double theta, double initialsum) {
     double sum = initialsum;
     for (long i = st; i < n; i++) {
 
       sum += 1 / (Math.pow(i + 1, theta));
     }
-
-    //System.out.println("countforzeta="+countforzeta);
-
     return sum;
   }
 
@@ -231,17 +292,18 @@ public class ZipfianGenerator extends NumberGenerator {
           zetan = zeta(countforzeta, itemcount, theta, zetan);
           eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2theta / zetan);
         } else if ((itemcount < countforzeta) && (allowitemcountdecrease)) {
-          //have to start over with zetan
-          //note : for large itemsets, this is very slow. so don't do it!
-
-          //TODO: can also have a negative incremental computation, e.g. if you decrease the number of items,
-          // then just subtract the zeta sequence terms for the items that went away. This would be faster than
-          // recomputing from scratch when the number of items decreases
-
-          System.err.println("WARNING: Recomputing Zipfian distribtion. This is slow and should be avoided. " +
-              "(itemcount=" + itemcount + " countforzeta=" + countforzeta + ")");
-
-          zetan = zeta(itemcount, theta);
+          if (countforzeta - itemcount < itemcount) {
+            //fewer items went away than are left. subtract the terms of those that went away
+            zetan = zetashrink(countforzeta, itemcount, theta, zetan);
+            countforzeta = itemcount;
+          } else {
+            //have to start over with zetan
+            //note : for large itemsets, this is very slow. so don't do it!
+            System.err.println("WARNING: Recomputing Zipfian distribtion. This is slow and should be avoided. " +
+                "(itemcount=" + itemcount + " countforzeta=" + countforzeta + ")");
+
+            zetan = zeta(itemcount, theta);
+          }
           eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2theta / zetan);
         }
       }
@@ -263,6 +325,15 @@ public class ZipfianGenerator extends NumberGenerator {
     return ret;
   }
 
+  /**
+   * Allow the number of items passed to {@link #nextLong(long)} to go down, which changes zeta.
+   *
+   * @param allow Whether to recompute zeta if the number of items goes down, instead of keeping the old one.
+   */
+  public void setAllowItemCountDecrease(boolean allow) {
+    allowitemcountdecrease = allow;
+  }
+
   /**
    * Return the next value, skewed by the Zipfian distribution. The 0th item will be the most popular, followed by
    * the 1st, followed by the 2nd, etc. (Or, if min != 0, the min-th item is the most popular, the min+1th item the
@@ -20,9 +20,18 @@ package site.ycsb.measurements;
 import site.ycsb.Status;
 import site.ycsb.measurements.exporter.MeasurementsExporter;
 
+import org.HdrHistogram.Histogram;
+
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Collects latency measurements, and reports them when requested.
@@ -37,6 +46,7 @@ public class Measurements {
     HDRHISTOGRAM_AND_HISTOGRAM,
     HDRHISTOGRAM_AND_RAW,
     TIMESERIES,
+    HDR_TIMESERIES,
     RAW
   }
 
@@ -49,11 +59,20 @@ public class Measurements {
   public static final String MEASUREMENT_TRACK_JVM_PROPERTY = "measurement.trackjvm";
   public static final String MEASUREMENT_TRACK_JVM_PROPERTY_DEFAULT = "false";
 
+  /** Set to true to measure the CPU time and heap allocation of the client threads per operation type. */
+  public static final String MEASUREMENT_COST_PROPERTY = "measurement.cost";
+  public static final String MEASUREMENT_COST_PROPERTY_DEFAULT = "false";
+
   private static Measurements singleton = null;
   private static Properties measurementproperties = null;
 
-  public static void setProperties(Properties props) {
+  /**
+   * Set the properties of the singleton. An existing singleton is replaced by a new one on the next
+   * {@link #getMeasurements()}, so that properties such as the raw latency log take effect.
+   */
+  public static synchronized void setProperties(Properties props) {
     measurementproperties = props;
+    singleton = null;
   }
 
   /**
@@ -66,21 +85,76 @@ public class Measurements {
     return singleton;
   }
 
-  private final ConcurrentHashMap<String, OneMeasurement> opToMesurementMap;
-  private final ConcurrentHashMap<String, OneMeasurement> opToIntendedMesurementMap;
+  /**
+   * The measurements of one phase of the run. Swapped as a whole so that operations are never split between
+   * phases. Measurements are kept in slots indexed by the operation ID from {@link #registerOperation(String)},
+   * so finding the measurement of an operation is an array read.
+   */
+  private static final class Recorders {
+    private volatile AtomicReferenceArray<OneMeasurement> opMeasurements = new AtomicReferenceArray<>(INITIAL_SLOTS);
+    private volatile AtomicReferenceArray<OneMeasurement> intendedMeasurements =
+        new AtomicReferenceArray<>(INITIAL_SLOTS);
+    private final String namePrefix;
+    private final OperationCost cost;
+
+    private Recorders(String namePrefix, boolean trackCost) {
+      this.namePrefix = namePrefix;
+      this.cost = trackCost ? new OperationCost() : null;
+    }
+
+    /**
+     * @return The measurements created so far, the operation ones first, both in registration order.
+     */
+    private List<OneMeasurement> all() {
+      List<OneMeasurement> all = new ArrayList<>();
+      addAll(all, opMeasurements);
+      addAll(all, intendedMeasurements);
+      return all;
+    }
+
+    private static void addAll(List<OneMeasurement> all, AtomicReferenceArray<OneMeasurement> slots) {
+      for (int i = 0; i < slots.length(); i++) {
+        OneMeasurement m = slots.get(i);
+        if (m != null) {
+          all.add(m);
+        }
+      }
+    }
+  }
+
+  private static final int INITIAL_SLOTS = 32;
+
+  /** The name prefix of the measurements taken during the warm-up. */
+  public static final String WARMUP_PREFIX = "WARMUP-";
+
+  private final ConcurrentHashMap<String, Integer> operationIds = new ConcurrentHashMap<>();
+  private volatile String[] operationNames = new String[0];
+  private volatile Recorders recorders;
+  private final RawLatencyLog rawLog;
+  private final LongAdder inFlight;
+  private boolean rawLogClosed;
+  private volatile boolean rawLogPaused;
+  private volatile Recorders warmupRecorders;
   private final MeasurementType measurementType;
   private final int measurementInterval;
+  private final boolean trackCost;
   private final Properties props;
 
   /**
    * Create a new object with the specified properties.
    */
   public Measurements(Properties props) {
-    opToMesurementMap = new ConcurrentHashMap<>();
-    opToIntendedMesurementMap = new ConcurrentHashMap<>();
-
     this.props = props;
 
+    boolean cost = Boolean.parseBoolean(this.props.getProperty(MEASUREMENT_COST_PROPERTY,
+        MEASUREMENT_COST_PROPERTY_DEFAULT));
+    if (cost && !OperationCost.enable()) {
+      System.err.println("The JVM cannot measure the CPU time of threads, ignoring " + MEASUREMENT_COST_PROPERTY);
+      cost = false;
+    }
+    trackCost = cost;
+    recorders = new Recorders("", trackCost);
+
     String mTypeString = this.props.getProperty(MEASUREMENT_TYPE_PROPERTY, MEASUREMENT_TYPE_PROPERTY_DEFAULT);
     switch (mTypeString) {
     case "histogram":
@@ -98,6 +172,9 @@ public class Measurements {
     case "timeseries":
       measurementType = MeasurementType.TIMESERIES;
       break;
+    case "hdrtimeseries":
+      measurementType = MeasurementType.HDR_TIMESERIES;
+      break;
     case "raw":
       measurementType = MeasurementType.RAW;
       break;
@@ -119,6 +196,15 @@ public class Measurements {
     default:
       throw new IllegalArgumentException("unknown " + MEASUREMENT_INTERVAL + "=" + mIntervalString);
     }
+
+    // only counted when someone looks at it
+    inFlight = this.props.getProperty(MetricsServer.PORT_PROPERTY) != null ? new LongAdder() : null;
+
+    try {
+      rawLog = RawLatencyLog.create(this.props);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to open the raw latency log", e);
+    }
   }
 
   private OneMeasurement constructOneMeasurement(String name) {
@@ -137,6 +223,8 @@ public class Measurements {
           new OneMeasurementRaw("Raw" + name, props));
     case TIMESERIES:
       return new OneMeasurementTimeSeries(name, props);
+    case HDR_TIMESERIES:
+      return new OneMeasurementHdrTimeSeries(name, props);
     case RAW:
       return new OneMeasurementRaw(name, props);
     default:
@@ -162,6 +250,17 @@ public class Measurements {
     }
   };
 
+  static class CostStartHolder {
+    private long cpuNs;
+    private long bytes;
+  }
+
+  private final ThreadLocal<CostStartHolder> tlCostStart = new ThreadLocal<CostStartHolder>() {
+    protected CostStartHolder initialValue() {
+      return new CostStartHolder();
+    }
+  };
+
   public void setIntendedStartTimeNs(long time) {
     if (measurementInterval == 0) {
       return;
@@ -176,16 +275,49 @@ public class Measurements {
     return tlIntendedStartTime.get().startTime();
   }
 
+  /**
+   * Register an operation name once, e.g. at DB initialization, so that its measurements can later be reported by
+   * ID without looking the name up on every operation. Registering the same name again returns the same ID, and
+   * IDs stay valid across {@link #reset()} and the warm-up.
+   *
+   * @param operation The operation name, e.g. "READ" or "READ-FAILED".
+   * @return The ID of the operation.
+   */
+  public int registerOperation(String operation) {
+    Integer id = operationIds.get(operation);
+    if (id != null) {
+      return id;
+    }
+    synchronized (operationIds) {
+      id = operationIds.get(operation);
+      if (id == null) {
+        String[] names = Arrays.copyOf(operationNames, operationNames.length + 1);
+        id = names.length - 1;
+        names[id] = operation;
+        operationNames = names;
+        operationIds.put(operation, id);
+      }
+      return id;
+    }
+  }
+
   /**
    * Report a single value of a single metric. E.g. for read latency, operation="READ" and latency is the measured
    * value.
    */
   public void measure(String operation, int latency) {
+    measure(registerOperation(operation), latency);
+  }
+
+  /**
+   * Report a single value of a single metric by the ID from {@link #registerOperation(String)}.
+   */
+  public void measure(int operationId, int latency) {
     if (measurementInterval == 1) {
       return;
     }
     try {
-      OneMeasurement m = getOpMeasurement(operation);
+      OneMeasurement m = getOpMeasurement(operationId);
       m.measure(latency);
     } catch (java.lang.ArrayIndexOutOfBoundsException e) {
       // This seems like a terribly hacky way to cover up for a bug in the measurement code
@@ -200,11 +332,18 @@ public class Measurements {
    * value.
    */
   public void measureIntended(String operation, int latency) {
+    measureIntended(registerOperation(operation), latency);
+  }
+
+  /**
+   * Report a single intended latency by the ID from {@link #registerOperation(String)}.
+   */
+  public void measureIntended(int operationId, int latency) {
     if (measurementInterval == 0) {
       return;
     }
     try {
-      OneMeasurement m = getOpIntendedMeasurement(operation);
+      OneMeasurement m = getOpIntendedMeasurement(operationId);
       m.measure(latency);
     } catch (java.lang.ArrayIndexOutOfBoundsException e) {
       // This seems like a terribly hacky way to cover up for a bug in the measurement code
@@ -214,41 +353,278 @@ public class Measurements {
     }
   }
 
-  private OneMeasurement getOpMeasurement(String operation) {
-    OneMeasurement m = opToMesurementMap.get(operation);
-    if (m == null) {
-      m = constructOneMeasurement(operation);
-      OneMeasurement oldM = opToMesurementMap.putIfAbsent(operation, m);
-      if (oldM != null) {
-        m = oldM;
+  private OneMeasurement getOpMeasurement(int operationId) {
+    final Recorders r = recorders;
+    AtomicReferenceArray<OneMeasurement> slots = r.opMeasurements;
+    if (operationId < slots.length()) {
+      OneMeasurement m = slots.get(operationId);
+      if (m != null) {
+        return m;
+      }
+    }
+    return createMeasurement(r, operationId, false);
+  }
+
+  private OneMeasurement getOpIntendedMeasurement(int operationId) {
+    final Recorders r = recorders;
+    AtomicReferenceArray<OneMeasurement> slots = r.intendedMeasurements;
+    if (operationId < slots.length()) {
+      OneMeasurement m = slots.get(operationId);
+      if (m != null) {
+        return m;
       }
     }
-    return m;
+    return createMeasurement(r, operationId, true);
   }
 
-  private OneMeasurement getOpIntendedMeasurement(String operation) {
-    OneMeasurement m = opToIntendedMesurementMap.get(operation);
-    if (m == null) {
-      final String name = measurementInterval == 1 ? operation : "Intended-" + operation;
-      m = constructOneMeasurement(name);
-      OneMeasurement oldM = opToIntendedMesurementMap.putIfAbsent(operation, m);
-      if (oldM != null) {
-        m = oldM;
+  /**
+   * The slow path taken once per operation and phase: creates the measurement of the operation, growing the
+   * slots if needed. Slots are only ever written while holding the lock of the recorders.
+   */
+  private OneMeasurement createMeasurement(Recorders r, int operationId, boolean intended) {
+    synchronized (r) {
+      AtomicReferenceArray<OneMeasurement> slots = intended ? r.intendedMeasurements : r.opMeasurements;
+      if (operationId >= slots.length()) {
+        AtomicReferenceArray<OneMeasurement> grown =
+            new AtomicReferenceArray<>(Math.max(operationId + 1, 2 * slots.length()));
+        for (int i = 0; i < slots.length(); i++) {
+          grown.set(i, slots.get(i));
+        }
+        slots = grown;
+        if (intended) {
+          r.intendedMeasurements = grown;
+        } else {
+          r.opMeasurements = grown;
+        }
       }
+      OneMeasurement m = slots.get(operationId);
+      if (m == null) {
+        String operation = operationNames[operationId];
+        String name = intended && measurementInterval != 1 ? "Intended-" + operation : operation;
+        m = constructOneMeasurement(r.namePrefix + name);
+        slots.set(operationId, m);
+      }
+      return m;
     }
-    return m;
   }
 
   /**
    * Report a return code for a single DB operation.
    */
   public void reportStatus(final String operation, final Status status) {
+    reportStatus(registerOperation(operation), status);
+  }
+
+  /**
+   * Report a return code for a single DB operation by the ID from {@link #registerOperation(String)}.
+   */
+  public void reportStatus(final int operationId, final Status status) {
     OneMeasurement m = measurementInterval == 1 ?
-        getOpIntendedMeasurement(operation) :
-        getOpMeasurement(operation);
+        getOpIntendedMeasurement(operationId) :
+        getOpMeasurement(operationId);
     m.reportStatus(status);
   }
 
+  /**
+   * Remember the CPU time and allocated bytes of the calling thread right before a DB call, if
+   * {@link #MEASUREMENT_COST_PROPERTY} is set.
+   */
+  public void startCost() {
+    if (!trackCost) {
+      return;
+    }
+    CostStartHolder start = tlCostStart.get();
+    start.cpuNs = OperationCost.threadCpuTimeNs();
+    start.bytes = OperationCost.threadAllocatedBytes();
+  }
+
+  /**
+   * Add the CPU time and allocated bytes of the calling thread since {@link #startCost()} to an operation type,
+   * if {@link #MEASUREMENT_COST_PROPERTY} is set.
+   *
+   * @param operationId The ID from {@link #registerOperation(String)}.
+   */
+  public void measureCost(int operationId) {
+    if (!trackCost) {
+      return;
+    }
+    CostStartHolder start = tlCostStart.get();
+    recorders.cost.add(operationId, start.cpuNs, start.bytes);
+  }
+
+  /**
+   * Count a DB operation as started, for the in-flight gauge of the {@link MetricsServer}.
+   */
+  public void operationStarted() {
+    if (inFlight != null) {
+      inFlight.increment();
+    }
+  }
+
+  /**
+   * Count a DB operation as completed, for the in-flight gauge of the {@link MetricsServer}.
+   */
+  public void operationCompleted() {
+    if (inFlight != null) {
+      inFlight.decrement();
+    }
+  }
+
+  /**
+   * @return The number of DB operations started but not completed, or 0 if not counted.
+   */
+  long getInFlight() {
+    return inFlight == null ? 0 : inFlight.sum();
+  }
+
+  /**
+   * @return The measurements of the current phase, the operation ones first.
+   */
+  List<OneMeasurement> getCurrentMeasurements() {
+    return recorders.all();
+  }
+
+  /**
+   * Append the record of one operation to the raw latency log, if one is configured.
+   *
+   * @param operationId The ID from {@link #registerOperation(String)}.
+   * @param status The result of the operation.
+   * @param intendedStartTimeNs The intended start time, from {@link System#nanoTime()}.
+   * @param startTimeNs The start time.
+   * @param endTimeNs The end time.
+   */
+  public void logOperation(int operationId, Status status, long intendedStartTimeNs, long startTimeNs,
+                           long endTimeNs) {
+    if (rawLog != null && !rawLogPaused) {
+      rawLog.log(operationId, status, intendedStartTimeNs, startTimeNs, endTimeNs);
+    }
+  }
+
+  /**
+   * Stop or resume appending operations to the raw latency log, e.g. to leave out operations that are not part of
+   * the run. Unlike the other measurements, the log cannot be {@link #reset()}.
+   *
+   * @param paused Whether operations are left out of the log.
+   */
+  public void setRawLogPaused(boolean paused) {
+    rawLogPaused = paused;
+  }
+
+  /**
+   * Flush and close the raw latency log, if one is configured. Must be called once all operations are done;
+   * {@link #exportMeasurements(MeasurementsExporter)} does so.
+   *
+   * @throws IOException Thrown if the log could not be written.
+   */
+  public synchronized void closeRawLog() throws IOException {
+    if (rawLog != null && !rawLogClosed) {
+      rawLogClosed = true;
+      rawLog.close(operationNames);
+    }
+  }
+
+  /**
+   * Discard everything measured so far, e.g. between the trials of a throughput search. Operations still in
+   * flight may be reported to either the old or the new measurements.
+   */
+  public void reset() {
+    recorders = new Recorders("", trackCost);
+  }
+
+  /**
+   * Start recording into a separate set of measurements named with {@link #WARMUP_PREFIX}, discarding everything
+   * measured so far.
+   */
+  public void startWarmup() {
+    recorders = new Recorders(WARMUP_PREFIX, trackCost);
+  }
+
+  /**
+   * Atomically swap to fresh measurements at the end of the warm-up.
+   *
+   * @param keep Whether the warm-up measurements are still exported, under their own names, or discarded.
+   */
+  public void endWarmup(boolean keep) {
+    Recorders warmup = recorders;
+    recorders = new Recorders("", trackCost);
+    warmupRecorders = keep ? warmup : null;
+  }
+
+  /**
+   * @return Whether the measurement type keeps the percentiles that {@link #getMaxPercentileLatency(double)} reports.
+   */
+  public boolean keepsPercentiles() {
+    switch (measurementType) {
+    case HDRHISTOGRAM:
+    case HDRHISTOGRAM_AND_HISTOGRAM:
+    case HDRHISTOGRAM_AND_RAW:
+    case HDR_TIMESERIES:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * Return the highest latency at the given percentile across all measured operations, counting both the
+   * operation and the intended latencies.
+   *
+   * @param percentile The percentile, between 0 and 100.
+   * @return The latency in microseconds, 0 if nothing was measured, or -1 if the measurement type does not keep
+   *         percentiles.
+   */
+  public long getMaxPercentileLatency(double percentile) {
+    final Recorders r = recorders;
+    long max = 0;
+    for (OneMeasurement m : r.all()) {
+      long latency = m.getPercentileLatency(percentile);
+      if (latency < 0) {
+        return -1;
+      }
+      max = Math.max(max, latency);
+    }
+    return max;
+  }
+
+  /**
+   * Return copies of the histograms of all measured operations, including the intended latencies, keyed by
+   * measurement name.
+   *
+   * @return The histograms, empty if the measurement type does not keep any.
+   */
+  public Map<String, Histogram> getTotalHistograms() {
+    final Recorders r = recorders;
+    Map<String, Histogram> histograms = new HashMap<>();
+    for (OneMeasurement m : r.all()) {
+      Histogram histogram = m.getTotalHistogram();
+      if (histogram != null) {
+        histograms.put(m.getName(), histogram);
+      }
+    }
+    return histograms;
+  }
+
+  /**
+   * Return the number of times each status was reported for each measured operation, keyed by measurement name and
+   * status name.
+   *
+   * @return The status counts, without the operations no status was reported for.
+   */
+  public Map<String, Map<String, Long>> getStatusCounts() {
+    final Recorders r = recorders;
+    Map<String, Map<String, Long>> counts = new HashMap<>();
+    for (OneMeasurement m : r.all()) {
+      Map<String, Long> statuses = new HashMap<>();
+      for (Map.Entry<Status, Long> entry : m.getStatusCounts().entrySet()) {
+        statuses.put(entry.getKey().getName(), entry.getValue());
+      }
+      if (!statuses.isEmpty()) {
+        counts.put(m.getName(), statuses);
+      }
+    }
+    return counts;
+  }
+
   /**
    * Export the current measurements to a suitable format.
    *
@@ -256,24 +632,34 @@ public class Measurements {
    * @throws IOException Thrown if the export failed.
    */
   public void exportMeasurements(MeasurementsExporter exporter) throws IOException {
-    for (OneMeasurement measurement : opToMesurementMap.values()) {
-      measurement.exportMeasurements(exporter);
+    closeRawLog();
+    final Recorders warmup = warmupRecorders;
+    if (warmup != null) {
+      exportMeasurements(exporter, warmup);
     }
-    for (OneMeasurement measurement : opToIntendedMesurementMap.values()) {
+    exportMeasurements(exporter, recorders);
+  }
+
+  private void exportMeasurements(MeasurementsExporter exporter, Recorders r) throws IOException {
+    for (OneMeasurement measurement : r.all()) {
       measurement.exportMeasurements(exporter);
     }
+    if (r.cost != null) {
+      r.cost.exportMeasurements(exporter, r.namePrefix, operationNames);
+    }
   }
 
   /**
    * Return a one line summary of the measurements.
    */
   public synchronized String getSummary() {
+    final Recorders r = recorders;
     String ret = "";
-    for (OneMeasurement m : opToMesurementMap.values()) {
+    for (OneMeasurement m : r.all()) {
       ret += m.getSummary() + " ";
     }
-    for (OneMeasurement m : opToIntendedMesurementMap.values()) {
-      ret += m.getSummary() + " ";
+    if (r.cost != null) {
+      ret += r.cost.getSummary(r.namePrefix, operationNames);
     }
     return ret;
   }
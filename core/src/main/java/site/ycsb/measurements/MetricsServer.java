@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.HdrHistogram.Histogram;
+import site.ycsb.Status;
+import site.ycsb.Utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Serves the live metrics of a run over HTTP in the Prometheus text format, so that dashboards can show the
+ * client-side latencies next to the metrics of the database.
+ *
+ * A background thread takes a snapshot of the measurements every {@link #INTERVAL_PROPERTY} seconds and renders
+ * it; scrapes only read the last rendered page and never touch the measurements. The latency quantiles are those
+ * of the last snapshot interval, computed as the difference between two copies of the total HdrHistogram, so
+ * they are only available with the hdrhistogram based measurement types.
+ */
+public final class MetricsServer extends Thread {
+  /** The port to serve the metrics on; the server is disabled if not set. */
+  public static final String PORT_PROPERTY = "metrics.port";
+
+  /** The address to serve the metrics on. */
+  public static final String HOST_PROPERTY = "metrics.host";
+  public static final String HOST_PROPERTY_DEFAULT = "localhost";
+
+  /** The interval between snapshots in seconds, over which the latency quantiles are computed. */
+  public static final String INTERVAL_PROPERTY = "metrics.interval";
+  public static final String INTERVAL_PROPERTY_DEFAULT = "10";
+
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+  private final Measurements measurements;
+  private final HttpServer server;
+  private final long intervalMs;
+  private Map<OneMeasurement, Histogram> previousTotals = new IdentityHashMap<>();
+  private volatile byte[] page = new byte[0];
+
+  /**
+   * @param props The properties of the run.
+   * @return The server, not yet started, or null if none is configured.
+   * @throws IOException if the port could not be bound.
+   */
+  public static MetricsServer create(Properties props) throws IOException {
+    String port = props.getProperty(PORT_PROPERTY);
+    if (port == null) {
+      return null;
+    }
+    return new MetricsServer(Measurements.getMeasurements(),
+        new InetSocketAddress(props.getProperty(HOST_PROPERTY, HOST_PROPERTY_DEFAULT), Integer.parseInt(port)),
+        1000L * Long.parseLong(props.getProperty(INTERVAL_PROPERTY, INTERVAL_PROPERTY_DEFAULT)));
+  }
+
+  MetricsServer(Measurements measurements, InetSocketAddress address, long intervalMs) throws IOException {
+    super("MetricsServer");
+    setDaemon(true);
+    this.measurements = measurements;
+    this.intervalMs = intervalMs;
+    server = HttpServer.create(address, 0);
+    server.createContext("/metrics", this::serve);
+  }
+
+  /**
+   * @return The port the metrics are served on.
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  @Override
+  public void run() {
+    snapshot();
+    server.start();
+    try {
+      while (!isInterrupted()) {
+        Thread.sleep(intervalMs);
+        snapshot();
+      }
+    } catch (InterruptedException e) {
+      // the run is over
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    byte[] body = page;
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  /**
+   * Renders the current measurements into the page served to scrapes.
+   */
+  void snapshot() {
+    StringBuilder operations = new StringBuilder();
+    StringBuilder latencies = new StringBuilder();
+    StringBuilder statuses = new StringBuilder();
+    Map<OneMeasurement, Histogram> totals = new IdentityHashMap<>();
+    for (OneMeasurement m : measurements.getCurrentMeasurements()) {
+      String label = "operation=\"" + m.getName() + "\"";
+      Histogram total = m.getTotalHistogram();
+      if (total != null) {
+        totals.put(m, total);
+        operations.append("ycsb_operations_total{").append(label).append("} ").append(total.getTotalCount())
+            .append('\n');
+
+        Histogram interval = total.copy();
+        Histogram previous = previousTotals.get(m);
+        if (previous != null) {
+          interval.subtract(previous);
+        }
+        if (interval.getTotalCount() > 0) {
+          for (double quantile : QUANTILES) {
+            latencies.append("ycsb_operation_latency_us{").append(label).append(",quantile=\"").append(quantile)
+                .append("\"} ").append(interval.getValueAtPercentile(100 * quantile)).append('\n');
+          }
+        }
+        latencies.append("ycsb_operation_latency_us_sum{").append(label).append("} ")
+            .append(format(total.getMean() * total.getTotalCount())).append('\n');
+        latencies.append("ycsb_operation_latency_us_count{").append(label).append("} ")
+            .append(total.getTotalCount()).append('\n');
+      }
+      for (Map.Entry<Status, Long> entry : m.getStatusCounts().entrySet()) {
+        statuses.append("ycsb_operation_status_total{").append(label).append(",status=\"")
+            .append(entry.getKey().getName()).append("\"} ").append(entry.getValue()).append('\n');
+      }
+    }
+    previousTotals = totals;
+
+    StringBuilder out = new StringBuilder();
+    out.append("# HELP ycsb_operations_total Operations measured so far.\n");
+    out.append("# TYPE ycsb_operations_total counter\n").append(operations);
+    out.append("# HELP ycsb_operation_latency_us Operation latency over the last ").append(intervalMs / 1000)
+        .append(" s.\n");
+    out.append("# TYPE ycsb_operation_latency_us summary\n").append(latencies);
+    out.append("# HELP ycsb_operation_status_total Operations by returned status.\n");
+    out.append("# TYPE ycsb_operation_status_total counter\n").append(statuses);
+    out.append("# HELP ycsb_operations_in_flight Operations started but not completed.\n");
+    out.append("# TYPE ycsb_operations_in_flight gauge\n");
+    out.append("ycsb_operations_in_flight ").append(measurements.getInFlight()).append('\n');
+
+    out.append("# TYPE ycsb_jvm_gc_collections_total counter\n");
+    Map<String, Long[]> gcs = Utils.getGCStatst();
+    for (Map.Entry<String, Long[]> entry : gcs.entrySet()) {
+      out.append("ycsb_jvm_gc_collections_total{gc=\"").append(entry.getKey()).append("\"} ")
+          .append(entry.getValue()[0]).append('\n');
+    }
+    out.append("# TYPE ycsb_jvm_gc_time_seconds_total counter\n");
+    for (Map.Entry<String, Long[]> entry : gcs.entrySet()) {
+      out.append("ycsb_jvm_gc_time_seconds_total{gc=\"").append(entry.getKey()).append("\"} ")
+          .append(format(entry.getValue()[1] / 1000.0)).append('\n');
+    }
+    out.append("# TYPE ycsb_jvm_memory_used_bytes gauge\n");
+    out.append("ycsb_jvm_memory_used_bytes ").append(Utils.getUsedMemoryBytes()).append('\n');
+    out.append("# TYPE ycsb_jvm_threads gauge\n");
+    out.append("ycsb_jvm_threads ").append(Utils.getActiveThreadCount()).append('\n');
+    out.append("# TYPE ycsb_system_load_average gauge\n");
+    out.append("ycsb_system_load_average ").append(format(Utils.getSystemLoadAverage())).append('\n');
+
+    page = out.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.ROOT, "%.3f", value);
+  }
+}
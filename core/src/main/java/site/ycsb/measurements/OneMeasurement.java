@@ -17,13 +17,15 @@
 
 package site.ycsb.measurements;
 
+import org.HdrHistogram.Histogram;
 import site.ycsb.Status;
 import site.ycsb.measurements.exporter.MeasurementsExporter;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A single measured metric (such as READ LATENCY).
@@ -31,7 +33,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 public abstract class OneMeasurement {
 
   private final String name;
-  private final ConcurrentHashMap<Status, AtomicInteger> returncodes;
+  private final ConcurrentHashMap<Status, LongAdder> returncodes;
 
   public String getName() {
     return name;
@@ -50,20 +52,61 @@ public abstract class OneMeasurement {
   public abstract String getSummary();
 
   /**
-   * No need for synchronization, using CHM to deal with that.
+   * No need for synchronization, using CHM to deal with that. The counters are {@link LongAdder}s so that client
+   * threads reporting the same status do not contend on one cache line.
    */
   public void reportStatus(Status status) {
-    AtomicInteger counter = returncodes.get(status);
+    LongAdder counter = returncodes.get(status);
 
     if (counter == null) {
-      counter = new AtomicInteger();
-      AtomicInteger other = returncodes.putIfAbsent(status, counter);
+      counter = new LongAdder();
+      LongAdder other = returncodes.putIfAbsent(status, counter);
       if (other != null) {
         counter = other;
       }
     }
 
-    counter.incrementAndGet();
+    counter.increment();
+  }
+
+  /**
+   * Adds a number of reports of a status at once, e.g. the counts of another process.
+   *
+   * @param status The status reported.
+   * @param count The number of times it was reported.
+   */
+  public void reportStatus(Status status, long count) {
+    LongAdder counter = returncodes.get(status);
+
+    if (counter == null) {
+      counter = new LongAdder();
+      LongAdder other = returncodes.putIfAbsent(status, counter);
+      if (other != null) {
+        counter = other;
+      }
+    }
+
+    counter.add(count);
+  }
+
+  /**
+   * Return the latency at the given percentile of everything measured so far.
+   *
+   * @param percentile The percentile, between 0 and 100.
+   * @return The latency in microseconds, or -1 if this kind of measurement does not keep percentiles.
+   */
+  public long getPercentileLatency(double percentile) {
+    return -1;
+  }
+
+  /**
+   * Return a copy of the histogram of everything measured so far, e.g. to merge it with the measurements of other
+   * processes.
+   *
+   * @return The histogram, or null if this kind of measurement does not keep one.
+   */
+  public Histogram getTotalHistogram() {
+    return null;
   }
 
   /**
@@ -74,9 +117,20 @@ public abstract class OneMeasurement {
    */
   public abstract void exportMeasurements(MeasurementsExporter exporter) throws IOException;
 
+  /**
+   * @return The number of times each status was reported so far.
+   */
+  Map<Status, Long> getStatusCounts() {
+    Map<Status, Long> counts = new HashMap<>();
+    for (Map.Entry<Status, LongAdder> entry : returncodes.entrySet()) {
+      counts.put(entry.getKey(), entry.getValue().sum());
+    }
+    return counts;
+  }
+
   protected final void exportStatusCounts(MeasurementsExporter exporter) throws IOException {
-    for (Map.Entry<Status, AtomicInteger> entry : returncodes.entrySet()) {
-      exporter.write(getName(), "Return=" + entry.getKey().getName(), entry.getValue().get());
+    for (Map.Entry<Status, LongAdder> entry : returncodes.entrySet()) {
+      exporter.write(getName(), "Return=" + entry.getKey().getName(), entry.getValue().sum());
     }
   }
 }
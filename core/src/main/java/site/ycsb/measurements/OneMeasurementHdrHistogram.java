@@ -22,6 +22,7 @@ import org.HdrHistogram.Histogram;
 import org.HdrHistogram.HistogramIterationValue;
 import org.HdrHistogram.HistogramLogWriter;
 import org.HdrHistogram.Recorder;
+import org.HdrHistogram.SingleWriterRecorder;
 
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -31,6 +32,7 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Take measurements and maintain a HdrHistogram of a given metric, such as READ LATENCY.
@@ -42,8 +44,19 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
   private final PrintStream log;
   private final HistogramLogWriter histogramLogWriter;
 
-  private final Recorder histogram;
-  private Histogram totalHistogram;
+  // one single-writer recorder per measuring thread, merged when the intervals are taken
+  private final List<SingleWriterRecorder> recorders = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<SingleWriterRecorder> threadRecorder = new ThreadLocal<SingleWriterRecorder>() {
+    @Override
+    protected SingleWriterRecorder initialValue() {
+      SingleWriterRecorder recorder = new SingleWriterRecorder(3);
+      recorders.add(recorder);
+      return recorder;
+    }
+  };
+  private final Histogram totalHistogram = new Histogram(3);
+  private final Histogram pendingInterval = new Histogram(3);
+  private long intervalStartTimeStamp = System.currentTimeMillis();
 
   /**
    * The name of the property for deciding what percentile values to output.
@@ -90,15 +103,15 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
       histogramLogWriter.setBaseTime(now);
       histogramLogWriter.outputLegend();
     }
-    histogram = new Recorder(3);
   }
 
   /**
    * It appears latency is reported in micros.
-   * Using {@link Recorder} to support concurrent updates to histogram.
+   * Each thread records into its own {@link SingleWriterRecorder}, which unlike a shared {@link Recorder} needs no
+   * atomic updates, so client threads never contend on the same counts.
    */
   public void measure(int latencyInMicros) {
-    histogram.recordValue(latencyInMicros);
+    threadRecorder.get().recordValue(latencyInMicros);
   }
 
   /**
@@ -164,14 +177,48 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
         + d.format(intervalHistogram.getValueAtPercentile(99.99)) + "]";
   }
 
-  private Histogram getIntervalHistogramAndAccumulate() {
-    Histogram intervalHistogram = histogram.getIntervalHistogram();
-    // add this to the total time histogram.
-    if (totalHistogram == null) {
-      totalHistogram = intervalHistogram;
-    } else {
-      totalHistogram.add(intervalHistogram);
+  @Override
+  public synchronized long getPercentileLatency(double percentile) {
+    collect();
+    return totalHistogram.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * Add latencies measured elsewhere, e.g. by another process, to this measurement.
+   *
+   * @param other The histogram to add.
+   */
+  public synchronized void add(Histogram other) {
+    collect();
+    totalHistogram.add(other);
+  }
+
+  @Override
+  public synchronized Histogram getTotalHistogram() {
+    collect();
+    return totalHistogram.copy();
+  }
+
+  /**
+   * Moves what the threads recorded so far into the total and the pending interval, without ending the interval,
+   * so that taking a snapshot does not take latencies away from the interval log.
+   */
+  private synchronized void collect() {
+    for (SingleWriterRecorder recorder : recorders) {
+      Histogram threadHistogram = recorder.getIntervalHistogram();
+      pendingInterval.add(threadHistogram);
+      totalHistogram.add(threadHistogram);
     }
+  }
+
+  private synchronized Histogram getIntervalHistogramAndAccumulate() {
+    collect();
+    Histogram intervalHistogram = pendingInterval.copy();
+    pendingInterval.reset();
+    long now = System.currentTimeMillis();
+    intervalHistogram.setStartTimeStamp(intervalStartTimeStamp);
+    intervalHistogram.setEndTimeStamp(now);
+    intervalStartTimeStamp = now;
     return intervalHistogram;
   }
 
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A time series measurement of a metric, such as READ LATENCY, that keeps the percentiles of every interval of
+ * {@link OneMeasurementTimeSeries#GRANULARITY} milliseconds rather than just their average, so that short latency
+ * spikes show up.
+ *
+ * The latencies are recorded into per-thread HdrHistogram recorders. The first operation after the end of an
+ * interval, or the status thread, takes the interval histogram and keeps only its count, mean, median, 99th and
+ * 99.9th percentile and maximum, so the memory used per interval is constant. An interval without any operation
+ * is merged into the next one.
+ *
+ * So that the memory stays bounded however long the run, at most {@link #MAX_INTERVALS} intervals are kept. Once
+ * they are all used, the interval length doubles and the intervals kept so far are merged pairwise: their counts
+ * and means are combined exactly, their percentiles are the worst of the pair.
+ */
+public class OneMeasurementHdrTimeSeries extends OneMeasurement {
+  /** The maximum number of intervals kept, beyond which the intervals are merged into longer ones. */
+  public static final String MAX_INTERVALS = "timeseries.maxintervals";
+  public static final String MAX_INTERVALS_DEFAULT = "10000";
+
+  private static final int INITIAL_INTERVALS = 64;
+
+  private final int maxIntervals;
+  private final long start;
+  private volatile long nextIntervalMs;
+  private final AtomicBoolean rolling = new AtomicBoolean();
+
+  private final List<SingleWriterRecorder> recorders = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<SingleWriterRecorder> threadRecorder = new ThreadLocal<SingleWriterRecorder>() {
+    @Override
+    protected SingleWriterRecorder initialValue() {
+      SingleWriterRecorder recorder = new SingleWriterRecorder(3);
+      recorders.add(recorder);
+      return recorder;
+    }
+  };
+
+  // guarded by this
+  private final Histogram totalHistogram = new Histogram(3);
+  private final Histogram interval = new Histogram(3);
+  private long granularity;
+  private long currentInterval;
+  private int intervals;
+  private long[] times = new long[INITIAL_INTERVALS];
+  private long[] counts = new long[INITIAL_INTERVALS];
+  private double[] means = new double[INITIAL_INTERVALS];
+  private long[] p50s = new long[INITIAL_INTERVALS];
+  private long[] p99s = new long[INITIAL_INTERVALS];
+  private long[] p999s = new long[INITIAL_INTERVALS];
+  private long[] maxes = new long[INITIAL_INTERVALS];
+  // the intervals that ended since the last summary
+  private long summaryCount;
+  private double summarySum;
+  private long summaryP99;
+  private long summaryMax;
+
+  public OneMeasurementHdrTimeSeries(String name, Properties props) {
+    super(name);
+    granularity = Integer.parseInt(props.getProperty(OneMeasurementTimeSeries.GRANULARITY,
+        OneMeasurementTimeSeries.GRANULARITY_DEFAULT));
+    maxIntervals = Integer.parseInt(props.getProperty(MAX_INTERVALS, MAX_INTERVALS_DEFAULT));
+    if (maxIntervals < 2) {
+      throw new IllegalArgumentException(MAX_INTERVALS + " must be at least 2");
+    }
+    start = System.currentTimeMillis();
+    nextIntervalMs = start + granularity;
+  }
+
+  @Override
+  public void measure(int latency) {
+    endIntervalIfDue();
+    threadRecorder.get().recordValue(latency);
+  }
+
+  /**
+   * Ends the current interval if its time is up. Only one thread does so, the others carry on measuring.
+   */
+  private void endIntervalIfDue() {
+    long now = System.currentTimeMillis();
+    if (now >= nextIntervalMs && rolling.compareAndSet(false, true)) {
+      try {
+        endInterval(now);
+      } finally {
+        rolling.set(false);
+      }
+    }
+  }
+
+  /**
+   * Moves what the threads recorded so far into the current interval and the total.
+   */
+  private synchronized void collect() {
+    for (SingleWriterRecorder recorder : recorders) {
+      Histogram recorded = recorder.getIntervalHistogram();
+      interval.add(recorded);
+      totalHistogram.add(recorded);
+    }
+  }
+
+  private synchronized void endInterval(long now) {
+    collect();
+    if (interval.getTotalCount() > 0) {
+      while (intervals == maxIntervals) {
+        downsample();
+      }
+      if (intervals == times.length) {
+        int length = Math.min(2 * intervals, maxIntervals);
+        times = Arrays.copyOf(times, length);
+        counts = Arrays.copyOf(counts, length);
+        means = Arrays.copyOf(means, length);
+        p50s = Arrays.copyOf(p50s, length);
+        p99s = Arrays.copyOf(p99s, length);
+        p999s = Arrays.copyOf(p999s, length);
+        maxes = Arrays.copyOf(maxes, length);
+      }
+      times[intervals] = currentInterval;
+      counts[intervals] = interval.getTotalCount();
+      means[intervals] = interval.getMean();
+      p50s[intervals] = interval.getValueAtPercentile(50);
+      p99s[intervals] = interval.getValueAtPercentile(99);
+      p999s[intervals] = interval.getValueAtPercentile(99.9);
+      maxes[intervals] = interval.getMaxValue();
+      summaryCount += counts[intervals];
+      summarySum += means[intervals] * counts[intervals];
+      summaryP99 = Math.max(summaryP99, p99s[intervals]);
+      summaryMax = Math.max(summaryMax, maxes[intervals]);
+      // after a downsampling the interval may have started within the last one kept
+      if (intervals > 0 && times[intervals - 1] == currentInterval) {
+        merge(intervals - 1, intervals);
+      } else {
+        intervals++;
+      }
+      interval.reset();
+    }
+    currentInterval = ((now - start) / granularity) * granularity;
+    nextIntervalMs = start + currentInterval + granularity;
+  }
+
+  /**
+   * Doubles the interval length and merges the intervals kept so far that fall into the same longer interval.
+   */
+  private void downsample() {
+    granularity *= 2;
+    int merged = -1;
+    for (int i = 0; i < intervals; i++) {
+      long time = (times[i] / granularity) * granularity;
+      if (merged >= 0 && times[merged] == time) {
+        merge(merged, i);
+      } else {
+        merged++;
+        times[merged] = time;
+        counts[merged] = counts[i];
+        means[merged] = means[i];
+        p50s[merged] = p50s[i];
+        p99s[merged] = p99s[i];
+        p999s[merged] = p999s[i];
+        maxes[merged] = maxes[i];
+      }
+    }
+    intervals = merged + 1;
+    currentInterval = (currentInterval / granularity) * granularity;
+  }
+
+  /**
+   * Merges the statistics of one interval into another: the count and mean exactly, the percentiles by keeping the
+   * worst of the two.
+   */
+  private void merge(int into, int from) {
+    long count = counts[into] + counts[from];
+    means[into] = (means[into] * counts[into] + means[from] * counts[from]) / count;
+    counts[into] = count;
+    p50s[into] = Math.max(p50s[into], p50s[from]);
+    p99s[into] = Math.max(p99s[into], p99s[from]);
+    p999s[into] = Math.max(p999s[into], p999s[from]);
+    maxes[into] = Math.max(maxes[into], maxes[from]);
+  }
+
+  @Override
+  public void exportMeasurements(MeasurementsExporter exporter) throws IOException {
+    Map<String, Number> statistics = new LinkedHashMap<>();
+    synchronized (this) {
+      endInterval(System.currentTimeMillis());
+
+      exporter.write(getName(), "Operations", totalHistogram.getTotalCount());
+      exporter.write(getName(), "AverageLatency(us)", totalHistogram.getMean());
+      exporter.write(getName(), "MinLatency(us)", totalHistogram.getMinValue());
+      exporter.write(getName(), "MaxLatency(us)", totalHistogram.getMaxValue());
+      exporter.write(getName(), "95thPercentileLatency(us)", totalHistogram.getValueAtPercentile(95));
+      exporter.write(getName(), "99thPercentileLatency(us)", totalHistogram.getValueAtPercentile(99));
+
+      exportStatusCounts(exporter);
+
+      for (int i = 0; i < intervals; i++) {
+        statistics.clear();
+        statistics.put("Count", counts[i]);
+        statistics.put("AverageLatency(us)", means[i]);
+        statistics.put("50thPercentileLatency(us)", p50s[i]);
+        statistics.put("99thPercentileLatency(us)", p99s[i]);
+        statistics.put("99.9PercentileLatency(us)", p999s[i]);
+        statistics.put("MaxLatency(us)", maxes[i]);
+        exporter.writeInterval(getName(), Long.toString(times[i]), statistics);
+      }
+    }
+  }
+
+  /**
+   * Summarizes the intervals that ended since the last call, as the status thread calls this once per status
+   * interval.
+   */
+  @Override
+  public synchronized String getSummary() {
+    endIntervalIfDue();
+    if (summaryCount == 0) {
+      return "";
+    }
+    DecimalFormat d = new DecimalFormat("#.##");
+    String summary = "[" + getName() + ": Count=" + summaryCount + ", Avg=" + d.format(summarySum / summaryCount)
+        + ", WorstIntervalP99=" + summaryP99 + ", Max=" + summaryMax + "]";
+    summaryCount = 0;
+    summarySum = 0;
+    summaryP99 = 0;
+    summaryMax = 0;
+    return summary;
+  }
+
+  @Override
+  public synchronized long getPercentileLatency(double percentile) {
+    collect();
+    return totalHistogram.getValueAtPercentile(percentile);
+  }
+
+  @Override
+  public synchronized Histogram getTotalHistogram() {
+    collect();
+    return totalHistogram.copy();
+  }
+}
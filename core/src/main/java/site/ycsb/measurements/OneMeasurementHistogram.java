@@ -21,7 +21,9 @@ import site.ycsb.measurements.exporter.MeasurementsExporter;
 
 import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Take measurements and maintain a histogram of a given metric, such as READ LATENCY.
@@ -38,87 +40,115 @@ public class OneMeasurementHistogram extends OneMeasurement {
   private final int buckets;
 
   /**
-   * Groups operations in discrete blocks of 1ms width.
+   * Whether or not to emit the histogram buckets.
    */
-  private long[] histogram;
+  private final boolean verbose;
 
   /**
-   * Counts all operations outside the histogram's range.
+   * The counts of one measuring thread. Only that thread writes them, so measuring needs neither locks nor atomic
+   * updates; the stripes are summed up at export time, after the client threads are done.
    */
-  private long histogramoverflow;
+  private final class Stripe {
+    /**
+     * Groups operations in discrete blocks of 1ms width.
+     */
+    private final long[] histogram = new long[buckets];
+
+    /**
+     * Counts all operations outside the histogram's range.
+     */
+    private long histogramoverflow;
+
+    /**
+     * The total number of reported operations.
+     */
+    private long operations;
+
+    /**
+     * The sum of each latency measurement over all operations.
+     */
+    private long totallatency;
+
+    /**
+     * The sum of each latency measurement squared over all operations.
+     * Used to calculate variance of latency.
+     */
+    private double totalsquaredlatency;
+
+    private int min = -1;
+    private int max = -1;
+
+    private void measure(int latency) {
+      //latency reported in us and collected in bucket by ms.
+      if (latency / 1000 >= buckets) {
+        histogramoverflow++;
+      } else {
+        histogram[latency / 1000]++;
+      }
+      operations++;
+      totallatency += latency;
+      totalsquaredlatency += ((double) latency) * ((double) latency);
 
-  /**
-   * The total number of reported operations.
-   */
-  private long operations;
+      if ((min < 0) || (latency < min)) {
+        min = latency;
+      }
 
-  /**
-   * The sum of each latency measurement over all operations.
-   * Calculated in ms.
-   */
-  private long totallatency;
+      if ((max < 0) || (latency > max)) {
+        max = latency;
+      }
+    }
+  }
 
-  /**
-   * The sum of each latency measurement squared over all operations. 
-   * Used to calculate variance of latency.
-   * Calculated in ms. 
-   */
-  private double totalsquaredlatency;
+  private final List<Stripe> stripes = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<Stripe> threadStripe = new ThreadLocal<Stripe>() {
+    @Override
+    protected Stripe initialValue() {
+      Stripe stripe = new Stripe();
+      stripes.add(stripe);
+      return stripe;
+    }
+  };
 
-  /**
-   * Whether or not to emit the histogram buckets.
-   */
-  private final boolean verbose;
-  
-  //keep a windowed version of these stats for printing status
+  //keep the totals seen by the last summary to print windowed stats for status
   private long windowoperations;
   private long windowtotallatency;
 
-  private int min;
-  private int max;
-
   public OneMeasurementHistogram(String name, Properties props) {
     super(name);
     buckets = Integer.parseInt(props.getProperty(BUCKETS, BUCKETS_DEFAULT));
     verbose = Boolean.valueOf(props.getProperty(VERBOSE_PROPERTY, String.valueOf(false)));
-    histogram = new long[buckets];
-    histogramoverflow = 0;
-    operations = 0;
-    totallatency = 0;
-    totalsquaredlatency = 0;
-    windowoperations = 0;
-    windowtotallatency = 0;
-    min = -1;
-    max = -1;
   }
 
   /* (non-Javadoc)
    * @see site.ycsb.OneMeasurement#measure(int)
    */
-  public synchronized void measure(int latency) {
-    //latency reported in us and collected in bucket by ms.
-    if (latency / 1000 >= buckets) {
-      histogramoverflow++;
-    } else {
-      histogram[latency / 1000]++;
-    }
-    operations++;
-    totallatency += latency;
-    totalsquaredlatency += ((double) latency) * ((double) latency);
-    windowoperations++;
-    windowtotallatency += latency;
-
-    if ((min < 0) || (latency < min)) {
-      min = latency;
-    }
-
-    if ((max < 0) || (latency > max)) {
-      max = latency;
-    }
+  public void measure(int latency) {
+    threadStripe.get().measure(latency);
   }
 
   @Override
   public void exportMeasurements(MeasurementsExporter exporter) throws IOException {
+    long[] histogram = new long[buckets];
+    long histogramoverflow = 0;
+    long operations = 0;
+    long totallatency = 0;
+    double totalsquaredlatency = 0;
+    int min = -1;
+    int max = -1;
+    for (Stripe stripe : stripes) {
+      for (int i = 0; i < buckets; i++) {
+        histogram[i] += stripe.histogram[i];
+      }
+      histogramoverflow += stripe.histogramoverflow;
+      operations += stripe.operations;
+      totallatency += stripe.totallatency;
+      totalsquaredlatency += stripe.totalsquaredlatency;
+      if (stripe.min >= 0 && (min < 0 || stripe.min < min)) {
+        min = stripe.min;
+      }
+      max = Math.max(max, stripe.max);
+    }
+
     double mean = totallatency / ((double) operations);
     double variance = totalsquaredlatency / ((double) operations) - (mean * mean);
     exporter.write(getName(), "Operations", operations);
@@ -152,15 +182,26 @@ public class OneMeasurementHistogram extends OneMeasurement {
     }
   }
 
+  /**
+   * Called from the status thread only. The counts of the stripes are read while they are being updated, which is
+   * good enough for the windowed average.
+   */
   @Override
-  public String getSummary() {
-    if (windowoperations == 0) {
+  public synchronized String getSummary() {
+    long operations = 0;
+    long totallatency = 0;
+    for (Stripe stripe : stripes) {
+      operations += stripe.operations;
+      totallatency += stripe.totallatency;
+    }
+    long windowOps = operations - windowoperations;
+    if (windowOps <= 0) {
       return "";
     }
     DecimalFormat d = new DecimalFormat("#.##");
-    double report = ((double) windowtotallatency) / ((double) windowoperations);
-    windowtotallatency = 0;
-    windowoperations = 0;
+    double report = ((double) (totallatency - windowtotallatency)) / ((double) windowOps);
+    windowtotallatency = totallatency;
+    windowoperations = operations;
     return "[" + getName() + " AverageLatency(us)=" + d.format(report) + "]";
   }
 }
@@ -19,56 +19,26 @@ package site.ycsb.measurements;
 
 import site.ycsb.measurements.exporter.MeasurementsExporter;
 
+import java.io.BufferedOutputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Record a series of measurements as raw data points without down sampling,
  * optionally write to an output file when configured.
  *
+ * Each thread appends its data points to its own chunks of primitive arrays, 12 bytes per point and without any
+ * locking. The chunks are merged in timestamp order at export time.
  */
 public class OneMeasurementRaw extends OneMeasurement {
-  /**
-   * One raw data point, two fields: timestamp (ms) when the datapoint is
-   * inserted, and the value.
-   */
-  class RawDataPoint {
-    private final long timestamp;
-    private final int value;
-
-    public RawDataPoint(int value) {
-      this.timestamp = System.currentTimeMillis();
-      this.value = value;
-    }
-
-    public long timeStamp() {
-      return timestamp;
-    }
-
-    public int value() {
-      return value;
-    }
-  }
-
-  class RawDataPointComparator implements Comparator<RawDataPoint> {
-    @Override
-    public int compare(RawDataPoint p1, RawDataPoint p2) {
-      if (p1.value() < p2.value()) {
-        return -1;
-      } else if (p1.value() == p2.value()) {
-        return 0;
-      } else {
-        return 1;
-      }
-    }
-  }
-
   /**
    * Optionally, user can configure an output file to save the raw data points.
    * Default is none, raw results will be written to stdout.
@@ -88,17 +58,91 @@ public class OneMeasurementRaw extends OneMeasurement {
   public static final String NO_SUMMARY_STATS = "measurement.raw.no_summary";
   public static final String NO_SUMMARY_STATS_DEFAULT = "false";
 
+  private static final int CHUNK_BITS = 16;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+  /**
+   * Latencies below this many microseconds are counted exactly in an array when computing the percentiles, the
+   * few above are sorted.
+   */
+  private static final int COUNTED_LATENCIES = 1 << 20;
+
+  /**
+   * The data points of one thread: the timestamp (ms) when the data point was measured, and the value. Only the
+   * owning thread appends to it.
+   */
+  private static final class ThreadPoints {
+    private final List<long[]> timestampChunks = new ArrayList<>();
+    private final List<int[]> valueChunks = new ArrayList<>();
+    private long[] timestamps;
+    private int[] values;
+    private int position = CHUNK_SIZE;
+    private long count;
+    private long totalLatency;
+
+    private void add(long timestamp, int value) {
+      if (position == CHUNK_SIZE) {
+        timestamps = new long[CHUNK_SIZE];
+        values = new int[CHUNK_SIZE];
+        timestampChunks.add(timestamps);
+        valueChunks.add(values);
+        position = 0;
+      }
+      timestamps[position] = timestamp;
+      values[position] = value;
+      position++;
+      totalLatency += value;
+      count++;
+    }
+
+    private long timestamp(long index) {
+      return timestampChunks.get((int) (index >>> CHUNK_BITS))[(int) index & (CHUNK_SIZE - 1)];
+    }
+
+    private int value(long index) {
+      return valueChunks.get((int) (index >>> CHUNK_BITS))[(int) index & (CHUNK_SIZE - 1)];
+    }
+  }
+
+  /**
+   * Walks the data points of one thread while merging them in timestamp order.
+   */
+  private static final class Cursor implements Comparable<Cursor> {
+    private final ThreadPoints points;
+    private long index;
+
+    private Cursor(ThreadPoints points) {
+      this.points = points;
+    }
+
+    private long timestamp() {
+      return points.timestamp(index);
+    }
+
+    @Override
+    public int compareTo(Cursor other) {
+      return Long.compare(timestamp(), other.timestamp());
+    }
+  }
+
   private final PrintStream outputStream;
 
   private boolean noSummaryStats = false;
 
-  private LinkedList<RawDataPoint> measurements;
-  private long totalLatency = 0;
+  private final List<ThreadPoints> measurements = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<ThreadPoints> threadPoints = new ThreadLocal<ThreadPoints>() {
+    @Override
+    protected ThreadPoints initialValue() {
+      ThreadPoints points = new ThreadPoints();
+      measurements.add(points);
+      return points;
+    }
+  };
 
-  // A window of stats to print summary for at the next getSummary() call.
-  // It's supposed to be a one line summary, so we will just print count and
-  // average.
-  private int windowOperations = 0;
+  // The totals seen by the last getSummary() call, to print the stats of the
+  // window since. It's supposed to be a one line summary, so we will just
+  // print count and average.
+  private long windowOperations = 0;
   private long windowTotalLatency = 0;
 
   public OneMeasurementRaw(String name, Properties props) {
@@ -111,8 +155,8 @@ public class OneMeasurementRaw extends OneMeasurement {
 
       try {
         outputStream = new PrintStream(
-            new FileOutputStream(outputFilePath, true),
-            true);
+            new BufferedOutputStream(new FileOutputStream(outputFilePath, true)),
+            false);
       } catch (FileNotFoundException e) {
         throw new RuntimeException("Failed to open raw data output file", e);
       }
@@ -125,17 +169,11 @@ public class OneMeasurementRaw extends OneMeasurement {
 
     noSummaryStats = Boolean.parseBoolean(props.getProperty(NO_SUMMARY_STATS,
         NO_SUMMARY_STATS_DEFAULT));
-
-    measurements = new LinkedList<>();
   }
 
   @Override
-  public synchronized void measure(int latency) {
-    totalLatency += latency;
-    windowTotalLatency += latency;
-    windowOperations++;
-
-    measurements.add(new RawDataPoint(latency));
+  public void measure(int latency) {
+    threadPoints.get().add(System.currentTimeMillis(), latency);
   }
 
   @Override
@@ -146,16 +184,29 @@ public class OneMeasurementRaw extends OneMeasurement {
 
     outputStream.println(getName() +
         " latency raw data: op, timestamp(ms), latency(us)");
-    for (RawDataPoint point : measurements) {
-      outputStream.println(
-          String.format("%s,%d,%d", getName(), point.timeStamp(),
-              point.value()));
+    PriorityQueue<Cursor> cursors = new PriorityQueue<>();
+    long totalOps = 0;
+    long totalLatency = 0;
+    for (ThreadPoints points : measurements) {
+      if (points.count > 0) {
+        cursors.add(new Cursor(points));
+      }
+      totalOps += points.count;
+      totalLatency += points.totalLatency;
+    }
+    while (!cursors.isEmpty()) {
+      Cursor cursor = cursors.poll();
+      outputStream.println(getName() + "," + cursor.timestamp() + "," + cursor.points.value(cursor.index));
+      if (++cursor.index < cursor.points.count) {
+        cursors.add(cursor);
+      }
     }
     if (outputStream != System.out) {
       outputStream.close();
+    } else {
+      outputStream.flush();
     }
 
-    int totalOps = measurements.size();
     exporter.write(getName(), "Total Operations", totalOps);
     if (totalOps > 0 && !noSummaryStats) {
       exporter.write(getName(),
@@ -163,44 +214,108 @@ public class OneMeasurementRaw extends OneMeasurement {
       exporter.write(getName(), "Average",
           (double) totalLatency / (double) totalOps);
 
-      Collections.sort(measurements, new RawDataPointComparator());
-
-      exporter.write(getName(), "Min", measurements.get(0).value());
+      SortedLatencies sorted = new SortedLatencies(measurements);
+      exporter.write(getName(), "Min", sorted.get(0));
       exporter.write(
-          getName(), "Max", measurements.get(totalOps - 1).value());
+          getName(), "Max", sorted.get(totalOps - 1));
       exporter.write(
-          getName(), "p1", measurements.get((int) (totalOps * 0.01)).value());
+          getName(), "p1", sorted.get((long) (totalOps * 0.01)));
       exporter.write(
-          getName(), "p5", measurements.get((int) (totalOps * 0.05)).value());
+          getName(), "p5", sorted.get((long) (totalOps * 0.05)));
       exporter.write(
-          getName(), "p50", measurements.get((int) (totalOps * 0.5)).value());
+          getName(), "p50", sorted.get((long) (totalOps * 0.5)));
       exporter.write(
-          getName(), "p90", measurements.get((int) (totalOps * 0.9)).value());
+          getName(), "p90", sorted.get((long) (totalOps * 0.9)));
       exporter.write(
-          getName(), "p95", measurements.get((int) (totalOps * 0.95)).value());
+          getName(), "p95", sorted.get((long) (totalOps * 0.95)));
       exporter.write(
-          getName(), "p99", measurements.get((int) (totalOps * 0.99)).value());
+          getName(), "p99", sorted.get((long) (totalOps * 0.99)));
       exporter.write(getName(), "p99.9",
-          measurements.get((int) (totalOps * 0.999)).value());
+          sorted.get((long) (totalOps * 0.999)));
       exporter.write(getName(), "p99.99",
-          measurements.get((int) (totalOps * 0.9999)).value());
+          sorted.get((long) (totalOps * 0.9999)));
     }
 
     exportStatusCounts(exporter);
   }
 
+  /**
+   * The values of all data points in sorted order, without copying and sorting all of them: values below {@link
+   * #COUNTED_LATENCIES} are counted, only the ones above are copied and sorted.
+   */
+  private static final class SortedLatencies {
+    private final long[] counts = new long[COUNTED_LATENCIES];
+    private final int[] above;
+
+    private SortedLatencies(List<ThreadPoints> measurements) {
+      int aboveCount = 0;
+      for (ThreadPoints points : measurements) {
+        for (long i = 0; i < points.count; i++) {
+          int value = points.value(i);
+          if (value >= 0 && value < COUNTED_LATENCIES) {
+            counts[value]++;
+          } else {
+            aboveCount++;
+          }
+        }
+      }
+      above = new int[aboveCount];
+      int next = 0;
+      for (ThreadPoints points : measurements) {
+        for (long i = 0; i < points.count; i++) {
+          int value = points.value(i);
+          if (value < 0 || value >= COUNTED_LATENCIES) {
+            above[next++] = value;
+          }
+        }
+      }
+      Arrays.sort(above);
+    }
+
+    /**
+     * @return The value at the given index of the sorted values.
+     */
+    private int get(long index) {
+      int negatives = 0;
+      while (negatives < above.length && above[negatives] < 0) {
+        negatives++;
+      }
+      if (index < negatives) {
+        return above[(int) index];
+      }
+      long seen = negatives;
+      for (int value = 0; value < COUNTED_LATENCIES; value++) {
+        seen += counts[value];
+        if (index < seen) {
+          return value;
+        }
+      }
+      return above[(int) (index - seen + negatives)];
+    }
+  }
+
+  /**
+   * Called from the status thread only. The counts are read while they are being updated, which is good enough for
+   * the windowed average.
+   */
   @Override
   public synchronized String getSummary() {
-    if (windowOperations == 0) {
+    long operations = 0;
+    long totalLatency = 0;
+    for (ThreadPoints points : measurements) {
+      operations += points.count;
+      totalLatency += points.totalLatency;
+    }
+    if (operations == windowOperations) {
       return "";
     }
 
     String toReturn = String.format("%s count: %d, average latency(us): %.2f",
-        getName(), windowOperations,
-        (double) windowTotalLatency / (double) windowOperations);
+        getName(), operations - windowOperations,
+        (double) (totalLatency - windowTotalLatency) / (double) (operations - windowOperations));
 
-    windowTotalLatency = 0;
-    windowOperations = 0;
+    windowTotalLatency = totalLatency;
+    windowOperations = operations;
 
     return toReturn;
   }
@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The CPU time and heap allocation of the client threads per operation type, so that a binding whose own work,
+ * such as serializing values, limits the throughput can be told apart from a slow database.
+ *
+ * The calling thread's CPU time and allocated bytes are read from the {@link ThreadMXBean} right before and after
+ * each DB call and the differences are added to the operation. Each thread adds into its own stripe, which others
+ * only read, so no locking is needed. A stripe also keeps the thread's totals between its first and its last
+ * operation, which include the work of the workload and of the measurements.
+ */
+final class OperationCost {
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+  private static final com.sun.management.ThreadMXBean ALLOCATIONS =
+      THREADS instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) THREADS : null;
+
+  /** Per operation: the number of operations, their CPU time in nanoseconds and their allocated bytes. */
+  private static final int FIELDS = 3;
+  private static final int INITIAL_OPERATIONS = 16;
+
+  private static final class Stripe {
+    private volatile AtomicLongArray values = new AtomicLongArray(FIELDS * INITIAL_OPERATIONS);
+    private final long firstCpuNs;
+    private final long firstBytes;
+    private volatile long lastCpuNs;
+    private volatile long lastBytes;
+
+    private Stripe(long cpuNs, long bytes) {
+      firstCpuNs = cpuNs;
+      firstBytes = bytes;
+      lastCpuNs = cpuNs;
+      lastBytes = bytes;
+    }
+
+    private void add(int operationId, long cpuNs, long bytes) {
+      AtomicLongArray v = values;
+      int base = FIELDS * operationId;
+      if (base >= v.length()) {
+        AtomicLongArray grown = new AtomicLongArray(Math.max(base + FIELDS, 2 * v.length()));
+        for (int i = 0; i < v.length(); i++) {
+          grown.set(i, v.get(i));
+        }
+        values = grown;
+        v = grown;
+      }
+      // only this thread writes, so the plain read-add-write needs no CAS
+      v.lazySet(base, v.get(base) + 1);
+      v.lazySet(base + 1, v.get(base + 1) + cpuNs);
+      v.lazySet(base + 2, v.get(base + 2) + bytes);
+    }
+  }
+
+  private final List<Stripe> stripes = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<Stripe> threadStripe = new ThreadLocal<>();
+
+  // guarded by this, the totals at the last summary
+  private long[] summarized = new long[0];
+
+  /**
+   * Turns on the CPU time and allocation accounting of the JVM where it is off.
+   *
+   * @return Whether the CPU time of the current thread can be measured.
+   */
+  static boolean enable() {
+    if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+      return false;
+    }
+    if (!THREADS.isThreadCpuTimeEnabled()) {
+      THREADS.setThreadCpuTimeEnabled(true);
+    }
+    if (ALLOCATIONS != null && ALLOCATIONS.isThreadAllocatedMemorySupported()
+        && !ALLOCATIONS.isThreadAllocatedMemoryEnabled()) {
+      ALLOCATIONS.setThreadAllocatedMemoryEnabled(true);
+    }
+    return true;
+  }
+
+  /**
+   * @return The CPU time the current thread used so far, in nanoseconds.
+   */
+  static long threadCpuTimeNs() {
+    return THREADS.getCurrentThreadCpuTime();
+  }
+
+  /**
+   * @return The bytes the current thread allocated on the heap so far, or 0 if the JVM does not count them.
+   */
+  static long threadAllocatedBytes() {
+    return ALLOCATIONS == null ? 0 : ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Add the cost of one operation of the current thread.
+   *
+   * @param operationId The ID from {@link Measurements#registerOperation(String)}.
+   * @param startCpuNs The thread's CPU time when the operation started.
+   * @param startBytes The thread's allocated bytes when the operation started.
+   */
+  void add(int operationId, long startCpuNs, long startBytes) {
+    long cpuNs = threadCpuTimeNs();
+    long bytes = threadAllocatedBytes();
+    Stripe stripe = threadStripe.get();
+    if (stripe == null) {
+      stripe = new Stripe(startCpuNs, startBytes);
+      stripes.add(stripe);
+      threadStripe.set(stripe);
+    }
+    stripe.add(operationId, cpuNs - startCpuNs, bytes - startBytes);
+    stripe.lastCpuNs = cpuNs;
+    stripe.lastBytes = bytes;
+  }
+
+  /**
+   * @return The operations, CPU time and allocated bytes of every operation, summed over all threads.
+   */
+  private long[] totals() {
+    long[] totals = new long[0];
+    for (Stripe stripe : stripes) {
+      AtomicLongArray v = stripe.values;
+      if (totals.length < v.length()) {
+        totals = Arrays.copyOf(totals, v.length());
+      }
+      for (int i = 0; i < v.length(); i++) {
+        totals[i] += v.get(i);
+      }
+    }
+    return totals;
+  }
+
+  /**
+   * Summarizes the cost of the operations done since the last call, as the status thread calls this once per
+   * status interval.
+   *
+   * @param operationNames The operation names, indexed by operation ID.
+   */
+  synchronized String getSummary(String namePrefix, String[] operationNames) {
+    long[] totals = totals();
+    StringBuilder summary = new StringBuilder();
+    DecimalFormat d = new DecimalFormat("#.##");
+    for (int base = 0; base < totals.length && base / FIELDS < operationNames.length; base += FIELDS) {
+      long ops = totals[base] - (base < summarized.length ? summarized[base] : 0);
+      if (ops > 0) {
+        long cpuNs = totals[base + 1] - (base < summarized.length ? summarized[base + 1] : 0);
+        long bytes = totals[base + 2] - (base < summarized.length ? summarized[base + 2] : 0);
+        summary.append('[').append(namePrefix).append(operationNames[base / FIELDS])
+            .append("-COST: CpuPerOp(us)=")
+            .append(d.format(cpuNs / 1000.0 / ops)).append(", BytesPerOp=").append(d.format((double) bytes / ops))
+            .append("] ");
+      }
+    }
+    summarized = totals;
+    return summary.toString();
+  }
+
+  /**
+   * Export the CPU time and allocated bytes per operation of every operation type, and of the client threads as a
+   * whole.
+   *
+   * @param exporter Exporter representing the type of format to write to.
+   * @param namePrefix The prefix of the measurement names of the phase.
+   * @param operationNames The operation names, indexed by operation ID.
+   * @throws IOException Thrown if the export failed.
+   */
+  void exportMeasurements(MeasurementsExporter exporter, String namePrefix, String[] operationNames)
+      throws IOException {
+    long[] totals = totals();
+    long allOps = 0;
+    for (int base = 0; base < totals.length && base / FIELDS < operationNames.length; base += FIELDS) {
+      long ops = totals[base];
+      if (ops > 0) {
+        String name = namePrefix + operationNames[base / FIELDS];
+        exporter.write(name, "CpuTimePerOp(us)", totals[base + 1] / 1000.0 / ops);
+        exporter.write(name, "AllocatedBytesPerOp", (double) totals[base + 2] / ops);
+        allOps += ops;
+      }
+    }
+    if (allOps == 0) {
+      return;
+    }
+
+    long threadCpuNs = 0;
+    long threadBytes = 0;
+    for (Stripe stripe : stripes) {
+      threadCpuNs += stripe.lastCpuNs - stripe.firstCpuNs;
+      threadBytes += stripe.lastBytes - stripe.firstBytes;
+    }
+    String name = namePrefix + "CLIENT_THREADS";
+    exporter.write(name, "Threads", stripes.size());
+    exporter.write(name, "CpuTime(ms)", threadCpuNs / 1000000);
+    exporter.write(name, "CpuTimePerOp(us)", threadCpuNs / 1000.0 / allOps);
+    exporter.write(name, "AllocatedBytes", threadBytes);
+    exporter.write(name, "AllocatedBytesPerOp", (double) threadBytes / allOps);
+  }
+}
@@ -0,0 +1,342 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import site.ycsb.Status;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams one fixed-width binary record per DB operation to a ring of memory-mapped files while the run is going
+ * on, so that per-operation data of arbitrarily long runs can be kept without growing the heap.
+ *
+ * Each client thread fills its own buffer of records. Full buffers are handed to a background flusher that copies
+ * them into the current memory-mapped segment file, rolling over to a new segment when it is full and deleting the
+ * oldest segments beyond the configured maximum. The names of the operations and statuses, and the clocks needed to
+ * turn the nanosecond timestamps into wall clock time, are written to an index file when the log is closed.
+ * {@link RawLatencyLogReader} converts a log to CSV or HdrHistogram logs.
+ *
+ * Each record is {@value #RECORD_SIZE} bytes, big-endian: the operation ID plus one (so that zeros mark the
+ * unused end of a segment), the status ID, and the intended start, start and end times in nanoseconds.
+ *
+ * If the log cannot be written, the records from then on are dropped and counted rather than making the client
+ * threads wait for a flusher that is gone; {@link #close(String[])} reports the failure. Records logged after the
+ * log was closed are dropped too.
+ */
+public class RawLatencyLog {
+  /** The path prefix of the log files; the log is disabled if empty. */
+  public static final String PATH_PROPERTY = "measurement.rawlog";
+  public static final String PATH_PROPERTY_DEFAULT = "";
+
+  /** The size of each segment file in megabytes. */
+  public static final String FILE_SIZE_PROPERTY = "measurement.rawlog.filesize";
+  public static final String FILE_SIZE_PROPERTY_DEFAULT = "64";
+
+  /** The number of segment files to keep, deleting the oldest ones; 0 keeps all of them. */
+  public static final String MAX_FILES_PROPERTY = "measurement.rawlog.maxfiles";
+  public static final String MAX_FILES_PROPERTY_DEFAULT = "0";
+
+  /** The number of records each client thread buffers before handing them to the flusher. */
+  public static final String BUFFER_PROPERTY = "measurement.rawlog.buffer";
+  public static final String BUFFER_PROPERTY_DEFAULT = "1024";
+
+  static final int RECORD_SIZE = 32;
+  static final String SEGMENT_SUFFIX = ".bin";
+  static final String INDEX_SUFFIX = ".index";
+
+  /** The number of full buffers waiting for the flusher before client threads are made to wait. */
+  private static final int QUEUED_BUFFERS = 64;
+
+  private final String path;
+  private final int segmentSize;
+  private final int maxFiles;
+  private final int bufferSize;
+  private final long baseTimeMs;
+  private final long baseTimeNs;
+
+  private final ConcurrentHashMap<Status, Integer> statusIds = new ConcurrentHashMap<>();
+  private final List<Status> statuses = new CopyOnWriteArrayList<>();
+
+  private final List<ByteBuffer> threadBuffers = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<ByteBuffer> threadBuffer = new ThreadLocal<ByteBuffer>() {
+    @Override
+    protected ByteBuffer initialValue() {
+      ByteBuffer buffer = ByteBuffer.allocate(bufferSize * RECORD_SIZE);
+      threadBuffers.add(buffer);
+      return buffer;
+    }
+  };
+  private final BlockingQueue<ByteBuffer> full = new ArrayBlockingQueue<>(QUEUED_BUFFERS);
+  private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(QUEUED_BUFFERS);
+  private final Thread flusher;
+  private volatile boolean closed;
+  private volatile IOException failure;
+  private final LongAdder dropped = new LongAdder();
+
+  // only used by the flusher
+  private final ArrayDeque<File> segments = new ArrayDeque<>();
+  private MappedByteBuffer segment;
+  private int segmentNumber;
+
+  /**
+   * @param props The properties of the run.
+   * @return The log, or null if none is configured.
+   * @throws IOException if the first segment could not be created.
+   */
+  public static RawLatencyLog create(Properties props) throws IOException {
+    String path = props.getProperty(PATH_PROPERTY, PATH_PROPERTY_DEFAULT);
+    if (path.isEmpty()) {
+      return null;
+    }
+    int segmentSize = Integer.parseInt(props.getProperty(FILE_SIZE_PROPERTY, FILE_SIZE_PROPERTY_DEFAULT)) << 20;
+    int maxFiles = Integer.parseInt(props.getProperty(MAX_FILES_PROPERTY, MAX_FILES_PROPERTY_DEFAULT));
+    int bufferSize = Integer.parseInt(props.getProperty(BUFFER_PROPERTY, BUFFER_PROPERTY_DEFAULT));
+    if (segmentSize < bufferSize * RECORD_SIZE) {
+      throw new IllegalArgumentException(FILE_SIZE_PROPERTY + " must hold at least one buffer of "
+          + BUFFER_PROPERTY + " records");
+    }
+    return new RawLatencyLog(path, segmentSize, maxFiles, bufferSize);
+  }
+
+  RawLatencyLog(String path, int segmentSize, int maxFiles, int bufferSize) throws IOException {
+    this.path = path;
+    this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+    this.maxFiles = maxFiles;
+    this.bufferSize = bufferSize;
+    baseTimeMs = System.currentTimeMillis();
+    baseTimeNs = System.nanoTime();
+    statusId(Status.OK);
+    nextSegment();
+
+    flusher = new Thread("RawLatencyLogFlusher") {
+      @Override
+      public void run() {
+        flushUntilClosed();
+      }
+    };
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  /**
+   * Append the record of one operation. Called by the thread that measured the operation; the thread's buffer is
+   * not shared, so no locking is needed.
+   *
+   * @param operationId The ID from {@link Measurements#registerOperation(String)}.
+   * @param status The result of the operation.
+   * @param intendedStartTimeNs The intended start time, from {@link System#nanoTime()}.
+   * @param startTimeNs The start time.
+   * @param endTimeNs The end time.
+   */
+  public void log(int operationId, Status status, long intendedStartTimeNs, long startTimeNs, long endTimeNs) {
+    ByteBuffer buffer = threadBuffer.get();
+    buffer.putInt(operationId + 1);
+    buffer.putInt(status == Status.OK ? 0 : statusId(status));
+    buffer.putLong(intendedStartTimeNs);
+    buffer.putLong(startTimeNs);
+    buffer.putLong(endTimeNs);
+    if (!buffer.hasRemaining()) {
+      handOff(buffer);
+    }
+  }
+
+  private int statusId(Status status) {
+    Integer id = statusIds.get(status);
+    if (id == null) {
+      synchronized (statusIds) {
+        id = statusIds.get(status);
+        if (id == null) {
+          id = statuses.size();
+          statuses.add(status);
+          statusIds.put(status, id);
+        }
+      }
+    }
+    return id;
+  }
+
+  /**
+   * Queue the records of a full buffer for the flusher and refill the buffer from a recycled one, so that steady
+   * state needs no allocation.
+   */
+  private void handOff(ByteBuffer buffer) {
+    // nothing drains the queue once the log failed or was closed
+    if (failure != null || closed) {
+      dropped.add(buffer.position() / RECORD_SIZE);
+      buffer.clear();
+      return;
+    }
+    ByteBuffer copy = free.poll();
+    if (copy == null) {
+      copy = ByteBuffer.allocate(buffer.capacity());
+    }
+    buffer.flip();
+    copy.clear();
+    copy.put(buffer);
+    copy.flip();
+    buffer.clear();
+    try {
+      while (!full.offer(copy, 100, TimeUnit.MILLISECONDS)) {
+        if (failure != null || closed) {
+          drop(copy);
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      drop(copy);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drop(ByteBuffer buffer) {
+    dropped.add(buffer.remaining() / RECORD_SIZE);
+    buffer.clear();
+    free.offer(buffer);
+  }
+
+  /**
+   * @return The number of records that were not written because the log failed or was already closed.
+   */
+  public long getDroppedRecords() {
+    return dropped.sum();
+  }
+
+  private void flushUntilClosed() {
+    try {
+      while (!closed || !full.isEmpty()) {
+        ByteBuffer buffer = full.poll(100, TimeUnit.MILLISECONDS);
+        if (buffer != null) {
+          try {
+            write(buffer);
+          } catch (IOException e) {
+            System.err.println("Could not write the raw latency log " + path + ", dropping its records: "
+                + e.getMessage());
+            failure = e;
+            drop(buffer);
+            return;
+          }
+          free.offer(buffer);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void write(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (!segment.hasRemaining()) {
+        segment.force();
+        nextSegment();
+      }
+      int length = Math.min(buffer.remaining(), segment.remaining());
+      ByteBuffer slice = buffer.duplicate();
+      slice.limit(slice.position() + length);
+      segment.put(slice);
+      buffer.position(buffer.position() + length);
+    }
+  }
+
+  private void nextSegment() throws IOException {
+    File file = segmentFile(path, segmentNumber++);
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(0);
+      segment = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    segments.addLast(file);
+    while (maxFiles > 0 && segments.size() > maxFiles) {
+      File oldest = segments.removeFirst();
+      if (!oldest.delete()) {
+        System.err.println("Could not delete the raw latency log segment " + oldest);
+      }
+    }
+  }
+
+  static File segmentFile(String path, int number) {
+    return new File(path + "." + number + SEGMENT_SUFFIX);
+  }
+
+  /**
+   * Flush the records still buffered by the client threads, wait for the flusher and write the index file. Must be
+   * called once the client threads are done.
+   *
+   * @param operationNames The operation names, indexed by operation ID.
+   * @throws IOException if the log could not be written, also if it failed during the run; the records written
+   *                     before the failure remain readable.
+   */
+  public void close(String[] operationNames) throws IOException {
+    for (ByteBuffer buffer : threadBuffers) {
+      if (buffer.position() > 0) {
+        handOff(buffer);
+      }
+    }
+    closed = true;
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while flushing the raw latency log", e);
+    }
+    ByteBuffer buffer;
+    while (failure != null && (buffer = full.poll()) != null) {
+      drop(buffer);
+    }
+    segment.force();
+
+    List<String> lines = new ArrayList<>();
+    lines.add("basetime " + baseTimeMs + " " + baseTimeNs);
+    lines.add("segments " + (segmentNumber - segments.size()) + " " + segmentNumber);
+    for (int i = 0; i < operationNames.length; i++) {
+      lines.add("op " + i + " " + operationNames[i]);
+    }
+    for (int i = 0; i < statuses.size(); i++) {
+      lines.add("status " + i + " " + statuses.get(i).getName());
+    }
+    IOException error = failure == null ? null : new IOException("Could not write the raw latency log " + path
+        + ", dropped " + getDroppedRecords() + " records", failure);
+    try (PrintStream index = new PrintStream(path + INDEX_SUFFIX, "UTF-8")) {
+      for (String line : lines) {
+        index.println(line);
+      }
+    } catch (IOException e) {
+      if (error == null) {
+        throw e;
+      }
+      error.addSuppressed(e);
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Converts a {@link RawLatencyLog} to CSV or to one HdrHistogram log per operation.
+ *
+ * Usage: java site.ycsb.measurements.RawLatencyLogReader path csv|hdr
+ *
+ * csv writes "operation,status,timestamp(ms),latency(us),intendedlatency(us)" lines to stdout, in the order the
+ * records were flushed. hdr writes path.OPERATION.hdr files, each with one interval histogram per second of the run.
+ */
+public final class RawLatencyLogReader {
+  /**
+   * Receives the records of a log.
+   */
+  interface RecordHandler {
+    void record(String operation, String status, long intendedStartTimeNs, long startTimeNs, long endTimeNs)
+        throws IOException;
+  }
+
+  private final String path;
+  private final Map<Integer, String> operations = new HashMap<>();
+  private final Map<Integer, String> statuses = new HashMap<>();
+  private long baseTimeMs;
+  private long baseTimeNs;
+  private int firstSegment;
+  private int endSegment;
+
+  RawLatencyLogReader(String path) throws IOException {
+    this.path = path;
+    for (String line : Files.readAllLines(Paths.get(path + RawLatencyLog.INDEX_SUFFIX), StandardCharsets.UTF_8)) {
+      String[] parts = line.split(" ", 3);
+      switch (parts[0]) {
+      case "basetime":
+        baseTimeMs = Long.parseLong(parts[1]);
+        baseTimeNs = Long.parseLong(parts[2]);
+        break;
+      case "segments":
+        firstSegment = Integer.parseInt(parts[1]);
+        endSegment = Integer.parseInt(parts[2]);
+        break;
+      case "op":
+        operations.put(Integer.parseInt(parts[1]), parts[2]);
+        break;
+      case "status":
+        statuses.put(Integer.parseInt(parts[1]), parts[2]);
+        break;
+      default:
+        throw new IOException("Unexpected line in the index of " + path + ": " + line);
+      }
+    }
+  }
+
+  /**
+   * @return The wall clock time in milliseconds since the epoch of a timestamp of the log.
+   */
+  long toEpochMs(long timeNs) {
+    return baseTimeMs + (timeNs - baseTimeNs) / 1000000;
+  }
+
+  /**
+   * Pass every record of the log to the handler.
+   */
+  void read(RecordHandler handler) throws IOException {
+    for (int number = firstSegment; number < endSegment; number++) {
+      File file = RawLatencyLog.segmentFile(path, number);
+      try (FileInputStream in = new FileInputStream(file)) {
+        FileChannel channel = in.getChannel();
+        MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        while (segment.remaining() >= RawLatencyLog.RECORD_SIZE) {
+          int operation = segment.getInt();
+          if (operation == 0) {
+            // the unused end of the segment
+            break;
+          }
+          int status = segment.getInt();
+          handler.record(operations.get(operation - 1), statuses.get(status), segment.getLong(), segment.getLong(),
+              segment.getLong());
+        }
+      }
+    }
+  }
+
+  private void writeCsv(final PrintStream out) throws IOException {
+    out.println("operation,status,timestamp(ms),latency(us),intendedlatency(us)");
+    read((operation, status, intendedStartTimeNs, startTimeNs, endTimeNs) -> {
+        // the intended start time is 0 unless measurement.interval tracks it
+        long intendedLatencyNs = endTimeNs - (intendedStartTimeNs == 0 ? startTimeNs : intendedStartTimeNs);
+        out.println(operation + "," + status + "," + toEpochMs(startTimeNs) + ","
+            + (endTimeNs - startTimeNs) / 1000 + "," + intendedLatencyNs / 1000);
+      });
+  }
+
+  /**
+   * Buckets the latencies of each operation by the second they ended in, then writes them as interval histograms.
+   */
+  private void writeHdr() throws IOException {
+    final Map<String, TreeMap<Long, Histogram>> intervals = new TreeMap<>();
+    read((operation, status, intendedStartTimeNs, startTimeNs, endTimeNs) -> {
+        TreeMap<Long, Histogram> histograms = intervals.get(operation);
+        if (histograms == null) {
+          histograms = new TreeMap<>();
+          intervals.put(operation, histograms);
+        }
+        long second = toEpochMs(endTimeNs) / 1000;
+        Histogram histogram = histograms.get(second);
+        if (histogram == null) {
+          histogram = new Histogram(3);
+          histogram.setStartTimeStamp(second * 1000);
+          histogram.setEndTimeStamp(second * 1000 + 1000);
+          histograms.put(second, histogram);
+        }
+        histogram.recordValue(Math.max(0, (endTimeNs - startTimeNs) / 1000));
+      });
+
+    for (Map.Entry<String, TreeMap<Long, Histogram>> entry : intervals.entrySet()) {
+      String fileName = path + "." + entry.getKey() + ".hdr";
+      try (PrintStream log = new PrintStream(new BufferedOutputStream(new FileOutputStream(fileName)),
+          false, "UTF-8")) {
+        HistogramLogWriter writer = new HistogramLogWriter(log);
+        writer.outputComment("[Logging for: " + entry.getKey() + "]");
+        writer.outputLogFormatVersion();
+        writer.outputStartTime(baseTimeMs);
+        writer.setBaseTime(baseTimeMs);
+        writer.outputLegend();
+        for (Histogram histogram : entry.getValue().values()) {
+          writer.outputIntervalHistogram(histogram);
+        }
+      }
+      System.err.println("Wrote " + fileName);
+    }
+  }
+
+  public static void main(String[] args) {
+    if (args.length != 2 || !("csv".equals(args[1]) || "hdr".equals(args[1]))) {
+      System.out.println("Usage: java site.ycsb.measurements.RawLatencyLogReader path csv|hdr");
+      System.exit(0);
+    }
+    try {
+      RawLatencyLogReader reader = new RawLatencyLogReader(args[0]);
+      if ("csv".equals(args[1])) {
+        PrintStream out = new PrintStream(new BufferedOutputStream(System.out), false, "UTF-8");
+        reader.writeCsv(out);
+        out.flush();
+      } else {
+        reader.writeHdr();
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+    }
+    System.exit(0);
+  }
+}
@@ -17,10 +17,12 @@
 
 package site.ycsb.measurements;
 
+import org.HdrHistogram.Histogram;
 import site.ycsb.Status;
 import site.ycsb.measurements.exporter.MeasurementsExporter;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * delegates to 2 measurement instances.
@@ -43,6 +45,11 @@ public class TwoInOneMeasurement extends OneMeasurement {
     thing1.reportStatus(status);
   }
 
+  @Override
+  public void reportStatus(Status status, long count) {
+    thing1.reportStatus(status, count);
+  }
+
   /**
    * It appears latency is reported in micros.
    * Using {@link org.HdrHistogram.Recorder} to support concurrent updates to histogram.
@@ -53,6 +60,23 @@ public class TwoInOneMeasurement extends OneMeasurement {
     thing2.measure(latencyInMicros);
   }
 
+  @Override
+  public long getPercentileLatency(double percentile) {
+    long latency = thing1.getPercentileLatency(percentile);
+    return latency >= 0 ? latency : thing2.getPercentileLatency(percentile);
+  }
+
+  @Override
+  Map<Status, Long> getStatusCounts() {
+    return thing1.getStatusCounts();
+  }
+
+  @Override
+  public Histogram getTotalHistogram() {
+    Histogram histogram = thing1.getTotalHistogram();
+    return histogram != null ? histogram : thing2.getTotalHistogram();
+  }
+
   /**
    * This is called from a main thread, on orderly termination.
    */
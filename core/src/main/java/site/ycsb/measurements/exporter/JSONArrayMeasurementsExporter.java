@@ -24,6 +24,7 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.Map;
 
 /**
  * Export measurements into a machine readable JSON Array of measurement objects.
@@ -63,6 +64,14 @@ public class JSONArrayMeasurementsExporter implements MeasurementsExporter {
     g.writeEndObject();
   }
 
+  /**
+   * Writes the statistics of the interval as one object, like {@link JSONMeasurementsExporter}.
+   */
+  @Override
+  public void writeInterval(String metric, String interval, Map<String, Number> statistics) throws IOException {
+    JSONMeasurementsExporter.writeInterval(g, metric, interval, statistics);
+  }
+
   public void close() throws IOException {
     if (g != null) {
       g.writeEndArray();
@@ -24,6 +24,7 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.Map;
 
 /**
  * Export measurements into a machine readable JSON file.
@@ -64,6 +65,37 @@ public class JSONMeasurementsExporter implements MeasurementsExporter {
     g.writeEndObject();
   }
 
+  /**
+   * Writes the statistics of the interval as one object, for example
+   * {"metric": "READ", "measurement": "1000", "value": {"Count": 10, ...}}.
+   */
+  @Override
+  public void writeInterval(String metric, String interval, Map<String, Number> statistics) throws IOException {
+    writeInterval(g, metric, interval, statistics);
+  }
+
+  /**
+   * Writes the statistics of an interval as one object of the given generator; shared with
+   * {@link JSONArrayMeasurementsExporter}.
+   */
+  static void writeInterval(JsonGenerator g, String metric, String interval, Map<String, Number> statistics)
+      throws IOException {
+    g.writeStartObject();
+    g.writeStringField("metric", metric);
+    g.writeStringField("measurement", interval);
+    g.writeObjectFieldStart("value");
+    for (Map.Entry<String, Number> entry : statistics.entrySet()) {
+      Number value = entry.getValue();
+      if (value instanceof Double || value instanceof Float) {
+        g.writeNumberField(entry.getKey(), value.doubleValue());
+      } else {
+        g.writeNumberField(entry.getKey(), value.longValue());
+      }
+    }
+    g.writeEndObject();
+    g.writeEndObject();
+  }
+
   public void close() throws IOException {
     if (g != null) {
       g.close();
@@ -18,6 +18,7 @@ package site.ycsb.measurements.exporter;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * Used to export the collected measurements into a useful format, for example
@@ -53,4 +54,24 @@ public interface MeasurementsExporter extends Closeable {
    * @throws IOException if writing failed
    */
   void write(String metric, String measurement, double d) throws IOException;
+
+  /**
+   * Write the statistics of one interval of a time series. By default each statistic is written as its own
+   * measurement, named after the interval and the statistic, for example "1000.Count".
+   *
+   * @param metric Metric name, for example "READ LATENCY".
+   * @param interval Interval name, for example its start time.
+   * @param statistics The statistics of the interval, by name.
+   * @throws IOException if writing failed
+   */
+  default void writeInterval(String metric, String interval, Map<String, Number> statistics) throws IOException {
+    for (Map.Entry<String, Number> entry : statistics.entrySet()) {
+      Number value = entry.getValue();
+      if (value instanceof Double || value instanceof Float) {
+        write(metric, interval + "." + entry.getKey(), value.doubleValue());
+      } else {
+        write(metric, interval + "." + entry.getKey(), value.longValue());
+      }
+    }
+  }
 }
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.trace;
+
+import site.ycsb.Utils;
+import site.ycsb.Workload;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads a trace written by the {@link TraceWriter}, one record at a time. The reader is a cursor: after
+ * {@link #next()}, the getters describe the current record.
+ *
+ * The file is memory-mapped in windows of up to 1 GB, so traces of any length are read without copying them onto
+ * the heap, and several readers of the same file share the pages. The key of a record is only decoded into a
+ * String when asked for, so skipping records costs no allocations.
+ */
+public final class TraceReader implements Closeable {
+  private static final long WINDOW = 1L << 30;
+
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+  private final long size;
+  private final long window;
+  private MappedByteBuffer buffer;
+  private long bufferStart;
+
+  private final List<String> names = new ArrayList<>();
+  private Workload.Operation operation;
+  private long timeUs;
+  private String table;
+  private byte[] key = new byte[64];
+  private int keyLength;
+  private long keyHash;
+  private int recordCount;
+  private final List<String> fields = new ArrayList<>();
+  private boolean allFields;
+  private int[] valueSizes = new int[16];
+
+  /**
+   * @param trace The trace file.
+   * @throws IOException if the file could not be opened or is not a trace.
+   */
+  public TraceReader(File trace) throws IOException {
+    this(trace, WINDOW);
+  }
+
+  TraceReader(File trace, long window) throws IOException {
+    this.window = window;
+    file = new RandomAccessFile(trace, "r");
+    channel = file.getChannel();
+    size = channel.size();
+    map(0);
+    byte[] magic = new byte[TraceWriter.MAGIC.length];
+    try {
+      buffer.get(magic);
+    } catch (BufferUnderflowException e) {
+      magic = new byte[0];
+    }
+    if (!Arrays.equals(magic, TraceWriter.MAGIC)) {
+      close();
+      throw new IOException(trace + " is not a trace");
+    }
+  }
+
+  private void map(long start) throws IOException {
+    bufferStart = start;
+    buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(window, size - start));
+  }
+
+  /**
+   * Move to the next record.
+   *
+   * @return false at the end of the trace. A record cut short at the end, as by a crashed run, ends the trace.
+   * @throws IOException if the next part of the trace could not be mapped.
+   */
+  public boolean next() throws IOException {
+    int start = buffer.position();
+    int knownNames = names.size();
+    try {
+      if (!buffer.hasRemaining() && bufferStart + start == size) {
+        return false;
+      }
+      parse();
+      return true;
+    } catch (BufferUnderflowException e) {
+      // forget the names of the partial record, they are read again
+      names.subList(knownNames, names.size()).clear();
+      if (bufferStart + buffer.limit() == size) {
+        return false;
+      }
+      if (start == 0) {
+        throw new IOException("A record of the trace is larger than " + window + " bytes");
+      }
+      map(bufferStart + start);
+      return next();
+    }
+  }
+
+  private void parse() {
+    int code = buffer.get();
+    if (code < 0 || code >= TraceWriter.OPERATIONS.length) {
+      throw new IllegalStateException("Unknown operation " + code + " in the trace");
+    }
+    operation = TraceWriter.OPERATIONS[code];
+    timeUs = readVarint();
+    table = readName();
+    keyLength = (int) readVarint();
+    if (keyLength > key.length) {
+      key = new byte[Math.max(keyLength, 2 * key.length)];
+    }
+    buffer.get(key, 0, keyLength);
+    keyHash = Utils.FNV_OFFSET_BASIS_64;
+    for (int i = 0; i < keyLength; i++) {
+      keyHash = (keyHash ^ (key[i] & 0xff)) * Utils.FNV_PRIME_64;
+    }
+
+    fields.clear();
+    allFields = false;
+    recordCount = 0;
+    switch (operation) {
+    case SCAN:
+      recordCount = (int) readVarint();
+      readFields();
+      break;
+    case READ:
+      readFields();
+      break;
+    case UPDATE:
+    case INSERT:
+      int count = (int) readVarint();
+      if (count > valueSizes.length) {
+        valueSizes = new int[Math.max(count, 2 * valueSizes.length)];
+      }
+      for (int i = 0; i < count; i++) {
+        fields.add(readName());
+        valueSizes[i] = (int) readVarint();
+      }
+      break;
+    default:
+      break;
+    }
+  }
+
+  private void readFields() {
+    int count = (int) readVarint();
+    allFields = count == 0;
+    for (int i = 1; i < count; i++) {
+      fields.add(readName());
+    }
+  }
+
+  private String readName() {
+    int id = (int) readVarint();
+    if (id < names.size()) {
+      return names.get(id);
+    }
+    if (id != names.size()) {
+      throw new IllegalStateException("Name " + id + " in the trace was never defined");
+    }
+    byte[] bytes = new byte[(int) readVarint()];
+    buffer.get(bytes);
+    String name = new String(bytes, StandardCharsets.UTF_8);
+    names.add(name);
+    return name;
+  }
+
+  private long readVarint() {
+    long value = 0;
+    for (int shift = 0;; shift += 7) {
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+
+  /**
+   * @return The operation of the record.
+   */
+  public Workload.Operation getOperation() {
+    return operation;
+  }
+
+  /**
+   * @return The start time of the operation in microseconds since the trace started.
+   */
+  public long getTimeUs() {
+    return timeUs;
+  }
+
+  public String getTable() {
+    return table;
+  }
+
+  /**
+   * @return The key of the record, decoded anew on each call.
+   */
+  public String getKey() {
+    return new String(key, 0, keyLength, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @return The 64 bit FNV hash of the UTF-8 bytes of the key.
+   */
+  public long getKeyHash() {
+    return keyHash;
+  }
+
+  /**
+   * @return The number of records to scan.
+   */
+  public int getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * @return Whether a read or scan reads all fields.
+   */
+  public boolean isAllFields() {
+    return allFields;
+  }
+
+  /**
+   * @return The fields read, or written by an update or insert. Only valid until the next record.
+   */
+  public List<String> getFields() {
+    return fields;
+  }
+
+  /**
+   * @param i The index of the field in {@link #getFields()}.
+   * @return The size of the value written to the field by an update or insert.
+   */
+  public int getValueSize(int i) {
+    return valueSizes[i];
+  }
+
+  @Override
+  public void close() throws IOException {
+    buffer = null;
+    file.close();
+  }
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.trace;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.Workload;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Writes the operations of a run to a compact binary trace, which the
+ * {@link site.ycsb.workloads.TraceReplayWorkload} replays. The trace holds what is needed to issue the same
+ * operations again: the operation, its start time, the table, the key, the fields and the sizes of the values
+ * written, but not the values themselves.
+ *
+ * A trace starts with the 8 bytes {@code YCSBTRC1}, followed by the records:
+ * <pre>
+ * byte     operation: 0 read, 1 update, 2 insert, 3 scan, 4 delete
+ * varint   the start time of the operation in microseconds since the trace started
+ * name     the table
+ * varint   the length of the key, followed by its UTF-8 bytes
+ * varint   scan only: the number of records to scan
+ * varint   read and scan: the number of fields to read plus one, or 0 for all fields, followed by their names
+ * varint   update and insert: the number of fields written, followed by the name and the value size of each
+ * </pre>
+ * Varints are unsigned LEB128. A name is the varint number of the name in the order of first use; the first use
+ * is followed by the varint length and the UTF-8 bytes of the name.
+ *
+ * All DB instances of a run share one writer per file, which is closed when the last of them releases it. Records
+ * are appended in the order the operations start, under a lock, so recording costs some throughput.
+ */
+public final class TraceWriter {
+  /** The file to record the operations of the run to; nothing is recorded if not set. */
+  public static final String RECORD_PROPERTY = "trace.record";
+
+  static final byte[] MAGIC = "YCSBTRC1".getBytes(StandardCharsets.US_ASCII);
+
+  static final Workload.Operation[] OPERATIONS = {
+      Workload.Operation.READ, Workload.Operation.UPDATE, Workload.Operation.INSERT, Workload.Operation.SCAN,
+      Workload.Operation.DELETE
+  };
+
+  private static final Map<File, TraceWriter> OPEN = new HashMap<>();
+
+  private final File file;
+  private final OutputStream out;
+  private final long startNs = System.nanoTime();
+  private final Map<String, Integer> names = new HashMap<>();
+  private int references;
+  private boolean failed;
+
+  /**
+   * Get the writer of the file configured in the properties, opening it if no DB instance has yet. Each call
+   * must be followed by a call to {@link #release()}.
+   *
+   * @param props The properties of the DB.
+   * @return The writer, or null if no trace is to be recorded.
+   * @throws IOException if the trace file could not be created.
+   */
+  public static TraceWriter acquire(Properties props) throws IOException {
+    String path = props.getProperty(RECORD_PROPERTY);
+    if (path == null) {
+      return null;
+    }
+    File file = new File(path).getAbsoluteFile();
+    synchronized (OPEN) {
+      TraceWriter writer = OPEN.get(file);
+      if (writer == null) {
+        writer = new TraceWriter(file);
+        OPEN.put(file, writer);
+        System.err.println("Recording a trace of the operations to " + file);
+      }
+      writer.references++;
+      return writer;
+    }
+  }
+
+  private TraceWriter(File file) throws IOException {
+    this.file = file;
+    out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+    out.write(MAGIC);
+  }
+
+  /**
+   * Release the writer, closing its file once all DB instances released it.
+   */
+  public void release() {
+    synchronized (OPEN) {
+      if (--references > 0) {
+        return;
+      }
+      OPEN.remove(file);
+    }
+    synchronized (this) {
+      try {
+        out.close();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Record a read of the given fields, or of all fields if null.
+   */
+  public void read(String table, String key, Collection<String> fields) {
+    synchronized (this) {
+      start(0, table, key);
+      writeFields(fields);
+    }
+  }
+
+  /**
+   * Record a scan of the given fields, or of all fields if null.
+   */
+  public void scan(String table, String startkey, int recordcount, Collection<String> fields) {
+    synchronized (this) {
+      start(3, table, startkey);
+      writeVarint(recordcount);
+      writeFields(fields);
+    }
+  }
+
+  /**
+   * Record an update, with the sizes of the values as the DB is about to read them.
+   */
+  public void update(String table, String key, Map<String, ByteIterator> values) {
+    synchronized (this) {
+      start(1, table, key);
+      writeValues(values);
+    }
+  }
+
+  /**
+   * Record an insert, with the sizes of the values as the DB is about to read them.
+   */
+  public void insert(String table, String key, Map<String, ByteIterator> values) {
+    synchronized (this) {
+      start(2, table, key);
+      writeValues(values);
+    }
+  }
+
+  /**
+   * Record a delete.
+   */
+  public void delete(String table, String key) {
+    synchronized (this) {
+      start(4, table, key);
+    }
+  }
+
+  private void start(int operation, String table, String key) {
+    write(operation);
+    writeVarint((System.nanoTime() - startNs) / 1000);
+    writeName(table);
+    writeBytes(key);
+  }
+
+  private void writeFields(Collection<String> fields) {
+    if (fields == null) {
+      writeVarint(0);
+      return;
+    }
+    writeVarint(fields.size() + 1);
+    for (String field : fields) {
+      writeName(field);
+    }
+  }
+
+  private void writeValues(Map<String, ByteIterator> values) {
+    writeVarint(values.size());
+    for (Map.Entry<String, ByteIterator> value : values.entrySet()) {
+      writeName(value.getKey());
+      // the size left to read, as the DB has not read the value yet
+      writeVarint(Math.max(0, value.getValue().bytesLeft()));
+    }
+  }
+
+  private void writeName(String name) {
+    Integer id = names.get(name);
+    if (id != null) {
+      writeVarint(id);
+      return;
+    }
+    writeVarint(names.size());
+    names.put(name, names.size());
+    writeBytes(name);
+  }
+
+  private void writeBytes(String s) {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    writeVarint(bytes.length);
+    try {
+      out.write(bytes);
+    } catch (IOException e) {
+      fail(e);
+    }
+  }
+
+  private void writeVarint(long value) {
+    while ((value & ~0x7FL) != 0) {
+      write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    write((int) value);
+  }
+
+  private void write(int b) {
+    try {
+      out.write(b);
+    } catch (IOException e) {
+      fail(e);
+    }
+  }
+
+  private void fail(IOException e) {
+    if (!failed) {
+      failed = true;
+      System.err.println("Could not write the trace " + file + ", it is incomplete.");
+      e.printStackTrace();
+    }
+  }
+}
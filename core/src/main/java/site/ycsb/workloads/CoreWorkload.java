@@ -24,6 +24,7 @@ import site.ycsb.measurements.Measurements;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The core benchmark scenario. Represents a set of clients doing simple CRUD operations. The
@@ -63,6 +64,11 @@ import java.util.*;
  * order ("hashed") (default: hashed)
  * <LI><b>fieldnameprefix</b>: what should be a prefix for field names, the shorter may decrease the
  * required storage size (default: "field")
+ * <LI><b>reusebuffers</b>: should each client thread reuse its keys builder, field sets, value maps and value
+ * iterators across synchronous operations instead of allocating them anew, only safe with DB bindings that do
+ * not keep references to them after a call returns (default: false)
+ * <LI><b>zetacachefile</b>: a file to keep the zeta constants of the zipfian distributions of large keyspaces
+ * in, so that later runs do not compute them again (default: none)
  * </ul>
  */
 public class CoreWorkload extends Workload {
@@ -185,6 +191,24 @@ public class CoreWorkload extends Workload {
    */
   private boolean dataintegrity;
 
+  /**
+   * The name of the property for deciding whether each client thread reuses one {@link RecordBuffer} for the
+   * keys, field sets and values of its synchronous operations.
+   */
+  public static final String REUSE_BUFFERS_PROPERTY = "reusebuffers";
+
+  /**
+   * The default value for the reusebuffers property.
+   */
+  public static final String REUSE_BUFFERS_PROPERTY_DEFAULT = "false";
+
+  private boolean reusebuffers;
+
+  /**
+   * The name of the property for the file that caches the zeta constants of large zipfian distributions.
+   */
+  public static final String ZETA_CACHE_FILE_PROPERTY = "zetacachefile";
+
   /**
    * The name of the property for the proportion of transactions that are reads.
    */
@@ -356,6 +380,13 @@ public class CoreWorkload extends Workload {
 
   private Measurements measurements = Measurements.getMeasurements();
 
+  /**
+   * Whether the async variants may stand in for doInsert and doTransaction, which they can only if a subclass did
+   * not replace those with operations of its own.
+   */
+  private final boolean asyncInserts = !overrides("doInsert");
+  private final boolean asyncTransactions = !overrides("doTransaction");
+
   protected static NumberGenerator getFieldLengthGenerator(Properties p) throws WorkloadException {
     NumberGenerator fieldlengthgenerator;
     String fieldlengthdistribution = p.getProperty(
@@ -393,6 +424,7 @@ public class CoreWorkload extends Workload {
   @Override
   public void init(Properties p) throws WorkloadException {
     table = p.getProperty(TABLENAME_PROPERTY, TABLENAME_PROPERTY_DEFAULT);
+    ZipfianGenerator.setZetaCacheFile(p.getProperty(ZETA_CACHE_FILE_PROPERTY));
 
     fieldcount =
         Long.parseLong(p.getProperty(FIELD_COUNT_PROPERTY, FIELD_COUNT_PROPERTY_DEFAULT));
@@ -437,6 +469,8 @@ public class CoreWorkload extends Workload {
 
     dataintegrity = Boolean.parseBoolean(
         p.getProperty(DATA_INTEGRITY_PROPERTY, DATA_INTEGRITY_PROPERTY_DEFAULT));
+    reusebuffers = Boolean.parseBoolean(
+        p.getProperty(REUSE_BUFFERS_PROPERTY, REUSE_BUFFERS_PROPERTY_DEFAULT));
     // Confirm that fieldlengthgenerator returns a constant if data
     // integrity check requested.
     if (dataintegrity && !(p.getProperty(
@@ -514,53 +548,155 @@ public class CoreWorkload extends Workload {
         INSERTION_RETRY_INTERVAL, INSERTION_RETRY_INTERVAL_DEFAULT));
   }
 
+  /**
+   * The per-thread state of a CoreWorkload with {@link #REUSE_BUFFERS_PROPERTY} set: everything an operation
+   * needs besides the key string itself, allocated once so that generating an operation creates no garbage.
+   * The maps and iterators are handed to the DB and overwritten by the next operation of the thread, so they are
+   * only used for synchronous operations.
+   */
+  protected static final class RecordBuffer {
+    private final StringBuilder key = new StringBuilder(32);
+    private final HashMap<String, ByteIterator> values;
+    private final List<HashMap<String, ByteIterator>> singleValues;
+    private final List<HashSet<String>> singleFields;
+    private final HashSet<String> allFields;
+    private final RandomByteIterator[] randomValues;
+    private final HashMap<String, ByteIterator> cells;
+    private final Vector<HashMap<String, ByteIterator>> scanResult = new Vector<>();
+
+    private RecordBuffer(List<String> fieldnames) {
+      int capacity = (int) (fieldnames.size() / 0.75f) + 1;
+      values = new HashMap<>(capacity);
+      cells = new HashMap<>(capacity);
+      allFields = new HashSet<>(fieldnames);
+      singleValues = new ArrayList<>(fieldnames.size());
+      singleFields = new ArrayList<>(fieldnames.size());
+      randomValues = new RandomByteIterator[fieldnames.size()];
+      for (int i = 0; i < fieldnames.size(); i++) {
+        singleValues.add(new HashMap<String, ByteIterator>(2));
+        singleFields.add(new HashSet<>(Collections.singleton(fieldnames.get(i))));
+        randomValues[i] = new RandomByteIterator(0);
+      }
+    }
+  }
+
+  /**
+   * @return A {@link RecordBuffer} if {@link #REUSE_BUFFERS_PROPERTY} is set, otherwise null.
+   */
+  @Override
+  public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException {
+    return reusebuffers ? new RecordBuffer(fieldnames) : null;
+  }
+
+  /**
+   * @return Whether the class of this workload overrides a method of CoreWorkload taking a DB and a thread state.
+   */
+  private boolean overrides(String name) {
+    try {
+      return getClass().getMethod(name, DB.class, Object.class).getDeclaringClass() != CoreWorkload.class;
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static RecordBuffer recordBuffer(Object threadstate) {
+    return threadstate instanceof RecordBuffer ? (RecordBuffer) threadstate : null;
+  }
+
   protected String buildKeyName(long keynum) {
+    return buildKeyName(keynum, new StringBuilder(32));
+  }
+
+  /**
+   * Builds the key in the given builder, which is cleared first, so that only the returned string is allocated.
+   */
+  protected String buildKeyName(long keynum, StringBuilder key) {
     if (!orderedinserts) {
       keynum = Utils.hash(keynum);
     }
-    String value = Long.toString(keynum);
-    int fill = zeropadding - value.length();
-    String prekey = "user";
-    for (int i = 0; i < fill; i++) {
-      prekey += '0';
+    key.setLength(0);
+    key.append("user");
+    for (int fill = zeropadding - decimalLength(keynum); fill > 0; fill--) {
+      key.append('0');
+    }
+    key.append(keynum);
+    return key.toString();
+  }
+
+  private String buildKeyName(long keynum, RecordBuffer buffer) {
+    return buffer == null ? buildKeyName(keynum) : buildKeyName(keynum, buffer.key);
+  }
+
+  /**
+   * @return The length of {@link Long#toString(long)} of the value, sign included.
+   */
+  private static int decimalLength(long value) {
+    if (value == Long.MIN_VALUE) {
+      return 20;
+    }
+    int length = value < 0 ? 2 : 1;
+    for (long rest = Math.abs(value); rest >= 10; rest /= 10) {
+      length++;
     }
-    return prekey + value;
+    return length;
   }
 
   /**
    * Builds a value for a randomly chosen field.
    */
-  private HashMap<String, ByteIterator> buildSingleValue(String key) {
-    HashMap<String, ByteIterator> value = new HashMap<>();
+  private HashMap<String, ByteIterator> buildSingleValue(String key, RecordBuffer buffer) {
+    int fieldindex = fieldchooser.nextValue().intValue();
+    String fieldkey = fieldnames.get(fieldindex);
+    if (buffer == null) {
+      HashMap<String, ByteIterator> value = new HashMap<>();
+      value.put(fieldkey, buildValue(key, fieldkey, null));
+      return value;
+    }
+    HashMap<String, ByteIterator> value = buffer.singleValues.get(fieldindex);
+    value.put(fieldkey, buildValue(key, fieldkey, buffer.randomValues[fieldindex]));
+    return value;
+  }
 
-    String fieldkey = fieldnames.get(fieldchooser.nextValue().intValue());
-    ByteIterator data;
+  /**
+   * Builds the value of one field, restarting the given iterator rather than allocating one if not null.
+   */
+  private ByteIterator buildValue(String key, String fieldkey, RandomByteIterator reusable) {
     if (dataintegrity) {
-      data = new StringByteIterator(buildDeterministicValue(key, fieldkey));
-    } else {
-      // fill with random data
-      data = new RandomByteIterator(fieldlengthgenerator.nextValue().longValue());
+      return new StringByteIterator(buildDeterministicValue(key, fieldkey));
     }
-    value.put(fieldkey, data);
-
-    return value;
+    // fill with random data
+    long length = fieldlengthgenerator.nextValue().longValue();
+    if (reusable == null) {
+      return new RandomByteIterator(length);
+    }
+    reusable.restart(length);
+    return reusable;
   }
 
   /**
    * Builds values for all fields.
    */
-  private HashMap<String, ByteIterator> buildValues(String key) {
+  protected HashMap<String, ByteIterator> buildValues(String key) {
     HashMap<String, ByteIterator> values = new HashMap<>();
 
     for (String fieldkey : fieldnames) {
-      ByteIterator data;
-      if (dataintegrity) {
-        data = new StringByteIterator(buildDeterministicValue(key, fieldkey));
-      } else {
-        // fill with random data
-        data = new RandomByteIterator(fieldlengthgenerator.nextValue().longValue());
-      }
-      values.put(fieldkey, data);
+      values.put(fieldkey, buildValue(key, fieldkey, null));
+    }
+    return values;
+  }
+
+  /**
+   * Builds values for all fields into the map of the buffer, overwriting those of the previous operation, or into
+   * a new map if the buffer is null.
+   */
+  protected HashMap<String, ByteIterator> buildValues(String key, RecordBuffer buffer) {
+    if (buffer == null) {
+      return buildValues(key);
+    }
+    HashMap<String, ByteIterator> values = buffer.values;
+    for (int i = 0; i < fieldnames.size(); i++) {
+      String fieldkey = fieldnames.get(i);
+      values.put(fieldkey, buildValue(key, fieldkey, buffer.randomValues[i]));
     }
     return values;
   }
@@ -591,9 +727,10 @@ public class CoreWorkload extends Workload {
    */
   @Override
   public boolean doInsert(DB db, Object threadstate) {
+    RecordBuffer buffer = recordBuffer(threadstate);
     int keynum = keysequence.nextValue().intValue();
-    String dbkey = buildKeyName(keynum);
-    HashMap<String, ByteIterator> values = buildValues(dbkey);
+    String dbkey = buildKeyName(keynum, buffer);
+    HashMap<String, ByteIterator> values = buildValues(dbkey, buffer);
 
     Status status;
     int numOfRetries = 0;
@@ -639,26 +776,87 @@ public class CoreWorkload extends Workload {
       return false;
     }
 
+    RecordBuffer buffer = recordBuffer(threadstate);
     switch (operation) {
     case "READ":
-      doTransactionRead(db);
+      doTransactionRead(db, buffer);
       break;
     case "UPDATE":
-      doTransactionUpdate(db);
+      doTransactionUpdate(db, buffer);
       break;
     case "INSERT":
-      doTransactionInsert(db);
+      doTransactionInsert(db, buffer);
       break;
     case "SCAN":
-      doTransactionScan(db);
+      doTransactionScan(db, buffer);
       break;
     default:
-      doTransactionReadModifyWrite(db);
+      doTransactionReadModifyWrite(db, buffer);
     }
 
     return true;
   }
 
+  /**
+   * Start one insert operation without waiting for it. Insertion retries need to sleep between attempts, so
+   * when they are enabled the blocking {@link #doInsert(DB, Object)} is used instead, as it is if a subclass
+   * replaced it.
+   */
+  @Override
+  public CompletableFuture<Boolean> doInsertAsync(AsyncDB db, Object threadstate) {
+    if (insertionRetryLimit > 0 || !asyncInserts) {
+      return super.doInsertAsync(db, threadstate);
+    }
+    int keynum = keysequence.nextValue().intValue();
+    String dbkey = buildKeyName(keynum);
+    HashMap<String, ByteIterator> values = buildValues(dbkey);
+
+    return db.insertAsync(table, dbkey, values).thenApply(status -> {
+      if (status == null || !status.isOk()) {
+        System.err.println("Error inserting, not retrying any more. Insertion Retry Limit: " +
+            insertionRetryLimit);
+        return false;
+      }
+      return true;
+    });
+  }
+
+  /**
+   * Start one transaction operation without waiting for it. Uses the same operation mix as
+   * {@link #doTransaction(DB, Object)}, or the blocking {@link #doTransaction(DB, Object)} itself if a subclass
+   * replaced it.
+   */
+  @Override
+  public CompletableFuture<Boolean> doTransactionAsync(AsyncDB db, Object threadstate) {
+    if (!asyncTransactions) {
+      return super.doTransactionAsync(db, threadstate);
+    }
+    String operation = operationchooser.nextString();
+    if(operation == null) {
+      return CompletableFuture.completedFuture(false);
+    }
+
+    CompletableFuture<?> pending;
+    switch (operation) {
+    case "READ":
+      pending = doTransactionReadAsync(db);
+      break;
+    case "UPDATE":
+      pending = doTransactionUpdateAsync(db);
+      break;
+    case "INSERT":
+      pending = doTransactionInsertAsync(db);
+      break;
+    case "SCAN":
+      pending = doTransactionScanAsync(db);
+      break;
+    default:
+      pending = doTransactionReadModifyWriteAsync(db);
+    }
+
+    return pending.thenApply(ignored -> true);
+  }
+
   /**
    * Results are reported in the first three buckets of the histogram under
    * the label "VERIFY".
@@ -699,26 +897,51 @@ public class CoreWorkload extends Workload {
     return keynum;
   }
 
+  /**
+   * @return A set of one randomly chosen field, from the buffer if not null.
+   */
+  private HashSet<String> chooseSingleField(RecordBuffer buffer) {
+    int fieldindex = fieldchooser.nextValue().intValue();
+    if (buffer != null) {
+      return buffer.singleFields.get(fieldindex);
+    }
+    HashSet<String> fields = new HashSet<String>();
+    fields.add(fieldnames.get(fieldindex));
+    return fields;
+  }
+
+  /**
+   * @return An empty map for the result of a read, from the buffer if not null.
+   */
+  private static HashMap<String, ByteIterator> emptyCells(RecordBuffer buffer) {
+    if (buffer == null) {
+      return new HashMap<String, ByteIterator>();
+    }
+    buffer.cells.clear();
+    return buffer.cells;
+  }
+
   public void doTransactionRead(DB db) {
+    doTransactionRead(db, null);
+  }
+
+  protected void doTransactionRead(DB db, RecordBuffer buffer) {
     // choose a random key
     long keynum = nextKeynum();
 
-    String keyname = buildKeyName(keynum);
+    String keyname = buildKeyName(keynum, buffer);
 
     HashSet<String> fields = null;
 
     if (!readallfields) {
       // read a random field
-      String fieldname = fieldnames.get(fieldchooser.nextValue().intValue());
-
-      fields = new HashSet<String>();
-      fields.add(fieldname);
+      fields = chooseSingleField(buffer);
     } else if (dataintegrity) {
       // pass the full field list if dataintegrity is on for verification
-      fields = new HashSet<String>(fieldnames);
+      fields = buffer != null ? buffer.allFields : new HashSet<String>(fieldnames);
     }
 
-    HashMap<String, ByteIterator> cells = new HashMap<String, ByteIterator>();
+    HashMap<String, ByteIterator> cells = emptyCells(buffer);
     db.read(table, keyname, fields, cells);
 
     if (dataintegrity) {
@@ -727,34 +950,35 @@ public class CoreWorkload extends Workload {
   }
 
   public void doTransactionReadModifyWrite(DB db) {
+    doTransactionReadModifyWrite(db, null);
+  }
+
+  protected void doTransactionReadModifyWrite(DB db, RecordBuffer buffer) {
     // choose a random key
     long keynum = nextKeynum();
 
-    String keyname = buildKeyName(keynum);
+    String keyname = buildKeyName(keynum, buffer);
 
     HashSet<String> fields = null;
 
     if (!readallfields) {
       // read a random field
-      String fieldname = fieldnames.get(fieldchooser.nextValue().intValue());
-
-      fields = new HashSet<String>();
-      fields.add(fieldname);
+      fields = chooseSingleField(buffer);
     }
 
     HashMap<String, ByteIterator> values;
 
     if (writeallfields) {
       // new data for all the fields
-      values = buildValues(keyname);
+      values = buildValues(keyname, buffer);
     } else {
       // update a random field
-      values = buildSingleValue(keyname);
+      values = buildSingleValue(keyname, buffer);
     }
 
     // do the transaction
 
-    HashMap<String, ByteIterator> cells = new HashMap<String, ByteIterator>();
+    HashMap<String, ByteIterator> cells = emptyCells(buffer);
 
 
     long ist = measurements.getIntendedtartTimeNs();
@@ -774,6 +998,155 @@ public class CoreWorkload extends Workload {
   }
 
   public void doTransactionScan(DB db) {
+    doTransactionScan(db, null);
+  }
+
+  protected void doTransactionScan(DB db, RecordBuffer buffer) {
+    // choose a random key
+    long keynum = nextKeynum();
+
+    String startkeyname = buildKeyName(keynum, buffer);
+
+    // choose a random scan length
+    int len = scanlength.nextValue().intValue();
+
+    HashSet<String> fields = null;
+
+    if (!readallfields) {
+      // read a random field
+      fields = chooseSingleField(buffer);
+    }
+
+    Vector<HashMap<String, ByteIterator>> result;
+    if (buffer == null) {
+      result = new Vector<HashMap<String, ByteIterator>>();
+    } else {
+      result = buffer.scanResult;
+      result.clear();
+    }
+    db.scan(table, startkeyname, len, fields, result);
+  }
+
+  public void doTransactionUpdate(DB db) {
+    doTransactionUpdate(db, null);
+  }
+
+  protected void doTransactionUpdate(DB db, RecordBuffer buffer) {
+    // choose a random key
+    long keynum = nextKeynum();
+
+    String keyname = buildKeyName(keynum, buffer);
+
+    HashMap<String, ByteIterator> values;
+
+    if (writeallfields) {
+      // new data for all the fields
+      values = buildValues(keyname, buffer);
+    } else {
+      // update a random field
+      values = buildSingleValue(keyname, buffer);
+    }
+
+    db.update(table, keyname, values);
+  }
+
+  public void doTransactionInsert(DB db) {
+    doTransactionInsert(db, null);
+  }
+
+  protected void doTransactionInsert(DB db, RecordBuffer buffer) {
+    // choose the next key
+    long keynum = transactioninsertkeysequence.nextValue();
+
+    try {
+      String dbkey = buildKeyName(keynum, buffer);
+
+      HashMap<String, ByteIterator> values = buildValues(dbkey, buffer);
+      db.insert(table, dbkey, values);
+    } finally {
+      transactioninsertkeysequence.acknowledge(keynum);
+    }
+  }
+
+  public CompletableFuture<Status> doTransactionReadAsync(AsyncDB db) {
+    // choose a random key
+    long keynum = nextKeynum();
+
+    final String keyname = buildKeyName(keynum);
+
+    HashSet<String> fields = null;
+
+    if (!readallfields) {
+      // read a random field
+      String fieldname = fieldnames.get(fieldchooser.nextValue().intValue());
+
+      fields = new HashSet<String>();
+      fields.add(fieldname);
+    } else if (dataintegrity) {
+      // pass the full field list if dataintegrity is on for verification
+      fields = new HashSet<String>(fieldnames);
+    }
+
+    final HashMap<String, ByteIterator> cells = new HashMap<String, ByteIterator>();
+    CompletableFuture<Status> pending = db.readAsync(table, keyname, fields, cells);
+
+    if (dataintegrity) {
+      pending = pending.thenApply(status -> {
+        verifyRow(keyname, cells);
+        return status;
+      });
+    }
+    return pending;
+  }
+
+  public CompletableFuture<Status> doTransactionReadModifyWriteAsync(final AsyncDB db) {
+    // choose a random key
+    long keynum = nextKeynum();
+
+    final String keyname = buildKeyName(keynum);
+
+    HashSet<String> fields = null;
+
+    if (!readallfields) {
+      // read a random field
+      String fieldname = fieldnames.get(fieldchooser.nextValue().intValue());
+
+      fields = new HashSet<String>();
+      fields.add(fieldname);
+    }
+
+    final HashMap<String, ByteIterator> values;
+
+    if (writeallfields) {
+      // new data for all the fields
+      values = buildValues(keyname);
+    } else {
+      // update a random field
+      values = buildSingleValue(keyname, null);
+    }
+
+    // do the transaction
+
+    final HashMap<String, ByteIterator> cells = new HashMap<String, ByteIterator>();
+
+    final long ist = measurements.getIntendedtartTimeNs();
+    final long st = System.nanoTime();
+    return db.readAsync(table, keyname, fields, cells)
+        .thenCompose(readStatus -> db.updateAsync(table, keyname, values))
+        .thenApply(status -> {
+          long en = System.nanoTime();
+
+          if (dataintegrity) {
+            verifyRow(keyname, cells);
+          }
+
+          measurements.measure("READ-MODIFY-WRITE", (int) ((en - st) / 1000));
+          measurements.measureIntended("READ-MODIFY-WRITE", (int) ((en - ist) / 1000));
+          return status;
+        });
+  }
+
+  public CompletableFuture<Status> doTransactionScanAsync(AsyncDB db) {
     // choose a random key
     long keynum = nextKeynum();
 
@@ -792,10 +1165,10 @@ public class CoreWorkload extends Workload {
       fields.add(fieldname);
     }
 
-    db.scan(table, startkeyname, len, fields, new Vector<HashMap<String, ByteIterator>>());
+    return db.scanAsync(table, startkeyname, len, fields, new Vector<HashMap<String, ByteIterator>>());
   }
 
-  public void doTransactionUpdate(DB db) {
+  public CompletableFuture<Status> doTransactionUpdateAsync(AsyncDB db) {
     // choose a random key
     long keynum = nextKeynum();
 
@@ -808,24 +1181,27 @@ public class CoreWorkload extends Workload {
       values = buildValues(keyname);
     } else {
       // update a random field
-      values = buildSingleValue(keyname);
+      values = buildSingleValue(keyname, null);
     }
 
-    db.update(table, keyname, values);
+    return db.updateAsync(table, keyname, values);
   }
 
-  public void doTransactionInsert(DB db) {
+  public CompletableFuture<Status> doTransactionInsertAsync(AsyncDB db) {
     // choose the next key
-    long keynum = transactioninsertkeysequence.nextValue();
+    final long keynum = transactioninsertkeysequence.nextValue();
 
+    CompletableFuture<Status> pending;
     try {
       String dbkey = buildKeyName(keynum);
 
       HashMap<String, ByteIterator> values = buildValues(dbkey);
-      db.insert(table, dbkey, values);
-    } finally {
+      pending = db.insertAsync(table, dbkey, values);
+    } catch (RuntimeException e) {
       transactioninsertkeysequence.acknowledge(keynum);
+      throw e;
     }
+    return pending.whenComplete((status, error) -> transactioninsertkeysequence.acknowledge(keynum));
   }
 
   /**
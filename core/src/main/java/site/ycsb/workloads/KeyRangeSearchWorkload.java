@@ -16,69 +16,136 @@
 package site.ycsb.workloads;
 
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
-import java.util.Vector;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import site.ycsb.ByteIterator;
+import site.ycsb.Client;
 import site.ycsb.DB;
 import site.ycsb.Status;
+import site.ycsb.StringByteIterator;
 import site.ycsb.Workload;
 import site.ycsb.WorkloadException;
+import site.ycsb.generator.NamespaceKeyGenerator;
 import site.ycsb.measurements.Measurements;
 
 /**
- * Scenario 4 of the Dremio performance test.
+ * Scenario 4 of the Dremio performance test: listings of the entities under a source or folder of the catalog, as
+ * key range searches of dac_namespace.
+ *
+ * The catalog is a tree of entities laid out by a {@link NamespaceKeyGenerator}, which the load phase inserts in
+ * dac_namespace, level by level, and which the searches take their key ranges from, so both phases agree on the
+ * keys. A search lists the subtree of an entity of the query depth, picked with the skew of each level; its latency
+ * is measured as KEY_RANGE_SEARCH and the number of rows it returned as KEY_RANGE_ROWS. Properties to control the
+ * workload:
+ * <UL>
+ * <LI><b>namespace.levels</b>: the levels of the tree, as name:fanout[:skew] separated by commas, where the skew is
+ * the zipfian constant of picking among siblings, 0 for uniform (default: source:100,folder:10,dataset:10, 11100
+ * entities). The recordcount must not be more than the entities of the tree.
+ * <LI><b>namespace.querydepth</b>: the level of the entities whose subtrees are searched, from 0 for the roots
+ * (default: 0)
+ * <LI><b>namespace.maxrows</b>: the maximum number of rows a search returns (default: 1000)
+ * </ul>
  */
 public class KeyRangeSearchWorkload extends Workload {
+  public static final String TABLE = "dac_namespace";
+
+  /** The levels of the namespace tree. */
+  public static final String LEVELS_PROPERTY = "namespace.levels";
+  public static final String LEVELS_PROPERTY_DEFAULT = "source:100,folder:10,dataset:10";
+
+  /** The level of the entities whose subtrees are searched. */
+  public static final String QUERY_DEPTH_PROPERTY = "namespace.querydepth";
+  public static final String QUERY_DEPTH_PROPERTY_DEFAULT = "0";
+
+  /** The maximum number of rows a search returns. */
+  public static final String MAX_ROWS_PROPERTY = "namespace.maxrows";
+  public static final String MAX_ROWS_PROPERTY_DEFAULT = "1000";
 
-  private int operationCount;
-  private int recordCount;
+  private NamespaceKeyGenerator tree;
+  private int queryDepth;
+  private int maxRows;
+  private String[] entityTypes;
+  /** The number of the next entity to insert. */
+  private final AtomicLong next = new AtomicLong();
 
   @Override
   public void init(Properties p) throws WorkloadException {
-    operationCount = Integer.parseInt(p.getProperty("operationcount"));
-    recordCount = Integer.parseInt(p.getProperty("recordcount"));
-  }
-
-  private static class ThreadOffset {
-    public int start;
-    public int count;
+    try {
+      tree = new NamespaceKeyGenerator(p.getProperty(LEVELS_PROPERTY, LEVELS_PROPERTY_DEFAULT));
+    } catch (IllegalArgumentException | ArithmeticException e) {
+      throw new WorkloadException("Invalid " + LEVELS_PROPERTY + ": " + e.getMessage(), e);
+    }
+    queryDepth = Integer.parseInt(p.getProperty(QUERY_DEPTH_PROPERTY, QUERY_DEPTH_PROPERTY_DEFAULT));
+    maxRows = Integer.parseInt(p.getProperty(MAX_ROWS_PROPERTY, MAX_ROWS_PROPERTY_DEFAULT));
+    if (queryDepth < 0 || queryDepth >= tree.depth()) {
+      throw new WorkloadException(QUERY_DEPTH_PROPERTY + " must be at least 0 and less than the " + tree.depth()
+          + " levels");
+    }
+    if (maxRows <= 0) {
+      throw new WorkloadException(MAX_ROWS_PROPERTY + " must be positive");
+    }
+    long recordCount = Long.parseLong(p.getProperty(Client.RECORD_COUNT_PROPERTY, Client.DEFAULT_RECORD_COUNT));
+    if (recordCount > tree.size()) {
+      throw new WorkloadException(Client.RECORD_COUNT_PROPERTY + " is more than the " + tree.size()
+          + " entities of the tree");
+    }
+    next.set(Long.parseLong(p.getProperty(CoreWorkload.INSERT_START_PROPERTY,
+        CoreWorkload.INSERT_START_PROPERTY_DEFAULT)));
 
-    public ThreadOffset(int threadId, int threadCount, int operationCount) {
-      this.start = (threadId) * (operationCount/threadCount);
-      this.count = 0;
+    entityTypes = new String[tree.depth()];
+    for (int i = 0; i < entityTypes.length; i++) {
+      entityTypes[i] = tree.name(i).toUpperCase();
     }
   }
 
+  @Override
   public Object initThread(Properties p, int myThreadId, int threadCount) throws WorkloadException {
-    return new ThreadOffset(myThreadId, threadCount, this.operationCount);
+    // the keys of a thread are built in one builder
+    return new StringBuilder(64);
   }
 
   @Override
   public boolean doInsert(DB db, Object threadState) {
-    return true;
+    StringBuilder key = (StringBuilder) threadState;
+    long entity = next.getAndIncrement();
+    long parent = tree.parent(entity);
+
+    Map<String, ByteIterator> values = new HashMap<>();
+    key.setLength(0);
+    if (parent >= 0) {
+      tree.appendKey(parent, key);
+    }
+    values.put("container", new StringByteIterator(key.toString()));
+    values.put("entityType", new StringByteIterator(entityTypes[tree.level(entity)]));
+    values.put("entityId", new StringByteIterator(UUID.randomUUID().toString()));
+    key.setLength(0);
+    tree.appendKey(entity, key);
+    return db.insert(TABLE, key.toString(), values).isOk();
   }
 
   @Override
   public boolean doTransaction(DB db, Object threadState) {
-    final ThreadOffset threadOffset = (ThreadOffset) threadState;
-    final Status status;
-    final Vector<HashMap<String, ByteIterator>> result = new Vector<>();
+    StringBuilder key = (StringBuilder) threadState;
+    key.setLength(0);
+    tree.appendKey(tree.nextEntity(queryDepth), key);
+    String startKey = key.toString();
+    NamespaceKeyGenerator.subtreeEnd(key);
+    String endKey = key.toString();
 
-    // Source index varies between the range 0-1499 in the inserted data.
-    int mySourceIndex = (threadOffset.start + threadOffset.count) % 1500;
-    final String startKey =  String.format("/mysource%s", mySourceIndex);
-    final String endKey =  String.format("/mysource%s/schema/table9/file%s.txt", mySourceIndex, threadOffset.count);
-    long startTime = System.nanoTime();
-    status = db.scanWithNamespaceKeyFilter("dac_namespace", startKey, endKey, recordCount, null, result);
-    long endTime = System.nanoTime();
-    threadOffset.count++;
+    final int[] rows = new int[1];
+    long st = System.nanoTime();
+    Status status = db.streamScanWithNamespaceKeyFilter(TABLE, startKey, endKey, maxRows, null, row -> {
+        rows[0]++;
+        return true;
+      });
+    long en = System.nanoTime();
 
-    if (result.size() < recordCount) {
-      return false;
-    }
-    final long latency = (endTime - startTime);
-    Measurements.getMeasurements().measure("KEY_RANGE_SEARCH", (int)(latency/1000));
+    Measurements measurements = Measurements.getMeasurements();
+    measurements.measure("KEY_RANGE_SEARCH", (int) ((en - st) / 1000));
+    measurements.measure("KEY_RANGE_ROWS", rows[0]);
     return status.isOk();
   }
 }
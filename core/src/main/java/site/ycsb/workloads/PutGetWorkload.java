@@ -16,9 +16,7 @@
 package site.ycsb.workloads;
 
 import java.io.UnsupportedEncodingException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
@@ -35,11 +33,42 @@ import site.ycsb.Workload;
 import site.ycsb.WorkloadException;
 
 /**
- * A workload where we do 20% inserts and 80% gets of the inserted data
+ * A workload where we do 20% inserts and 80% gets of the inserted data.
+ *
+ * The inserted keys are random UUIDs, kept in a {@link UuidStore} shared by all threads, so gets may read the keys
+ * inserted by any thread. Properties to control the workload:
+ * <UL>
+ * <LI><b>putget.insertproportion</b>: the fraction of operations that are inserts (default: 0.2)
+ * <LI><b>putget.requestdistribution</b>: which inserted key a get reads, "uniform" or "latest" to favor the
+ * recently inserted ones (default: uniform)
+ * <LI><b>putget.offheap</b>: whether to keep the inserted keys in direct buffers off the heap (default: false)
+ * </ul>
  */
 public class PutGetWorkload extends Workload {
+  /** The fraction of operations that are inserts. */
+  public static final String INSERT_PROPORTION_PROPERTY = "putget.insertproportion";
+  public static final String INSERT_PROPORTION_PROPERTY_DEFAULT = "0.2";
+
+  /** Which inserted key a get reads: "uniform" or "latest". */
+  public static final String REQUEST_DISTRIBUTION_PROPERTY = "putget.requestdistribution";
+  public static final String REQUEST_DISTRIBUTION_PROPERTY_DEFAULT = "uniform";
+
+  /** Whether to keep the inserted keys off the heap. */
+  public static final String OFF_HEAP_PROPERTY = "putget.offheap";
+  public static final String OFF_HEAP_PROPERTY_DEFAULT = "false";
+
+  /**
+   * With the latest distribution, a get reads the key inserted u^LATEST_SKEW of the way back from the most recent
+   * one, for u uniform in [0, 1): half of the gets read the most recent 6% of the keys. Unlike the zipfian
+   * {@link site.ycsb.generator.SkewedLatestGenerator}, this needs no recomputation as the keys grow.
+   */
+  static final double LATEST_SKEW = 4;
+
+  private double insertProportion;
+  private boolean latest;
+  private UuidStore insertedValues;
 
-  private static Map<String, ByteIterator> makeRowFromTemplate() {
+  static Map<String, ByteIterator> makeRowFromTemplate() {
     final Map<String, ByteIterator> rowTemplate = new HashMap<>();
     try {
       rowTemplate.put("allDatasets", new StringByteIterator("[{\"datasetType\": \"PHYSICAL_DATASET_SOURCE_FOLDER\", \"datasetPath\": [\"\", \"small\", \"career\", \"participant\"]}, {\"datasetType\": \"INVALID_DATASET_TYPE\", \"datasetPath\": [\"\", \"against\", \"professor\", \"really\"]}, {\"datasetType\": \"PHYSICAL_DATASET_SOURCE_FOLDER\", \"datasetPath\": [\"\", \"describe\", \"day\", \"century\"]}]"));
@@ -65,11 +94,23 @@ public class PutGetWorkload extends Workload {
   }
 
   private static class UuidTracker {
-    public List<String> insertedValues = new ArrayList<>();
     public Random putGetRng;
     public Random insertedValueIndexRng;
   }
 
+  @Override
+  public void init(Properties p) throws WorkloadException {
+    insertProportion = Double.parseDouble(
+        p.getProperty(INSERT_PROPORTION_PROPERTY, INSERT_PROPORTION_PROPERTY_DEFAULT));
+    String distribution = p.getProperty(REQUEST_DISTRIBUTION_PROPERTY, REQUEST_DISTRIBUTION_PROPERTY_DEFAULT);
+    if (!distribution.equals("uniform") && !distribution.equals("latest")) {
+      throw new WorkloadException("Unknown request distribution \"" + distribution + "\"");
+    }
+    latest = distribution.equals("latest");
+    insertedValues = new UuidStore(Boolean.parseBoolean(
+        p.getProperty(OFF_HEAP_PROPERTY, OFF_HEAP_PROPERTY_DEFAULT)));
+  }
+
   public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException {
     UuidTracker tracker = new UuidTracker();
     tracker.putGetRng = new Random(mythreadid);
@@ -79,28 +120,30 @@ public class PutGetWorkload extends Workload {
 
   @Override
   public boolean doInsert(DB db, Object threadstate) {
-    insertRow(db, (UuidTracker) threadstate);
+    insertRow(db);
     return true;
   }
 
   @Override
   public boolean doTransaction(DB db, Object threadstate) {
-    // randomly choose to do an insert or get with 80% probability of an insert, 20% probability of get.
+    // randomly choose to do an insert or a get of an inserted key, with insertProportion probability of an insert.
     UuidTracker tracker = (UuidTracker) threadstate;
-    if (tracker.putGetRng.nextInt(100) < 20 || tracker.insertedValues.isEmpty()) {
-      return insertRow(db, tracker).isOk();
+    long inserted = insertedValues.size();
+    if (tracker.putGetRng.nextDouble() < insertProportion || inserted == 0) {
+      return insertRow(db).isOk();
     } else {
-      // select a random entry in the list of known values.
-      int element = tracker.insertedValueIndexRng.nextInt(tracker.insertedValues.size());
+      // select an entry among the known values, the most recent first with the latest distribution.
+      double u = tracker.insertedValueIndexRng.nextDouble();
+      long element = latest ? inserted - 1 - (long) (inserted * Math.pow(u, LATEST_SKEW)) : (long) (u * inserted);
       final HashMap<String, ByteIterator> result = new HashMap<>();
-      return db.read("jobs", tracker.insertedValues.get(element), null, result).isOk();
+      return db.read("jobs", insertedValues.get(element).toString(), null, result).isOk();
     }
   }
 
-  private Status insertRow(DB db, UuidTracker tracker) {
-    final String newUuid = UUID.randomUUID().toString().toLowerCase();
-    final Status status = db.insert("jobs", newUuid, makeRowFromTemplate());
-    tracker.insertedValues.add(newUuid);
+  private Status insertRow(DB db) {
+    final UUID newUuid = UUID.randomUUID();
+    final Status status = db.insert("jobs", newUuid.toString(), makeRowFromTemplate());
+    insertedValues.add(newUuid);
     return status;
   }
 }
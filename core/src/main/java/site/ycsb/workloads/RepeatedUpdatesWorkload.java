@@ -15,114 +15,351 @@
  */
 package site.ycsb.workloads;
 
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
-
+import site.ycsb.ByteArrayByteIterator;
 import site.ycsb.ByteIterator;
 import site.ycsb.DB;
 import site.ycsb.Pair;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
+import site.ycsb.Utils;
 import site.ycsb.Workload;
 import site.ycsb.WorkloadException;
+import site.ycsb.generator.DiscreteGenerator;
+import site.ycsb.generator.ExponentialGenerator;
 import site.ycsb.measurements.Measurements;
 
 /**
- * Scenario 2 of the Dremio performance test.
+ * Scenario 2 of the Dremio performance test: the job store under load.
+ *
+ * Each thread creates jobs and walks them through a state machine of job states with versioned updates
+ * ({@link DB#findAndUpdate}), as the coordinator does. A job stays in each state for a random dwell time, so a thread
+ * keeps several jobs in flight and advances whichever is due next. To create version conflicts in a controlled way,
+ * a fraction of the operations instead re-report the current state of a random job in flight of any thread, as a
+ * second writer such as a status poller would; whichever of the two writers loses the race fails its versioned
+ * update and retries with the version the winner wrote.
+ *
+ * Each transition is measured as JOB_&lt;from&gt;_TO_&lt;to&gt;, including its retries, next to the VERSIONED_UPDATE
+ * latencies of the DB calls themselves. Each failed versioned update is measured as JOB_CONFLICT, each retried one as
+ * JOB_RETRY and each transition given up as JOB_GIVEN_UP, so their counts are part of the exported measurements; the
+ * conflict and retry rates are also printed at the end of the run. A binding cannot tell a version mismatch apart
+ * from other failures, so any failed versioned update counts as a conflict.
+ *
+ * The state of a job and the version it was written with are published together, so a writer always sends the
+ * version of the state it read and a touch can never write back a state the job has already left.
  */
 public class RepeatedUpdatesWorkload extends Workload {
 
-  private int operationCount;
-  private final List<String> flattenedJobIdList = new ArrayList<>();
+  /**
+   * The state transitions of a job, as comma-separated from&gt;to:weight entries. The weights of the transitions out
+   * of a state are relative to each other; a state without transitions out of it ends the job. The first state
+   * listed is the state a job is created in.
+   */
+  public static final String TRANSITIONS_PROPERTY = "jobs.transitions";
+  public static final String TRANSITIONS_PROPERTY_DEFAULT = "NOT_SUBMITTED>STARTING:1,STARTING>PLANNING:1," +
+      "PLANNING>ENQUEUED:1,ENQUEUED>RUNNING:1,RUNNING>COMPLETED:0.9,RUNNING>FAILED:0.05," +
+      "RUNNING>CANCELLATION_REQUESTED:0.05,CANCELLATION_REQUESTED>CANCELED:1";
+
+  /**
+   * The mean time a job stays in a state, as comma-separated state:milliseconds entries. The dwell times are
+   * exponentially distributed; states not listed are left as soon as possible.
+   */
+  public static final String DWELL_TIME_PROPERTY = "jobs.dwelltime";
+  public static final String DWELL_TIME_PROPERTY_DEFAULT = "";
+
+  /** The number of jobs each thread keeps in flight. */
+  public static final String IN_FLIGHT_PROPERTY = "jobs.inflight";
+  public static final String IN_FLIGHT_PROPERTY_DEFAULT = "1";
+
+  /** The fraction of operations that re-report the state of a job in flight of any thread. */
+  public static final String TOUCH_PROPORTION_PROPERTY = "jobs.touchproportion";
+  public static final String TOUCH_PROPORTION_PROPERTY_DEFAULT = "0";
+
+  /** The number of times a transition is retried after a failed versioned update before it is given up. */
+  public static final String MAX_RETRIES_PROPERTY = "jobs.maxretries";
+  public static final String MAX_RETRIES_PROPERTY_DEFAULT = "3";
+
+  private static final String CONFLICT_MEASUREMENT = "JOB_CONFLICT";
+  private static final String RETRY_MEASUREMENT = "JOB_RETRY";
+  private static final String GIVEN_UP_MEASUREMENT = "JOB_GIVEN_UP";
+  private static final String TOUCH_MEASUREMENT = "JOB_TOUCH";
 
-  private static final String THREAD_ID_TO_JOB_ID_MAPPING = "{\"0\": [\"cc733c92-6853-45f6-8e49" +
-      "-bec741188ebb\", \"01d74961-8765-4f97-9515-a6564afc37e8\", \"ab9c6ec8-8ddc-47f0-8c47-48492fc8d974\", \"732cdd5e-e013-4699-ac7c-dfd78f4817e9\", \"3ebbd24b-1426-4175-bae4-64e60009a11c\", \"21aa7a5f-abb4-4a3d-a01b-8ffba78303b9\", \"e18bbe21-94cf-474b-b4c2-8817a7b84366\", \"46d4457b-198d-4c2c-b0d6-2b7de7eba2e9\", \"88370f0e-9c84-466d-b143-13dc11d4b782\", \"fc36858e-46c7-44e8-bbbc-438435ee04ae\", \"8fadcb53-4546-43f1-a0a2-f51e42f2a612\", \"20616032-2f6a-4a1e-9896-f94725d6dba1\", \"15dc4bb4-41e9-48a7-bc5a-277fdf551ef2\", \"886c505a-66ce-4c8c-941d-a453d33df803\", \"0793a46e-7660-4613-b4cd-9fb1701b874d\", \"ba11cc16-4e2c-42a0-8c8b-e2e8ef8315c5\", \"88b66428-cbfd-4ae4-aee8-97754a9291fc\", \"044edf4e-b557-47e9-ad7a-51b4f326c6f3\", \"648a6826-9dcb-4aac-ac75-dcb7c4e73089\", \"e5bf1e6f-51c3-4c0d-a571-9db8fd60bca1\", \"33e77f05-0b8a-4dfd-972c-acd40e24cc08\", \"bf925eca-b2d1-4a31-81ed-7784dbb49d59\", \"4ec37eca-8120-458c-807a-85b37f4b0de4\", \"81d0ce93-a19d-402d-a8a7-f05adab8d008\", \"40f02b51-90fd-4619-85d2-b1ddee685236\", \"c62c726f-78e5-42bf-8d2c-6f8af43aeffc\", \"ac9f2fdf-8176-4545-b691-8f118d14a67a\", \"34f63cf5-ef10-40e9-a9f6-366d3e3f8d55\", \"21dd27a2-644f-426d-a379-bac4f3b78ff0\", \"025368c9-8a62-47ea-8560-c316da5f1c5f\", \"156878d5-02ec-4672-a9a7-847cac22d41c\", \"3bbcabb9-0e26-45f9-ab6a-e0fb79629c99\", \"2d96b0e1-5339-462d-aa70-ec0a28f0b77c\", \"0919719e-9ec5-4365-85a2-b29d77735489\", \"ca64ca01-e396-4ff5-8491-96e7dff473cf\", \"474a4d8a-15f4-49fd-85c2-ff3e992f0a14\", \"042103f6-dc65-44a5-abb8-3a4f69ad1880\", \"18203d92-c435-494a-b8fd-021613b14270\", \"8dec1227-ac7d-4bfa-b3db-d548e7782ec8\", \"72188bf1-3232-4db7-be5e-4d9704352412\", \"14f87b43-a86d-4c39-bd2d-292650383aaa\", \"a8929f34-c898-4c73-b82e-3a89111ee934\", \"2f3817ab-3905-44e8-b036-12b888660908\", \"b346018d-a034-4a81-9df7-91e558a389a9\", \"960cebce-326c-422a-ab3e-28ed45b894d7\", \"e6b80e79-4172-482a-b4d8-9d617da3fbed\", \"632cf71a-8fbe-4735-82f9-be484fa0f1c3\", \"f41577ba-f4f6-4269-9dec-2cc7e72cc86e\", \"7228504f-a17b-4020-851e-f223d9486f26\", \"807b961b-7e95-48ae-b2e0-18de594e1c1d\", \"13de8bf0-8428-47d2-83fb-8bbb0ba8dc1c\", \"d9ddc35f-5b01-4c68-ab10-eb27744dc20e\", \"28bcad42-ecd2-41f5-b3d7-ea646cb79936\", \"1d160072-bcc4-4cce-9134-34bf42578445\", \"3029b092-ef66-474a-a902-efe094f06c16\", \"f9048215-9cf6-4a85-b50a-a94bcb6a6b9e\", \"47ead4a7-c66b-40e7-b0fe-3818a981f49b\", \"892cd50b-e91b-4912-8007-b94fc2b5edfb\", \"a1635f8a-ec74-4f7e-aa0a-15a231780180\", \"c9aaf23c-8704-44ef-bcf5-e5c8ee3cebef\", \"280ecd92-a145-4fac-935a-596edd7f5c43\", \"2899721a-c81c-4726-8103-ae0a7f5466c0\", \"54d1757a-9280-4170-b5f1-af4e0e2f37e7\", \"7ca18a95-2cbd-4097-a2b9-acf1cf984b4f\", \"8f0d10d0-e123-4939-8bd4-15e71a5fc213\", \"afb57bc6-aa92-4d9f-ad16-62b217e20294\", \"5bce4397-67e8-4262-b2e2-ad55854cabda\", \"09164ae3-275a-4e4d-b87c-e72007ffef20\", \"9471f10e-10b6-4cdd-b7cd-4bdd313b4dc4\", \"c495aaee-75a3-4efe-a65d-62d62ccb9ed5\", \"d90df09b-9208-4303-b9d0-e17504aab497\", \"d110a7f7-8495-4d21-9b41-50b0f52d1777\", \"232979b5-68d5-4c80-aa8a-7d419fff4a9a\", \"39ce9f7e-8ca4-4b02-9098-a97ef05adee5\", \"62e2fdce-0761-4816-bf91-3194c9bc6df5\", \"f710af0e-b5a1-4ce4-96fc-64155dad6266\", \"946a655b-10cd-4bf9-998e-4c1fb7fb144e\", \"312c148f-4fba-4068-9181-020f181c54c8\", \"856ac84b-797b-442d-a56e-155a7988aadf\", \"78088309-cdec-44c8-ae9d-aae3bc2b8e79\", \"12060b4c-3e52-4e2a-9378-9911f0c7c15e\", \"5b85fd52-2cd9-459d-aff4-00db9f3fcbb2\", \"62c119f0-f406-4002-8be8-59edac0119ec\", \"f18b281c-2c0c-4326-b991-cb1e05194eb2\", \"bb2050d0-ee9a-4428-b6ad-09f43a0278c0\", \"b4a92538-d354-4559-b6fe-01f12c021dec\", \"0567e046-abf1-4a01-bc10-5ee67e61ca0b\", \"2ccf10eb-2044-4a9f-9430-b670358da901\", \"2bf1bef1-9825-4c87-a2b6-ff4ce6e0a88a\", \"ad3d03a8-0d6c-4702-87f9-2a90537045db\", \"6b0be4d7-0c9c-4d39-a7c3-b539e4f1cd8b\", \"a50e18a0-34c5-4635-9560-0fbfb611c449\", \"143d0791-2047-4036-940c-232cfb5cd733\", \"fe01a798-2459-4f4a-b05e-8439d27c2f26\", \"7d053964-5ee6-4ab6-8909-b1d1934b828f\", \"ddfffc5f-ff69-491f-81bf-22d04a32d4b8\", \"fda3990f-e9f9-4a65-983d-fea59d6c0706\", \"26642a82-17ef-4f02-b8fd-97be94ddb0a8\", \"9ed5d48a-93a2-40d0-83cd-cad5cab03e3c\", \"b8a2a721-7ff9-4247-86b3-19722068c483\"], \"1\": [\"62530caa-d026-4f21-aae0-feb8792f8b01\", \"8e63fe84-ac90-48b7-9f62-1472c4450b01\", \"d0c5cffa-f689-40ad-a661-743fac196c66\", \"f117fbf0-03fd-4d6a-b14b-641fe2ae6b4b\", \"a656b18a-51f5-4b96-9e2c-1b58d10c6385\", \"de3af84a-720a-402e-b8d3-8474180c1933\", \"a96c7b07-5ebb-4ee7-8c1d-45749a41d83f\", \"1ac25071-88bb-4a4c-ae3b-287ffff40731\", \"65cdbd10-25bb-415d-8111-5296dc934109\", \"f47bb1eb-e919-4c20-be8b-21cd9e166d93\", \"b17dfb3b-44ab-4f67-b2e4-1b28655792d9\", \"28ce1afb-a15a-444f-8877-669f8fa52244\", \"dfae2ab4-bc70-4885-935b-a0990311ff03\", \"f7928899-4451-43e0-9d01-a8741481c3af\", \"4c4e6543-0655-48ba-b8eb-94c818ff2f7b\", \"7276cf32-040c-4d45-aacb-62d7b6b240b2\", \"fa31b11f-faa6-4ac6-aaa2-26dfdcf4e767\", \"5d9402a9-6c20-40cf-a707-fbf68489ae12\", \"43abbddb-3dbd-4284-a80d-cec61f49b264\", \"3f5da382-b4b7-4666-96c4-b70accf15c1a\", \"70fdb4a7-02ca-4b52-8151-3f121f8d214c\", \"3755bde4-2c9d-447f-a165-909b688c91b6\", \"a7a408df-3e1e-419e-8990-3dec70f0c04f\", \"1cb9f95b-3c32-46b0-839d-381e1b8efadc\", \"1372d701-33f8-48e7-93ba-6f08baaf8fdf\", \"215c7b1d-3ad7-4df0-9978-9d6e30956b88\", \"f95b2019-3796-409b-945f-283c7553829e\", \"ff44e8be-fa72-4cae-8109-979b423ee0ae\", \"37c4ea56-137c-497f-bbe7-d5e7d35fc064\", \"04cdf902-9730-40af-a997-f93bec30721d\", \"bcdbe3f2-dcfb-49db-9bc1-2cec9ed19c86\", \"ae8a173e-8402-4fe0-8501-ea0569941383\", \"7ec2439c-bb38-4843-82e2-793f5d44a11d\", \"e43bb831-3ee2-4bdf-bf1d-48a9447cd361\", \"6850e9d4-cb5f-4c21-8a5d-2907984ae3ea\", \"a02a26fb-1eb6-4e4f-b29e-34bab5566e86\", \"04ad9e90-7ba0-4f99-92c1-deed269858a7\", \"e4c9b552-614b-491f-acf1-e3f7a24f8fd2\", \"e4e44c49-e024-4ef8-8e04-c3cb42076986\", \"3ebfa31f-0007-45fe-a70c-b3da51444507\", \"f5a57f9d-ba0b-4628-84ff-1afe85d7b132\", \"48dc2a00-eb0c-4689-a2da-9933c37b95c5\", \"086ec3ec-eb7a-4288-9a25-1b4f422848b9\", \"a62de490-b22a-4f86-9faf-89ad217e667b\", \"a58e07a6-605b-428f-989f-dc7d15c3fac7\", \"8f52ef03-36e2-4211-9f2d-d7e531e4144d\", \"6f3a268e-f659-4e8f-8c84-7addc1d5c85c\", \"97d8314d-e446-4f7c-b794-8a7cfd51af4a\", \"ded710d2-4be7-4c4c-9bbf-c887c4fe9569\", \"74bfc664-ab25-49eb-953a-2971030299b9\", \"6bce7eb9-c113-40ea-b46f-7cc46ddb1fda\", \"4f98b835-fc4a-4a63-94f5-ca480be46465\", \"5b67cdf2-ffc8-42f6-addb-cba4df30a010\", \"3247f547-8738-455c-a2a9-9f9658dd316e\", \"c4d26d8d-a3fa-439d-8130-a9a124a76a40\", \"12ea2788-e938-4fa0-951e-e4e3b8ffa9c1\", \"64ab090e-f04d-4731-92a1-d32c36d7e88a\", \"8261d623-1d6d-45f7-a607-076dd7b8d584\", \"aede8b22-2392-488f-836b-19d95f4874df\", \"a6dca21c-a341-4ed2-bb9b-f943887ef760\", \"6914e94f-d46b-477c-8b82-4a2ec77cb254\", \"8c63fb30-cff1-43fb-a587-422d3dbb7dbf\", \"ec0afde4-206b-4510-a88e-b564fb0915f9\", \"f7e56706-c0e9-4627-aac1-39b9bb2b8a96\", \"1a4f31e6-7b15-4379-95bd-196cc2378065\", \"7fde9890-8155-4e4b-a39c-fd96142068fd\", \"17e5072f-d568-49fd-89e5-d30218710c72\", \"8eebb1a4-ea15-4548-8062-d3d107dd22ec\", \"f8a2878c-4aa9-4682-9d11-636c0d206299\", \"cead7a01-7494-4e64-a852-d251dcd4b39a\", \"89e5a504-958c-4d06-b629-958a28d7eb62\", \"83a942f1-cd1a-4297-b840-304064f46acb\", \"c27ca808-1fd8-4275-8d71-c5b7724e5725\", \"6bae475c-cba5-4be5-a2b4-693e6a4edf07\", \"0203500f-40d9-4938-9d07-b0bd137f8388\", \"025ef467-54d1-46ec-9de6-04b5955c3fa6\", \"f240b80e-b3bd-4e43-8a57-d48454172656\", \"a8ae10ee-db48-4448-b942-af61181e208f\", \"7f8744f5-c43c-40d4-adcf-cebef9d42fbd\", \"71d270a5-736b-4610-bcd6-2225a290ef06\", \"5508544a-0073-4d91-b64e-8013eeb8da4c\", \"11854e02-de46-4964-99e5-287835694f35\", \"8750b5cd-0d7f-46f5-9abf-98613d438290\", \"3fd32702-e720-4cea-ac6a-efed37a623d7\", \"ef504041-046f-4e06-8e70-7d0690b37216\", \"ecaace0f-1925-400a-ac15-ed3818670906\", \"2d4b88a3-8448-46d8-96ff-2e1facad8904\", \"a506ac54-ec4e-4741-8e9f-9c7de452cd2a\", \"e4a2219e-97d0-4f98-92c3-60a861389356\", \"30d007f9-5431-44d8-ab0e-7d5727a7191d\", \"186d80d5-0e06-403c-8d51-2c46b169f990\", \"162250ba-c7d0-485b-acbf-4c95cba159ef\", \"bc554251-d22c-4551-8103-34ed2a2b8e71\", \"3b15261e-a5cc-4735-a8ce-e3daf471c1e6\", \"8dcb1f22-6a55-4024-b3a1-ff484a77d29b\", \"8529dccc-c8a7-4556-a842-7b30400a88cc\", \"3917938f-d3c9-4278-9942-eefd184cabcf\", \"f1c4fdd9-518c-4fb3-8892-0c9e6afa2688\", \"82b91c59-8703-4bc2-909a-c786f7f4d9ed\", \"c4089ad4-aec5-4986-87eb-20b7ffdf5632\"], \"2\": [\"26b3497e-04e5-419e-8f88-7d49da8cb2d0\", \"4a6c0da1-25c2-40ae-b517-9f6f8db2db4b\", \"a8e504b6-9bfa-461a-b075-74df143dc681\", \"6c6aaa3b-ed67-4143-8baa-a6523e5f1786\", \"ed49454f-a06f-4687-bbd1-83328082a776\", \"fcc371e7-33da-40e5-976a-b53bedd67127\", \"dfefd4b4-c931-4d95-b77d-ae8fd7fa4a35\", \"447683b4-b1d9-4e13-808a-cefbe49bcca1\", \"fa3ad3d1-db7d-4864-aec8-2252b2c6b5a8\", \"0dd636de-22bd-4dc2-b770-8c617a89b069\", \"6312755e-58a6-4b67-a600-6602755edc33\", \"d679a626-dd82-47a9-b122-84282162e8e8\", \"7d1eae3b-3ac3-4036-b206-f4a6e7a3df19\", \"584bd70e-ce56-4f6f-9341-c389c5b3d110\", \"ec6b14b6-5c03-47da-940e-6ab3ef92689f\", \"9c45a516-d596-4d3a-9ff0-dc6a2dffdcb7\", \"ec2a2280-696f-414a-a585-1226be48793e\", \"41f1f3d4-3159-4c29-a334-4b92a590446d\", \"34da2896-e5c2-4c0f-ad81-d23ff6af8c7b\", \"37af9075-63db-4d82-9e2b-763a2a3d7c87\", \"85779e5c-b338-4b6d-8acc-d36982d0de87\", \"22daee3f-098e-4813-a721-06ce9598eb5e\", \"cd80bd8d-c0d6-47c3-977d-e1be2660e86d\", \"426b3b56-a5a8-4346-ad82-bbe27aba06f8\", \"3dd1dd31-8f48-4f4d-9fa7-03638503e6f7\", \"8c57dfb7-9686-400f-a0c2-824d482fb073\", \"097b529a-dbf2-444b-9cfe-4683bf13e7bb\", \"95d57cdc-746e-4721-95e0-a1e1596dc430\", \"2fa10d7c-b997-4a13-aee3-7fb24f04f35b\", \"e909391a-efcb-41d5-9c9d-51de08ac8757\", \"6bf94b94-c4ed-44de-827f-0d9a2c4c9a54\", \"a1370591-728d-40a5-8523-632b43d2442c\", \"5e0f7e4e-beb2-4397-a960-80872b286401\", \"2b48b3f7-3abe-4410-a8db-7212d8506cf2\", \"0621183f-98ce-4d0c-95b8-12905402eac2\", \"f01365b8-7d9e-4d2d-9a3c-e71083d7bc6d\", \"4e620004-4c56-49fe-bbb0-c5983177432a\", \"9596328c-065c-4fe9-ada5-701b9d7221d0\", \"802e0204-7130-4cf0-b556-1ab5a1039027\", \"9b0c91a6-316d-4c93-a000-5f68722f848e\", \"5dbfcbeb-2e97-4237-9c69-43075bc9c58c\", \"7c6875da-cb24-4167-8fc8-fb795976945e\", \"6e7a1d99-9c91-4b3b-9949-edb9bdf72fa9\", \"50ddcf1e-d703-461a-a0cf-caa6f0d0ca97\", \"bcbb0fe4-dde9-4df2-954e-dded7c01c907\", \"a3c1a045-4264-4a2d-9acc-ab59b0234398\", \"5699c210-53ac-4dfc-a446-8614fd10447f\", \"bd29a563-7d35-441d-b89c-b0c99cfcb170\", \"a0a34990-5b6e-4f2e-bf87-a74dfd115f34\", \"0c36afcf-899a-4be2-b008-053ba9dc5cb5\", \"394c6c60-e972-4c8b-a55b-6632bb5b8eb2\", \"aff424a6-5525-4079-acac-1630491ae202\", \"68506c52-904b-4352-a642-d2a63f241aaf\", \"f2eb228c-7f4e-4ae0-96ff-dc02f35076b0\", \"ef0a2513-a5e4-48e6-87b5-b423083665a9\", \"8e675b73-0c48-4016-bfd0-0ebfa96776b4\", \"94ae424c-fd30-49c2-9518-fe67d41b71c2\", \"254ec2e2-1dd5-4a32-beaf-25aa46021a3c\", \"15c9dbe4-8154-4d8b-b962-c1b78a99a1b1\", \"2a427d3e-e694-44aa-8ee4-842d97a835f2\", \"630e578e-7667-45d1-81b3-9009b1a0d020\", \"c1eab9a1-9b4f-4dc1-8035-21877b257c4b\", \"52c07cca-3b05-4089-af79-cb7f531eea9c\", \"12c58781-85ec-4e51-b5e8-809f29aff1a3\", \"f70f0eaf-e64b-4a52-9dea-1f45bcf321d9\", \"747e464b-5d96-4b1c-be5f-5ed657c03a27\", \"4b29ec84-8f60-44bf-92d4-06d3f5a43af2\", \"9ef423ef-01e9-477e-b080-ca55dd212738\", \"d21cf2a9-ed27-4f73-a37e-2799cb5510fd\", \"1841b97a-4b32-4dd5-af2a-86bed21f9ae9\", \"3ec5d8cb-cece-4bf4-8f90-153e8e6af4b9\", \"7102f942-fd09-4d8d-a9cf-396aad6cc0a8\", \"6cb1c8c5-7e0f-4d6b-b42b-158c7a9336c2\", \"7002c53e-43a5-4f89-8c4e-a7638190920d\", \"de7fc6fb-53cb-4fed-b9f9-0c6322343504\", \"07e34373-1b45-4706-84c6-480c06f4c022\", \"4803f52d-dd48-4d35-baa1-54905f16e15d\", \"97497dc0-c983-49a8-8a94-e0056d5511c3\", \"50ebd8a8-f10e-4df7-a6e9-49749a175d25\", \"1fc57e19-2134-444f-b04e-1267fae4844f\", \"04581de2-869f-4793-a2c8-be712d93e097\", \"b3656e87-9f61-4b19-9064-9553648622e0\", \"c8b5f421-26a6-4a39-8924-9961aa7cc348\", \"17f33342-d765-4c9a-b1a4-2265cf36f38f\", \"6875160e-23f4-4bf0-bdcc-23c4b2ec5619\", \"957cc49a-c995-4108-8b65-3479c1a24ac3\", \"b3b54967-e725-4105-8f06-58a40878a214\", \"6c2865bd-0368-433e-be13-64262a998353\", \"63ecee21-8d9a-4f23-82be-533d9d523b2f\", \"0c7956f5-d738-405b-83c9-8240716b4967\", \"63e3e7c8-4d56-4a8f-a5d3-a3f891c8e51f\", \"89c5b6ec-a183-4dce-8b10-a726a355f40f\", \"92a91875-f2ef-4793-a5c0-e89330e14802\", \"9ba3cbea-6bd6-43c0-8687-08b2d7030e9a\", \"cbd97f4c-0ee5-4c8f-bb10-bffed9faecc4\", \"53ab0536-1aeb-4eed-ac2e-4f7385982616\", \"497aef3d-a7bc-4897-b5e3-fc4d9013a825\", \"874eb4fa-a5b4-472d-92e8-4ed4ec73ccf9\", \"4da20001-b1cc-4bd5-8315-c88736e26a8d\", \"d2272c3e-4f5c-42b1-b7ab-462d9817093d\"], \"3\": [\"30db43bc-fffe-44e2-beab-328489644031\", \"d2f6fd33-1fe5-4dfd-b576-cc9bf402eb47\", \"774e8af5-dde0-4757-988e-0ed7415ec395\", \"44027f42-d62d-422d-966e-7b53e80eeff6\", \"b44e9bcc-97e5-4bd0-a16d-a45f77bbabe5\", \"51d25799-133d-4d12-a9a5-4d4251594473\", \"309df477-16dd-4af7-8edc-e5c24388bbfb\", \"bd5cf7dc-c5e0-456c-ae73-ffa38a9256bd\", \"c4837f4b-8f07-4b69-a6a1-d773f8bee7a8\", \"7938ef98-00a2-4749-9c03-b673fd51eea5\", \"32084cec-cd10-45f0-bbaf-48240efb5697\", \"7dc07c27-c3ca-4b65-b38f-5d8ba121be17\", \"c87a0a8f-7be1-467b-8763-355693e55643\", \"a5f436fa-233c-49dc-b703-35890ac9adab\", \"60b2bcf3-3879-4b81-88b9-54012301b9ff\", \"ad69ed84-5268-458d-b324-ffc9467dc3b7\", \"a18a36d5-7734-443e-9bf2-7c274cff959a\", \"891bcf97-12c7-453f-ab8e-1c467f65ed65\", \"c055bb5d-b19c-4ebf-b633-3267c09e1876\", \"4ec19718-aa90-46e0-8ee9-3b7db2adb939\", \"d9bae44b-5b6a-419b-928a-b479af550c72\", \"d23a8c1e-3efb-405f-9751-e927d8a0f516\", \"9ca24e96-772c-4ab1-bb76-b0bdc2babcc0\", \"6756af3c-e742-4121-bf64-46550e9b0afa\", \"76392483-37c7-4eaa-9e39-89dcd9662913\", \"1ccdb20c-aadb-4d17-8471-622c5a18f040\", \"ac5c79a6-b5aa-4c1e-a1a3-52fd3a1de964\", \"0c843fef-56aa-4fc7-866f-0385f32ac203\", \"5fce90f7-6da0-48e8-bbef-229980c7e9a8\", \"3c242d56-52f0-49d8-9f24-a61e543bca26\", \"3f746457-29df-41cd-a51c-839f294fad5d\", \"afaed4d6-042e-43f8-82cc-c3721cc32b70\", \"5a1f3da8-f14b-4aae-b63e-bdd3fdcb03fc\", \"6a3be7e7-2e4c-4aa6-81f9-5f6ae003f216\", \"4bb6d0fe-05cf-477e-8f0c-eb19354eb50e\", \"6d4241e6-1c83-4274-947f-5705cd6a14ab\", \"54dc45aa-2ab7-46ce-a14a-cfb49fac4c51\", \"e1b145fa-d46d-423f-a911-cba9bf303aeb\", \"26017b60-d380-4b4e-bad6-9b950e5b2f93\", \"2abc637e-b560-4bdc-8cc3-477bb128e474\", \"603cac98-54d6-4dd0-92de-7117f9ae1091\", \"3dd63d10-8fb0-424c-9df0-1f7e2bcd95a6\", \"032fe015-1794-4988-9249-23bd46f909c1\", \"4d782049-98c8-4bd6-87d1-ca64ad6c7266\", \"e0b9f976-defc-4a79-8b78-ed2569612fe1\", \"931f2403-da4f-4ecd-8910-9f37611b3591\", \"cb3c770b-5eeb-4b60-9b1c-7bfc90f0ce4a\", \"55f7a8ac-5d4e-4104-8edd-0fa6c715439b\", \"3e87253b-22ea-4c95-9914-1eef33f20c2f\", \"3e225ce3-2ecd-4cd2-952a-93a826fd3f27\", \"6365466e-fee7-4f74-bd7b-30bebf3e7d1c\", \"b4ba0f36-f89a-4cdb-b9e4-b180fc2ca9a6\", \"67d4c13d-addf-4e26-a1e5-fce515430327\", \"f8396c22-2657-4b3f-aeeb-1d563935a49a\", \"2578e6ee-1c33-4175-ae0e-d4af905a4c12\", \"dc99a67b-8936-4a9f-a46d-ef5c0619e8d4\", \"7b1cbc8e-83ca-4281-a2a1-137f42fbe78c\", \"67845daa-97ce-4a91-8cd6-cc96c9894db2\", \"542af3f3-0cbe-4bf4-a23c-927da1d6d362\", \"ca2b2a81-130f-4bc4-8caf-b24ae115c010\", \"0735fca4-046c-40ae-8516-06f2a58cd164\", \"164e3cca-d713-4d52-9081-3200da558286\", \"1500960f-4096-40d8-8d08-f0fdf89ab7a8\", \"91489d2e-caff-404c-8621-2ca063b6ce14\", \"f8953924-bfe1-4c57-9ee3-53631f5f4717\", \"16d29fae-2bcb-4809-aed5-8c33ffaf55ea\", \"010fdd2d-83b7-4d4c-a041-7521b6841f20\", \"7012d114-8baa-4fbe-8dd5-1f3eace30bdd\", \"fd350223-fa9d-4bb6-a600-74e2a3f7276f\", \"517c011c-158a-4e46-b8f3-f1bf015768c7\", \"bf0911b0-acab-4ab0-9920-0b412dcad80d\", \"9e812521-3a30-4ee3-ad7f-0e7da53d43ef\", \"698b0bda-86e2-4212-9c69-86ee6053b486\", \"3c036bdc-6fc5-471a-9fbd-f475854661bb\", \"0635fa13-0110-4179-89ed-a515d3cb9d1c\", \"ce9b36db-c32c-45b8-9761-3c12ea5084b0\", \"65b5cabf-cb3b-4851-9bfc-4c30a2006aef\", \"b93de54a-171a-4aeb-aba4-c7db71aed0c9\", \"1d099887-0a5e-405a-9dc8-ee2dab0168b7\", \"2c24304c-eda7-4ee0-8931-0944ede13909\", \"54e8f383-7a5c-41c2-b325-09c987eb4dca\", \"1eb522f1-2967-4cf6-b3ce-ef62988986de\", \"d25f4a4a-c0a0-4e98-8dd5-4f8770ad4a3d\", \"f65c0586-a242-4496-b134-57b2008d3d2f\", \"5f59e19e-a876-4edf-85e0-ecda27f19eb4\", \"3cf5a9ec-6d16-401d-ad06-8c3b29eba706\", \"b6c4980d-b931-43c7-b14f-af5fc47abda7\", \"071e8be2-e9e8-434f-8edd-0d6ed19a7bea\", \"e7a44106-5a0e-41af-a5f7-a22d3011ccbd\", \"8ebe6086-c04f-4d9a-ad03-aee304d9cd54\", \"7e2ab73b-f01f-4e3c-9b0e-9a25671f3f2c\", \"756168da-dd9c-48e8-8580-8575149c7785\", \"0ef307a5-063a-4d79-95d2-53090968fc92\", \"098f8267-e347-42a5-8482-9a95f8eb3266\", \"1f03eda4-cbcc-433b-ac7e-201c80bf6c13\", \"c83308f3-4d8b-4d67-99b6-4bd63410286c\", \"4b67315b-b4a7-4736-8448-53f244a37ab2\", \"95002a22-54aa-42aa-8482-169ed0553626\", \"de4867fb-cd4a-4b99-867a-f651cc8e4599\", \"ab1eccc7-70bd-48f2-9b5c-6bf428237e42\"], \"4\": [\"9a0c13c9-2c36-4d6f-9435-375dc782bc8f\", \"77fcbf62-73c4-454f-93c1-3cb4f0637fe8\", \"77748781-bc6b-4eb0-ab9c-9ce912ebc641\", \"5c6b4455-506b-4bc3-8d56-c60a8795f1a5\", \"e52a5211-198a-4634-8d23-c888c2ec29d4\", \"ec6c58b2-5348-408e-9d1d-9cb2ab6c658b\", \"74fc1197-aac6-46f5-bb0d-fb7be35c8e94\", \"7ecae756-c7fe-46a2-9a57-61d78feb4e88\", \"8e776cf3-712a-45bf-9e67-188207675eb7\", \"92099eb6-34aa-49f1-a7b2-e1a759ef892a\", \"c44f2f27-280f-462b-9d41-72939a5edbb9\", \"9ffe34b5-ffd5-4eed-aff5-3e3b0a5cdc67\", \"af21378f-f55b-4a0c-811c-5b274cc0aa2d\", \"7b21b732-34d7-4dc6-8f83-8a4221217d2f\", \"1bd3b978-6406-457c-96cb-82f76d0b146a\", \"e8aced90-2e2a-4f43-b89f-43fca5157a61\", \"6db402ae-7202-4bf6-b8c4-773c19861bba\", \"c6a67fb5-d4eb-4ec4-830a-5546b7fda4cf\", \"1ed91781-52c7-46cc-8031-244b3e44236a\", \"4342576a-8c98-4179-96d2-55f348f758f4\", \"85faf615-38bc-40fd-a47c-9d9448fbdcf5\", \"a218715e-a089-4fe1-bf2e-deef6e9376d4\", \"601cef4c-4069-4061-99ed-aaa3572787d3\", \"f1ee64b5-bade-44a3-b3e5-497b4eaf5ccf\", \"ebd6b814-3ebe-4812-ad79-ed59afc4686d\", \"96ad1b2a-b391-4d2e-a1a5-a73da57c7edc\", \"a0111d71-1174-42bb-b83a-0abc548c1489\", \"ecf9275a-718b-4c19-ad38-3ef4d3fb0935\", \"1e10fc43-7121-4073-9f5e-24b3d5544838\", \"1e9688ca-bd90-4c83-b991-60a802fa7b24\", \"5f60d117-a25f-4164-b9af-8f55b2860741\", \"3b7fb8c9-12ca-4e49-bded-eafe1ecb230e\", \"57eefc1a-5cd6-4abe-b7f0-dba8e5491ab3\", \"e23bc47a-c500-470a-9ab9-24606b3274e5\", \"06547b95-6f8c-4a6c-a0f5-6529fef60ce3\", \"5b6cca77-0613-4c20-ab8a-f01ef760e0be\", \"514747f0-7c4b-4da6-acdc-ef054526070f\", \"0da95e70-2441-4ee6-ae39-790ebeb51e79\", \"f003d090-c549-47fb-96f0-a4060a066124\", \"4e3a6207-40af-4b69-ae75-5a30a14072fb\", \"ca79ad20-0827-432d-af6d-f0b27b7e543e\", \"f18e473b-e2c5-4891-951b-c1c4535995f2\", \"edc1b7e8-d274-4c15-9e18-9c2e6426a981\", \"97c79686-8660-4b05-8880-a7378760591f\", \"38ca41c7-261e-4e7f-8d3c-bc124fc5065a\", \"5fbb7a1e-8156-4a2f-824a-2762b48fe2cc\", \"1d017373-ec16-4d00-b606-82c907ab35f7\", \"50cd19ec-b14c-4f01-a8d7-1d93b0f44720\", \"06fade9e-f39d-481b-a021-9dded6ede504\", \"7b84b9aa-ce68-4017-9e78-c2ca2add1a0e\", \"d8cb466d-ed5a-466c-9264-6e0ef3e5d921\", \"25f07fbb-929d-4a51-8e36-ee97ba4d9b73\", \"0ef9fa35-b715-4b85-bd3b-c06aa313292f\", \"8670dc22-ce38-4f84-a906-41d9eb5995a0\", \"86c9eff9-369f-474a-9863-0b931a56460a\", \"d20f7345-96ba-408c-8d73-0dd97654c929\", \"5f3d815f-2e39-4ac8-9a32-577c1eca0dc9\", \"6eab1dfb-b3f0-4b07-8a14-d2f520c331c5\", \"489cba70-d371-4b34-8957-25ea4a81cd5b\", \"6431684b-cab0-4d31-8fb4-15abe60d5357\", \"6128c83f-2c79-4c6e-961b-c0b6ece3283b\", \"0a2cfc3f-1d30-4547-b838-0d8c0c682f31\", \"70203e1f-2f16-4bea-852c-9e29cac494f6\", \"5394b9d3-b9ab-4edf-89db-e9ecba3c9aaf\", \"bb822ae0-8af9-4a0a-b459-76a1ef150ffa\", \"482c8919-41e6-4f4b-8745-cece507927a6\", \"4a02edd2-6bb0-420b-807f-e1278bf9ef40\", \"595da86c-339a-471d-98a4-559b27c28a1e\", \"c7a5cff7-b953-490f-84e2-c8b9f19af3ef\", \"0e3aba5a-d4f0-4a1b-a6a9-ae5aa7b9ebde\", \"0d8cfe5f-0f53-40ad-ae3e-f7a7f2cdabab\", \"99ce5464-bdf1-4f42-8e72-6227efa87db3\", \"73f52838-4358-4dcb-b4b8-1de1cef8fecf\", \"0a12da6c-2b48-4b81-9578-598ae624bada\", \"532d48f6-4284-4677-92fe-0d292ca91c9f\", \"b40fddf2-587b-4c34-b5fc-5b575482af20\", \"ccbc2190-49d1-4896-8c32-b41369bcb514\", \"604f13ce-7f37-4d8a-91da-fefdddac5f71\", \"bd838bb5-4dcf-49a7-908b-1d9bc9335d3a\", \"5109570c-d97e-4201-8d2c-447bed5b044f\", \"2353c2f7-cb20-4ce6-ac74-9dc9926c9aa3\", \"a77742ef-af11-4256-baa2-62f856adefda\", \"7f604ef4-7835-461c-a757-042033addf78\", \"90cc5f2c-7c08-40ac-ae0f-47863315b0aa\", \"c518a2dd-d94e-4927-9147-e456355475a1\", \"6a5f2cc7-e90c-4012-b391-b4d204ab4b0f\", \"404c1727-bb8e-42c9-803d-ea7b284fe959\", \"d1134358-42cd-4e72-9f0e-2f9484d7bd28\", \"c140a670-ca69-4919-bd11-c4e7f6dc5cdc\", \"176d4fb1-925e-435c-82ea-7a3718a9c346\", \"8d2bc044-e909-431b-8b04-fa856f004221\", \"8c93d488-c45e-4c71-8e86-09ba73ea26a1\", \"d070877a-d8e0-4eed-a9a3-efa6182c1ff5\", \"cff3eeac-d6ab-48a5-b420-7265a68ae02b\", \"956bcaf8-f915-407d-93d3-2ba8f97c55b3\", \"51ad5ae1-8b34-4d3d-8fa2-7604cd7e57db\", \"4705dd39-4782-459a-96be-29e855c2eda8\", \"53eed12e-02ec-4519-9e66-6cd46e481c61\", \"5487de95-028c-467e-83fa-e8266ea125a8\", \"b6d77c17-9046-4e71-b936-cf181b02da01\"], \"5\": [\"e631ae1a-a373-482b-a174-4bad3c504c94\", \"1ba6d3ca-71f1-4bbd-bafe-033456621af2\", \"dcbd2c47-414f-41ec-9965-681b0c138479\", \"ceb95b1b-f4aa-4c5a-9063-3fb040b93a9b\", \"a3b50acc-6779-45a5-958e-eafd1dad13ec\", \"c261f387-039d-454c-9767-6384ccc2d1fd\", \"21f05e08-4fd0-4c6a-bb56-71fa0cb0cb21\", \"f6be681f-d73f-40cb-ba8e-aa7cc2d0ef70\", \"4350b359-16f0-4b76-bb53-9a0e90db4c28\", \"fe809abe-3e11-43cc-93d1-4473eb0c746d\", \"a63efb39-a398-4b7f-a9f6-5a321625bdfe\", \"75763c04-579d-416c-87ce-bbebbb412973\", \"5770249a-b3f5-43c4-b6d6-3b48145aa740\", \"852ce756-3f99-4341-8c47-38e77cd00682\", \"456ea706-7e77-4aaf-900f-42595b9f13ec\", \"473e5379-238f-499c-a912-bfd7fefa5b57\", \"9b5410d4-db5a-414f-93a6-0aa6f6a3b4a5\", \"e7d56d95-0faf-4e0d-9039-284c9078b3bd\", \"63cbd909-db3b-448b-88d3-0e6238a3661b\", \"8525bdd5-d40c-43fa-a79d-ccd882727a93\", \"19f55743-735c-44df-af6e-6f926d8b1fb7\", \"136c906b-5b13-496c-8d94-e44d581db868\", \"0fce3a65-9971-4b86-b14d-22222ce89f99\", \"4af3ee44-7109-4d02-92d8-ddfffe31cce2\", \"3937b786-6d7a-469e-ba43-fe1560a7f197\", \"dd8da469-e0a3-41d4-8c24-d0d960e8b84f\", \"77440374-4d8f-44c3-8a56-070a010465d0\", \"be9e284a-7285-473f-a0b4-2556a7707c23\", \"c6a0abbf-9e29-4199-a3f0-ef4061aee5e0\", \"4320a8b8-09a7-4455-9d09-48a43a31feb4\", \"a17b2c52-7471-454c-b8f1-d0afa4767ea7\", \"a8da9be9-ac20-4018-9531-18f45506fb4a\", \"c25483f2-2130-4098-9f27-d2c2d93ac8d4\", \"5903b934-37f4-4499-9226-b425f87a992e\", \"038251b2-b778-485a-a388-0fab9d61a64c\", \"86d9faed-53df-4cc7-ab87-97f3406d4659\", \"75647ec4-55d8-4a5d-b86b-b98620696b74\", \"a3a483ce-c64b-4d9f-aa27-aa9a5ff84274\", \"341e95a9-98ee-4580-8377-b6d6add73766\", \"31485417-3c57-4557-9517-195a01fd029b\", \"106a338f-cd41-4254-9495-ef56aa5ea1fa\", \"f032db4f-00e8-426c-b4f3-399544159963\", \"64eea8e9-e6f3-4023-848b-ffd811134382\", \"f4cc6679-7c9f-47d9-9a31-a7e85f4aeded\", \"341ec680-a0bb-4d4e-a0ba-0761908cde71\", \"840035c7-98e2-4971-b8bf-13afa42bf73b\", \"60fb2111-4055-467e-b6ca-c54778484696\", \"344fb060-5737-49f7-ad31-7af4b20d59c6\", \"72cb5880-f471-4abb-b195-8edca0b46f20\", \"e65a4313-bbcc-482a-8191-0e8ef902bea6\", \"2a859d57-8c58-4a23-81bc-1649089a3913\", \"48a73e6d-6176-4100-80bc-21077c202a7e\", \"a00799d6-d70b-444e-85b7-94cadd591a86\", \"e9216c1e-bf12-4d2c-b20e-1e15ecc1648e\", \"6b4e66bd-6226-4965-a78c-1026f3d25cf7\", \"115fa648-0236-4db9-8124-6af76ce81429\", \"9fe805d4-e642-4975-9135-7c418b6a4b6c\", \"ec4c3c08-4489-4ebd-8d6e-3d43351c6101\", \"e5c435e9-70cc-430e-9db2-9e95edcf6694\", \"3721fff1-1c12-406c-892b-e67a915871b6\", \"7dafe4ad-0568-441d-a25f-bd88a02b4d2b\", \"c5dfd68f-32b8-4cfd-816d-a6c5028a8dde\", \"2dfbae46-0c5a-4f1e-9106-978066d64bd7\", \"7190a2b4-4803-4dc2-8401-d02cb5154c6e\", \"be711c27-0c43-4c35-a57f-8fffca0750cb\", \"2225f204-6977-4a3c-96ae-9aa29ff1c094\", \"42c98934-d288-4671-b90e-a06d2459e21c\", \"d08fa603-bea3-4827-a0fa-9a89f668bbfb\", \"2f0be621-ac05-4caa-9b7c-51fdb3602b19\", \"66260a9e-871d-4e3c-9900-83cda92e9116\", \"44341532-9837-46ff-9e23-49d31fb362c6\", \"0c2cd313-258e-4549-bc78-29954bdc366c\", \"e5525035-7012-4c61-b47b-2b279bbd8290\", \"66627140-3f6c-4141-bbb3-9963bc3e2101\", \"d8c687ea-25cb-43b7-804e-7f59bf134183\", \"1a0b0673-8511-4d40-bfad-4cfe451bb2b6\", \"ab6c3de1-2c4b-4e0d-af03-c244de487a75\", \"de8256cf-4cac-4214-b723-b9007e12d7b0\", \"45466cf5-611d-4493-9a32-65b81dc2827d\", \"6c930e8e-3c06-42bf-a8ab-6138583cbec1\", \"5dee2d92-62ec-438a-afab-565a49a9a2c3\", \"02237793-56e3-4f08-8986-faf965dba686\", \"6b492279-6121-4ba0-9aab-b69458aea591\", \"4bdd680f-bdbf-4368-8fbe-d2f817644751\", \"b9852901-a68d-44c8-a55e-34f98117f388\", \"e4b5735d-5cf3-44e3-8bf2-c87d9865f9e6\", \"865fd5e4-6ca5-4abb-bd3e-a6de6e7961f5\", \"608f84b8-94ae-435e-98a4-369863e67ba5\", \"f9437d66-d6f6-401e-ba95-d65e5448c916\", \"eb3276f9-dbfe-4e68-9eff-b7c61233a058\", \"1f640f83-240c-4659-bea4-58f33c3cda7c\", \"99356822-6c8c-4618-adbf-94554bb5f10c\", \"fb73302d-4649-46a7-8af8-769e1b3eddb5\", \"841f1cbc-b9c2-4c5b-bfce-25dbac2e10a4\", \"50085725-3cf7-4b55-856a-e44eddbcc3c8\", \"063f1d95-5917-40a2-8cfc-08c68562ebc1\", \"c5783597-a0ec-47a1-a4e5-5a0b6dff3932\", \"92da929e-a3a4-4c04-a08d-be2d6d3e1f4f\", \"e0b256bc-891c-4621-86bc-95d61418c579\", \"7c78006f-a900-481f-9341-2e57c58f405b\"], \"6\": [\"16d2c31f-cad2-4971-8f5b-f09257e28e64\", \"53bd96eb-2373-4b99-aba5-49cd371df93e\", \"bf1aad14-9d7e-480f-91ca-dbf56cb2f4f1\", \"3413a0ec-79e4-4497-813c-11753a656472\", \"e47e69ce-9cc8-4dd5-a015-9d38477f86a1\", \"17ec2fc3-c4f4-439b-a6ae-7be802e63b13\", \"65a91d6e-52ac-4e34-9f37-706019ad5c89\", \"ae0c3031-3842-4541-9b85-6de54cc1061b\", \"ddf65e72-63c7-4a64-9635-37423cf66153\", \"91f531fb-3978-421a-b3bb-fd06a8c2cf53\", \"9250bab2-b883-4e02-bf9f-51600d8078d3\", \"6d19dfa5-e35f-45b4-8419-3d818f09952f\", \"5f81936f-d135-43be-960e-fd7c3b631685\", \"8f728fe0-8b33-4d39-be9a-a9e3cd4b92a4\", \"a4b739bc-35f6-4de7-98cc-144c48232fc2\", \"56e0b6b6-fedd-4bf7-8c90-6c054a26081d\", \"57052c59-0577-4f03-a547-964a962c28d9\", \"fc3e35b7-a881-4021-a092-b55d0c659083\", \"1c9688e7-b979-439a-a6ff-18a7540e1beb\", \"855b3c42-730b-4465-aefc-c3a0ba3f1c82\", \"614898b1-6299-41d7-98ee-eb086dcfe8bf\", \"85f609ed-aceb-4684-aba9-25ddef4d3cbc\", \"d1d30be6-a310-419e-b312-9c1d03484fc8\", \"14bff022-81f8-4eb1-9619-76d1c393aea8\", \"20b2b226-a043-4098-b06d-fc01f0a412e7\", \"a1f69323-e398-4ee2-831f-ba4c9a77bc48\", \"920918a8-f2f0-481d-bd1f-c35c64c4e792\", \"e14dd2c0-3475-4721-b503-984b8b2f8ff9\", \"517a179b-abd7-4615-bfe3-bd673859dd56\", \"e719f22d-583a-4c62-9219-7791af3c15ac\", \"b661104a-3ab7-4625-acdd-8b52f4b4787d\", \"a5702440-d8f8-4bd2-93a5-9126bbb19a56\", \"bbb65abd-540b-471f-8522-1d99f97d0e86\", \"7a1c4d33-51ec-49ef-b6dc-9744437216fe\", \"22e596e2-81b0-42a9-b8ce-e49f55d62121\", \"7c06d496-eb4c-4e4e-90c8-7ead42b8c68c\", \"4f7cd479-01a5-400e-af2f-b78bea4affb5\", \"bc87aa72-3aaa-41c7-bace-91772b524203\", \"be0bc928-df0d-486c-a4d2-700f20b6dac4\", \"fbaf0ad9-afaf-43b1-86ea-998982880f65\", \"fe51746d-ec12-4e09-bb72-60119ed8591b\", \"14da1d66-1754-4137-a49f-6fcee175ff6c\", \"76b6d3de-9635-4e84-91d5-b11619db6b05\", \"15bd3e83-4e00-40d6-9af0-fbec622ee63d\", \"3db57cc9-e21c-498f-93a7-13687a64920b\", \"7aeed33f-abee-417a-9d7e-f399a8ee393f\", \"721d71b4-bc59-412b-8955-d35a134e5769\", \"f7ff53fb-c6d0-4ec8-974b-cc980d244b36\", \"6d6da317-b877-4ff7-93fb-56ebd3d4c81f\", \"7bc826d7-7b47-4199-b7cf-c6faaef63e51\", \"82185e1a-fbb9-4de0-881b-555b82fcbeba\", \"66e9d8c1-1781-49b1-9fdc-2becc74cb2cc\", \"87d997ed-8816-4ddc-96cb-f8089bc2aabf\", \"5c52d9bf-e9a6-4bb7-bb46-e872cc1abdf3\", \"b46296ba-6b42-49c8-9f96-294d9cc6a1c6\", \"43a4da8f-b94c-46da-bbb1-9e5215498f4b\", \"ae4dd149-06b1-420a-b706-d75583cb1a3d\", \"33b31f73-6a2a-423a-a431-9a777e671987\", \"5defd12d-6ddd-4b28-b58b-bb772434da62\", \"839dea70-5406-432f-a7ac-8f21a7982202\", \"ff284a90-7d27-45c6-bd7e-195b28a6f438\", \"3ea87bf1-034a-4037-9b7d-a87c044c6680\", \"5c655684-cbb6-4c91-a94f-3c54cffd0a6a\", \"0d48760b-7990-47f6-b871-b255442c2468\", \"43112832-175e-4899-b9ce-21c004e6f811\", \"5498b512-b560-4aef-a386-df989498333e\", \"d5cdedfe-a230-446b-93ff-8e839a8cce0e\", \"36324d6f-6664-4093-830b-ed9729261c65\", \"6fb35109-3591-4108-b78e-b8864679b232\", \"d6ccbe39-bac3-4c5e-90e1-92a70519db26\", \"19cb03ad-4f1b-4834-95d8-3f7f7c0a05b8\", \"1540929f-e3e8-4b63-8c95-c77291ffcca2\", \"d4ae4850-2422-4ee5-912d-3146376532b8\", \"6d1a06f1-5b71-4967-b8d0-5c80e62f4a75\", \"4487315c-c42d-4850-9af4-7e11f6489450\", \"cb595dab-b9ae-42e1-b44f-180bc346873d\", \"0fecae33-a25a-4432-9a7b-36afc30d2d6f\", \"c726cd54-c290-420f-8add-fbc858870ce7\", \"66a71a16-4a2f-4300-b386-f4b61f28615a\", \"44832e3c-5c4f-4791-ba31-c7248a88ebe9\", \"96f672b2-58cc-4cb9-a415-851dd8d6856a\", \"0483a19b-7d73-4d07-855c-a56bf7616388\", \"6ff4e0cf-6201-4ece-9fc0-c2ccfb1f199b\", \"2ce92219-f639-4726-81f3-0cbe6c00e7a3\", \"b1c2f20f-2e33-4541-abb1-ef3149f20be0\", \"cb3993e2-0a63-4ca3-9add-295a52ab013d\", \"095dd49d-0221-49e4-9593-2179519fbd1e\", \"94ff6afc-f462-4127-b8a8-f4462dadfe05\", \"bbed4475-4e0b-4c05-98ab-be6027232fed\", \"95b24b02-5346-49ab-8d83-8c4f2ce183e2\", \"00e8105c-e58c-49e1-a62b-bc49b4251663\", \"fd90713e-1ad5-4cc1-b671-d01c75df469b\", \"27da125d-012d-4f26-9333-0cfcdcca5f48\", \"3b320bc6-7b3a-4d44-8b3b-34977b13fcff\", \"e4a48969-5d40-47e4-96c1-69e741a33ae3\", \"5d3a0e45-ba8e-4764-8e9f-b697fe24c014\", \"fc6a1214-ad54-4ebf-89e7-5ae58ff6ef8f\", \"0becb4c1-f246-4c5b-b6dd-444961f7622c\", \"2cdfbb47-93c4-4472-8d9e-18ab4600d5b8\", \"d0e8955c-a52e-4d44-a14f-aa241ebb7e45\"], \"7\": [\"9634d82b-695c-420c-b13b-b36fbfeee5d4\", \"53c520d8-36b6-4c11-8a62-61c9d9cbf437\", \"8fc1207e-165a-4598-94ba-8bc96844a044\", \"d980daa8-c1c8-4c5d-b343-1b1c2b8604e7\", \"882e46d7-5f5a-467a-872a-18e0865647f1\", \"904abaac-be28-43e4-bfed-1cde529eee20\", \"5fa927df-d84e-49f6-9f91-ff5f006a471e\", \"5d39925c-ec9a-47a6-ab8e-946a6f00d912\", \"587239c8-340b-4744-882d-00e6d86098ac\", \"13273cb5-9d6d-4f33-bb8c-2751bc18bffd\", \"55e557fc-62b5-4439-b40e-730f610e6fb5\", \"4a191030-7095-4417-91b2-78f8607bd834\", \"271f2968-3884-4642-b69d-f67726b1cc9f\", \"99e103f5-8a8f-45d2-b851-69a3acfb6b11\", \"b6bb4e83-4341-429e-b472-a1f2324f4939\", \"400114f9-eea3-4fd6-9cb9-020348b3521f\", \"ac3a961e-9f2a-45cd-92d2-f827a622194c\", \"2651f303-2bcf-41d3-ace9-f2d5ea000f50\", \"6f4b00df-ed45-4914-be9e-e8e763e963c1\", \"b938d2eb-8ca2-4360-8239-41e6f8da3e33\", \"63469901-293b-43c6-84b2-b5f048c8163d\", \"f437cba9-7464-4223-bb38-f336e2f571e9\", \"a1ae0c5a-68ac-413e-ba9a-9a7352bb24fd\", \"6c5219d4-5861-476f-bf8f-13a451d5b10b\", \"9ab343e9-634f-4630-b0c7-dbb169e4b3ff\", \"b18b7101-6d6c-4243-a98c-ea89c774e91d\", \"14cd10ca-71ac-45e8-b9e0-cac67da236fe\", \"9f24ca24-34a9-4d49-b61a-a374df9e981d\", \"48c02421-7c1b-4bea-a38e-14f8a5447f92\", \"68241571-05ee-4dd0-b143-8685948b81c6\", \"42e43d2f-8e59-4cd4-a382-58e2d29bd4ee\", \"e26c4cac-3209-4551-b50d-9a94eb8aae75\", \"1696b8f8-189a-4148-a36d-5e96099cfa14\", \"49ac4c83-0cca-4a53-9c48-c21eef828292\", \"c8d78267-6cf6-4211-9afe-e44939fc11be\", \"01a7df41-0bbf-4953-9145-ebb2cea1b9cc\", \"7bd3f232-2700-4482-bfe2-b0246a364151\", \"70b956ae-947b-447f-88d6-870d93d6c450\", \"027854be-7976-4949-a9a1-08184b2dc769\", \"ec515f4f-d39b-408f-9234-0612e5935118\", \"4f51424d-20fe-48b7-9aba-20ed54e563bb\", \"2e0e4971-2162-4a4f-bdaf-aa2570b54eb0\", \"62d98ae6-8091-49d0-94f9-1ad76ea5d627\", \"de551a82-6623-4bb1-b4fb-d9b5c5c56cd7\", \"084cd400-e63c-4c31-9f1b-d901cc1e37a1\", \"f3f6e380-e31b-4699-9991-a2cbeceee113\", \"9b17c43a-6334-419a-8397-2906112fcec6\", \"0378f6bd-d234-4572-b7b8-3a845d834bb7\", \"8c87624e-5274-4d9a-abdf-3cf70f89f104\", \"cbd49cc5-f651-482e-bf38-31285595957a\", \"f4dce2bf-78af-4c8f-a7b6-4cddca62c8f7\", \"0aca6dec-f475-4d89-b6db-938c8bc1556a\", \"608c6ee0-8036-4351-b31f-cfeb852ecdcb\", \"68fbf467-97fe-4b53-82c0-4600f9d6b6dc\", \"f69388c0-9175-46fa-8ffe-dcda01463cb6\", \"3e1128b3-bcd9-4b7d-95bb-f965eae50c89\", \"1f3fc0ea-ee7c-4d4a-a6e5-1ecb83d9db61\", \"98006da9-0cef-4447-a209-3cad117e0f36\", \"5512b524-68d7-4ab4-89db-c2651a7494be\", \"a70d51af-70a2-44a6-9892-c86197cba8bc\", \"e1d21e3f-3f83-4387-9547-0196b159f3c6\", \"1bee30a5-28bf-4b96-bf83-2bac795d4d3c\", \"a699500d-c7ad-47ea-ae70-3c9ab409e3df\", \"2c6418b5-8c35-4b57-8326-aa645241b451\", \"265a8dfc-2840-4335-8552-16cba9e4e24a\", \"e32610be-3166-422f-b0fd-cf7504f69c9e\", \"39bc6165-8975-4a75-a649-a3abccbf0ab3\", \"f96cd9e3-408a-44c0-8af8-a41bb6d6a202\", \"3b329637-f217-4592-b331-12be02cadea9\", \"405d585f-6199-436c-9f23-0b1d5d294043\", \"f8bb77c9-2224-40b9-a3f5-f24769e8051f\", \"bb78acb0-9743-4f5e-9831-563aa99ee15c\", \"b7421af9-c6e4-49ac-9504-fc36353ca851\", \"c0edd7e5-e523-4252-bdce-75fbae808eea\", \"e729d24c-2351-4edf-a653-65d98f44b6ff\", \"22a21030-0c5f-4649-80f8-43c9a0a9be58\", \"5b5eb241-7f8c-4379-baf7-c969e1983d21\", \"a3deff85-cfe8-4d6d-b09f-2ac81a08fd06\", \"f3a8b08c-55a4-4d0b-a147-50e581ed72a2\", \"a0616108-1443-41a4-87ac-bd68338ccf17\", \"f9b747ed-e36a-44d9-ae78-e954bf15276b\", \"85d456c3-11fc-43ef-81c5-f0798632adab\", \"46248adf-de32-41fa-b701-4642474f86da\", \"c8c84a11-a2e9-4879-a2ea-47920c8748d4\", \"383a9d80-aaf9-4eb7-a2c3-8699a746ab21\", \"7a184ef6-94e8-4af9-b340-e8333f09d294\", \"49604d1d-bcf9-4218-9029-0809800508f4\", \"1b51b9bf-c66f-4fce-8c2b-e09118c95704\", \"ff07e69b-f18c-42b2-bccd-cc04ad008fce\", \"92edfbdb-3f5d-41f1-b516-c2265741446f\", \"837ea6d2-b0c5-4726-ae3c-17d119499fe3\", \"a5a79a3a-5b45-4fc8-afc7-587827bb092d\", \"1b48ccde-3791-4a11-a4ef-aebb770d502b\", \"f93d4fba-21f0-4ebc-a778-eb2393dcfa36\", \"9dcf5fe3-6363-4c30-8230-57d74961754e\", \"c367f50e-5679-4ce7-bfb6-576a8483eb8c\", \"3707d584-8fad-4daf-8829-52324a94b8b8\", \"30d491e0-ea59-4d43-bae7-2310312e8766\", \"57851b55-2ec0-4b34-98e3-6b5ce0f9f167\", \"667dbef9-80f1-47d9-bf7b-64e2dd3e1e95\"], \"8\": [\"d114b33a-fe52-4784-9489-e9b351bdd658\", \"28c2c345-4bd6-4e8a-bcc8-54c504938bfc\", \"76848e4f-1b4b-45f9-b185-227d94a2024f\", \"ff3685f2-6f5e-4cbd-ae68-de87000a7d0d\", \"426cc99a-aef6-40fd-b59e-a52f723c3926\", \"408c8350-8c0d-4078-a892-1ad2f72327f0\", \"314ac41e-31c3-466c-881d-66c140992070\", \"ec870f5c-3f32-470e-8346-019669b4ea7f\", \"c72c99a8-7566-4d73-941b-7be3a2d01366\", \"1c6edb74-928f-4b5c-9332-d5aacc1420f3\", \"b6461aae-2a32-4fb6-9b48-8b91f59286ab\", \"aad0e932-7163-4bf7-b790-4e88dba4e83c\", \"aecf93a4-da9f-4687-839d-e2b2ee198f18\", \"5765cbde-9a2a-46bd-8920-8fa81a226026\", \"6af07f44-00f7-4d5a-af37-d261858332ef\", \"99154c20-0b8c-49ee-9344-28ff4c9465e4\", \"928aa676-d498-4422-899b-89a8b273afb6\", \"043a6b3d-ddd0-4ecc-aa3b-4e5a698358f8\", \"1fe59ec8-79dd-4770-bc19-4ae8a8becc7d\", \"25eb1f03-da73-4705-ac0e-1b94e8b5b212\", \"bc895a3e-1978-4050-af4e-1d2f2cdd9a98\", \"9606bc86-74ff-4232-8176-f946caf638cd\", \"08eb6972-1af1-48dc-aad0-9dd1d00b165b\", \"14a3f548-a156-402e-a227-258e7ecd1fbe\", \"008e4f5d-418a-4873-b2b1-95bd87cc91c5\", \"868f66bc-a6c4-47f0-bc81-368919cfc9df\", \"ce90bcf2-0bde-4977-8b21-38f9e718c1f8\", \"5ea32f26-498e-44d2-8d26-f4f6dfab0f3a\", \"41b869e7-a31b-454c-aaa0-7f87291851c6\", \"a0792901-1836-443c-9e47-17982acf4d64\", \"427546dd-8cce-4250-b6d1-1ddaa8cdb028\", \"df773ec8-3eec-49ed-a317-4e4f892a44d7\", \"1542f5ac-486e-4d7a-b8ab-488e073da59e\", \"3c35fbe7-dbd3-481b-9e0d-0c4919e3e445\", \"b60e7b59-872b-48f1-ade1-3afb72b4e04b\", \"29cd566e-06ba-425a-9f03-f588d96b6eb6\", \"ed7b3669-3cc5-4ff6-8efc-32ae034e2452\", \"5cc134d7-4aea-4db5-ab5f-f7a6f0b4c9a6\", \"faa13c6a-1afb-4346-8fe9-2a1c20d2c485\", \"0f4c59a1-2e61-4b57-bb90-4bb6586d9a7e\", \"6f9996d0-db65-4f70-b942-158cb9f145b1\", \"6b06f5a0-f9a9-4ba0-9e51-d5ae22fa5572\", \"2cf1c9fa-68f9-4842-9912-29f9caaeff59\", \"d41ceb8a-5e5a-4bed-aaa3-32e7e4fc0a57\", \"720ec25d-8dab-45ff-96dd-0798c6e475f8\", \"f8ebe28a-587a-4f32-80b1-6afefe3401d3\", \"ee637784-c252-4ac4-9126-c7e7ad8641a4\", \"a743aed1-cd86-4a35-9f98-eb01e217426d\", \"fd6feb9e-8e16-437d-8989-ebbd80300b98\", \"ae0027b2-c829-4ec1-9b3c-5850cd0b9cba\", \"8c594e43-1481-466c-8e09-c24fd859e4b1\", \"2c96218b-c8fa-45aa-8082-f05a074dcebc\", \"6a6b4e2d-2bb7-4ced-a7b2-d37e8ed87efe\", \"dc38a0a6-1e37-4cfe-91ed-8b39ace9d803\", \"660f5a8d-631b-4eaf-8519-e03765e01ed1\", \"f2be1c3d-7f47-49cd-b0b2-be15703832ac\", \"efcf1aec-da69-4033-a67b-5ed21487ef73\", \"e060050f-934d-45f1-8c53-7e5fc055d81b\", \"10ec8822-9692-498b-a1e2-8ceb1fce98d9\", \"0cadfb04-624c-4241-83c2-5a8362265ec8\", \"759f6365-3d20-402c-ac82-4a1f9d4e7936\", \"64116d0e-535a-4daf-a34e-df5525f0a710\", \"8254994c-9443-422c-b718-4710207f43db\", \"7c246d26-48c3-423b-b4a3-1684e018d3ec\", \"a276da17-b725-409d-90a5-4e344d2cf84b\", \"78ebbd78-4ee8-4e67-93d0-8555be021648\", \"2f760235-0531-4d3c-886c-19d4e759f9ab\", \"0ab51b4c-09a8-4ff5-b22d-30d05f792c07\", \"b1f0b2a2-bdda-4bcb-9f18-665a03638674\", \"07f4e5ff-bdeb-4293-93fe-9b4d4a6e912c\", \"d8fb9e4d-6068-49ae-87fe-cf4fb35b819d\", \"68fbfea3-2f76-4875-b92f-6e159ff7872e\", \"beba2d0d-e34f-4376-bafb-b25171720ae6\", \"7d83eaf0-37a3-4691-b3a1-60489eec0938\", \"33a7c382-7cc4-4d4b-9d7f-4bcf886bc8bb\", \"e5b0a365-13c7-4a70-a1d1-18a69ec3cfed\", \"3e284c0e-9d0b-435c-812d-4bce34265c0f\", \"de72cb57-2d13-4312-b271-ca7cb0c5b19f\", \"a2dd4dbf-12df-452c-9fa5-2cff354e2955\", \"8a4cbb1e-ff9d-4ed4-b844-91c9f05aa8c5\", \"5fe9c2c9-bc75-4647-98c8-fb7f4d462927\", \"e59b94f8-f48c-406a-93b2-3669c1a94e3e\", \"b7c28b7f-a03c-4898-a07b-2c166e780587\", \"88d9a563-64e1-4825-bb00-9c0ee3f02672\", \"510afb77-2299-4f5d-a504-b309486e04bd\", \"c53a81a5-3273-4dc0-9aec-4c5c8a5fcd16\", \"3bfa8032-47ad-4124-8879-4f73e19414e2\", \"06d90dc6-3fc4-41ec-a1c0-15abdc427b34\", \"70206e3e-6189-4189-a5a2-7cf3dcf6cdb9\", \"71247fef-e9c2-4ef1-975e-1370e1a20dab\", \"04cf2c4d-0f1c-4363-852c-e423dab3aea4\", \"0818c613-961b-4b59-8e64-1a5b6c375445\", \"8dd045b5-0a6c-4fb2-a3c6-e24cedb55c84\", \"57c6c852-3759-47db-8efe-7bfb17305255\", \"69f36b6b-79b5-4c9d-a5cf-4033e98dfd9d\", \"be9b4b42-f663-4452-aba9-bc386888a2d7\", \"79474ff7-6ef6-4a5f-b95c-a31aedfd43af\", \"c6c87d64-2db4-4de7-a50f-2d8fd0343963\", \"1ab0ef0a-2a3c-4796-a49a-ff3878b633ba\", \"097f00d6-53ca-40ce-b789-95ecfff39690\"], \"9\": [\"62e3bc43-c3d5-4943-b48e-bad8a011f087\", \"023935d1-ee5d-46c6-bd4e-b2e08bc11594\", \"a7f34726-d72e-4291-8aaa-0f2ac98e28ab\", \"154b354d-f202-4405-b59d-d1ea1e5d3458\", \"ec5a7748-103f-4b7e-b71d-8df6ecc270e4\", \"1f55090a-8876-44ff-8a58-538a056e6498\", \"3208ee97-5d39-41aa-981f-8e82da80a586\", \"15ae0571-d849-446e-ac34-eb3474dac7d1\", \"6ba5a5ac-536a-4b3c-b520-0eed63bb554b\", \"411c86ff-b8db-4b1b-9e8b-4a1a61214d55\", \"3905897a-96c6-4017-9bc2-fff363a3d0e5\", \"08856a40-3346-425d-8abd-0c7dc5b8846e\", \"75ffc579-eb49-4db8-adb8-e94e1bb25fdd\", \"fd6e5c2a-2492-4041-a85d-48562fc65ccf\", \"00dc7ae4-d64b-4204-b653-6e3aa856234f\", \"1192f284-bb6b-431c-b6fc-2cc5125d2b6b\", \"a03fdeda-84fb-4b37-ae2a-e19686940df9\", \"f463bf4d-b223-4011-99b1-c1395874bccc\", \"5d1462fa-25b2-4f85-a862-bcbcf6b60099\", \"d111dbfd-a2ea-45ad-9a2d-4f96b8ede2dd\", \"1cf75680-77b2-4bfc-812e-8d6dde6f6ec7\", \"ddd3a700-6a9c-44c4-bb69-95777921a037\", \"d23544eb-04ea-41c8-9c8c-31cd4ff1342b\", \"5b999092-6dbf-46e6-8f02-58d1879f6770\", \"b730221f-265a-4821-8272-ddfafa721f78\", \"4a4cc4e7-fc4b-42ae-90c6-cf9de33b379e\", \"c483e7e8-03e3-499c-8dd4-96b2f6455ba8\", \"5730e148-da5a-4909-9c8c-13b54c7830d8\", \"69650ef0-c2d2-459f-b024-c78f9623629b\", \"a47ca37a-5b5c-4787-8ea0-8e7125c30b42\", \"7fc5cae3-a130-46b3-bb52-b1e67624ddb2\", \"f388f951-b98f-412f-9cc2-7924b2c417a9\", \"69f0d130-3732-4437-9b9f-c0c62a0b94b9\", \"97616b4c-225d-42ab-9415-6a3a194dc418\", \"722a7760-acdd-47db-acb3-06fb9fe30798\", \"06f4698e-e559-48cd-82bd-877cdee42f05\", \"6ae9ac65-5b8f-4469-a61c-6e399b35e3c5\", \"7c68c167-822e-4b33-b315-c6d0f5083484\", \"2fd741fd-d7f6-41c3-8f24-2626bd0b1490\", \"ef1fe6e4-6e1d-4282-8007-50d67df2e4bf\", \"a3155079-8aeb-4cb9-8b78-734310d1b671\", \"e7ed158e-b881-491d-830f-a07608c1f764\", \"7f327576-f2b8-4ee1-8f2d-ae4d4e2e769e\", \"e2b30f2a-4bf3-4e52-9932-a3d95e140274\", \"72a02e4f-790b-437d-89a6-b8ba92a86b57\", \"7fa5f8c9-b2c1-4bb0-abd7-f6935e88c197\", \"8b159c4a-4ab3-4793-8449-7ba2aa72513c\", \"0f24fe21-18d5-431d-bfb2-84c2b38676c5\", \"061424a3-830d-4b86-848e-f2c53712d30b\", \"27c63839-f6a1-458c-8fd2-a88564a5aff4\", \"b2c92fef-ae10-4b5d-b5e7-82c8de276440\", \"5b7fe4e4-0c61-46ed-890b-0d5274f7f8df\", \"56b38e72-4464-400a-b765-d0fb3ab819cf\", \"10fe8ab2-7648-48bd-b400-6ce499757164\", \"b3523975-119e-4391-9efa-36d65f396db4\", \"fda682ef-3271-4063-91f9-26c1ced99ede\", \"b40695ac-5d31-471b-b094-462fb0605c7b\", \"d4efc3fc-e186-4ac6-b43b-394a3b4aa5e8\", \"43133565-a6a6-4a07-b459-752672a7c76b\", \"7e84eaef-98f5-4ad7-a28d-6b046f5cd9b2\", \"d907c01a-4e71-4cef-8db0-943d68b043d3\", \"cf8e0236-1c24-4696-bfc7-042555610f65\", \"6e065f8f-ca6f-4d12-9115-10d907592da7\", \"53473d89-2d1c-4e29-91bb-921bf38be51a\", \"3ddcaabf-fe08-45b8-8dad-607cc637d5c8\", \"d3bba3bb-5762-4e3f-b99d-68e5ff1ca4fc\", \"7f94ad36-bef8-4590-b64d-7882421dc889\", \"46f55564-b330-4a41-ae06-060c9ad18a75\", \"29cbc30c-c314-4438-a2e6-6343553b6e83\", \"2aedfce8-1942-41c8-be19-cbb2fb896d58\", \"719a984f-4a2c-4361-b77f-22f7021496a0\", \"fc024268-9fd8-4570-9763-c1ef6e44c480\", \"1eb634a8-ba39-49b1-8e4b-2f5d97e69d93\", \"40558a51-8304-453b-b7cb-e75c6c8b92fc\", \"dff59cf0-af2d-470f-b194-a1a7289c95d6\", \"dc139f65-9413-4578-a55f-f0836528f85d\", \"70a7e426-3f61-4090-9701-f43db8d8bf41\", \"1aca98d4-85bf-4fbc-91ff-4c897c3ce098\", \"2f05b583-d087-4485-9456-f0ba0286f720\", \"ee163b95-274e-4388-b83a-124c37043781\", \"0d7b2f29-ce8c-4456-a2f8-96067f11dc18\", \"5097c4e8-8127-497b-bdb8-12f1cac93267\", \"69ac6c99-c6f2-4ea9-a010-e79520645db4\", \"b3748261-3b09-488c-a74d-a965e7efdbb0\", \"8ecdb429-8da1-458e-bcae-2ea3a416706f\", \"bc6a2465-d8d0-49d7-9f91-6f22510d2536\", \"60af8d1f-3651-4ffd-b6b4-8ed90d42ef76\", \"1c43098e-ac59-4ed2-b625-2e5ce26b3926\", \"fdbfb6e8-c890-418a-9822-de875795e8f0\", \"60594785-a6c3-4951-a9db-174dbce10fc5\", \"8b524d90-b89c-4494-b20b-a5e1190333dc\", \"b6fd5664-75e2-45ff-a891-e6e6db2fd268\", \"a3866445-614c-436a-935b-b0b48df63da0\", \"c4dbbe8c-1350-48cf-9c86-d8cbf9670a0e\", \"db36e839-254f-4ae5-b66b-d957486d7a92\", \"6f4803e5-efee-4e8e-89ea-ec0d361c1f01\", \"a08e8c46-12f5-4968-9e9b-5d7206dc2850\", \"995123e8-743c-447c-993c-5b265a50acd9\", \"d2641988-fcc4-4714-ad98-bf690c3d98da\", \"c804cd69-e2d8-4efa-a7ab-3a4483137113\"]}";
+  private static final String TABLE = "jobs";
+  private static final String STATE_FIELD = "jobState";
+  private static final long MAX_SLEEP_NS = TimeUnit.MILLISECONDS.toNanos(100);
 
-  private static class JobIdTracker {
-    public List<String> jobIds;
-    public int currentJobId;
+  /** A job state and the transitions out of it. */
+  private static final class State {
+    private final String name;
+    private final DiscreteGenerator next = new DiscreteGenerator();
+    private final Map<String, String> measurementNames = new HashMap<>();
+    private ExponentialGenerator dwellTimeMs;
+
+    private State(String name) {
+      this.name = name;
+    }
+
+    private boolean isFinal() {
+      return measurementNames.isEmpty();
+    }
+
+    private long nextDwellTimeNs() {
+      return dwellTimeMs == null ? 0 : (long) (dwellTimeMs.nextValue() * 1000000);
+    }
   }
 
+  /** The state of a job and the version it was written with, or null if the job was not updated yet. */
+  private static final class Snapshot {
+    private final State state;
+    private final Object version;
+
+    private Snapshot(State state, Object version) {
+      this.state = state;
+      this.version = version;
+    }
+  }
+
+  /** A job in flight. Its snapshot is read by the threads that touch it. */
+  private static final class Job {
+    private final String id = UUID.randomUUID().toString();
+    private final int slot;
+    private final AtomicReference<Snapshot> current;
+    private long dueNs;
+
+    private Job(State state, int slot) {
+      this.current = new AtomicReference<>(new Snapshot(state, null));
+      this.slot = slot;
+    }
+  }
+
+  private static final class JobTracker {
+    private final PriorityQueue<Job> inFlight = new PriorityQueue<>(Comparator.comparingLong(j -> j.dueNs));
+    private int firstSlot;
+  }
+
+  private final Map<String, State> states = new LinkedHashMap<>();
+  private State initialState;
+  private int jobsInFlight;
+  private double touchProportion;
+  private int maxRetries;
+  private byte[] jobResult;
+
+  /** The jobs in flight of all threads, jobsInFlight slots per thread, for the touches. */
+  private volatile AtomicReferenceArray<Job> slots;
+
+  private final LongAdder transitions = new LongAdder();
+  private final LongAdder versionedUpdates = new LongAdder();
+  private final LongAdder conflicts = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder abandoned = new LongAdder();
+
   @Override
   public void init(Properties p) throws WorkloadException {
-    operationCount = Integer.parseInt(p.getProperty("operationcount"));
-    JSONParser parser = new JSONParser();
-    JSONObject jsonObject;
-    try {
-      jsonObject = (JSONObject) parser.parse(THREAD_ID_TO_JOB_ID_MAPPING);
-      // flatten the list, we have keys from 0--9
-      for (int i = 0; i < 10; i++) {
-        JSONArray jobIdArray =
-            (JSONArray) jsonObject.get(String.valueOf(i));
-        for (Object o: jobIdArray) {
-          flattenedJobIdList.add(o.toString());
-        }
+    parseTransitions(p.getProperty(TRANSITIONS_PROPERTY, TRANSITIONS_PROPERTY_DEFAULT));
+    parseDwellTimes(p.getProperty(DWELL_TIME_PROPERTY, DWELL_TIME_PROPERTY_DEFAULT));
+    jobsInFlight = Integer.parseInt(p.getProperty(IN_FLIGHT_PROPERTY, IN_FLIGHT_PROPERTY_DEFAULT));
+    touchProportion = Double.parseDouble(p.getProperty(TOUCH_PROPORTION_PROPERTY, TOUCH_PROPORTION_PROPERTY_DEFAULT));
+    maxRetries = Integer.parseInt(p.getProperty(MAX_RETRIES_PROPERTY, MAX_RETRIES_PROPERTY_DEFAULT));
+    if (jobsInFlight < 1) {
+      throw new WorkloadException(IN_FLIGHT_PROPERTY + " must be at least 1");
+    }
+    if (maxRetries < 0) {
+      throw new WorkloadException(MAX_RETRIES_PROPERTY + " must not be negative");
+    }
+
+    // the MongoDB binding builds a job document from its job result alone, so that carries the version too
+    String template = new String(PutGetWorkload.makeRowFromTemplate().get("jobResult").toArray());
+    jobResult = ("{\"version\": 0, " + template.substring(1)).getBytes();
+  }
+
+  private void parseTransitions(String spec) throws WorkloadException {
+    for (String entry : spec.split(",")) {
+      String[] fromTo = entry.trim().split(">");
+      String[] toWeight = fromTo.length == 2 ? fromTo[1].split(":") : new String[0];
+      if (toWeight.length != 2) {
+        throw new WorkloadException("Malformed job state transition \"" + entry + "\" in " + TRANSITIONS_PROPERTY);
+      }
+      State from = states.computeIfAbsent(fromTo[0].trim(), State::new);
+      State to = states.computeIfAbsent(toWeight[0].trim(), State::new);
+      if (initialState == null) {
+        initialState = from;
+      }
+      try {
+        from.next.addValue(Double.parseDouble(toWeight[1]), to.name);
+      } catch (NumberFormatException e) {
+        throw new WorkloadException("Malformed job state transition \"" + entry + "\" in " + TRANSITIONS_PROPERTY);
       }
-    } catch (ParseException e) {
-      throw new WorkloadException(e.getMessage());
+      from.measurementNames.put(to.name, "JOB_" + from.name + "_TO_" + to.name);
+    }
+  }
+
+  private void parseDwellTimes(String spec) throws WorkloadException {
+    if (spec.trim().isEmpty()) {
+      return;
+    }
+    for (String entry : spec.split(",")) {
+      String[] stateTime = entry.trim().split(":");
+      State state = stateTime.length == 2 ? states.get(stateTime[0].trim()) : null;
+      if (state == null) {
+        throw new WorkloadException("Malformed or unknown job state \"" + entry + "\" in " + DWELL_TIME_PROPERTY);
+      }
+      double meanMs = Double.parseDouble(stateTime[1]);
+      state.dwellTimeMs = meanMs > 0 ? new ExponentialGenerator(meanMs) : null;
     }
   }
 
   @Override
   public Object initThread(Properties p, int mythreadid, int threadcount) {
-    final JobIdTracker tracker = new JobIdTracker();
-    final int chunkSize = operationCount/threadcount;
-    final int start = (mythreadid) * (operationCount/threadcount);
-    final int end = start + chunkSize;
-    tracker.jobIds = flattenedJobIdList.subList(start, end);
+    synchronized (this) {
+      if (slots == null) {
+        slots = new AtomicReferenceArray<>(threadcount * jobsInFlight);
+      }
+    }
+    final JobTracker tracker = new JobTracker();
+    tracker.firstSlot = mythreadid * jobsInFlight;
     return tracker;
   }
 
   @Override
   public boolean doInsert(DB db, Object threadstate) {
+    // the jobs are created during the run
     return true;
   }
 
   @Override
   public boolean doTransaction(DB db, Object threadstate) {
-    final JobIdTracker tracker = (JobIdTracker) threadstate;
-    final HashMap<String, ByteIterator> updatedValues = new HashMap<>();
-    // JobStates are numeric values. Iterate through job states.
-    Status status = Status.OK;
-    Object version = null;
-
-    int i = 1;
-    final long startTime = System.nanoTime();
-    while ((i <= 5) && (status.isOk())) {
-      updatedValues.put("jobState", new StringByteIterator(getJobStateString(i)));
-      Pair statusVersionPair = db.findAndUpdate("jobs", tracker.jobIds.get(tracker.currentJobId % tracker.jobIds.size()), version,
-          updatedValues);
-      version = statusVersionPair.getVersion();
-      status = statusVersionPair.getStatus();
-      i += 1;
-    }
-
-    final long endTime = System.nanoTime();
-    final long latency = (endTime - startTime);
-    Measurements.getMeasurements().measure("RAPID_UPDATE", (int)(latency/1000));
-    tracker.currentJobId++;
-    return status.isOk();
+    final JobTracker tracker = (JobTracker) threadstate;
+    if (touchProportion > 0 && ThreadLocalRandom.current().nextDouble() < touchProportion
+        && touch(db, ThreadLocalRandom.current().nextInt(slots.length()))) {
+      return true;
+    }
+    if (tracker.inFlight.size() < jobsInFlight) {
+      return create(db, tracker);
+    }
+
+    Job job = tracker.inFlight.poll();
+    long wait;
+    while ((wait = job.dueNs - System.nanoTime()) > 0 && !isStopRequested()) {
+      LockSupport.parkNanos(Math.min(wait, MAX_SLEEP_NS));
+    }
+    State from = job.current.get().state;
+    State to = states.get(from.next.nextValue());
+    String measurement = from.measurementNames.get(to.name);
+    long st = System.nanoTime();
+    Status status = update(db, job, to, maxRetries);
+    int latency = (int) ((System.nanoTime() - st) / 1000);
+    Measurements.getMeasurements().measure(measurement, latency);
+    Measurements.getMeasurements().reportStatus(measurement, status);
+    if (!status.isOk() && status != Status.NOT_IMPLEMENTED) {
+      Measurements.getMeasurements().measure(GIVEN_UP_MEASUREMENT, latency);
+    }
+    transitions.increment();
+
+    if (!status.isOk() || to.isFinal()) {
+      // a job whose transition was given up is left behind, as the coordinator would fail it
+      slots.set(job.slot, null);
+    } else {
+      job.dueNs = System.nanoTime() + to.nextDwellTimeNs();
+      tracker.inFlight.add(job);
+    }
+    // a given-up transition is part of the load this workload creates, so the thread goes on with its other jobs
+    return status != Status.NOT_IMPLEMENTED;
   }
 
-  private static String getJobStateString(int i) {
-    switch(i) {
-    case 0: return "NOT_SUBMITTED";
-    case 1: return "STARTING";
-    case 2: return "RUNNING";
-    case 3: return "COMPLETED";
-    case 4: return "CANCELED";
-    case 5: return "FAILED";
-    case 6: return "CANCELLATION_REQUESTED";
-    case 7: return "ENQUEUED";
-    case 8: return "PLANNING";
-    default: return null;
+  private boolean create(DB db, JobTracker tracker) {
+    int slot = tracker.firstSlot;
+    while (slots.get(slot) != null) {
+      slot++;
     }
+    Job job = new Job(initialState, slot);
+    Map<String, ByteIterator> values = PutGetWorkload.makeRowFromTemplate();
+    values.put(STATE_FIELD, new StringByteIterator(initialState.name));
+    values.put("version", new ByteArrayByteIterator(Utils.longToBytes(0)));
+    values.put("jobResult", new ByteArrayByteIterator(jobResult));
+    Status status = db.insert(TABLE, job.id, values);
+    if (!status.isOk()) {
+      return false;
+    }
+    slots.set(slot, job);
+    job.dueNs = System.nanoTime() + initialState.nextDwellTimeNs();
+    tracker.inFlight.add(job);
+    return true;
+  }
+
+  /**
+   * Re-reports the current state of the job in a slot, once. The job may belong to any thread.
+   *
+   * @return false if there is no job in the slot or it was not updated yet, so it cannot conflict.
+   */
+  boolean touch(DB db, int slot) {
+    Job job = slots.get(slot);
+    if (job == null || job.current.get().version == null) {
+      return false;
+    }
+    long st = System.nanoTime();
+    Status status = update(db, job, null, 0);
+    Measurements.getMeasurements().measure(TOUCH_MEASUREMENT, (int) ((System.nanoTime() - st) / 1000));
+    Measurements.getMeasurements().reportStatus(TOUCH_MEASUREMENT, status);
+    // losing the race is the expected outcome of a touch, not a failure of the run
+    return true;
+  }
+
+  /**
+   * Moves a job to a state with a versioned update, retrying with the version the winner wrote if it lost a race.
+   *
+   * @param to The state to move the job to, or null to re-report the state the job is in.
+   */
+  private Status update(DB db, Job job, State to, int allowedRetries) {
+    Map<String, ByteIterator> values = new HashMap<>();
+    for (int attempt = 0;; attempt++) {
+      // the state and version are read together, so the state written is the one of the version sent
+      Snapshot seen = job.current.get();
+      State state = to == null ? seen.state : to;
+      values.put(STATE_FIELD, new StringByteIterator(state.name));
+      long st = System.nanoTime();
+      Pair result = db.findAndUpdate(TABLE, job.id, seen.version, values);
+      versionedUpdates.increment();
+      if (result.getStatus() == Status.NOT_IMPLEMENTED) {
+        return result.getStatus();
+      }
+      if (result.getStatus().isOk()) {
+        // only the writer that moved the version from what it read publishes the new one
+        job.current.compareAndSet(seen, new Snapshot(state, result.getVersion()));
+        return Status.OK;
+      }
+      int latency = (int) ((System.nanoTime() - st) / 1000);
+      conflicts.increment();
+      Measurements.getMeasurements().measure(CONFLICT_MEASUREMENT, latency);
+      Measurements.getMeasurements().reportStatus(CONFLICT_MEASUREMENT, result.getStatus());
+      if (attempt >= allowedRetries) {
+        if (allowedRetries > 0) {
+          abandoned.increment();
+        }
+        return result.getStatus();
+      }
+      retries.increment();
+      Measurements.getMeasurements().measure(RETRY_MEASUREMENT, latency);
+    }
+  }
+
+  @Override
+  public void cleanup() throws WorkloadException {
+    long updates = versionedUpdates.sum();
+    System.err.println(String.format("Job transitions: %d, versioned updates: %d, conflicts: %d (%.2f%%), " +
+            "retries: %d, transitions given up: %d", transitions.sum(), updates, conflicts.sum(),
+        updates > 0 ? 100.0 * conflicts.sum() / updates : 0, retries.sum(), abandoned.sum()));
   }
 }
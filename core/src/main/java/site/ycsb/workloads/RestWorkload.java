@@ -113,6 +113,7 @@ public class RestWorkload extends CoreWorkload {
 
   @Override
   public void init(Properties p) throws WorkloadException {
+    ZipfianGenerator.setZetaCacheFile(p.getProperty(ZETA_CACHE_FILE_PROPERTY));
 
     readRecordCount = Integer.parseInt(p.getProperty(READ_RECORD_COUNT_PROPERTY, String.valueOf(Integer.MAX_VALUE)));
     insertRecordCount = Integer
@@ -23,7 +23,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
-import java.util.Vector;
 
 import site.ycsb.ByteArrayByteIterator;
 import site.ycsb.ByteIterator;
@@ -139,9 +138,13 @@ public class ScanReadWorkload extends Workload {
     final Status status;
     if (counter.count < 4) {
       counter.count++;
-      final Vector<HashMap<String, ByteIterator>> result = new Vector<>();
-      status = db.scan("jobs", counter.startKey, 10000, null, result);
-      if (result.size() < 10000) {
+      // count the rows as they stream in rather than holding all 10000 of them
+      final int[] rows = new int[1];
+      status = db.streamScan("jobs", counter.startKey, 10000, null, row -> {
+          rows[0]++;
+          return true;
+        });
+      if (rows[0] < 10000) {
         System.out.println("counter.startKey:" + counter.startKey);
         return false;
       }
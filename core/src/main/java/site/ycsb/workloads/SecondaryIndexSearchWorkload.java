@@ -15,73 +15,276 @@
  */
 package site.ycsb.workloads;
 
-import java.util.HashMap;
-import java.util.Vector;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import site.ycsb.ByteArrayByteIterator;
 import site.ycsb.ByteIterator;
+import site.ycsb.Client;
 import site.ycsb.DB;
 import site.ycsb.Status;
+import site.ycsb.StringByteIterator;
+import site.ycsb.Utils;
 import site.ycsb.Workload;
 import site.ycsb.WorkloadException;
+import site.ycsb.generator.ScrambledZipfianGenerator;
 import site.ycsb.measurements.Measurements;
 
 /**
- * Scenario 3 of the Dremio performance test.
+ * Scenario 3 of the Dremio performance test: searches of the jobs by their created time, the secondary index that
+ * {@link DB#scanWithCreatedTimeFilter} queries, mixed with writes so that the cost of maintaining the index shows in
+ * their latency.
+ *
+ * The load phase inserts the jobs, each with a created time drawn from the value distribution. A search is a range
+ * or an equality predicate on the created time, returning at most a given number of rows; its latency is measured as
+ * SECONDARY_INDEX_SEARCH and the number of rows it returned as SECONDARY_INDEX_ROWS. The rows returned per second
+ * are printed at the end of the run. Properties to control the workload:
+ * <UL>
+ * <LI><b>secondaryindex.values</b>: the number of distinct created times of the loaded jobs (default: recordcount)
+ * <LI><b>secondaryindex.valuedistribution</b>: how the created times are drawn, "sequential" to give them in
+ * insertion order as jobs arriving over time, "uniform" or "zipfian" (default: sequential). Sequential created
+ * times keep growing with the jobs inserted by the run.
+ * <LI><b>secondaryindex.predicate</b>: "range" or "equality" (default: range)
+ * <LI><b>secondaryindex.selectivity</b>: the fraction of the created times a range covers (default: 0.001)
+ * <LI><b>secondaryindex.querydistribution</b>: where a predicate starts, "uniform" over the created times or
+ * "latest" to favor the most recent ones (default: uniform)
+ * <LI><b>secondaryindex.maxrows</b>: the maximum number of rows a search returns (default: 1000)
+ * <LI><b>secondaryindex.insertproportion</b>: the fraction of operations that insert a job (default: 0)
+ * <LI><b>secondaryindex.updateproportion</b>: the fraction of operations that update the state of a job inserted
+ * by the run (default: 0)
+ * </ul>
  */
 public class SecondaryIndexSearchWorkload extends Workload {
-  private int recordCount;
+  public static final String TABLE = "jobs";
+
+  /** The number of distinct created times of the loaded jobs. */
+  public static final String VALUES_PROPERTY = "secondaryindex.values";
+
+  /** How the created times are drawn: "sequential", "uniform" or "zipfian". */
+  public static final String VALUE_DISTRIBUTION_PROPERTY = "secondaryindex.valuedistribution";
+  public static final String VALUE_DISTRIBUTION_PROPERTY_DEFAULT = "sequential";
+
+  /** The predicate of a search: "range" or "equality". */
+  public static final String PREDICATE_PROPERTY = "secondaryindex.predicate";
+  public static final String PREDICATE_PROPERTY_DEFAULT = "range";
+
+  /** The fraction of the created times a range covers. */
+  public static final String SELECTIVITY_PROPERTY = "secondaryindex.selectivity";
+  public static final String SELECTIVITY_PROPERTY_DEFAULT = "0.001";
+
+  /** Where a predicate starts: "uniform" or "latest". */
+  public static final String QUERY_DISTRIBUTION_PROPERTY = "secondaryindex.querydistribution";
+  public static final String QUERY_DISTRIBUTION_PROPERTY_DEFAULT = "uniform";
+
+  /** The maximum number of rows a search returns. */
+  public static final String MAX_ROWS_PROPERTY = "secondaryindex.maxrows";
+  public static final String MAX_ROWS_PROPERTY_DEFAULT = "1000";
+
+  /** The fraction of operations that insert a job. */
+  public static final String INSERT_PROPORTION_PROPERTY = "secondaryindex.insertproportion";
+  public static final String INSERT_PROPORTION_PROPERTY_DEFAULT = "0";
+
+  /** The fraction of operations that update the state of a job. */
+  public static final String UPDATE_PROPORTION_PROPERTY = "secondaryindex.updateproportion";
+  public static final String UPDATE_PROPORTION_PROPERTY_DEFAULT = "0";
+
+  /**
+   * What precedes the created time of the job template, which each inserted job replaces with its own. The created
+   * time is the start time of the job info, as the node endpoint has a start time as well.
+   */
+  private static final String JOB_INFO_PREFIX = "\"jobInfo\": ";
+  private static final String CREATED_TIME_PREFIX = "\"startTime\": ";
+
+  private long recordCount;
+  private long values;
+  private String valueDistribution;
+  private ScrambledZipfianGenerator zipfian;
+  private boolean equality;
+  private long width;
+  private boolean latest;
+  private int maxRows;
+  private double insertProportion;
+  private double updateProportion;
+  private byte[] jobResultHead;
+  private byte[] jobResultTail;
+
+  /** The number of jobs inserted so far, which gives their sequential created times. */
+  private final AtomicLong sequence = new AtomicLong();
+  private final UuidStore inserted = new UuidStore(false);
+  private final LongAdder searches = new LongAdder();
+  private final LongAdder rowsReturned = new LongAdder();
+  private final AtomicLong firstSearchNs = new AtomicLong();
 
-  @Override
-  public boolean doInsert(DB db, Object threadState) {
-    return true;
-  }
   @Override
   public void init(Properties p) throws WorkloadException {
-    recordCount = Integer.parseInt(p.getProperty("recordcount"));
-  }
+    recordCount = Long.parseLong(p.getProperty(Client.RECORD_COUNT_PROPERTY, Client.DEFAULT_RECORD_COUNT));
+    values = Long.parseLong(p.getProperty(VALUES_PROPERTY, String.valueOf(recordCount)));
+    valueDistribution = p.getProperty(VALUE_DISTRIBUTION_PROPERTY, VALUE_DISTRIBUTION_PROPERTY_DEFAULT);
+    String predicate = p.getProperty(PREDICATE_PROPERTY, PREDICATE_PROPERTY_DEFAULT);
+    double selectivity = Double.parseDouble(p.getProperty(SELECTIVITY_PROPERTY, SELECTIVITY_PROPERTY_DEFAULT));
+    String queryDistribution = p.getProperty(QUERY_DISTRIBUTION_PROPERTY, QUERY_DISTRIBUTION_PROPERTY_DEFAULT);
+    maxRows = Integer.parseInt(p.getProperty(MAX_ROWS_PROPERTY, MAX_ROWS_PROPERTY_DEFAULT));
+    insertProportion = Double.parseDouble(
+        p.getProperty(INSERT_PROPORTION_PROPERTY, INSERT_PROPORTION_PROPERTY_DEFAULT));
+    updateProportion = Double.parseDouble(
+        p.getProperty(UPDATE_PROPORTION_PROPERTY, UPDATE_PROPORTION_PROPERTY_DEFAULT));
+
+    if (recordCount <= 0 || values <= 0 || values > Integer.MAX_VALUE) {
+      // the bindings filter the created time as an int
+      throw new WorkloadException(Client.RECORD_COUNT_PROPERTY + " and " + VALUES_PROPERTY
+          + " must be positive, and " + VALUES_PROPERTY + " at most " + Integer.MAX_VALUE);
+    }
+    if (valueDistribution.equals("zipfian")) {
+      zipfian = new ScrambledZipfianGenerator(0, values - 1);
+    } else if (!valueDistribution.equals("sequential") && !valueDistribution.equals("uniform")) {
+      throw new WorkloadException("Unknown value distribution \"" + valueDistribution + "\"");
+    }
+    if (!predicate.equals("range") && !predicate.equals("equality")) {
+      throw new WorkloadException("Unknown predicate \"" + predicate + "\"");
+    }
+    equality = predicate.equals("equality");
+    if (!(selectivity > 0 && selectivity <= 1)) {
+      throw new WorkloadException(SELECTIVITY_PROPERTY + " must be more than 0 and at most 1");
+    }
+    width = equality ? 1 : Math.max(1, Math.round(selectivity * values));
+    if (!queryDistribution.equals("uniform") && !queryDistribution.equals("latest")) {
+      throw new WorkloadException("Unknown query distribution \"" + queryDistribution + "\"");
+    }
+    latest = queryDistribution.equals("latest");
+    if (maxRows <= 0 || insertProportion < 0 || updateProportion < 0 || insertProportion + updateProportion > 1) {
+      throw new WorkloadException(MAX_ROWS_PROPERTY + " must be positive, and the insert and update proportions "
+          + "must not be negative nor add up to more than 1");
+    }
+
+    // sequential created times go on from the loaded jobs in the run
+    boolean run = Boolean.parseBoolean(p.getProperty(Client.DO_TRANSACTIONS_PROPERTY, String.valueOf(true)));
+    sequence.set(run ? recordCount
+        : Long.parseLong(p.getProperty(CoreWorkload.INSERT_START_PROPERTY, CoreWorkload.INSERT_START_PROPERTY_DEFAULT)));
 
-  private static class ThreadOffset {
-    public int start;
-    public int end;
-    public int count = 0;
-
-    public ThreadOffset(int threadId) {
-      /*
-          ThreadId 0: start=0, end=25
-          ThreadId 1: start=25, end=50
-          ...
-          ...
-          ThreadId 49: start=1225, end=1250
-      */
-      this.start = threadId * 25;
-      this.end = this.start + 25;
+    String template = new String(PutGetWorkload.makeRowFromTemplate().get("jobResult").toArray(),
+        StandardCharsets.UTF_8);
+    int jobInfo = template.indexOf(JOB_INFO_PREFIX);
+    int at = jobInfo < 0 ? -1 : template.indexOf(CREATED_TIME_PREFIX, jobInfo);
+    if (at < 0) {
+      throw new WorkloadException("The job template has no created time to replace");
+    }
+    int digits = at + CREATED_TIME_PREFIX.length();
+    int after = digits;
+    while (after < template.length() && Character.isDigit(template.charAt(after))) {
+      after++;
     }
+    jobResultHead = template.substring(0, digits).getBytes(StandardCharsets.UTF_8);
+    jobResultTail = template.substring(after).getBytes(StandardCharsets.UTF_8);
   }
 
+  @Override
   public Object initThread(Properties p, int myThreadId, int threadCount) throws WorkloadException {
-    return new ThreadOffset(myThreadId);
+    return new Random(myThreadId);
   }
 
+  @Override
+  public boolean doInsert(DB db, Object threadState) {
+    return insert(db, (Random) threadState).isOk();
+  }
 
-    @Override
+  @Override
   public boolean doTransaction(DB db, Object threadState) {
-    final ThreadOffset threadOffset = (ThreadOffset) threadState;
-    final Status status;
-    final Vector<HashMap<String, ByteIterator>> result = new Vector<>();
-    final String startRange =  Integer.toString(threadOffset.start + threadOffset.count);
-    final String endRange =  Integer.toString(threadOffset.end + threadOffset.count);
-
-    final long startTime = System.nanoTime();
-    status = db.scanWithCreatedTimeFilter("jobs", startRange, endRange, recordCount, null, result);
-    final long endTime = System.nanoTime();
-    threadOffset.count++;
-
-    if (result.size() < recordCount) {
-      return false;
+    Random random = (Random) threadState;
+    double operation = random.nextDouble();
+    if (operation < insertProportion) {
+      return insert(db, random).isOk();
+    }
+    long jobs = inserted.size();
+    if (operation < insertProportion + updateProportion && jobs > 0) {
+      String key = inserted.get((long) (random.nextDouble() * jobs)).toString();
+      return db.update(TABLE, key, Collections.singletonMap("jobState", new StringByteIterator("COMPLETED")))
+          .isOk();
+    }
+    return search(db, random);
+  }
+
+  private Status insert(DB db, Random random) {
+    long createdTime;
+    if (zipfian != null) {
+      createdTime = zipfian.nextValue();
+    } else if (valueDistribution.equals("uniform")) {
+      createdTime = (long) (random.nextDouble() * values);
+    } else {
+      createdTime = sequence.getAndIncrement() * values / recordCount;
+    }
+
+    UUID key = UUID.randomUUID();
+    Map<String, ByteIterator> row = PutGetWorkload.makeRowFromTemplate();
+    row.put("startTime", new ByteArrayByteIterator(Utils.longToBytes(createdTime)));
+    row.put("jobResult", new ByteArrayByteIterator(jobResult(createdTime)));
+    Status status = db.insert(TABLE, key.toString(), row);
+    if (status.isOk()) {
+      inserted.add(key);
+    }
+    return status;
+  }
+
+  private byte[] jobResult(long createdTime) {
+    byte[] digits = Long.toString(createdTime).getBytes(StandardCharsets.UTF_8);
+    byte[] jobResult = new byte[jobResultHead.length + digits.length + jobResultTail.length];
+    System.arraycopy(jobResultHead, 0, jobResult, 0, jobResultHead.length);
+    System.arraycopy(digits, 0, jobResult, jobResultHead.length, digits.length);
+    System.arraycopy(jobResultTail, 0, jobResult, jobResultHead.length + digits.length, jobResultTail.length);
+    return jobResult;
+  }
+
+  /**
+   * @return The upper bound of the created times given so far, exclusive.
+   */
+  private long topValue() {
+    if (!valueDistribution.equals("sequential")) {
+      return values;
     }
-      final long latency = (endTime - startTime);
-      Measurements.getMeasurements().measure("SECONDARY_INDEX_SEARCH", (int)(latency/1000));
+    return Math.max(1, Math.max(values, sequence.get() * values / recordCount));
+  }
+
+  private boolean search(DB db, Random random) {
+    long top = topValue();
+    double u = random.nextDouble();
+    long start = latest ? Math.max(0, top - width - (long) ((top - width) * Math.pow(u, PutGetWorkload.LATEST_SKEW)))
+        : (long) (u * top);
+    // the created times of a sequential run grow past the values, but the bindings filter them as an int
+    start = Math.min(start, Integer.MAX_VALUE);
+    long end = Math.min(start + width - 1, Integer.MAX_VALUE);
+
+    firstSearchNs.compareAndSet(0, System.nanoTime());
+    final int[] rows = new int[1];
+    long st = System.nanoTime();
+    Status status = db.streamScanWithCreatedTimeFilter(TABLE, Long.toString(start), Long.toString(end), maxRows,
+        null, row -> {
+          rows[0]++;
+          return true;
+        });
+    long en = System.nanoTime();
+
+    Measurements measurements = Measurements.getMeasurements();
+    measurements.measure("SECONDARY_INDEX_SEARCH", (int) ((en - st) / 1000));
+    measurements.measure("SECONDARY_INDEX_ROWS", rows[0]);
+    searches.increment();
+    rowsReturned.add(rows[0]);
     return status.isOk();
   }
+
+  @Override
+  public void cleanup() throws WorkloadException {
+    long first = firstSearchNs.get();
+    if (first == 0) {
+      return;
+    }
+    double seconds = (System.nanoTime() - first) / 1e9;
+    long rows = rowsReturned.sum();
+    System.err.println(String.format("Secondary index searches: %d, rows returned: %d (%.1f rows/sec, %.1f per " +
+        "search)", searches.sum(), rows, rows / seconds, (double) rows / searches.sum()));
+  }
 }
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.DB;
+import site.ycsb.RandomByteIterator;
+import site.ycsb.Workload;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+import site.ycsb.trace.TraceReader;
+import site.ycsb.trace.TraceWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a trace recorded with {@link TraceWriter#RECORD_PROPERTY}, so that a DB can be benchmarked with the
+ * operations of a real application rather than a synthetic mix. Written values are random bytes of the recorded
+ * sizes.
+ *
+ * The records are partitioned among the client threads by the hash of their key, so the operations on one key are
+ * issued by one thread, in the order they were recorded. Every thread reads the whole trace and skips the records of
+ * the others, which is cheap as the trace is memory-mapped and keys are only decoded for the records replayed.
+ * A thread is done at the end of the trace, so set operationcount to at least the number of records in the trace
+ * to replay all of it.
+ *
+ * Properties to control the replay:
+ * <UL>
+ * <LI><b>trace.file</b>: the trace to replay (required)
+ * <LI><b>trace.speed</b>: the speed to replay the trace at, as a multiple of the recorded one, or 0 to replay it
+ * as fast as possible (default: 1). When paced, the latency including any time an operation was late is measured
+ * from its scheduled time, as with a target throughput.
+ * </ul>
+ */
+public class TraceReplayWorkload extends Workload {
+  /** The trace to replay. */
+  public static final String TRACE_FILE_PROPERTY = "trace.file";
+
+  /** The speed to replay the trace at, as a multiple of the recorded one, or 0 for as fast as possible. */
+  public static final String TRACE_SPEED_PROPERTY = "trace.speed";
+  public static final String TRACE_SPEED_PROPERTY_DEFAULT = "1";
+
+  private File trace;
+  private double speed;
+  private final AtomicLong startNs = new AtomicLong();
+  private final List<TraceReader> readers = new ArrayList<>();
+
+  private static final class ReplayState {
+    private final TraceReader reader;
+    private final int threadid;
+    private final int threadcount;
+    private long firstUs = -1;
+
+    private ReplayState(TraceReader reader, int threadid, int threadcount) {
+      this.reader = reader;
+      this.threadid = threadid;
+      this.threadcount = threadcount;
+    }
+  }
+
+  @Override
+  public void init(Properties p) throws WorkloadException {
+    String file = p.getProperty(TRACE_FILE_PROPERTY);
+    if (file == null) {
+      throw new WorkloadException("Missing property: " + TRACE_FILE_PROPERTY);
+    }
+    trace = new File(file);
+    speed = Double.parseDouble(p.getProperty(TRACE_SPEED_PROPERTY, TRACE_SPEED_PROPERTY_DEFAULT));
+    if (speed < 0) {
+      throw new WorkloadException(TRACE_SPEED_PROPERTY + " must not be negative");
+    }
+  }
+
+  @Override
+  public Object initThread(Properties p, int mythreadid, int threadcount) throws WorkloadException {
+    try {
+      TraceReader reader = new TraceReader(trace);
+      synchronized (readers) {
+        readers.add(reader);
+      }
+      return new ReplayState(reader, mythreadid, threadcount);
+    } catch (IOException e) {
+      throw new WorkloadException("Could not open the trace " + trace, e);
+    }
+  }
+
+  @Override
+  public void cleanup() throws WorkloadException {
+    synchronized (readers) {
+      for (TraceReader reader : readers) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }
+      readers.clear();
+    }
+  }
+
+  @Override
+  public boolean doInsert(DB db, Object threadstate) {
+    return doTransaction(db, threadstate);
+  }
+
+  @Override
+  public boolean doTransaction(DB db, Object threadstate) {
+    ReplayState state = (ReplayState) threadstate;
+    TraceReader reader = state.reader;
+    try {
+      do {
+        if (!reader.next()) {
+          return false;
+        }
+        if (state.firstUs < 0) {
+          state.firstUs = reader.getTimeUs();
+        }
+      } while (Long.remainderUnsigned(reader.getKeyHash(), state.threadcount) != state.threadid);
+    } catch (IOException e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+      return false;
+    }
+
+    if (speed > 0) {
+      pace(reader.getTimeUs() - state.firstUs);
+    }
+
+    String table = reader.getTable();
+    String key = reader.getKey();
+    switch (reader.getOperation()) {
+    case READ:
+      db.read(table, key, fields(reader), new HashMap<String, ByteIterator>());
+      break;
+    case SCAN:
+      db.scan(table, key, reader.getRecordCount(), fields(reader), new Vector<HashMap<String, ByteIterator>>());
+      break;
+    case UPDATE:
+      db.update(table, key, values(reader));
+      break;
+    case INSERT:
+      db.insert(table, key, values(reader));
+      break;
+    case DELETE:
+      db.delete(table, key);
+      break;
+    default:
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Wait until the operation recorded the given time after the first one is due.
+   */
+  private void pace(long offsetUs) {
+    long start = startNs.get();
+    if (start == 0) {
+      startNs.compareAndSet(0, System.nanoTime());
+      start = startNs.get();
+    }
+    long deadline = start + (long) (offsetUs * 1000 / speed);
+    long now;
+    while ((now = System.nanoTime()) < deadline) {
+      LockSupport.parkNanos(deadline - now);
+    }
+    Measurements.getMeasurements().setIntendedStartTimeNs(deadline);
+  }
+
+  private static Set<String> fields(TraceReader reader) {
+    return reader.isAllFields() ? null : new HashSet<>(reader.getFields());
+  }
+
+  private static Map<String, ByteIterator> values(TraceReader reader) {
+    List<String> fields = reader.getFields();
+    Map<String, ByteIterator> values = new HashMap<>();
+    for (int i = 0; i < fields.size(); i++) {
+      values.put(fields.get(i), new RandomByteIterator(reader.getValueSize(i)));
+    }
+    return values;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package site.ycsb.workloads;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import site.ycsb.generator.AcknowledgedCounterGenerator;
+
+/**
+ * An append-only store of UUIDs shared by all client threads, at two longs per UUID instead of the ~100 bytes of a
+ * String in a list, so that the keys of billions of operations fit in a small heap, or off the heap.
+ *
+ * The UUIDs are kept in chunks of {@value #CHUNK_SIZE}, allocated as they fill up. An append reserves the next
+ * index and writes the UUID there without locking; the {@link AcknowledgedCounterGenerator} then makes it
+ * visible once all UUIDs before it are written too, so readers only ever see complete UUIDs.
+ */
+final class UuidStore {
+  static final int CHUNK_SIZE = 1 << 20;
+  private static final int MAX_CHUNKS = 1 << 14;
+
+  private final boolean offHeap;
+  private final AtomicReferenceArray<LongBuffer> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+  private final AcknowledgedCounterGenerator index = new AcknowledgedCounterGenerator(0);
+
+  /**
+   * @param offHeap Whether to keep the UUIDs in direct buffers rather than on the heap.
+   */
+  UuidStore(boolean offHeap) {
+    this.offHeap = offHeap;
+  }
+
+  /**
+   * Append a UUID, to be returned by {@link #get(long)} once all UUIDs appended before it are written too.
+   */
+  void add(UUID uuid) {
+    long i = index.nextValue();
+    int c = (int) (i / CHUNK_SIZE);
+    if (c >= MAX_CHUNKS) {
+      throw new IllegalStateException("More than " + (long) MAX_CHUNKS * CHUNK_SIZE + " UUIDs");
+    }
+    LongBuffer chunk = chunks.get(c);
+    if (chunk == null) {
+      chunk = allocate();
+      if (!chunks.compareAndSet(c, null, chunk)) {
+        chunk = chunks.get(c);
+      }
+    }
+    int offset = 2 * (int) (i % CHUNK_SIZE);
+    chunk.put(offset, uuid.getMostSignificantBits());
+    chunk.put(offset + 1, uuid.getLeastSignificantBits());
+    index.acknowledge(i);
+  }
+
+  private LongBuffer allocate() {
+    if (offHeap) {
+      return ByteBuffer.allocateDirect(2 * Long.BYTES * CHUNK_SIZE).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+    return LongBuffer.wrap(new long[2 * CHUNK_SIZE]);
+  }
+
+  /**
+   * @return The number of UUIDs that can be read.
+   */
+  long size() {
+    return index.lastValue() + 1;
+  }
+
+  /**
+   * @param i The index of the UUID, less than {@link #size()}.
+   * @return The UUID appended at that index.
+   */
+  UUID get(long i) {
+    LongBuffer chunk = chunks.get((int) (i / CHUNK_SIZE));
+    int offset = 2 * (int) (i % CHUNK_SIZE);
+    return new UUID(chunk.get(offset), chunk.get(offset + 1));
+  }
+}
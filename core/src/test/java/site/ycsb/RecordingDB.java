@@ -0,0 +1,312 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A DB for tests that keeps its rows in memory, sorted by key, and records the operations it was given, from any
+ * thread.
+ *
+ * Each operation is recorded as "OPERATION key detail": the fields read ("all" for all of them), the number of
+ * records a scan asked for, or the number of bytes of the values written. The values written are read as a binding
+ * would read them, so their iterators are used up. A versioned update from a stale version is refused, and the rows
+ * are searched by created time on their startTime field, as a long.
+ */
+public class RecordingDB extends DB {
+  private final NavigableMap<String, Map<String, byte[]>> rows = new TreeMap<>();
+  private final Map<String, Long> versions = new HashMap<>();
+  private final NavigableMap<Long, List<String>> createdTimes = new TreeMap<>();
+  private final Map<String, List<Map<String, String>>> writes = new HashMap<>();
+  private final List<String> operations = new ArrayList<>();
+  private final List<Map<String, ByteIterator>> handedOver = new ArrayList<>();
+  private final List<Integer> returned = new ArrayList<>();
+  private int conflicts;
+
+  private volatile long versionedUpdateDelayNanos;
+  private volatile Thread held;
+  private final CountDownLatch entered = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  /**
+   * Waits before each versioned update, to widen the window between reading a version and writing it.
+   */
+  public void setVersionedUpdateDelay(long nanos) {
+    versionedUpdateDelayNanos = nanos;
+  }
+
+  /**
+   * Makes the next versioned update of a thread wait, after it sent its version, until {@link #release()}.
+   */
+  public void hold(Thread thread) {
+    held = thread;
+  }
+
+  /**
+   * Waits for the held thread to send its versioned update.
+   */
+  public void awaitHeld() throws InterruptedException {
+    entered.await();
+  }
+
+  /**
+   * Lets the held thread go on with its versioned update.
+   */
+  public void release() {
+    release.countDown();
+  }
+
+  /** @return The operations, in the order they arrived. */
+  public synchronized List<String> getOperations() {
+    return new ArrayList<>(operations);
+  }
+
+  /** @return The values maps of the inserts and updates, as they were handed over. */
+  public synchronized List<Map<String, ByteIterator>> getValues() {
+    return new ArrayList<>(handedOver);
+  }
+
+  /** @return The number of rows each scan returned, in the order of the scans. */
+  public synchronized List<Integer> getReturned() {
+    return new ArrayList<>(returned);
+  }
+
+  /** @return The number of versioned updates refused. */
+  public synchronized int getConflicts() {
+    return conflicts;
+  }
+
+  /** @return The keys of the rows, in order. */
+  public synchronized List<String> getKeys() {
+    return new ArrayList<>(rows.keySet());
+  }
+
+  /** @return The fields of a row, or null if there is no such row. */
+  public synchronized Map<String, String> getRow(String key) {
+    Map<String, byte[]> row = rows.get(key);
+    return row == null ? null : decode(row);
+  }
+
+  /** @return The keys of the rows by created time, each in the order they were inserted. */
+  public synchronized NavigableMap<Long, List<String>> getCreatedTimes() {
+    NavigableMap<Long, List<String>> copy = new TreeMap<>();
+    for (Map.Entry<Long, List<String>> entry : createdTimes.entrySet()) {
+      copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+    }
+    return copy;
+  }
+
+  /** @return The values a field of a row was written with, by inserts and updates, in order. */
+  public synchronized List<String> getHistory(String key, String field) {
+    List<String> history = new ArrayList<>();
+    List<Map<String, String>> written = writes.get(key);
+    if (written != null) {
+      for (Map<String, String> fields : written) {
+        if (fields.containsKey(field)) {
+          history.add(fields.get(field));
+        }
+      }
+    }
+    return history;
+  }
+
+  @Override
+  public synchronized Status read(String table, String key, Set<String> fields, Map<String, ByteIterator> result) {
+    operations.add("READ " + key + " " + (fields == null ? "all" : fields));
+    Map<String, byte[]> row = rows.get(key);
+    if (row == null) {
+      return Status.NOT_FOUND;
+    }
+    copy(row, fields, result);
+    return Status.OK;
+  }
+
+  @Override
+  public synchronized Status scan(String table, String startkey, int recordcount, Set<String> fields,
+                                  Vector<HashMap<String, ByteIterator>> result) {
+    operations.add("SCAN " + startkey + " " + recordcount);
+    for (Map<String, byte[]> row : rows.tailMap(startkey, true).values()) {
+      if (result.size() == recordcount) {
+        break;
+      }
+      result.add(copy(row, fields, new HashMap<>()));
+    }
+    returned.add(result.size());
+    return Status.OK;
+  }
+
+  @Override
+  public synchronized Status scanWithCreatedTimeFilter(String table, String startRange, String endRange,
+                                                       int recordCount, Set<String> fields,
+                                                       Vector<HashMap<String, ByteIterator>> result) {
+    operations.add("SCAN_CREATED_TIME " + startRange + " " + endRange + " " + recordCount);
+    long start = Long.parseLong(startRange);
+    long end = Long.parseLong(endRange);
+    for (List<String> keys : createdTimes.subMap(start, true, end, true).values()) {
+      for (String key : keys) {
+        if (result.size() == recordCount) {
+          break;
+        }
+        result.add(copy(rows.get(key), fields, new HashMap<>()));
+      }
+    }
+    returned.add(result.size());
+    return Status.OK;
+  }
+
+  @Override
+  public synchronized Status scanWithNamespaceKeyFilter(String table, String startKey, String endKey,
+                                                        int recordCount, Set<String> fields,
+                                                        Vector<HashMap<String, ByteIterator>> result) {
+    operations.add("SCAN_NAMESPACE " + startKey + " " + endKey + " " + recordCount);
+    for (Map<String, byte[]> row : rows.subMap(startKey, true, endKey, true).values()) {
+      if (result.size() == recordCount) {
+        break;
+      }
+      result.add(copy(row, fields, new HashMap<>()));
+    }
+    returned.add(result.size());
+    return Status.OK;
+  }
+
+  @Override
+  public synchronized Status update(String table, String key, Map<String, ByteIterator> values) {
+    handedOver.add(values);
+    Map<String, byte[]> written = toBytes(values);
+    operations.add("UPDATE " + key + " " + bytes(written));
+    if (!rows.containsKey(key)) {
+      return Status.NOT_FOUND;
+    }
+    write(key, written);
+    versions.put(key, versions.get(key) + 1);
+    return Status.OK;
+  }
+
+  @Override
+  public Pair findAndUpdate(String table, String key, Object version, Map<String, ByteIterator> values) {
+    if (Thread.currentThread() == held) {
+      entered.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new Pair(Status.ERROR, null);
+      }
+    }
+    long delay = versionedUpdateDelayNanos;
+    if (delay > 0) {
+      LockSupport.parkNanos(delay);
+    }
+    synchronized (this) {
+      handedOver.add(values);
+      Map<String, byte[]> written = toBytes(values);
+      operations.add("FIND_AND_UPDATE " + key + " " + bytes(written));
+      Long current = versions.get(key);
+      if (current == null) {
+        return new Pair(Status.NOT_FOUND, null);
+      }
+      if (version != null && !version.equals(current)) {
+        conflicts++;
+        return new Pair(Status.ERROR, null);
+      }
+      write(key, written);
+      versions.put(key, current + 1);
+      return new Pair(Status.OK, current + 1);
+    }
+  }
+
+  @Override
+  public synchronized Status insert(String table, String key, Map<String, ByteIterator> values) {
+    handedOver.add(values);
+    Map<String, byte[]> written = toBytes(values);
+    operations.add("INSERT " + key + " " + bytes(written));
+    byte[] startTime = written.get("startTime");
+    if (startTime != null && startTime.length == 8) {
+      createdTimes.computeIfAbsent(Utils.bytesToLong(startTime), t -> new ArrayList<>()).add(key);
+    }
+    rows.put(key, new HashMap<String, byte[]>());
+    writes.put(key, new ArrayList<Map<String, String>>());
+    write(key, written);
+    versions.put(key, 0L);
+    return Status.OK;
+  }
+
+  @Override
+  public synchronized Status delete(String table, String key) {
+    operations.add("DELETE " + key);
+    Map<String, byte[]> row = rows.remove(key);
+    if (row == null) {
+      return Status.NOT_FOUND;
+    }
+    byte[] startTime = row.get("startTime");
+    if (startTime != null && startTime.length == 8) {
+      createdTimes.get(Utils.bytesToLong(startTime)).remove(key);
+    }
+    versions.remove(key);
+    return Status.OK;
+  }
+
+  private void write(String key, Map<String, byte[]> written) {
+    rows.get(key).putAll(written);
+    writes.get(key).add(decode(written));
+  }
+
+  private static Map<String, byte[]> toBytes(Map<String, ByteIterator> values) {
+    Map<String, byte[]> bytes = new HashMap<>();
+    for (Map.Entry<String, ByteIterator> value : values.entrySet()) {
+      bytes.put(value.getKey(), value.getValue().toArray());
+    }
+    return bytes;
+  }
+
+  private static long bytes(Map<String, byte[]> values) {
+    long bytes = 0;
+    for (byte[] value : values.values()) {
+      bytes += value.length;
+    }
+    return bytes;
+  }
+
+  private static Map<String, String> decode(Map<String, byte[]> values) {
+    Map<String, String> decoded = new HashMap<>();
+    for (Map.Entry<String, byte[]> value : values.entrySet()) {
+      decoded.put(value.getKey(), new String(value.getValue(), StandardCharsets.UTF_8));
+    }
+    return decoded;
+  }
+
+  private static <M extends Map<String, ByteIterator>> M copy(Map<String, byte[]> row, Set<String> fields,
+                                                              M result) {
+    for (Map.Entry<String, byte[]> value : row.entrySet()) {
+      if (fields == null || fields.contains(value.getKey())) {
+        result.put(value.getKey(), new ByteArrayByteIterator(value.getValue()));
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2017 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+public class TestArrivalScheduler {
+
+  private static class IdleWorkload extends Workload {
+    @Override
+    public boolean doInsert(DB db, Object threadstate) {
+      return true;
+    }
+
+    @Override
+    public boolean doTransaction(DB db, Object threadstate) {
+      return true;
+    }
+  }
+
+  @Test
+  public void closedLoopHasNoScheduler() throws Exception {
+    assertNull(ArrivalScheduler.create(new Properties(), new IdleWorkload(), 10));
+  }
+
+  @Test
+  public void constantArrivalsAreEvenlySpaced() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(ArrivalScheduler.ARRIVAL_PROCESS_PROPERTY, "constant");
+    props.setProperty(Client.TARGET_PROPERTY, "10000");
+
+    ArrivalScheduler scheduler = ArrivalScheduler.create(props, new IdleWorkload(), 50);
+    scheduler.start();
+
+    Long previous = scheduler.next();
+    for (int i = 1; i < 50; i++) {
+      Long arrival = scheduler.next();
+      assertEquals(arrival - previous, 100000L);
+      previous = arrival;
+    }
+    assertNull(scheduler.next());
+  }
+
+  @Test
+  public void replayedArrivalsCycle() throws Exception {
+    File trace = File.createTempFile("arrivals", ".txt");
+    trace.deleteOnExit();
+    try (FileWriter writer = new FileWriter(trace)) {
+      writer.write("# gaps in microseconds\n10\n30\n");
+    }
+
+    Properties props = new Properties();
+    props.setProperty(ArrivalScheduler.ARRIVAL_PROCESS_PROPERTY, "replay");
+    props.setProperty(ArrivalScheduler.ARRIVAL_REPLAY_FILE_PROPERTY, trace.getAbsolutePath());
+
+    ArrivalScheduler scheduler = ArrivalScheduler.create(props, new IdleWorkload(), 5);
+    scheduler.start();
+
+    long[] expected = {30000L, 10000L, 30000L, 10000L};
+    Long previous = scheduler.next();
+    for (long gap : expected) {
+      Long arrival = scheduler.next();
+      assertEquals(arrival - previous, gap);
+      previous = arrival;
+    }
+    assertNull(scheduler.next());
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void poissonNeedsTarget() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(ArrivalScheduler.ARRIVAL_PROCESS_PROPERTY, "poisson");
+    ArrivalScheduler.create(props, new IdleWorkload(), 10);
+  }
+
+  @Test
+  public void stopsWhenWorkloadStops() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(ArrivalScheduler.ARRIVAL_PROCESS_PROPERTY, "poisson");
+    props.setProperty(Client.TARGET_PROPERTY, "1000");
+
+    Workload workload = new IdleWorkload();
+    ArrivalScheduler scheduler = ArrivalScheduler.create(props, workload, 0);
+    scheduler.start();
+    assertTrue(scheduler.next() != null);
+
+    workload.requestStop();
+    scheduler.join(5000);
+    while (scheduler.next() != null) {
+      // drain what was scheduled before the stop
+    }
+  }
+}
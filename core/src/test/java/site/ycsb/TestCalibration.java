@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.testng.annotations.Test;
+import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.RawLatencyLog;
+import site.ycsb.workloads.CoreWorkload;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestCalibration {
+
+  private static Properties calibrationProperties() {
+    Properties props = new Properties();
+    props.setProperty(Client.WORKLOAD_PROPERTY, CoreWorkload.class.getName());
+    props.setProperty(Client.RECORD_COUNT_PROPERTY, "100");
+    props.setProperty(Calibration.CALIBRATE_PROPERTY, "true");
+    props.setProperty(Calibration.TIME_PROPERTY, "1");
+    return props;
+  }
+
+  @Test
+  public void disabledByDefault() {
+    Properties props = calibrationProperties();
+    props.remove(Calibration.CALIBRATE_PROPERTY);
+    assertNull(Calibration.create(props, 1, null));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsMarginOfOne() {
+    Properties props = calibrationProperties();
+    props.setProperty(Calibration.MARGIN_PROPERTY, "1");
+    Calibration.create(props, 1, null);
+  }
+
+  @Test
+  public void measuresCeilingAndDiscardsMeasurements() throws Exception {
+    Properties props = calibrationProperties();
+    Measurements.setProperties(props);
+    Tracer tracer = new Tracer.Builder("TestCalibration").conf(HTraceConfiguration.EMPTY).build();
+
+    Calibration calibration = Calibration.create(props, 2, tracer);
+    assertTrue(calibration.run());
+
+    assertTrue(calibration.getCeiling() > 0);
+    assertTrue(calibration.getOverhead().getTotalCount() > 0);
+    assertTrue(calibration.getOverhead().getValueAtPercentile(50) > 0);
+    assertTrue(calibration.isNearCeiling(calibration.getCeiling()));
+    assertTrue(calibration.isNearCeiling(0.9 * calibration.getCeiling()));
+    assertFalse(calibration.isNearCeiling(0.7 * calibration.getCeiling()));
+    assertEquals(Measurements.getMeasurements().getMaxPercentileLatency(99), 0);
+  }
+
+  @Test
+  public void leavesTheRawLatencyLogEmpty() throws Exception {
+    Properties props = calibrationProperties();
+    String path = new File(Files.createTempDirectory("rawlog").toFile(), "log").getPath();
+    props.setProperty(RawLatencyLog.PATH_PROPERTY, path);
+    Measurements.setProperties(props);
+    Tracer tracer = new Tracer.Builder("TestCalibration").conf(HTraceConfiguration.EMPTY).build();
+
+    Calibration calibration = Calibration.create(props, 1, tracer);
+    assertTrue(calibration.run());
+    assertTrue(calibration.getOverhead().getTotalCount() > 0);
+
+    Measurements.getMeasurements().closeRawLog();
+    // a record starts with its operation ID plus one, the unused end of a segment with zeros
+    try (DataInputStream segment = new DataInputStream(new FileInputStream(path + ".0.bin"))) {
+      assertEquals(segment.readInt(), 0);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2017 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.measurements.exporter.TextMeasurementsExporter;
+
+public class TestCoordinator {
+
+  @Test
+  public void loadSplitsKeyRange() {
+    Properties props = new Properties();
+    props.setProperty(Client.DO_TRANSACTIONS_PROPERTY, "false");
+    props.setProperty(Client.RECORD_COUNT_PROPERTY, "1010");
+    props.setProperty(Workload.INSERT_START_PROPERTY, "10");
+    props.setProperty(Client.TARGET_PROPERTY, "100");
+
+    long next = 10;
+    for (int agent = 0; agent < 3; agent++) {
+      Properties agentProps = Coordinator.agentProperties(props, agent, 3);
+      assertEquals(Long.parseLong(agentProps.getProperty(Workload.INSERT_START_PROPERTY)), next);
+      next += Long.parseLong(agentProps.getProperty(Client.INSERT_COUNT_PROPERTY));
+      assertEquals(agentProps.getProperty(Client.TARGET_PROPERTY), agent == 0 ? "34" : "33");
+    }
+    assertEquals(next, 1010);
+  }
+
+  @Test
+  public void transactionsSplitOperationCount() {
+    Properties props = new Properties();
+    props.setProperty(Client.OPERATION_COUNT_PROPERTY, "1001");
+
+    assertEquals(Coordinator.agentProperties(props, 0, 2).getProperty(Client.OPERATION_COUNT_PROPERTY), "501");
+    assertEquals(Coordinator.agentProperties(props, 1, 2).getProperty(Client.OPERATION_COUNT_PROPERTY), "500");
+  }
+
+  @Test
+  public void mergesAgentsOnLocalhost() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(Client.WORKLOAD_PROPERTY, "site.ycsb.workloads.CoreWorkload");
+    props.setProperty(Client.RECORD_COUNT_PROPERTY, "100");
+    props.setProperty(Client.OPERATION_COUNT_PROPERTY, "1000");
+    props.setProperty(Client.THREAD_COUNT_PROPERTY, "2");
+    props.setProperty("readproportion", "1");
+    props.setProperty("updateproportion", "0");
+    props.setProperty("basicdb.verbose", "false");
+    props.setProperty(Coordinator.AGENTS_PROPERTY, "2");
+    props.setProperty(Coordinator.PORT_PROPERTY, "0");
+
+    Coordinator coordinator = new Coordinator(props);
+    String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    List<Process> agents = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      agents.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Agent.class.getName(),
+          "localhost:" + coordinator.getPort()).inheritIO().start());
+    }
+
+    assertTrue(coordinator.run());
+    for (Process agent : agents) {
+      assertTrue(agent.waitFor(60, TimeUnit.SECONDS));
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextMeasurementsExporter exporter = new TextMeasurementsExporter(out);
+    coordinator.exportMeasurements(exporter);
+    exporter.close();
+    String report = out.toString("UTF-8");
+    assertTrue(report.contains("[READ], Operations, 1000"), report);
+    assertTrue(report.contains("[READ], Return=OK, 1000"), report);
+    assertTrue(report.contains("[AGENT-0], Operations, 500"), report);
+    assertTrue(report.contains("[AGENT-1], Operations, 500"), report);
+  }
+
+  @Test
+  public void readsAgentReports() throws Exception {
+    Properties props = new Properties();
+    props.setProperty("x", "y");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(props);
+      out.writeObject(new Coordinator.AgentReport(1, 2, Collections.emptyMap(),
+          Collections.singletonMap("READ", Collections.singletonMap("OK", 1L))));
+    }
+
+    try (Coordinator.MessageInputStream in =
+             new Coordinator.MessageInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertEquals(in.readObject(), props);
+      Coordinator.AgentReport report = (Coordinator.AgentReport) in.readObject();
+      assertEquals(report.getStatusCounts().get("READ").get("OK"), Long.valueOf(1));
+    }
+  }
+
+  @Test(expectedExceptions = InvalidClassException.class)
+  public void refusesOtherClasses() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(new ArrayList<>(Collections.singletonList("x")));
+    }
+
+    try (Coordinator.MessageInputStream in =
+             new Coordinator.MessageInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      in.readObject();
+    }
+  }
+}
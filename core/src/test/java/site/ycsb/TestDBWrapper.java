@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import org.HdrHistogram.Histogram;
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.testng.annotations.Test;
+import site.ycsb.measurements.Measurements;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class TestDBWrapper {
+
+  /** Scans the given number of rows, each with its row number in field0. */
+  private static class RowsDB extends CalibrationDB {
+    protected final int rows;
+
+    private RowsDB(int rows) {
+      this.rows = rows;
+    }
+
+    @Override
+    public Status scan(String table, String startkey, int recordcount, Set<String> fields,
+                       Vector<HashMap<String, ByteIterator>> result) {
+      for (int i = 0; i < Math.min(rows, recordcount); i++) {
+        HashMap<String, ByteIterator> row = new HashMap<>();
+        row.put("field0", new StringByteIterator(String.valueOf(i)));
+        result.add(row);
+      }
+      return Status.OK;
+    }
+  }
+
+  /** Hands each row to the consumer as soon as it was made, as a binding that streams natively does. */
+  private static final class StreamingRowsDB extends RowsDB {
+    private StreamingRowsDB(int rows) {
+      super(rows);
+    }
+
+    @Override
+    public Status streamScan(String table, String startkey, int recordcount, Set<String> fields,
+                             RowConsumer consumer) {
+      Map<String, ByteIterator> row = new HashMap<>();
+      for (int i = 0; i < Math.min(rows, recordcount); i++) {
+        row.clear();
+        row.put("field0", new StringByteIterator(String.valueOf(i)));
+        if (!consumer.accept(row)) {
+          break;
+        }
+      }
+      return Status.OK;
+    }
+  }
+
+  private static DBWrapper wrap(DB db) throws DBException {
+    Properties props = new Properties();
+    Measurements.setProperties(props);
+    Measurements.getMeasurements().reset();
+    DBWrapper wrapper = new DBWrapper(db, new Tracer.Builder("TestDBWrapper").conf(HTraceConfiguration.EMPTY).build());
+    wrapper.setProperties(props);
+    wrapper.init();
+    return wrapper;
+  }
+
+  @Test
+  public void streamScanEndsEarlyAndMeasuresTheFirstRow() throws Exception {
+    DBWrapper db = wrap(new StreamingRowsDB(5));
+    final List<String> seen = new ArrayList<>();
+    Status status = db.streamScan("usertable", "user0", 10, null, row -> {
+        seen.add(row.get("field0").toString());
+        return seen.size() < 2;
+      });
+
+    assertEquals(status, Status.OK);
+    assertEquals(seen.size(), 2);
+    assertEquals(seen.get(0), "0");
+    assertEquals(seen.get(1), "1");
+    Map<String, Histogram> histograms = Measurements.getMeasurements().getTotalHistograms();
+    assertEquals(histograms.get("SCAN").getTotalCount(), 1);
+    assertEquals(histograms.get("SCAN-FIRST_ROW").getTotalCount(), 1);
+  }
+
+  @Test
+  public void emptyStreamScanHasNoFirstRow() throws Exception {
+    DBWrapper db = wrap(new StreamingRowsDB(0));
+    Status status = db.streamScan("usertable", "user0", 10, null, row -> true);
+
+    assertEquals(status, Status.OK);
+    Map<String, Histogram> histograms = Measurements.getMeasurements().getTotalHistograms();
+    assertEquals(histograms.get("SCAN").getTotalCount(), 1);
+    assertFalse(histograms.containsKey("SCAN-FIRST_ROW"));
+  }
+
+  @Test
+  public void collectedStreamScanHasNoFirstRow() throws Exception {
+    DBWrapper db = wrap(new RowsDB(5));
+    final List<String> seen = new ArrayList<>();
+    Status status = db.streamScan("usertable", "user0", 10, null, row -> seen.add(row.get("field0").toString()));
+
+    // the first row only arrives once all rows were collected, so its time would be that of the whole scan
+    assertEquals(status, Status.OK);
+    assertEquals(seen.size(), 5);
+    Map<String, Histogram> histograms = Measurements.getMeasurements().getTotalHistograms();
+    assertEquals(histograms.get("SCAN").getTotalCount(), 1);
+    assertFalse(histograms.containsKey("SCAN-FIRST_ROW"));
+  }
+
+  @Test
+  public void collectIntoCopiesReusedRows() {
+    Vector<HashMap<String, ByteIterator>> result = new Vector<>();
+    RowConsumer consumer = RowConsumer.collectInto(result);
+    Map<String, ByteIterator> row = new HashMap<>();
+    for (int i = 0; i < 3; i++) {
+      row.clear();
+      row.put("field0", new StringByteIterator(String.valueOf(i)));
+      consumer.accept(row);
+    }
+
+    assertEquals(result.size(), 3);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(result.get(i).get("field0").toString(), String.valueOf(i));
+    }
+  }
+}
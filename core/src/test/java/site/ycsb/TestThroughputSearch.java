@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.testng.annotations.Test;
+import site.ycsb.measurements.Measurements;
+import site.ycsb.workloads.CoreWorkload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestThroughputSearch {
+
+  private static Properties searchProperties() {
+    Properties props = new Properties();
+    props.setProperty(Client.WORKLOAD_PROPERTY, CoreWorkload.class.getName());
+    props.setProperty(Client.RECORD_COUNT_PROPERTY, "100");
+    props.setProperty(BasicDB.VERBOSE, "false");
+    props.setProperty(ThroughputSearch.SLO_P99_PROPERTY, "1000000");
+    props.setProperty(ThroughputSearch.TRIAL_TIME_PROPERTY, "1");
+    return props;
+  }
+
+  /**
+   * Creates client threads whose opcount is far below what any trial does, so trials only pass if they ignore it.
+   */
+  private static List<ClientThread> clients(Properties props, int threadcount) throws Exception {
+    Measurements.setProperties(props);
+    Measurements.getMeasurements().reset();
+    Tracer tracer = new Tracer.Builder("TestThroughputSearch").conf(HTraceConfiguration.EMPTY).build();
+    Workload workload = new CoreWorkload();
+    workload.init(props);
+    CountDownLatch completeLatch = new CountDownLatch(threadcount);
+    List<ClientThread> clients = new ArrayList<>(threadcount);
+    for (int threadid = 0; threadid < threadcount; threadid++) {
+      DB db = DBFactory.newDB(BasicDB.class.getName(), props, tracer);
+      ClientThread client = new ClientThread(db, true, workload, props, 5, 0, completeLatch);
+      client.setThreadId(threadid);
+      client.setThreadCount(threadcount);
+      clients.add(client);
+    }
+    return clients;
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void needsAnSlo() throws Exception {
+    Properties props = searchProperties();
+    props.remove(ThroughputSearch.SLO_P99_PROPERTY);
+    new ThroughputSearch(props, clients(props, 1));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void needsPercentiles() throws Exception {
+    Properties props = searchProperties();
+    props.setProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "histogram");
+    new ThroughputSearch(props, clients(props, 1));
+  }
+
+  @Test
+  public void acceptsHdrTimeSeries() throws Exception {
+    Properties props = searchProperties();
+    props.setProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "hdrtimeseries");
+    props.setProperty(ThroughputSearch.STRATEGY_PROPERTY, "ramp");
+    props.setProperty(ThroughputSearch.MIN_TARGET_PROPERTY, "100");
+    props.setProperty(ThroughputSearch.MAX_TARGET_PROPERTY, "100");
+
+    ThroughputSearch search = new ThroughputSearch(props, clients(props, 1));
+    assertTrue(search.run());
+    assertTrue(search.getBest().isPassed());
+  }
+
+  @Test
+  public void rampRunsEveryTargetUpToTheMaximum() throws Exception {
+    Properties props = searchProperties();
+    props.setProperty(ThroughputSearch.STRATEGY_PROPERTY, "ramp");
+    props.setProperty(ThroughputSearch.MIN_TARGET_PROPERTY, "100");
+    props.setProperty(ThroughputSearch.STEP_PROPERTY, "100");
+    props.setProperty(ThroughputSearch.MAX_TARGET_PROPERTY, "300");
+
+    ThroughputSearch search = new ThroughputSearch(props, clients(props, 2));
+    assertTrue(search.run());
+
+    assertEquals(search.getTrials().size(), 3);
+    for (int i = 0; i < 3; i++) {
+      ThroughputSearch.Trial trial = search.getTrials().get(i);
+      assertEquals(trial.getTarget(), 100.0 * (i + 1));
+      assertTrue(trial.isPassed(), "trial at " + trial.getTarget() + " did " + trial.getThroughput());
+    }
+    assertEquals(search.getBest().getTarget(), 300.0);
+  }
+
+  @Test
+  public void binarySearchConvergesOnTheCeiling() throws Exception {
+    Properties props = searchProperties();
+    // a single thread doing 10ms operations back to back cannot exceed 100 ops/sec
+    props.setProperty(BasicDB.SIMULATE_DELAY, "10");
+    props.setProperty(BasicDB.RANDOMIZE_DELAY, "false");
+    props.setProperty(ThroughputSearch.STRATEGY_PROPERTY, "binary");
+    props.setProperty(ThroughputSearch.MIN_TARGET_PROPERTY, "20");
+    props.setProperty(ThroughputSearch.MAX_TARGET_PROPERTY, "400");
+    props.setProperty(ThroughputSearch.PRECISION_PROPERTY, "0.5");
+
+    ThroughputSearch search = new ThroughputSearch(props, clients(props, 1));
+    assertTrue(search.run());
+
+    List<ThroughputSearch.Trial> trials = search.getTrials();
+    assertTrue(trials.size() > 2);
+    assertEquals(trials.get(0).getTarget(), 20.0);
+    assertTrue(trials.get(0).isPassed());
+    assertEquals(trials.get(1).getTarget(), 400.0);
+    assertFalse(trials.get(1).isPassed());
+    assertTrue(trials.get(1).getThroughput() <= 100);
+    assertEquals(trials.get(2).getTarget(), 210.0);
+    assertFalse(trials.get(2).isPassed());
+
+    ThroughputSearch.Trial best = search.getBest();
+    assertNotNull(best);
+    assertTrue(best.getTarget() >= 20 && best.getTarget() <= 100, "best target " + best.getTarget());
+    assertTrue(best.getThroughput() > 5, "best throughput " + best.getThroughput());
+  }
+}
@@ -16,12 +16,17 @@
  */
 package site.ycsb.generator;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
+
 /**
  * Tests for the AcknowledgedCounterGenerator class.
  */
@@ -32,7 +37,7 @@ public class AcknowledgedCounterGeneratorTest {
    */
   @Test
   public void testIncrementPastIntegerMaxValue() {
-    final long toTry = AcknowledgedCounterGenerator.WINDOW_SIZE * 3;
+    final long toTry = AcknowledgedCounterGenerator.SEGMENT_SIZE * 48;
 
     AcknowledgedCounterGenerator generator =
         new AcknowledgedCounterGenerator(Integer.MAX_VALUE - 1000);
@@ -58,4 +63,69 @@ public class AcknowledgedCounterGeneratorTest {
     }
 
   }
+
+  /**
+   * Test that far more values than fit in one segment may be pending.
+   */
+  @Test
+  public void testManyPendingValues() {
+    final int pending = AcknowledgedCounterGenerator.SEGMENT_SIZE * 64;
+    AcknowledgedCounterGenerator generator = new AcknowledgedCounterGenerator(10);
+    for (int i = 0; i < pending; i++) {
+      generator.nextValue();
+    }
+    // acknowledge all but the first, so none can be reported
+    for (long value = 10 + pending - 1; value > 10; value--) {
+      generator.acknowledge(value);
+    }
+    assertEquals(generator.lastValue().longValue(), 9);
+
+    generator.acknowledge(10);
+    assertEquals(generator.lastValue().longValue(), 10 + pending - 1);
+  }
+
+  /**
+   * Test that acknowledging a value twice is rejected.
+   */
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testAcknowledgeTwice() {
+    AcknowledgedCounterGenerator generator = new AcknowledgedCounterGenerator(0);
+    generator.nextValue();
+    generator.nextValue();
+    generator.acknowledge(1);
+    generator.acknowledge(1);
+  }
+
+  /**
+   * Test that the limit catches up with all values acknowledged out of order by many threads.
+   */
+  @Test
+  public void testConcurrentAcknowledgements() throws Exception {
+    final int perThread = 200000;
+    final AcknowledgedCounterGenerator generator = new AcknowledgedCounterGenerator(0);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      threads.add(new Thread(() -> {
+          long[] held = new long[64];
+          for (int i = 0; i < held.length; i++) {
+            held[i] = generator.nextValue();
+          }
+          for (int i = held.length; i < perThread; i++) {
+            int slot = ThreadLocalRandom.current().nextInt(held.length);
+            generator.acknowledge(held[slot]);
+            held[slot] = generator.nextValue();
+          }
+          for (long value : held) {
+            generator.acknowledge(value);
+          }
+        }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertEquals(generator.lastValue().longValue(), 4 * perThread - 1);
+  }
 }
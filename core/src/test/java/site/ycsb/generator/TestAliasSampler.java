@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2017 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+public class TestAliasSampler {
+
+  @Test
+  public void drawsIndexesInProportionToTheirWeights() {
+    double[] weights = {0.5, 0, 0.25, 0.125, 0.125};
+    AliasSampler sampler = new AliasSampler(weights);
+    int draws = 1000000;
+    int[] counts = new int[weights.length];
+    for (int i = 0; i < draws; i++) {
+      counts[sampler.next()]++;
+    }
+    for (int i = 0; i < weights.length; i++) {
+      assertEquals((double) counts[i] / draws, weights[i], 0.01);
+    }
+    assertEquals(counts[1], 0);
+  }
+
+  @Test
+  public void singleWeight() {
+    AliasSampler sampler = new AliasSampler(new double[] {3});
+    for (int i = 0; i < 100; i++) {
+      assertEquals(sampler.next(), 0);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsNoPositiveWeight() {
+    new AliasSampler(new double[] {0, 0});
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsNegativeWeight() {
+    new AliasSampler(new double[] {1, -1});
+  }
+
+  @Test
+  public void discreteGeneratorIsRebuiltWhenValuesAreAdded() {
+    DiscreteGenerator generator = new DiscreteGenerator();
+    generator.addValue(1, "READ");
+    assertEquals(generator.nextValue(), "READ");
+    generator.addValue(0, "SCAN");
+    generator.addValue(1000000, "UPDATE");
+    int updates = 0;
+    for (int i = 0; i < 1000; i++) {
+      if (generator.nextValue().equals("UPDATE")) {
+        updates++;
+      }
+    }
+    assertEquals(updates, 1000, 5);
+  }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2017 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+
+import org.testng.annotations.Test;
+
+public class TestHistogramGenerator {
+
+  @Test
+  public void drawsTheLargestValueOfEachBucket() {
+    HistogramGenerator generator = new HistogramGenerator(new long[] {1, 0, 3}, 10);
+    int draws = 100000;
+    int[] counts = new int[4];
+    for (int i = 0; i < draws; i++) {
+      long value = generator.nextValue();
+      assertEquals(value % 10, 0);
+      counts[(int) (value / 10)]++;
+    }
+    assertEquals(counts[0], 0);
+    assertEquals((double) counts[1] / draws, 0.25, 0.01);
+    assertEquals(counts[2], 0);
+    assertEquals((double) counts[3] / draws, 0.75, 0.01);
+  }
+
+  @Test
+  public void readsSparseFileWithLargeCounts() throws Exception {
+    File file = File.createTempFile("histogram", ".txt");
+    try {
+      try (Writer out = new FileWriter(file)) {
+        out.write("BlockSize\t4\n");
+        out.write("5\t10000000000\n");
+        out.write("2\t10000000000\n");
+      }
+      HistogramGenerator generator = new HistogramGenerator(file.getPath());
+      int fives = 0;
+      for (int i = 0; i < 10000; i++) {
+        long value = generator.nextValue();
+        if (value == 24) {
+          fives++;
+        } else {
+          assertEquals(value, 12);
+        }
+      }
+      assertEquals(fives, 5000, 300);
+    } finally {
+      file.delete();
+    }
+  }
+}
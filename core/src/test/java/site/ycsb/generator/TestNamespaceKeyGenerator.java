@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import org.testng.annotations.Test;
+
+public class TestNamespaceKeyGenerator {
+
+  @Test
+  public void keysArePathsNumberedLevelByLevel() {
+    NamespaceKeyGenerator tree = new NamespaceKeyGenerator("source:12, folder:3,dataset:10");
+    assertEquals(tree.depth(), 3);
+    assertEquals(tree.size(), 12 + 36 + 360);
+    assertEquals(tree.subtreeSize(0), 1 + 3 + 30);
+    assertEquals(tree.subtreeSize(2), 1);
+
+    assertEquals(tree.key(0), "/source00");
+    assertEquals(tree.key(11), "/source11");
+    assertEquals(tree.key(12), "/source00/folder0");
+    assertEquals(tree.key(12 + 3 * 11 + 2), "/source11/folder2");
+    assertEquals(tree.key(48), "/source00/folder0/dataset0");
+    assertEquals(tree.key(48 + 30 * 5 + 10 * 1 + 7), "/source05/folder1/dataset7");
+
+    assertEquals(tree.level(47), 1);
+    assertEquals(tree.parent(5), -1);
+    assertEquals(tree.key(tree.parent(48 + 30 * 5 + 10 * 1 + 7)), "/source05/folder1");
+  }
+
+  @Test
+  public void subtreesAreKeyRanges() {
+    NamespaceKeyGenerator tree = new NamespaceKeyGenerator("source:11,folder:4,dataset:12");
+    for (String separator : new String[] {"/", "_"}) {
+      NavigableSet<String> keys = new TreeSet<>();
+      for (long entity = 0; entity < tree.size(); entity++) {
+        keys.add(tree.key(entity).replace("/", separator));
+      }
+      assertEquals(keys.size(), tree.size());
+      for (long entity = 0; entity < tree.size(); entity++) {
+        StringBuilder key = new StringBuilder();
+        tree.appendKey(entity, key);
+        String start = key.toString();
+        NamespaceKeyGenerator.subtreeEnd(key);
+        NavigableSet<String> subtree = keys.subSet(start.replace("/", separator), true,
+            key.toString().replace("/", separator), true);
+        assertEquals(subtree.size(), tree.subtreeSize(tree.level(entity)), start);
+        for (String descendant : subtree) {
+          assertTrue(descendant.replace(separator, "/").startsWith(start), descendant + " under " + start);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void skewFavorsTheFirstSiblings() {
+    NamespaceKeyGenerator tree = new NamespaceKeyGenerator("source:100:0.99,folder:10");
+    Map<Long, Integer> picks = new HashMap<>();
+    for (int i = 0; i < 10000; i++) {
+      long entity = tree.nextEntity(1);
+      assertEquals(tree.level(entity), 1);
+      picks.merge(tree.parent(entity), 1, Integer::sum);
+    }
+    // a uniform pick would choose each source 100 times
+    assertTrue(picks.get(0L) > 1000, "picks of the first source: " + picks.get(0L));
+
+    int lastHalf = 0;
+    for (int i = 0; i < 10000; i++) {
+      if (tree.parent(tree.nextEntity(1)) >= 50) {
+        lastHalf++;
+      }
+    }
+    assertTrue(lastHalf < 2000, "picks of the last half of the sources: " + lastHalf);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void levelsNeedANameAndAFanout() {
+    new NamespaceKeyGenerator("source:10,folder");
+  }
+}
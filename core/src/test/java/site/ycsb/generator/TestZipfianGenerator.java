@@ -19,6 +19,12 @@ package site.ycsb.generator;
 
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Properties;
+
+import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertFalse;
 
 
@@ -36,4 +42,56 @@ public class TestZipfianGenerator {
         }
 
     }
+
+    @Test
+    public void parallelZetaMatchesSequentialSum() {
+        long n = 3 * ZipfianGenerator.ZETA_CHUNK + 17;
+        double sequential = 0;
+        for (long i = 0; i < n; i++) {
+            sequential += 1 / Math.pow(i + 1, ZipfianGenerator.ZIPFIAN_CONSTANT);
+        }
+        assertEquals(sequential, ZipfianGenerator.zetastatic(0, n, ZipfianGenerator.ZIPFIAN_CONSTANT, 0),
+            1e-9 * sequential);
+    }
+
+    @Test
+    public void shrunkZetaMatchesZetaFromScratch() {
+        double zeta = ZipfianGenerator.zetastatic(0, 100000, 0.8, 0);
+        assertEquals(ZipfianGenerator.zetastatic(0, 90000, 0.8, 0),
+            ZipfianGenerator.zetashrink(100000, 90000, 0.8, zeta), 1e-9);
+    }
+
+    @Test
+    public void zetaIsCachedInFile() throws Exception {
+        File file = File.createTempFile("zeta", ".properties");
+        file.delete();
+        try {
+            long n = ZetaCache.MIN_ITEMS + 1000;
+            double zeta = new ZetaCache(file).zeta(n, 0.9);
+            assertEquals(ZipfianGenerator.zetastatic(0, n, 0.9, 0), zeta, 1e-9);
+
+            Properties cached = new Properties();
+            try (InputStream in = new FileInputStream(file)) {
+                cached.load(in);
+            }
+            assertEquals(String.valueOf(zeta), cached.getProperty("0.9:" + n));
+
+            // a nearby count is computed from the cached one
+            ZetaCache reloaded = new ZetaCache(file);
+            assertEquals(zeta, reloaded.zeta(n, 0.9), 0);
+            assertEquals(ZipfianGenerator.zetastatic(0, n - 10, 0.9, 0), reloaded.zeta(n - 10, 0.9), 1e-9);
+            assertEquals(ZipfianGenerator.zetastatic(0, n + 10, 0.9, 0), reloaded.zeta(n + 10, 0.9), 1e-9);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void itemCountCanDecreaseWhenAllowed() {
+        ZipfianGenerator zipfian = new ZipfianGenerator(1000);
+        zipfian.setAllowItemCountDecrease(true);
+        for (int i = 0; i < 10000; i++) {
+            assertFalse(zipfian.nextLong(600) >= 600);
+        }
+    }
 }
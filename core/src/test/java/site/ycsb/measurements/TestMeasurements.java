@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2017 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.measurements;
+
+import site.ycsb.measurements.exporter.JSONArrayMeasurementsExporter;
+import site.ycsb.measurements.exporter.TextMeasurementsExporter;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestMeasurements {
+
+  private static String export(Measurements mm) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextMeasurementsExporter exporter = new TextMeasurementsExporter(out);
+    mm.exportMeasurements(exporter);
+    exporter.close();
+    return out.toString("UTF-8");
+  }
+
+  @Test
+  public void warmupIsKeptUnderItsOwnName() throws IOException {
+    Measurements mm = new Measurements(new Properties());
+    mm.startWarmup();
+    mm.measure("READ", 10);
+    mm.measure("READ", 10);
+    mm.endWarmup(true);
+    mm.measure("READ", 20);
+
+    String report = export(mm);
+    assertTrue(report.contains("[WARMUP-READ], Operations, 2"), report);
+    assertTrue(report.contains("[READ], Operations, 1"), report);
+  }
+
+  @Test
+  public void warmupIsDiscarded() throws IOException {
+    Measurements mm = new Measurements(new Properties());
+    mm.startWarmup();
+    mm.measure("READ", 10);
+    mm.endWarmup(false);
+    mm.measure("READ", 20);
+
+    String report = export(mm);
+    assertFalse(report.contains("WARMUP"), report);
+    assertTrue(report.contains("[READ], Operations, 1"), report);
+  }
+
+  @Test
+  public void percentilesCoverAllOperations() {
+    Measurements mm = new Measurements(new Properties());
+    for (int i = 0; i < 100; i++) {
+      mm.measure("READ", 10);
+      mm.measure("UPDATE", 1000);
+    }
+    assertEquals(mm.getMaxPercentileLatency(99), 1000);
+
+    mm.reset();
+    assertEquals(mm.getMaxPercentileLatency(99), 0);
+  }
+
+  @Test
+  public void registeredIdsSurviveResets() throws IOException {
+    Measurements mm = new Measurements(new Properties());
+    int read = mm.registerOperation("READ");
+    assertEquals(mm.registerOperation("READ"), read);
+    mm.measure(read, 10);
+    mm.reset();
+    mm.measure(read, 10);
+    mm.measure("READ", 10);
+
+    assertTrue(export(mm).contains("[READ], Operations, 2"));
+  }
+
+  @Test
+  public void mergesThreadRecorders() throws Exception {
+    final Measurements mm = new Measurements(new Properties());
+    final int update = mm.registerOperation("UPDATE");
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread(() -> {
+          for (int j = 0; j < 1000; j++) {
+            mm.measure(update, j);
+          }
+        });
+      threads[i].start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+
+    String report = export(mm);
+    assertTrue(report.contains("[UPDATE], Operations, 4000"), report);
+    assertTrue(report.contains("[UPDATE], MaxLatency(us), 999"), report);
+  }
+
+  @Test
+  public void rawMergesThreadsInTimestampOrder() throws Exception {
+    File output = File.createTempFile("raw", ".csv");
+    output.deleteOnExit();
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "raw");
+    props.setProperty(OneMeasurementRaw.OUTPUT_FILE_PATH, output.getPath());
+    final Measurements mm = new Measurements(props);
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      final int offset = i;
+      threads[i] = new Thread(() -> {
+          for (int j = 0; j < 1000; j++) {
+            mm.measure("READ", 4 * j + offset);
+          }
+        });
+      threads[i].start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+
+    String report = export(mm);
+    assertTrue(report.contains("[READ], Total Operations, 4000"), report);
+    assertTrue(report.contains("[READ], Min, 0"), report);
+    assertTrue(report.contains("[READ], Max, 3999"), report);
+    assertTrue(report.contains("[READ], p50, 2000"), report);
+
+    List<String> lines = Files.readAllLines(output.toPath(), StandardCharsets.UTF_8);
+    assertEquals(lines.size(), 4001);
+    long last = 0;
+    for (String line : lines.subList(1, lines.size())) {
+      long timestamp = Long.parseLong(line.split(",")[1]);
+      assertTrue(timestamp >= last, line);
+      last = timestamp;
+    }
+  }
+
+  @Test
+  public void histogramMergesThreadStripes() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "histogram");
+    final Measurements mm = new Measurements(props);
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      final int latency = 1000 * (i + 1);
+      threads[i] = new Thread(() -> {
+          for (int j = 0; j < 1000; j++) {
+            mm.measure("READ", latency);
+          }
+        });
+      threads[i].start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+
+    String report = export(mm);
+    assertTrue(report.contains("[READ], Operations, 4000"), report);
+    assertTrue(report.contains("[READ], MinLatency(us), 1000"), report);
+    assertTrue(report.contains("[READ], MaxLatency(us), 4000"), report);
+    assertTrue(report.contains("[READ], AverageLatency(us), 2500.0"), report);
+  }
+
+  @Test
+  public void hdrTimeSeriesKeepsPercentilesPerInterval() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "hdrtimeseries");
+    props.setProperty(OneMeasurementTimeSeries.GRANULARITY, "100");
+    Measurements mm = new Measurements(props);
+    for (int i = 0; i < 100; i++) {
+      mm.measure("READ", 10);
+    }
+    Thread.sleep(150);
+    mm.measure("READ", 1000);
+
+    String report = export(mm);
+    assertTrue(report.contains("[READ], Operations, 101"), report);
+    assertTrue(report.contains("[READ], 0.Count, 100"), report);
+    assertTrue(report.contains("[READ], 0.MaxLatency(us), 10"), report);
+    assertTrue(report.contains("[READ], 100.Count, 1"), report);
+    assertTrue(report.contains("[READ], 100.99thPercentileLatency(us), 1000"), report);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    JSONArrayMeasurementsExporter exporter = new JSONArrayMeasurementsExporter(out);
+    mm.measure("READ", 10);
+    mm.exportMeasurements(exporter);
+    exporter.close();
+    String json = out.toString("UTF-8").replaceAll("\\s", "");
+    assertTrue(json.contains("\"measurement\":\"0\",\"value\":{\"Count\":100,"), json);
+  }
+
+  @Test
+  public void hdrTimeSeriesMergesIntervalsBeyondTheMaximum() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "hdrtimeseries");
+    props.setProperty(OneMeasurementTimeSeries.GRANULARITY, "20");
+    props.setProperty(OneMeasurementHdrTimeSeries.MAX_INTERVALS, "4");
+    Measurements mm = new Measurements(props);
+    for (int i = 0; i < 20; i++) {
+      mm.measure("READ", i == 7 ? 5000 : 10);
+      Thread.sleep(25);
+    }
+
+    String report = export(mm);
+    assertTrue(report.contains("[READ], Operations, 20"), report);
+    Matcher counts = Pattern.compile("\\[READ\\], \\d+\\.Count, (\\d+)").matcher(report);
+    int intervals = 0;
+    long operations = 0;
+    while (counts.find()) {
+      intervals++;
+      operations += Long.parseLong(counts.group(1));
+    }
+    assertTrue(intervals > 0 && intervals <= 4, report);
+    assertEquals(operations, 20);
+    // the spike survives the merging
+    assertTrue(report.matches("(?s).*\\[READ\\], \\d+\\.MaxLatency\\(us\\), 50\\d\\d.*"), report);
+  }
+
+  @Test
+  public void costIsMeasuredPerOperation() throws IOException {
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_COST_PROPERTY, "true");
+    Measurements mm = new Measurements(props);
+    int read = mm.registerOperation("READ");
+    int update = mm.registerOperation("UPDATE");
+    byte[][] allocated = new byte[10][];
+    for (int i = 0; i < 10; i++) {
+      mm.startCost();
+      allocated[i] = new byte[100000];
+      mm.measureCost(read);
+      mm.startCost();
+      mm.measureCost(update);
+    }
+    assertEquals(allocated.length, 10);
+
+    assertTrue(mm.getSummary().contains("[READ-COST: CpuPerOp(us)="), mm.getSummary());
+    String report = export(mm);
+    assertTrue(report.contains("[READ], CpuTimePerOp(us), "), report);
+    assertTrue(report.contains("[UPDATE], AllocatedBytesPerOp, "), report);
+    assertTrue(report.contains("[CLIENT_THREADS], Threads, 1"), report);
+    double readBytes = Double.parseDouble(
+        report.replaceAll("(?s).*\\[READ\\], AllocatedBytesPerOp, ([0-9.E]+).*", "$1"));
+    assertTrue(readBytes >= 100000, report);
+  }
+
+  @Test
+  public void costIsOffByDefault() throws IOException {
+    Measurements mm = new Measurements(new Properties());
+    mm.startCost();
+    mm.measureCost(mm.registerOperation("READ"));
+    assertFalse(export(mm).contains("CpuTimePerOp"));
+  }
+}
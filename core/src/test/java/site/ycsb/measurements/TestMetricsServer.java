@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2017 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.measurements;
+
+import site.ycsb.BasicDB;
+import site.ycsb.ByteIterator;
+import site.ycsb.DBWrapper;
+import site.ycsb.Status;
+
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TestMetricsServer {
+
+  private static String scrape(int port) throws Exception {
+    try (InputStream in = new URL("http://localhost:" + port + "/metrics").openStream()) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+        out.write(buffer, 0, n);
+      }
+      return out.toString("UTF-8");
+    }
+  }
+
+  @Test
+  public void servesSnapshots() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(MetricsServer.PORT_PROPERTY, "0");
+    Measurements mm = new Measurements(props);
+    for (int i = 0; i < 100; i++) {
+      mm.operationStarted();
+      mm.measure("READ", 100);
+      mm.reportStatus("READ", Status.OK);
+      mm.operationCompleted();
+    }
+    mm.operationStarted();
+    mm.reportStatus("UPDATE", Status.ERROR);
+
+    MetricsServer server = new MetricsServer(mm, new InetSocketAddress("localhost", 0), 60000);
+    server.start();
+    try {
+      String page = null;
+      for (int attempt = 0; attempt < 50 && (page == null || page.isEmpty()); attempt++) {
+        Thread.sleep(100);
+        try {
+          page = scrape(server.getPort());
+        } catch (ConnectException e) {
+          // not started yet
+        }
+      }
+      assertTrue(page.contains("ycsb_operations_total{operation=\"READ\"} 100"), page);
+      assertTrue(page.contains("ycsb_operation_latency_us{operation=\"READ\",quantile=\"0.99\"} 100"), page);
+      assertTrue(page.contains("ycsb_operation_status_total{operation=\"UPDATE\",status=\"ERROR\"} 1"), page);
+      assertTrue(page.contains("ycsb_operations_in_flight 1"), page);
+      assertTrue(page.contains("ycsb_jvm_memory_used_bytes "), page);
+    } finally {
+      server.interrupt();
+    }
+  }
+
+  @Test
+  public void failingOperationsLeaveTheFlight() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(MetricsServer.PORT_PROPERTY, "0");
+    Measurements.setProperties(props);
+    Measurements.getMeasurements().reset();
+    DBWrapper db = new DBWrapper(new BasicDB() {
+        @Override
+        public Status read(String table, String key, Set<String> fields, Map<String, ByteIterator> result) {
+          throw new IllegalStateException("binding failure");
+        }
+      }, new Tracer.Builder("TestMetricsServer").conf(HTraceConfiguration.EMPTY).build());
+
+    try {
+      db.read("usertable", "user1", null, null);
+      fail("the binding's exception must reach the caller");
+    } catch (IllegalStateException e) {
+      assertEquals(Measurements.getMeasurements().getInFlight(), 0);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2017 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.measurements;
+
+import site.ycsb.Status;
+
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class TestRawLatencyLog {
+
+  @Test
+  public void roundTripsAcrossSegments() throws Exception {
+    File dir = Files.createTempDirectory("rawlog").toFile();
+    final String path = new File(dir, "log").getPath();
+
+    // 4 KB segments of 128 records, buffers of 16 records, keeping 3 segments
+    final RawLatencyLog log = new RawLatencyLog(path, 4096, 3, 16);
+    Thread[] threads = new Thread[2];
+    for (int i = 0; i < threads.length; i++) {
+      final int operation = i;
+      threads[i] = new Thread(() -> {
+          for (int j = 0; j < 150; j++) {
+            log.log(operation, j % 2 == 0 ? Status.OK : Status.NOT_FOUND, 0, 1000L * j, 1000L * j + 5000);
+          }
+        });
+      threads[i].start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    log.close(new String[] {"READ", "UPDATE"});
+
+    // 300 records fill segments 0 and 1 and part of 2
+    assertTrue(RawLatencyLog.segmentFile(path, 2).exists());
+    assertFalse(RawLatencyLog.segmentFile(path, 3).exists());
+
+    final List<String> records = new ArrayList<>();
+    new RawLatencyLogReader(path).read((operation, status, intendedStartTimeNs, startTimeNs, endTimeNs) ->
+        records.add(operation + " " + status + " " + (endTimeNs - startTimeNs)));
+    assertEquals(records.size(), 300);
+    assertTrue(records.contains("READ OK 5000"), records.toString());
+    assertTrue(records.contains("UPDATE NOT_FOUND 5000"), records.toString());
+  }
+
+  @Test
+  public void dropsOldestSegments() throws Exception {
+    File dir = Files.createTempDirectory("rawlog").toFile();
+    String path = new File(dir, "log").getPath();
+
+    RawLatencyLog log = new RawLatencyLog(path, 4096, 2, 16);
+    for (int j = 0; j < 1000; j++) {
+      log.log(0, Status.OK, 0, j, j + 1);
+    }
+    log.close(new String[] {"READ"});
+
+    assertFalse(RawLatencyLog.segmentFile(path, 0).exists());
+    final int[] count = new int[1];
+    new RawLatencyLogReader(path).read((operation, status, intendedStartTimeNs, startTimeNs, endTimeNs) ->
+        count[0]++);
+    // 1000 records span 8 segments, the last 2 are kept: 128 + 1000 % 128
+    assertEquals(count[0], 128 + 1000 % 128);
+  }
+
+  @Test(timeOut = 30000)
+  public void dropsRecordsOnceWritingFails() throws Exception {
+    File dir = Files.createTempDirectory("rawlog").toFile();
+    String path = new File(dir, "log").getPath();
+
+    RawLatencyLog log = new RawLatencyLog(path, 4096, 0, 16);
+    // the first segment is already mapped, the next one cannot be created
+    assertTrue(RawLatencyLog.segmentFile(path, 0).delete());
+    assertTrue(dir.delete());
+    // far more buffers than the flusher queues, none of which may block
+    for (int j = 0; j < 128 + 10000; j++) {
+      log.log(0, Status.OK, 0, j, j + 1);
+    }
+    try {
+      log.close(new String[] {"READ"});
+      fail("closing a failed log must report the failure");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("dropped 10000 records"), e.getMessage());
+    }
+    assertEquals(log.getDroppedRecords(), 10000);
+  }
+
+  @Test(timeOut = 30000)
+  public void dropsRecordsLoggedAfterClosing() throws Exception {
+    File dir = Files.createTempDirectory("rawlog").toFile();
+    RawLatencyLog log = new RawLatencyLog(new File(dir, "log").getPath(), 4096, 0, 16);
+    log.close(new String[] {"READ"});
+
+    for (int j = 0; j < 10000; j++) {
+      log.log(0, Status.OK, 0, j, j + 1);
+    }
+    assertEquals(log.getDroppedRecords(), 10000);
+  }
+}
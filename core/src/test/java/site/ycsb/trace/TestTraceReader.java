@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.trace;
+
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.testng.annotations.Test;
+import site.ycsb.ByteIterator;
+import site.ycsb.CalibrationDB;
+import site.ycsb.DBWrapper;
+import site.ycsb.RandomByteIterator;
+import site.ycsb.Workload;
+import site.ycsb.measurements.Measurements;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Vector;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestTraceReader {
+
+  private static DBWrapper recordingDb(File trace) throws Exception {
+    Properties props = new Properties();
+    props.setProperty(TraceWriter.RECORD_PROPERTY, trace.getPath());
+    Measurements.setProperties(props);
+    DBWrapper db = new DBWrapper(new CalibrationDB(),
+        new Tracer.Builder("TestTraceReader").conf(HTraceConfiguration.EMPTY).build());
+    db.setProperties(props);
+    db.init();
+    return db;
+  }
+
+  @Test
+  public void readsWhatTheDbWrapperRecorded() throws Exception {
+    File trace = File.createTempFile("trace", ".bin");
+    try {
+      DBWrapper db = recordingDb(trace);
+      Map<String, ByteIterator> values = new LinkedHashMap<>();
+      values.put("field0", new RandomByteIterator(100));
+      values.put("field1", new RandomByteIterator(7));
+      db.insert("usertable", "user1", values);
+      db.read("usertable", "user1", null, new HashMap<String, ByteIterator>());
+      db.read("usertable", "user2", new HashSet<>(Collections.singleton("field1")),
+          new HashMap<String, ByteIterator>());
+      db.scan("usertable", "user3", 50, null, new Vector<HashMap<String, ByteIterator>>());
+      db.update("usertable", "user1", Collections.<String, ByteIterator>singletonMap("field1",
+          new RandomByteIterator(3)));
+      db.delete("othertable", "user1");
+      db.cleanup();
+
+      try (TraceReader reader = new TraceReader(trace)) {
+        assertTrue(reader.next());
+        assertEquals(reader.getOperation(), Workload.Operation.INSERT);
+        assertEquals(reader.getTable(), "usertable");
+        assertEquals(reader.getKey(), "user1");
+        assertEquals(reader.getFields(), Arrays.asList("field0", "field1"));
+        assertEquals(reader.getValueSize(0), 100);
+        assertEquals(reader.getValueSize(1), 7);
+        long insertUs = reader.getTimeUs();
+
+        assertTrue(reader.next());
+        assertEquals(reader.getOperation(), Workload.Operation.READ);
+        assertTrue(reader.isAllFields());
+        assertTrue(reader.getTimeUs() >= insertUs);
+
+        assertTrue(reader.next());
+        assertEquals(reader.getKey(), "user2");
+        assertFalse(reader.isAllFields());
+        assertEquals(reader.getFields(), Collections.singletonList("field1"));
+
+        assertTrue(reader.next());
+        assertEquals(reader.getOperation(), Workload.Operation.SCAN);
+        assertEquals(reader.getKey(), "user3");
+        assertEquals(reader.getRecordCount(), 50);
+        assertTrue(reader.isAllFields());
+
+        assertTrue(reader.next());
+        assertEquals(reader.getOperation(), Workload.Operation.UPDATE);
+        assertEquals(reader.getFields(), Collections.singletonList("field1"));
+        assertEquals(reader.getValueSize(0), 3);
+
+        assertTrue(reader.next());
+        assertEquals(reader.getOperation(), Workload.Operation.DELETE);
+        assertEquals(reader.getTable(), "othertable");
+
+        assertFalse(reader.next());
+      }
+    } finally {
+      trace.delete();
+    }
+  }
+
+  @Test
+  public void readsAcrossMappedWindows() throws Exception {
+    File trace = File.createTempFile("trace", ".bin");
+    try {
+      DBWrapper db = recordingDb(trace);
+      int records = 1000;
+      for (int i = 0; i < records; i++) {
+        db.insert("usertable", "user" + i, Collections.<String, ByteIterator>singletonMap("field" + (i % 10),
+            new RandomByteIterator(i)));
+      }
+      db.cleanup();
+
+      // a window that ends within a record now and then
+      try (TraceReader reader = new TraceReader(trace, 100)) {
+        for (int i = 0; i < records; i++) {
+          assertTrue(reader.next());
+          assertEquals(reader.getKey(), "user" + i);
+          assertEquals(reader.getFields(), Collections.singletonList("field" + (i % 10)));
+          assertEquals(reader.getValueSize(0), i);
+        }
+        assertFalse(reader.next());
+      }
+    } finally {
+      trace.delete();
+    }
+  }
+
+  @Test
+  public void aRecordCutShortEndsTheTrace() throws Exception {
+    File trace = File.createTempFile("trace", ".bin");
+    try {
+      DBWrapper db = recordingDb(trace);
+      db.delete("usertable", "user1");
+      db.delete("usertable", "user2");
+      db.cleanup();
+      try (RandomAccessFile file = new RandomAccessFile(trace, "rw")) {
+        file.setLength(file.length() - 2);
+      }
+
+      try (TraceReader reader = new TraceReader(trace)) {
+        assertTrue(reader.next());
+        assertEquals(reader.getKey(), "user1");
+        assertFalse(reader.next());
+      }
+    } finally {
+      trace.delete();
+    }
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void rejectsWhatIsNotATrace() throws Exception {
+    File trace = File.createTempFile("trace", ".bin");
+    try {
+      try (OutputStream out = new FileOutputStream(trace)) {
+        out.write("recordcount=1000\n".getBytes("UTF-8"));
+      }
+      new TraceReader(trace);
+    } finally {
+      trace.delete();
+    }
+  }
+}
@@ -16,13 +16,29 @@
  */
 package site.ycsb.workloads;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
 import org.testng.annotations.Test;
 
+import site.ycsb.ByteIterator;
+import site.ycsb.ClientThread;
+import site.ycsb.DB;
+import site.ycsb.DBWrapper;
+import site.ycsb.RecordingDB;
+import site.ycsb.Utils;
 import site.ycsb.generator.DiscreteGenerator;
+import site.ycsb.measurements.Measurements;
 
 public class TestCoreWorkload {
 
@@ -67,4 +83,110 @@ public class TestCoreWorkload {
   public void createOperationChooserNullProperties() {
     CoreWorkload.createOperationGenerator(null);
   }
-}
\ No newline at end of file
+
+  /** Replaces the operations of CoreWorkload with its own, as RestWorkload does, without initializing CoreWorkload. */
+  private static final class OwnOperationsWorkload extends CoreWorkload {
+    @Override
+    public void init(Properties p) {
+    }
+
+    @Override
+    public boolean doInsert(DB db, Object threadstate) {
+      return db.insert("own", "inserted", new HashMap<String, ByteIterator>()).isOk();
+    }
+
+    @Override
+    public boolean doTransaction(DB db, Object threadstate) {
+      db.read("own", "inserted", null, new HashMap<String, ByteIterator>());
+      return true;
+    }
+  }
+
+  private static CoreWorkload initWorkload(Properties p) throws Exception {
+    Measurements.setProperties(p);
+    CoreWorkload workload = new CoreWorkload();
+    workload.init(p);
+    return workload;
+  }
+
+  @Test
+  public void buildKeyNamePadsWithZeros() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(CoreWorkload.INSERT_ORDER_PROPERTY, "ordered");
+    p.setProperty(CoreWorkload.ZERO_PADDING_PROPERTY, "8");
+    CoreWorkload workload = initWorkload(p);
+    assertEquals(workload.buildKeyName(5), "user00000005");
+    assertEquals(workload.buildKeyName(123456789), "user123456789");
+
+    p.setProperty(CoreWorkload.INSERT_ORDER_PROPERTY, "hashed");
+    p.setProperty(CoreWorkload.ZERO_PADDING_PROPERTY, "22");
+    workload = initWorkload(p);
+    StringBuilder key = new StringBuilder();
+    for (long keynum = 0; keynum < 1000; keynum++) {
+      String value = Long.toString(Utils.hash(keynum));
+      StringBuilder expected = new StringBuilder("user");
+      for (int i = value.length(); i < 22; i++) {
+        expected.append('0');
+      }
+      expected.append(value);
+      assertEquals(workload.buildKeyName(keynum, key), expected.toString());
+    }
+  }
+
+  @Test
+  public void reusedBuffersAreRefilled() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(CoreWorkload.READ_PROPORTION_PROPERTY, "0");
+    p.setProperty(CoreWorkload.UPDATE_PROPORTION_PROPERTY, "1");
+    p.setProperty(CoreWorkload.WRITE_ALL_FIELDS_PROPERTY, "true");
+    p.setProperty(CoreWorkload.REUSE_BUFFERS_PROPERTY, "true");
+    CoreWorkload workload = initWorkload(p);
+    Object threadstate = workload.initThread(p, 0, 1);
+
+    RecordingDB db = new RecordingDB();
+    for (int i = 0; i < 3; i++) {
+      assertTrue(workload.doTransaction(db, threadstate));
+    }
+    List<Map<String, ByteIterator>> updates = db.getValues();
+    assertEquals(updates.size(), 3);
+    assertSame(updates.get(1), updates.get(0));
+    assertSame(updates.get(2), updates.get(0));
+    assertEquals(updates.get(0).size(), 10);
+    // each update arrived with its 10 values of 100 bytes refilled
+    for (String operation : db.getOperations()) {
+      assertTrue(operation.startsWith("UPDATE ") && operation.endsWith(" 1000"), operation);
+    }
+  }
+
+  @Test
+  public void buffersAreNotReusedByDefault() throws Exception {
+    Properties p = new Properties();
+    assertNull(initWorkload(p).initThread(p, 0, 1));
+  }
+
+  @Test
+  public void asyncWindowKeepsTheOperationsOfASubclass() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(ClientThread.ASYNC_WINDOW_PROPERTY, "4");
+    Measurements.setProperties(p);
+    RecordingDB recording = new RecordingDB();
+    DBWrapper db = new DBWrapper(recording,
+        new Tracer.Builder("TestCoreWorkload").conf(HTraceConfiguration.EMPTY).build());
+    db.setProperties(p);
+    OwnOperationsWorkload workload = new OwnOperationsWorkload();
+    workload.init(p);
+
+    for (boolean dotransactions : new boolean[] {false, true}) {
+      ClientThread client = new ClientThread(db, dotransactions, workload, p, 20, 0, new CountDownLatch(1));
+      client.setThreadId(0);
+      client.setThreadCount(1);
+      client.run();
+    }
+
+    List<String> operations = recording.getOperations();
+    assertEquals(operations.size(), 40);
+    for (int i = 0; i < 40; i++) {
+      assertEquals(operations.get(i), i < 20 ? "INSERT inserted 0" : "READ inserted all");
+    }
+  }
+}
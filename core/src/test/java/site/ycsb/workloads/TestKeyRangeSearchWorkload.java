@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package site.ycsb.workloads;
+
+import org.testng.annotations.Test;
+import site.ycsb.RecordingDB;
+import site.ycsb.WorkloadException;
+import site.ycsb.measurements.Measurements;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestKeyRangeSearchWorkload {
+
+  @Test
+  public void searchesListTheLoadedSubtrees() throws Exception {
+    Properties p = new Properties();
+    p.setProperty("recordcount", "1220");
+    p.setProperty(KeyRangeSearchWorkload.LEVELS_PROPERTY, "source:20,folder:10:0.9,dataset:5");
+    p.setProperty(KeyRangeSearchWorkload.QUERY_DEPTH_PROPERTY, "1");
+    p.setProperty(KeyRangeSearchWorkload.MAX_ROWS_PROPERTY, "4");
+    Measurements.setProperties(p);
+    Measurements.getMeasurements().reset();
+    RecordingDB db = new RecordingDB();
+    KeyRangeSearchWorkload loader = new KeyRangeSearchWorkload();
+    loader.init(p);
+    Object state = loader.initThread(p, 0, 1);
+    for (int i = 0; i < 1220; i++) {
+      assertTrue(loader.doInsert(db, state));
+    }
+
+    List<String> keys = db.getKeys();
+    assertEquals(keys.size(), 1220);
+    Map<String, String> dataset = db.getRow("/source03/folder7/dataset2");
+    assertEquals(dataset.get("entityType"), "DATASET");
+    assertEquals(dataset.get("container"), "/source03/folder7");
+    assertEquals(db.getRow("/source19").get("container"), "");
+
+    KeyRangeSearchWorkload workload = new KeyRangeSearchWorkload();
+    workload.init(p);
+    state = workload.initThread(p, 0, 1);
+    int firstFolders = 0;
+    for (int i = 0; i < 500; i++) {
+      assertTrue(workload.doTransaction(db, state));
+    }
+    List<String> operations = db.getOperations().subList(1220, 1720);
+    for (int i = 0; i < 500; i++) {
+      String[] search = operations.get(i).split(" ");
+      assertEquals(search[0], "SCAN_NAMESPACE");
+      String start = search[1];
+      assertTrue(start.matches("/source\\d\\d/folder\\d"), start);
+      for (String key : keys) {
+        if (key.compareTo(start) >= 0 && key.compareTo(search[2]) <= 0) {
+          assertTrue(key.startsWith(start), key);
+        }
+      }
+      // a folder and its 5 datasets, of which the limit returns 4
+      assertEquals(db.getReturned().get(i).intValue(), 4);
+      if (start.endsWith("folder0")) {
+        firstFolders++;
+      }
+    }
+    assertTrue(firstFolders > 100, "searches of the first folders: " + firstFolders);
+    assertEquals(Measurements.getMeasurements().getTotalHistograms().get("KEY_RANGE_ROWS").getTotalCount(), 500);
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void recordCountMustFitTheTree() throws Exception {
+    Properties p = new Properties();
+    p.setProperty("recordcount", "1221");
+    p.setProperty(KeyRangeSearchWorkload.LEVELS_PROPERTY, "source:20,folder:10,dataset:5");
+    new KeyRangeSearchWorkload().init(p);
+  }
+}
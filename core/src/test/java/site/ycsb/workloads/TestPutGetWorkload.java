@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import org.testng.annotations.Test;
+import site.ycsb.RecordingDB;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestPutGetWorkload {
+
+  @Test
+  public void storeKeepsUuidsAppendedConcurrently() throws Exception {
+    for (boolean offHeap : new boolean[] {false, true}) {
+      final UuidStore store = new UuidStore(offHeap);
+      final int perThread = UuidStore.CHUNK_SIZE / 2 + 10;
+      final List<Set<UUID>> added = new ArrayList<>();
+      List<Thread> threads = new ArrayList<>();
+      for (int t = 0; t < 3; t++) {
+        final Set<UUID> mine = new HashSet<>();
+        final long thread = t + 1;
+        added.add(mine);
+        threads.add(new Thread(() -> {
+            for (int i = 0; i < perThread; i++) {
+              UUID uuid = new UUID(thread, i + 1);
+              mine.add(uuid);
+              store.add(uuid);
+              // whatever is visible is complete, though it may lag behind what this thread added
+              long size = store.size();
+              if (size > 0) {
+                UUID last = store.get(size - 1);
+                assertTrue(last.getMostSignificantBits() != 0 && last.getLeastSignificantBits() != 0);
+              }
+            }
+          }));
+      }
+      for (Thread t : threads) {
+        t.start();
+      }
+      for (Thread t : threads) {
+        t.join();
+      }
+
+      assertEquals(store.size(), 3L * perThread);
+      Set<UUID> all = new HashSet<>();
+      for (long i = 0; i < store.size(); i++) {
+        all.add(store.get(i));
+      }
+      Set<UUID> expected = new HashSet<>();
+      for (Set<UUID> mine : added) {
+        expected.addAll(mine);
+      }
+      assertEquals(all, expected);
+    }
+  }
+
+  @Test
+  public void getsReadKeysInsertedByAnyThread() throws Exception {
+    for (String distribution : new String[] {"uniform", "latest"}) {
+      Properties p = new Properties();
+      p.setProperty(PutGetWorkload.INSERT_PROPORTION_PROPERTY, "0.5");
+      p.setProperty(PutGetWorkload.REQUEST_DISTRIBUTION_PROPERTY, distribution);
+      PutGetWorkload workload = new PutGetWorkload();
+      workload.init(p);
+      RecordingDB db = new RecordingDB();
+      Object first = workload.initThread(p, 0, 2);
+      Object second = workload.initThread(p, 1, 2);
+      for (int i = 0; i < 10; i++) {
+        workload.doInsert(db, first);
+      }
+      for (int i = 0; i < 2000; i++) {
+        assertTrue(workload.doTransaction(db, second));
+      }
+
+      List<String> read = new ArrayList<>();
+      for (String operation : db.getOperations()) {
+        if (operation.startsWith("READ ")) {
+          read.add(operation.split(" ")[1]);
+        }
+      }
+      assertTrue(read.size() > 800 && read.size() < 1200, distribution + ": " + read.size());
+      assertTrue(db.getKeys().containsAll(read), distribution);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package site.ycsb.workloads;
+
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.Test;
+import site.ycsb.ByteIterator;
+import site.ycsb.RecordingDB;
+import site.ycsb.measurements.Measurements;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestRepeatedUpdatesWorkload {
+
+  private static void assertFollowsTransitions(RecordingDB db, boolean touched) {
+    Map<String, String> next = new HashMap<>();
+    next.put("NOT_SUBMITTED", "STARTING");
+    next.put("STARTING", "PLANNING");
+    next.put("PLANNING", "ENQUEUED");
+    next.put("ENQUEUED", "RUNNING");
+    next.put("CANCELLATION_REQUESTED", "CANCELED");
+    for (String key : db.getKeys()) {
+      List<String> written = db.getHistory(key, "jobState");
+      for (int i = 1; i < written.size(); i++) {
+        String from = written.get(i - 1);
+        String to = written.get(i);
+        boolean allowed = to.equals(next.get(from)) || (touched && to.equals(from))
+            || (from.equals("RUNNING") && (to.equals("COMPLETED") || to.equals("FAILED")
+            || to.equals("CANCELLATION_REQUESTED")));
+        assertTrue(allowed, from + " to " + to + " in " + written);
+      }
+    }
+  }
+
+  @Test
+  public void jobsWalkTheStateMachine() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(RepeatedUpdatesWorkload.IN_FLIGHT_PROPERTY, "3");
+    Measurements.setProperties(p);
+    RepeatedUpdatesWorkload workload = new RepeatedUpdatesWorkload();
+    workload.init(p);
+    RecordingDB db = new RecordingDB();
+    Object state = workload.initThread(p, 0, 1);
+    for (int i = 0; i < 300; i++) {
+      assertTrue(workload.doTransaction(db, state));
+    }
+
+    assertEquals(db.getConflicts(), 0);
+    List<String> jobs = db.getKeys();
+    assertTrue(jobs.size() >= 50, "jobs created: " + jobs.size());
+    int finished = 0;
+    for (String job : jobs) {
+      List<String> written = db.getHistory(job, "jobState");
+      assertEquals(written.get(0), "NOT_SUBMITTED");
+      String last = written.get(written.size() - 1);
+      if (last.equals("COMPLETED") || last.equals("FAILED") || last.equals("CANCELED")) {
+        finished++;
+      }
+    }
+    assertTrue(finished >= jobs.size() - 3, finished + " of " + jobs.size());
+    assertFollowsTransitions(db, false);
+  }
+
+  @Test
+  public void touchesConflictWithTransitions() throws Exception {
+    final Properties p = new Properties();
+    p.setProperty(RepeatedUpdatesWorkload.IN_FLIGHT_PROPERTY, "2");
+    p.setProperty(RepeatedUpdatesWorkload.TOUCH_PROPORTION_PROPERTY, "0.5");
+    p.setProperty(RepeatedUpdatesWorkload.MAX_RETRIES_PROPERTY, "100");
+    p.setProperty(RepeatedUpdatesWorkload.DWELL_TIME_PROPERTY, "RUNNING:1");
+    Measurements.setProperties(p);
+    final RepeatedUpdatesWorkload workload = new RepeatedUpdatesWorkload();
+    workload.init(p);
+    final RecordingDB db = new RecordingDB();
+    db.setVersionedUpdateDelay(20000);
+    final AtomicInteger failed = new AtomicInteger();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      final Object state = workload.initThread(p, t, 4);
+      threads.add(new Thread(() -> {
+          for (int i = 0; i < 500; i++) {
+            if (!workload.doTransaction(db, state)) {
+              failed.incrementAndGet();
+            }
+          }
+        }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+
+    assertTrue(db.getConflicts() > 0);
+    // with enough retries, every transition gets through in the end
+    assertEquals(failed.get(), 0);
+    assertFollowsTransitions(db, true);
+  }
+
+  @Test
+  public void touchOvertakenByATransitionLeavesItsState() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(RepeatedUpdatesWorkload.IN_FLIGHT_PROPERTY, "1");
+    Measurements.setProperties(p);
+    final RepeatedUpdatesWorkload workload = new RepeatedUpdatesWorkload();
+    workload.init(p);
+    final RecordingDB db = new RecordingDB();
+    Object state = workload.initThread(p, 0, 1);
+    // creates the job, then moves it to STARTING
+    assertTrue(workload.doTransaction(db, state));
+    assertTrue(workload.doTransaction(db, state));
+
+    // the toucher reads STARTING and its version, then waits in the DB while the owner moves the job on
+    Thread toucher = new Thread(() -> workload.touch(db, 0));
+    db.hold(toucher);
+    toucher.start();
+    db.awaitHeld();
+    assertTrue(workload.doTransaction(db, state));
+    db.release();
+    toucher.join();
+    for (int i = 0; i < 2; i++) {
+      assertTrue(workload.doTransaction(db, state));
+    }
+
+    List<String> written = db.getHistory(db.getKeys().get(0), "jobState");
+    assertEquals(written.subList(0, 5), Arrays.asList("NOT_SUBMITTED", "STARTING", "PLANNING", "ENQUEUED",
+        "RUNNING"));
+    assertEquals(db.getConflicts(), 1);
+    Map<String, Histogram> histograms = Measurements.getMeasurements().getTotalHistograms();
+    assertEquals(histograms.get("JOB_CONFLICT").getTotalCount(), 1);
+    assertEquals(histograms.get("JOB_TOUCH").getTotalCount(), 1);
+    assertEquals(Measurements.getMeasurements().getStatusCounts().get("JOB_TOUCH").get("ERROR"), Long.valueOf(1));
+  }
+
+  @Test
+  public void conflictsAndRetriesAreMeasured() throws Exception {
+    Properties p = new Properties();
+    p.setProperty(RepeatedUpdatesWorkload.IN_FLIGHT_PROPERTY, "1");
+    p.setProperty(RepeatedUpdatesWorkload.MAX_RETRIES_PROPERTY, "1");
+    Measurements.setProperties(p);
+    RepeatedUpdatesWorkload workload = new RepeatedUpdatesWorkload();
+    workload.init(p);
+    final RecordingDB db = new RecordingDB();
+    Object state = workload.initThread(p, 0, 1);
+    assertTrue(workload.doTransaction(db, state));
+    assertTrue(workload.doTransaction(db, state));
+    // a writer outside the workload moves the version on, so the transition and its retry are both stale
+    String key = db.getKeys().get(0);
+    db.update("jobs", key, new HashMap<String, ByteIterator>());
+    assertTrue(workload.doTransaction(db, state));
+    // the job given up is left behind and the thread goes on with a new one
+    assertTrue(workload.doTransaction(db, state));
+    assertEquals(db.getKeys().size(), 2);
+
+    Map<String, Histogram> histograms = Measurements.getMeasurements().getTotalHistograms();
+    assertEquals(histograms.get("JOB_CONFLICT").getTotalCount(), 2);
+    assertEquals(histograms.get("JOB_RETRY").getTotalCount(), 1);
+    assertEquals(histograms.get("JOB_GIVEN_UP").getTotalCount(), 1);
+  }
+}
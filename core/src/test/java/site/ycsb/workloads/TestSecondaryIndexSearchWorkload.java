@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package site.ycsb.workloads;
+
+import org.testng.annotations.Test;
+import site.ycsb.RecordingDB;
+import site.ycsb.measurements.Measurements;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Properties;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestSecondaryIndexSearchWorkload {
+
+  /** Checks that the job result of each job carries its created time. */
+  private static void assertJobResultsCarryCreatedTimes(RecordingDB db) {
+    for (Map.Entry<Long, List<String>> createdTime : db.getCreatedTimes().entrySet()) {
+      for (String key : createdTime.getValue()) {
+        String jobResult = db.getRow(key).get("jobResult");
+        assertTrue(jobResult.contains("\"startTime\": " + createdTime.getKey() + ", \"requestType\""), jobResult);
+      }
+    }
+  }
+
+  /** @return The created time ranges searched, in order. */
+  private static List<long[]> predicates(RecordingDB db) {
+    List<long[]> predicates = new ArrayList<>();
+    for (String operation : db.getOperations()) {
+      String[] parts = operation.split(" ");
+      if (parts[0].equals("SCAN_CREATED_TIME")) {
+        predicates.add(new long[] {Long.parseLong(parts[1]), Long.parseLong(parts[2])});
+      }
+    }
+    return predicates;
+  }
+
+  private static SecondaryIndexSearchWorkload load(Properties p, RecordingDB db) throws Exception {
+    Measurements.setProperties(p);
+    Measurements.getMeasurements().reset();
+    p.setProperty("dotransactions", "false");
+    SecondaryIndexSearchWorkload loader = new SecondaryIndexSearchWorkload();
+    loader.init(p);
+    Object state = loader.initThread(p, 0, 1);
+    for (int i = 0; i < Integer.parseInt(p.getProperty("recordcount")); i++) {
+      assertTrue(loader.doInsert(db, state));
+    }
+    assertJobResultsCarryCreatedTimes(db);
+
+    p.setProperty("dotransactions", "true");
+    SecondaryIndexSearchWorkload workload = new SecondaryIndexSearchWorkload();
+    workload.init(p);
+    return workload;
+  }
+
+  @Test
+  public void sequentialCreatedTimesAreSearchedByRange() throws Exception {
+    Properties p = new Properties();
+    p.setProperty("recordcount", "1000");
+    p.setProperty(SecondaryIndexSearchWorkload.VALUES_PROPERTY, "100");
+    p.setProperty(SecondaryIndexSearchWorkload.SELECTIVITY_PROPERTY, "0.05");
+    p.setProperty(SecondaryIndexSearchWorkload.MAX_ROWS_PROPERTY, "40");
+    RecordingDB db = new RecordingDB();
+    SecondaryIndexSearchWorkload workload = load(p, db);
+
+    // ten jobs per created time, in insertion order
+    NavigableMap<Long, List<String>> index = db.getCreatedTimes();
+    assertEquals(index.size(), 100);
+    assertEquals(index.firstKey().longValue(), 0);
+    assertEquals(index.lastKey().longValue(), 99);
+    for (List<String> keys : index.values()) {
+      assertEquals(keys.size(), 10);
+    }
+
+    Object state = workload.initThread(p, 0, 1);
+    for (int i = 0; i < 200; i++) {
+      assertTrue(workload.doTransaction(db, state));
+    }
+    List<long[]> predicates = predicates(db);
+    assertEquals(predicates.size(), 200);
+    for (int i = 0; i < predicates.size(); i++) {
+      long[] predicate = predicates.get(i);
+      assertEquals(predicate[1] - predicate[0], 4);
+      // fewer rows than the limit is not a failure, at the end of the created times
+      int expected = (int) Math.min(40, 10 * (Math.min(99, predicate[1]) - predicate[0] + 1));
+      assertEquals(db.getReturned().get(i).intValue(), expected);
+    }
+    assertEquals(Measurements.getMeasurements().getTotalHistograms().get("SECONDARY_INDEX_ROWS").getTotalCount(),
+        200);
+    workload.cleanup();
+  }
+
+  @Test
+  public void equalityPredicatesMatchOneCreatedTime() throws Exception {
+    Properties p = new Properties();
+    p.setProperty("recordcount", "2000");
+    p.setProperty(SecondaryIndexSearchWorkload.VALUES_PROPERTY, "50");
+    p.setProperty(SecondaryIndexSearchWorkload.VALUE_DISTRIBUTION_PROPERTY, "zipfian");
+    p.setProperty(SecondaryIndexSearchWorkload.PREDICATE_PROPERTY, "equality");
+    p.setProperty(SecondaryIndexSearchWorkload.QUERY_DISTRIBUTION_PROPERTY, "latest");
+    RecordingDB db = new RecordingDB();
+    SecondaryIndexSearchWorkload workload = load(p, db);
+
+    NavigableMap<Long, List<String>> index = db.getCreatedTimes();
+    assertTrue(index.lastKey() < 50);
+    int most = 0;
+    for (List<String> keys : index.values()) {
+      most = Math.max(most, keys.size());
+    }
+    // the most popular created time has far more than its even share
+    assertTrue(most > 2 * 2000 / 50, "most jobs at one created time: " + most);
+
+    Object state = workload.initThread(p, 0, 1);
+    for (int i = 0; i < 200; i++) {
+      assertTrue(workload.doTransaction(db, state));
+    }
+    long recent = 0;
+    List<long[]> predicates = predicates(db);
+    for (int i = 0; i < predicates.size(); i++) {
+      long[] predicate = predicates.get(i);
+      assertEquals(predicate[0], predicate[1]);
+      List<String> keys = index.get(predicate[0]);
+      assertEquals(db.getReturned().get(i).intValue(), keys == null ? 0 : keys.size());
+      if (predicate[0] >= 40) {
+        recent++;
+      }
+    }
+    // half of the latest searches fall in the most recent 6% of the created times
+    assertTrue(recent > 200 / 3, "searches of the most recent created times: " + recent);
+  }
+
+  @Test
+  public void writesAreMixedWithSearches() throws Exception {
+    Properties p = new Properties();
+    p.setProperty("recordcount", "100");
+    p.setProperty(SecondaryIndexSearchWorkload.INSERT_PROPORTION_PROPERTY, "0.3");
+    p.setProperty(SecondaryIndexSearchWorkload.UPDATE_PROPORTION_PROPERTY, "0.3");
+    RecordingDB db = new RecordingDB();
+    SecondaryIndexSearchWorkload workload = load(p, db);
+
+    Object state = workload.initThread(p, 0, 1);
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(workload.doTransaction(db, state));
+    }
+    int inserts = db.getKeys().size() - 100;
+    int updates = 0;
+    for (String operation : db.getOperations()) {
+      if (operation.startsWith("UPDATE ")) {
+        updates++;
+        assertEquals(db.getRow(operation.split(" ")[1]).get("jobState"), "COMPLETED");
+      }
+    }
+    assertTrue(inserts > 200 && inserts < 400, "inserts: " + inserts);
+    assertTrue(updates > 200 && updates < 400, "updates: " + updates);
+    assertEquals(predicates(db).size(), 1000 - inserts - updates);
+    assertJobResultsCarryCreatedTimes(db);
+    // the jobs inserted by the run go on from the created times of the loaded ones
+    assertEquals(db.getCreatedTimes().lastKey().longValue(), 100 + inserts - 1);
+  }
+
+  @Test
+  public void searchesStayWithinTheIntCreatedTimes() throws Exception {
+    Properties p = new Properties();
+    p.setProperty("recordcount", "2");
+    p.setProperty(SecondaryIndexSearchWorkload.VALUES_PROPERTY, String.valueOf(Integer.MAX_VALUE));
+    p.setProperty(SecondaryIndexSearchWorkload.SELECTIVITY_PROPERTY, "1");
+    p.setProperty(SecondaryIndexSearchWorkload.INSERT_PROPORTION_PROPERTY, "0.5");
+    RecordingDB db = new RecordingDB();
+    SecondaryIndexSearchWorkload workload = load(p, db);
+
+    Object state = workload.initThread(p, 0, 1);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(workload.doTransaction(db, state));
+    }
+    List<long[]> predicates = predicates(db);
+    assertTrue(predicates.size() > 0);
+    for (long[] predicate : predicates) {
+      assertTrue(predicate[0] <= predicate[1] && predicate[1] <= Integer.MAX_VALUE,
+          predicate[0] + " to " + predicate[1]);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2017 YCSB contributors All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.testng.annotations.Test;
+import site.ycsb.ByteIterator;
+import site.ycsb.CalibrationDB;
+import site.ycsb.DBWrapper;
+import site.ycsb.RandomByteIterator;
+import site.ycsb.RecordingDB;
+import site.ycsb.measurements.Measurements;
+import site.ycsb.trace.TraceWriter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Vector;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestTraceReplayWorkload {
+
+  /**
+   * Records the operations on a few keys through a DBWrapper and returns them as the RecordingDB would see
+   * them.
+   */
+  private static List<String> record(File trace, long pauseMs) throws Exception {
+    Properties props = new Properties();
+    props.setProperty(TraceWriter.RECORD_PROPERTY, trace.getPath());
+    Measurements.setProperties(props);
+    DBWrapper db = new DBWrapper(new CalibrationDB(),
+        new Tracer.Builder("TestTraceReplayWorkload").conf(HTraceConfiguration.EMPTY).build());
+    db.setProperties(props);
+    db.init();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      String key = "user" + (i % 13);
+      switch (i % 5) {
+      case 0:
+        db.insert("usertable", key, Collections.<String, ByteIterator>singletonMap("field0",
+            new RandomByteIterator(i)));
+        expected.add("INSERT " + key + " " + i);
+        break;
+      case 1:
+        db.read("usertable", key, null, new HashMap<String, ByteIterator>());
+        expected.add("READ " + key + " all");
+        break;
+      case 2:
+        db.read("usertable", key, new HashSet<>(Collections.singleton("field0")),
+            new HashMap<String, ByteIterator>());
+        expected.add("READ " + key + " [field0]");
+        break;
+      case 3:
+        db.update("usertable", key, Collections.<String, ByteIterator>singletonMap("field0",
+            new RandomByteIterator(2 * i)));
+        expected.add("UPDATE " + key + " " + 2 * i);
+        break;
+      default:
+        db.scan("usertable", key, i, null, new Vector<HashMap<String, ByteIterator>>());
+        expected.add("SCAN " + key + " " + i);
+        break;
+      }
+      if (pauseMs > 0) {
+        Thread.sleep(pauseMs);
+      }
+    }
+    db.delete("usertable", "user0");
+    expected.add("DELETE user0");
+    db.cleanup();
+    return expected;
+  }
+
+  private static List<String> keyOperations(List<String> operations, String key) {
+    List<String> ofKey = new ArrayList<>();
+    for (String operation : operations) {
+      if (operation.split(" ")[1].equals(key)) {
+        ofKey.add(operation);
+      }
+    }
+    return ofKey;
+  }
+
+  @Test
+  public void replaysEachKeyOnOneThreadInOrder() throws Exception {
+    File trace = File.createTempFile("trace", ".bin");
+    try {
+      List<String> expected = record(trace, 0);
+
+      Properties p = new Properties();
+      p.setProperty(TraceReplayWorkload.TRACE_FILE_PROPERTY, trace.getPath());
+      p.setProperty(TraceReplayWorkload.TRACE_SPEED_PROPERTY, "0");
+      TraceReplayWorkload workload = new TraceReplayWorkload();
+      workload.init(p);
+      int threads = 3;
+      List<RecordingDB> dbs = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        RecordingDB db = new RecordingDB();
+        Object state = workload.initThread(p, t, threads);
+        while (workload.doTransaction(db, state)) {
+          // replay this thread's share of the trace
+        }
+        dbs.add(db);
+      }
+      workload.cleanup();
+
+      int replayed = 0;
+      for (int k = 0; k < 13; k++) {
+        String key = "user" + k;
+        List<String> ofKey = keyOperations(expected, key);
+        int threadsWithKey = 0;
+        for (RecordingDB db : dbs) {
+          List<String> replayedOfKey = keyOperations(db.getOperations(), key);
+          if (!replayedOfKey.isEmpty()) {
+            threadsWithKey++;
+            assertEquals(replayedOfKey, ofKey);
+          }
+        }
+        assertEquals(threadsWithKey, 1, key);
+      }
+      for (RecordingDB db : dbs) {
+        assertTrue(db.getOperations().size() < expected.size());
+        replayed += db.getOperations().size();
+      }
+      assertEquals(replayed, expected.size());
+    } finally {
+      trace.delete();
+    }
+  }
+
+  @Test
+  public void replaysAtTheRecordedSpeed() throws Exception {
+    File trace = File.createTempFile("trace", ".bin");
+    try {
+      record(trace, 1);
+
+      Properties p = new Properties();
+      p.setProperty(TraceReplayWorkload.TRACE_FILE_PROPERTY, trace.getPath());
+      p.setProperty(TraceReplayWorkload.TRACE_SPEED_PROPERTY, "2");
+      TraceReplayWorkload workload = new TraceReplayWorkload();
+      workload.init(p);
+      RecordingDB db = new RecordingDB();
+      Object state = workload.initThread(p, 0, 1);
+      long start = System.nanoTime();
+      while (workload.doTransaction(db, state)) {
+        // replay the whole trace
+      }
+      long elapsedMs = (System.nanoTime() - start) / 1000000;
+      workload.cleanup();
+
+      // 200 pauses of at least 1 ms, replayed at twice the speed
+      assertTrue(elapsedMs >= 100, "replayed in " + elapsedMs + " ms");
+      assertEquals(db.getOperations().size(), 201);
+    } finally {
+      trace.delete();
+    }
+  }
+}
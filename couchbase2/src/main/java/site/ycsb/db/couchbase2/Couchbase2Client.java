@@ -25,6 +25,7 @@ import com.couchbase.client.core.metrics.DefaultLatencyMetricsCollectorConfig;
 import com.couchbase.client.core.metrics.DefaultMetricsCollectorConfig;
 import com.couchbase.client.core.metrics.LatencyMetricsCollectorConfig;
 import com.couchbase.client.core.metrics.MetricsCollectorConfig;
+import com.couchbase.client.core.time.Delay;
 import com.couchbase.client.deps.com.fasterxml.jackson.core.JsonFactory;
 import com.couchbase.client.deps.com.fasterxml.jackson.core.JsonGenerator;
 import com.couchbase.client.deps.com.fasterxml.jackson.databind.JsonNode;
@@ -52,8 +53,9 @@ import com.couchbase.client.java.error.TemporaryFailureException;
 import com.couchbase.client.java.query.*;
 import com.couchbase.client.java.transcoder.JacksonTransformers;
 import com.couchbase.client.java.util.Blocking;
+import com.couchbase.client.java.util.retry.RetryBuilder;
+import site.ycsb.AsyncDB;
 import site.ycsb.ByteIterator;
-import site.ycsb.DB;
 import site.ycsb.DBException;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
@@ -66,6 +68,7 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.channels.spi.SelectorProvider;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
@@ -97,7 +100,7 @@ import java.util.concurrent.locks.LockSupport;
  *      Couchbase.</li>
  * </ul>
  */
-public class Couchbase2Client extends DB {
+public class Couchbase2Client extends AsyncDB {
 
   static {
     // No need to send the full encoded_plan for this benchmark workload, less network overhead!
@@ -703,6 +706,140 @@ public class Couchbase2Client extends DB {
     return Status.OK;
   }
 
+  @Override
+  public CompletableFuture<Status> readAsync(final String table, final String key, final Set<String> fields,
+      final Map<String, ByteIterator> result) {
+    if (!kv) {
+      return super.readAsync(table, key, fields, result);
+    }
+    final CompletableFuture<Status> pending = new CompletableFuture<Status>();
+    bucket.async()
+        .get(formatId(table, key), RawJsonDocument.class)
+        .timeout(kvTimeout, TimeUnit.MILLISECONDS)
+        .subscribe(new Subscriber<RawJsonDocument>() {
+          private boolean found;
+
+          @Override
+          public void onCompleted() {
+            pending.complete(found ? Status.OK : Status.NOT_FOUND);
+          }
+
+          @Override
+          public void onError(Throwable e) {
+            e.printStackTrace();
+            pending.complete(Status.ERROR);
+          }
+
+          @Override
+          public void onNext(RawJsonDocument loaded) {
+            found = true;
+            decode(loaded.content(), fields, result);
+          }
+        });
+    return pending;
+  }
+
+  @Override
+  public CompletableFuture<Status> updateAsync(final String table, final String key,
+      final Map<String, ByteIterator> values) {
+    if (!kv) {
+      return super.updateAsync(table, key, values);
+    }
+    if (upsert) {
+      return upsertAsync(table, key, values);
+    }
+    return completeOnMutationResponse(bucket.async().replace(
+        RawJsonDocument.create(formatId(table, key), documentExpiry, encode(values)),
+        persistTo,
+        replicateTo
+    ));
+  }
+
+  /**
+   * Performs the {@link #insert(String, String, Map)} operation via Key/Value ("INSERT") without blocking.
+   *
+   * TMPFAILs are retried once per second for a maximum of one minute, same as {@link #insertKv(String, Map)}.
+   */
+  @Override
+  public CompletableFuture<Status> insertAsync(final String table, final String key,
+      final Map<String, ByteIterator> values) {
+    if (!kv) {
+      return super.insertAsync(table, key, values);
+    }
+    if (upsert) {
+      return upsertAsync(table, key, values);
+    }
+    return completeOnMutationResponse(bucket.async().insert(
+        RawJsonDocument.create(formatId(table, key), documentExpiry, encode(values)),
+        persistTo,
+        replicateTo
+    ).retryWhen(RetryBuilder
+        .anyOf(TemporaryFailureException.class)
+        .delay(Delay.fixed(1, TimeUnit.SECONDS))
+        .max(60)
+        .build()));
+  }
+
+  @Override
+  public CompletableFuture<Status> deleteAsync(final String table, final String key) {
+    if (!kv) {
+      return super.deleteAsync(table, key);
+    }
+    return completeOnMutationResponse(bucket.async().remove(
+        formatId(table, key),
+        persistTo,
+        replicateTo
+    ));
+  }
+
+  /**
+   * Performs the {@link #upsert(String, String, Map)} operation via Key/Value ("upsert") without blocking.
+   */
+  private CompletableFuture<Status> upsertAsync(final String table, final String key,
+      final Map<String, ByteIterator> values) {
+    return completeOnMutationResponse(bucket.async().upsert(
+        RawJsonDocument.create(formatId(table, key), documentExpiry, encode(values)),
+        persistTo,
+        replicateTo
+    ));
+  }
+
+  /**
+   * Helper method to turn the mutation response into a future, the async counterpart of
+   * {@link #waitForMutationResponse(Observable)}.
+   *
+   * When "-p couchbase.syncMutationResponse=false" is set the returned future is already completed.
+   *
+   * @param input the async input observable.
+   * @return a future completed with the result of the mutation.
+   */
+  private CompletableFuture<Status> completeOnMutationResponse(final Observable<? extends Document<?>> input) {
+    if (!syncMutResponse) {
+      waitForMutationResponse(input);
+      return completed(Status.OK);
+    }
+    final CompletableFuture<Status> pending = new CompletableFuture<Status>();
+    ((Observable<Document<?>>) input)
+        .timeout(kvTimeout, TimeUnit.MILLISECONDS)
+        .subscribe(new Subscriber<Document<?>>() {
+          @Override
+          public void onCompleted() {
+            pending.complete(Status.OK);
+          }
+
+          @Override
+          public void onError(Throwable e) {
+            e.printStackTrace();
+            pending.complete(Status.ERROR);
+          }
+
+          @Override
+          public void onNext(Document<?> document) {
+          }
+        });
+    return pending;
+  }
+
   /**
    * Helper method to block on the response, depending on the property set.
    *
@@ -22,20 +22,19 @@ import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.Firestore;
 import com.google.cloud.firestore.FirestoreOptions;
 import com.google.cloud.firestore.Query;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
 import com.google.cloud.firestore.QuerySnapshot;
 import com.google.cloud.firestore.SetOptions;
 import com.google.cloud.firestore.WriteResult;
 import site.ycsb.ByteIterator;
 import site.ycsb.DB;
 import site.ycsb.DBException;
+import site.ycsb.RowConsumer;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -55,15 +54,26 @@ public class GoogleFirestoreClient extends DB {
     static final String PROJECT = "googlefirestore.projectId";
 
     static final String PRIVKEYFILE = "googlefirestore.serviceAccountKey";
+
+    /** The maximum number of documents a scan reads per call. */
+    static final String SCAN_PAGE_SIZE = "googlefirestore.scan.pagesize";
+    static final String SCAN_PAGE_SIZE_DEFAULT = "1000";
+
+    /** The maximum number of key ranges a scan pages concurrently. */
+    static final String SCAN_PARALLELISM = "googlefirestore.scan.parallelism";
+    static final String SCAN_PARALLELISM_DEFAULT = "4";
   }
 
+  /** When set, the client connects to the Firestore emulator at this host:port, without credentials. */
+  static final String EMULATOR_HOST_ENV = "FIRESTORE_EMULATOR_HOST";
+
   private static final Logger LOGGER = Logger.getLogger(GoogleFirestoreClient.class);
 
   private static final String DOCUMENT_ID = "__name__";
 
-  private static final int PAGINATION_COUNT_PER_CALL = 1000;
-
   private Firestore fsDb;
+  private int scanPageSize;
+  private int scanParallelism;
 
   @Override
   public void init() throws DBException {
@@ -75,13 +85,30 @@ public class GoogleFirestoreClient extends DB {
     if (projectId == null) {
       throw new DBException("Must provide project ID.");
     }
+    scanPageSize = Integer.parseInt(properties.getProperty(GoogleFirestoreProperties.SCAN_PAGE_SIZE,
+        GoogleFirestoreProperties.SCAN_PAGE_SIZE_DEFAULT));
+    scanParallelism = Integer.parseInt(properties.getProperty(GoogleFirestoreProperties.SCAN_PARALLELISM,
+        GoogleFirestoreProperties.SCAN_PARALLELISM_DEFAULT));
+    if (scanPageSize <= 0 || scanParallelism <= 0) {
+      throw new DBException(GoogleFirestoreProperties.SCAN_PAGE_SIZE + " and "
+          + GoogleFirestoreProperties.SCAN_PARALLELISM + " must be positive.");
+    }
+
+    String emulatorHost = System.getenv(EMULATOR_HOST_ENV);
+    if (emulatorHost != null) {
+      // the client library connects to the emulator by itself, which takes no credentials
+      fsDb = FirestoreOptions.newBuilder().setProjectId(projectId).build().getService();
+      LOGGER.info("Created Firestore client for project: " + projectId + " on the emulator at " + emulatorHost);
+      return;
+    }
     String privateKeyFile = properties.getProperty(GoogleFirestoreProperties.PRIVKEYFILE);
     if (privateKeyFile == null) {
       throw new DBException("Must provide full path to private key file.");
     }
     try {
       GoogleCredentials gCreds = GoogleCredentials.fromStream(new FileInputStream(privateKeyFile));
-      FirestoreOptions fsOptions = FirestoreOptions.newBuilder().setCredentials(gCreds).build();
+      FirestoreOptions fsOptions = FirestoreOptions.newBuilder().setProjectId(projectId).setCredentials(gCreds)
+          .build();
       fsDb = fsOptions.getService();
     } catch (FileNotFoundException e) {
       throw new DBException("Can't find key.", e);
@@ -127,40 +154,31 @@ public class GoogleFirestoreClient extends DB {
       int recordcount,
       Set<String> fields,
       Vector<HashMap<String, ByteIterator>> result) {
-    Query query = fsDb.collection(table).orderBy(DOCUMENT_ID);
-    if (startkey != null) {
-      query = query.startAt(startkey);
-    }
-
-    int count = 0;
-    query = query.limit(PAGINATION_COUNT_PER_CALL);
-    while (count <= recordcount) {
-      try {
-        QuerySnapshot querySs = query.get().get();
-        List<QueryDocumentSnapshot> snapshots = querySs.getDocuments();
-
-        for (QueryDocumentSnapshot docSs : querySs.getDocuments()) {
-          HashMap<String, ByteIterator> scanres = new HashMap<>();
-          parseFields(fields, docSs, scanres);
-          result.add(scanres);
-        }
-
-        QueryDocumentSnapshot lastDoc = snapshots.get(snapshots.size() - 1);
-
-        query = fsDb.collection(table)
-            .orderBy(DOCUMENT_ID)
-            .startAt(lastDoc)
-            .limit(PAGINATION_COUNT_PER_CALL);
+    return streamScan(table, startkey, recordcount, fields, RowConsumer.collectInto(result));
+  }
 
-        count += PAGINATION_COUNT_PER_CALL;
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        LOGGER.error("Interrupted during scan().", e);
-        return Status.ERROR;
-      } catch (ExecutionException e) {
-        LOGGER.error("Error during scan().", e);
-        return Status.ERROR;
-      }
+  /**
+   * Scans in key ranges paged concurrently, handing each document to the consumer in key order as its page arrives.
+   * See {@link PagedScan}.
+   */
+  @Override
+  public Status streamScan(String table, String startkey, int recordcount, Set<String> fields,
+                           RowConsumer consumer) {
+    Map<String, ByteIterator> row = new HashMap<>();
+    try {
+      PagedScan pagedScan = new PagedScan(fsDb.collection(table), scanPageSize, scanParallelism);
+      pagedScan.scan(toDocumentId(startkey), recordcount, docSs -> {
+          row.clear();
+          parseFields(fields, docSs, row);
+          return consumer.accept(row);
+        });
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOGGER.error("Interrupted during scan().", e);
+      return Status.ERROR;
+    } catch (ExecutionException e) {
+      LOGGER.error("Error during scan().", e);
+      return Status.ERROR;
     }
 
     if (LOGGER.isDebugEnabled()) {
@@ -291,12 +309,8 @@ public class GoogleFirestoreClient extends DB {
   public Status scanWithNamespaceKeyFilter(String table, String startKey, String endKey, int recordCount,
                                            Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
     Query query;
-    if (startKey != null) {
-      startKey = startKey.replace('/', '_');
-    }
-    if (endKey != null) {
-      endKey = endKey.replace('/', '_');
-    }
+    startKey = toDocumentId(startKey);
+    endKey = toDocumentId(endKey);
 //    System.out.println("startKey:"+ startKey);
 //    System.out.println("endKey:"+ endKey);
     if (startKey != null && endKey != null) {
@@ -369,7 +383,15 @@ public class GoogleFirestoreClient extends DB {
   }
 
   private DocumentReference toReference(String table, String key) {
-    return fsDb.collection(table).document(key);
+    return fsDb.collection(table).document(toDocumentId(key));
+  }
+
+  /**
+   * @return The document ID of a key, or null for a null key. A document ID cannot hold '/', which namespace keys
+   *         are made of, so every key is stored and searched with '_' in its place.
+   */
+  static String toDocumentId(String key) {
+    return key == null ? null : key.replace('/', '_');
   }
 
   private Map<String, Object> toData(Map<String, ByteIterator> values) {
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2019 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.db.firestore;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.common.util.concurrent.MoreExecutors;
+import site.ycsb.measurements.Measurements;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Predicate;
+
+/**
+ * A scan of a collection in document ID order, split into key ranges that are paged concurrently.
+ *
+ * Firestore cannot tell where the keys of a collection lie, so the ranges are guessed from the first page: the keys
+ * it spans give the density of keys, from which the span of the rest of the scan is extrapolated and cut into ranges
+ * of equal width. The guess only decides how evenly the ranges share the work. They are contiguous and the last one
+ * is open-ended, so the scan returns the same rows in the same order whatever the guess.
+ *
+ * Each range requests its next page as soon as a page arrives, continuing after its last document, so the next page
+ * is on its way while the scan decodes the current one. So that a poor guess cannot read far more than the scan
+ * returns, a range stops reading ahead after its share of the scan and one page; the scan resumes it once it has
+ * consumed the rows before it.
+ */
+final class PagedScan {
+  /** The measurement of each page, from its request to its arrival. */
+  static final String PAGE_MEASUREMENT = "FIRESTORE_SCAN_PAGE";
+
+  /** The number of leading characters of a key that its position in the key space is computed from. */
+  private static final int KEY_CHARS = 8;
+
+  /** Keys are positioned over the printable ASCII characters but '/', which a document ID cannot hold. */
+  private static final char FIRST_CHAR = ' ';
+  private static final char LAST_CHAR = '~';
+  private static final int RADIX = LAST_CHAR - FIRST_CHAR;
+  /** The number of positions, small enough for a double to hold each exactly. */
+  private static final double KEY_SPACE = Math.pow(RADIX, KEY_CHARS);
+
+  private final Query query;
+  private final int pageSize;
+  private final int parallelism;
+  private final List<Range> ranges = new ArrayList<>();
+  private volatile boolean done;
+
+  /**
+   * @param collection The collection to scan.
+   * @param pageSize The maximum number of documents of a page.
+   * @param parallelism The maximum number of key ranges paged concurrently.
+   */
+  PagedScan(Query collection, int pageSize, int parallelism) {
+    this.query = collection.orderBy(FieldPath.documentId());
+    this.pageSize = pageSize;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Hands the documents from the start key on to the consumer, in order, until it has had recordcount of them, it
+   * returns false or the collection ends.
+   *
+   * @param startkey The ID of the first document, or null to start at the first document of the collection.
+   * @param recordcount The maximum number of documents to read.
+   * @param consumer Receives each document; returns false to end the scan.
+   * @throws InterruptedException if the thread was interrupted while waiting for a page.
+   * @throws ExecutionException if a page could not be read.
+   */
+  void scan(String startkey, int recordcount, Predicate<QueryDocumentSnapshot> consumer)
+      throws InterruptedException, ExecutionException {
+    if (recordcount <= 0) {
+      return;
+    }
+    Query first = startkey == null ? query : query.startAt(startkey);
+    int limit = Math.min(pageSize, recordcount);
+    long st = System.nanoTime();
+    List<QueryDocumentSnapshot> docs = first.limit(limit).get().get().getDocuments();
+    measure(st);
+
+    try {
+      int needed = recordcount - docs.size();
+      if (docs.size() == limit && needed > 0) {
+        split(startkey, docs.get(docs.size() - 1), docs.size(), needed);
+      }
+      for (QueryDocumentSnapshot doc : docs) {
+        if (!consumer.test(doc)) {
+          return;
+        }
+      }
+      for (Range range : ranges) {
+        while (needed > 0) {
+          Page page = range.pages.take();
+          if (page.error != null) {
+            throw new ExecutionException(page.error);
+          }
+          int left = needed - page.docs.size();
+          if (page.paused && left > 0) {
+            range.resume(page.docs.get(page.docs.size() - 1), left);
+          }
+          for (QueryDocumentSnapshot doc : page.docs) {
+            needed--;
+            if (!consumer.test(doc)) {
+              return;
+            }
+          }
+          if (!page.more) {
+            break;
+          }
+        }
+      }
+    } finally {
+      done = true;
+      for (Range range : ranges) {
+        range.cancel();
+      }
+    }
+  }
+
+  /**
+   * Cuts the rest of the scan into key ranges and requests their first pages.
+   */
+  private void split(String startkey, QueryDocumentSnapshot last, int read, int needed) {
+    List<String> splits = splits(startkey, last.getId(), read, needed, parallelism);
+    int share = (int) Math.min(needed, (long) (needed + splits.size()) / (splits.size() + 1) + pageSize);
+    Query range = query.startAfter(last);
+    for (String split : splits) {
+      ranges.add(new Range(range.endBefore(split), share));
+      range = query.startAt(split);
+    }
+    ranges.add(new Range(range, share));
+    for (Range r : ranges) {
+      r.request(r.query, r.readAhead);
+    }
+  }
+
+  /**
+   * @param startkey The start key of the scan, or null if it starts at the first document of the collection.
+   * @param last The key of the last document of the first page.
+   * @param read The number of documents of the first page.
+   * @param needed The number of documents the scan still needs.
+   * @param parallelism The maximum number of ranges.
+   * @return The keys that split the rest of the scan, after the last key, into ranges of equal width.
+   */
+  static List<String> splits(String startkey, String last, int read, int needed, int parallelism) {
+    List<String> splits = new ArrayList<>();
+    double from = startkey == null ? 0 : position(startkey);
+    double to = position(last);
+    double width = (to - from) * needed / read;
+    String previous = last;
+    for (int i = 1; i < parallelism && width > 0; i++) {
+      double position = to + width * i / parallelism;
+      if (position >= 1) {
+        break;
+      }
+      String split = key(position);
+      // a split rounded onto the previous one would make an empty range, and a few IDs are reserved
+      if (split.compareTo(previous) > 0 && !split.equals(".") && !split.equals("..")
+          && !split.matches("__.*__")) {
+        splits.add(split);
+        previous = split;
+      }
+    }
+    return splits;
+  }
+
+  /**
+   * @param key A document ID.
+   * @return The position of the key in the key space, from 0 inclusive to 1 exclusive. The positions of keys are in
+   *         the order of the keys, but keys that only differ after their leading characters share a position.
+   */
+  static double position(String key) {
+    long position = 0;
+    for (int i = 0; i < KEY_CHARS; i++) {
+      int digit = 0;
+      if (i < key.length()) {
+        char c = key.charAt(i);
+        digit = c < FIRST_CHAR ? 0 : c > LAST_CHAR ? RADIX - 1 : c <= '/' ? c - FIRST_CHAR : c - FIRST_CHAR - 1;
+      }
+      position = position * RADIX + digit;
+    }
+    return position / KEY_SPACE;
+  }
+
+  /**
+   * @param position A position in the key space, from 0 inclusive to 1 exclusive.
+   * @return The key at the position.
+   */
+  static String key(double position) {
+    long digits = Math.min((long) KEY_SPACE - 1, Math.round(position * KEY_SPACE));
+    char[] key = new char[KEY_CHARS];
+    for (int i = KEY_CHARS - 1; i >= 0; i--) {
+      int digit = (int) (digits % RADIX);
+      digits /= RADIX;
+      key[i] = (char) (digit < '/' - FIRST_CHAR ? FIRST_CHAR + digit : FIRST_CHAR + digit + 1);
+    }
+    int length = KEY_CHARS;
+    while (length > 1 && key[length - 1] == FIRST_CHAR) {
+      length--;
+    }
+    return new String(key, 0, length);
+  }
+
+  private static void measure(long st) {
+    Measurements.getMeasurements().measure(PAGE_MEASUREMENT, (int) ((System.nanoTime() - st) / 1000));
+  }
+
+  /** The documents of a page, or the error that ended the range. */
+  private static final class Page {
+    private final List<QueryDocumentSnapshot> docs;
+    private final Throwable error;
+    /** Whether the page was full, so the range may go on after it. */
+    private final boolean more;
+    /** Whether the range stopped reading ahead after this page. */
+    private final boolean paused;
+
+    Page(List<QueryDocumentSnapshot> docs, boolean more, boolean paused) {
+      this.docs = docs;
+      this.error = null;
+      this.more = more;
+      this.paused = paused;
+    }
+
+    Page(Throwable error) {
+      this.docs = null;
+      this.error = error;
+      this.more = false;
+      this.paused = false;
+    }
+  }
+
+  /**
+   * A key range, paged one request at a time. A page is only requested once the previous one arrived or the range
+   * was resumed, so the read ahead is never updated concurrently.
+   */
+  private final class Range {
+    private final Query query;
+    private final BlockingQueue<Page> pages = new LinkedBlockingQueue<>();
+    private int readAhead;
+    private volatile ApiFuture<QuerySnapshot> pending;
+
+    Range(Query query, int readAhead) {
+      this.query = query;
+      this.readAhead = readAhead;
+    }
+
+    void resume(QueryDocumentSnapshot last, int needed) {
+      request(query.startAfter(last), needed);
+    }
+
+    void request(Query page, int rows) {
+      if (done) {
+        return;
+      }
+      readAhead = rows;
+      final int limit = Math.min(pageSize, readAhead);
+      final long st = System.nanoTime();
+      pending = page.limit(limit).get();
+      ApiFutures.addCallback(pending, new ApiFutureCallback<QuerySnapshot>() {
+          @Override
+          public void onSuccess(QuerySnapshot snapshot) {
+            measure(st);
+            List<QueryDocumentSnapshot> docs = snapshot.getDocuments();
+            boolean more = docs.size() == limit;
+            boolean paused = more && readAhead == limit;
+            if (more && !paused) {
+              // request the next page before the scan decodes this one
+              request(query.startAfter(docs.get(docs.size() - 1)), readAhead - limit);
+            }
+            pages.add(new Page(docs, more, paused));
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            pages.add(new Page(t));
+          }
+        }, MoreExecutors.directExecutor());
+    }
+
+    void cancel() {
+      ApiFuture<QuerySnapshot> future = pending;
+      if (future != null) {
+        future.cancel(true);
+      }
+    }
+  }
+}
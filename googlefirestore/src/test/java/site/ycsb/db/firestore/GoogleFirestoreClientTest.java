@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2019 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.db.firestore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.Vector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import site.ycsb.ByteIterator;
+import site.ycsb.Status;
+import site.ycsb.StringByteIterator;
+import site.ycsb.measurements.Measurements;
+
+/**
+ * Scans against the Firestore emulator, which must be running at the host:port in the FIRESTORE_EMULATOR_HOST
+ * environment variable. The tests are skipped if it is not set.
+ */
+public class GoogleFirestoreClientTest {
+  private static final int DOCUMENTS = 200;
+
+  private final String table = "usertable" + System.nanoTime();
+  private final List<String> keys = new ArrayList<>();
+  private GoogleFirestoreClient client;
+
+  @Before
+  public void setUp() throws Exception {
+    assumeTrue("The Firestore emulator is not configured. Skipping tests.",
+        System.getenv(GoogleFirestoreClient.EMULATOR_HOST_ENV) != null);
+    Properties p = new Properties();
+    p.setProperty(GoogleFirestoreClient.GoogleFirestoreProperties.PROJECT, "ycsb-test");
+    p.setProperty(GoogleFirestoreClient.GoogleFirestoreProperties.SCAN_PAGE_SIZE, "7");
+    p.setProperty(GoogleFirestoreClient.GoogleFirestoreProperties.SCAN_PARALLELISM, "3");
+    Measurements.setProperties(p);
+    client = new GoogleFirestoreClient();
+    client.setProperties(p);
+    client.init();
+
+    for (int i = 0; i < DOCUMENTS; i++) {
+      String key = UUID.randomUUID().toString();
+      Map<String, ByteIterator> values = new HashMap<>();
+      values.put("key", new StringByteIterator(key));
+      assertEquals(Status.OK, client.insert(table, key, values));
+      keys.add(key);
+    }
+    Collections.sort(keys);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (client != null) {
+      for (String key : keys) {
+        client.delete(table, key);
+      }
+      client.cleanup();
+    }
+  }
+
+  private List<String> scan(String startkey, int recordcount) {
+    Vector<HashMap<String, ByteIterator>> result = new Vector<>();
+    assertEquals(Status.OK, client.scan(table, startkey, recordcount, null, result));
+    List<String> scanned = new ArrayList<>();
+    for (HashMap<String, ByteIterator> row : result) {
+      scanned.add(row.get("key").toString());
+    }
+    return scanned;
+  }
+
+  @Test
+  public void scanReturnsTheKeysInOrder() {
+    assertEquals(keys.subList(10, 130), scan(keys.get(10), 120));
+    assertEquals(keys.subList(0, 5), scan(null, 5));
+  }
+
+  @Test
+  public void scanEndsWithTheCollection() {
+    assertEquals(keys.subList(150, DOCUMENTS), scan(keys.get(150), 1000));
+    assertEquals(keys, scan(null, DOCUMENTS));
+  }
+
+  @Test
+  public void streamScanEndsWhenTheConsumerDoes() {
+    List<String> scanned = new ArrayList<>();
+    assertEquals(Status.OK, client.streamScan(table, keys.get(3), 100, null, row -> {
+        scanned.add(row.get("key").toString());
+        return scanned.size() < 20;
+      }));
+    assertEquals(keys.subList(3, 23), scanned);
+  }
+
+  @Test
+  public void scansStartAtNamespaceKeys() {
+    String key = "/source/folder";
+    Map<String, ByteIterator> values = new HashMap<>();
+    values.put("key", new StringByteIterator(key));
+    assertEquals(Status.OK, client.insert(table, key, values));
+    keys.add(key);
+
+    assertEquals(Collections.singletonList(key), scan(key, 1));
+    Vector<HashMap<String, ByteIterator>> result = new Vector<>();
+    assertEquals(Status.OK, client.scanWithNamespaceKeyFilter(table, key, key + "/~", 10, null, result));
+    assertEquals(1, result.size());
+    assertEquals(key, result.get(0).get("key").toString());
+  }
+}
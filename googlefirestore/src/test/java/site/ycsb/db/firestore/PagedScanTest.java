@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.db.firestore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+/**
+ * Tests how {@link PagedScan} splits the key space.
+ */
+public class PagedScanTest {
+
+  @Test
+  public void positionsFollowTheKeyOrder() {
+    List<String> keys = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      keys.add(UUID.randomUUID().toString());
+      keys.add("user" + i);
+    }
+    keys.add("");
+    keys.add("a");
+    keys.add("a ");
+    keys.add("a0");
+    Collections.sort(keys);
+    for (int i = 1; i < keys.size(); i++) {
+      assertTrue(keys.get(i - 1) + " before " + keys.get(i),
+          PagedScan.position(keys.get(i - 1)) <= PagedScan.position(keys.get(i)));
+    }
+  }
+
+  @Test
+  public void keysAreAtTheirPosition() {
+    for (String key : new String[] {"0", "user42", "7f3a9c1e", "zzzzzzzz"}) {
+      assertEquals(key, PagedScan.key(PagedScan.position(key)));
+    }
+    String key = PagedScan.key(0.5);
+    assertEquals(0.5, PagedScan.position(key), 1e-12);
+    assertFalse(key.contains("/"));
+  }
+
+  @Test
+  public void splitsCutTheRestIntoEqualRanges() {
+    // the first page of 10 keys spans 1/16 of the key space, so 30 more keys should span 3/16
+    String start = PagedScan.key(0.25);
+    String last = PagedScan.key(0.25 + 1.0 / 16);
+    List<String> splits = PagedScan.splits(start, last, 10, 30, 3);
+    assertEquals(2, splits.size());
+    assertEquals(0.25 + 2.0 / 16, PagedScan.position(splits.get(0)), 1e-12);
+    assertEquals(0.25 + 3.0 / 16, PagedScan.position(splits.get(1)), 1e-12);
+  }
+
+  @Test
+  public void splitsStayWithinTheKeySpace() {
+    List<String> splits = PagedScan.splits(null, PagedScan.key(0.5), 10, 100, 8);
+    assertTrue(splits.isEmpty());
+    splits = PagedScan.splits(null, PagedScan.key(0.3), 10, 20, 4);
+    assertEquals(3, splits.size());
+    assertTrue(PagedScan.position(splits.get(2)) < 1);
+  }
+
+  @Test
+  public void keysWithACommonPrefixAreNotSplit() {
+    assertTrue(PagedScan.splits("user12345678a", "user12345678z", 10, 100, 4).isEmpty());
+    assertTrue(PagedScan.splits(null, "a", 10, 100, 1).isEmpty());
+  }
+}
@@ -19,6 +19,7 @@ package site.ycsb.db;
 import site.ycsb.DB;
 import site.ycsb.DBException;
 import site.ycsb.ByteIterator;
+import site.ycsb.RowConsumer;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
 
@@ -367,6 +368,22 @@ public class JdbcDBClient extends DB {
   @Override
   public Status scan(String tableName, String startKey, int recordcount, Set<String> fields,
                      Vector<HashMap<String, ByteIterator>> result) {
+    return scan(tableName, startKey, recordcount, fields,
+        result != null && fields != null ? RowConsumer.collectInto(result) : null);
+  }
+
+  /**
+   * Streams the rows as the driver fetches them; set {@value #JDBC_FETCH_SIZE} for drivers that otherwise read the
+   * whole result before returning the first row. Without fields, all columns of a row are read.
+   */
+  @Override
+  public Status streamScan(String tableName, String startKey, int recordcount, Set<String> fields,
+                           RowConsumer consumer) {
+    return scan(tableName, startKey, recordcount, fields, consumer);
+  }
+
+  private Status scan(String tableName, String startKey, int recordcount, Set<String> fields,
+                      RowConsumer consumer) {
     try {
       StatementType type = new StatementType(StatementType.Type.SCAN, tableName, 1, "", getShardIndexByKey(startKey));
       PreparedStatement scanStatement = cachedStatements.get(type);
@@ -382,18 +399,28 @@ public class JdbcDBClient extends DB {
         scanStatement.setString(1, startKey);
         scanStatement.setInt(2, recordcount);
       }
-      ResultSet resultSet = scanStatement.executeQuery();
-      for (int i = 0; i < recordcount && resultSet.next(); i++) {
-        if (result != null && fields != null) {
-          HashMap<String, ByteIterator> values = new HashMap<String, ByteIterator>();
-          for (String field : fields) {
-            String value = resultSet.getString(field);
-            values.put(field, new StringByteIterator(value));
+      try (ResultSet resultSet = scanStatement.executeQuery()) {
+        HashMap<String, ByteIterator> values = new HashMap<String, ByteIterator>();
+        for (int i = 0; i < recordcount && resultSet.next(); i++) {
+          if (consumer == null) {
+            continue;
+          }
+          values.clear();
+          if (fields != null) {
+            for (String field : fields) {
+              values.put(field, new StringByteIterator(resultSet.getString(field)));
+            }
+          } else {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            for (int column = 1; column <= metaData.getColumnCount(); column++) {
+              values.put(metaData.getColumnLabel(column), new StringByteIterator(resultSet.getString(column)));
+            }
+          }
+          if (!consumer.accept(values)) {
+            break;
           }
-          result.add(values);
         }
       }
-      resultSet.close();
       return Status.OK;
     } catch (SQLException e) {
       System.err.println("Error in processing scan of table: " + tableName + e);
@@ -18,6 +18,7 @@ package site.ycsb.db;
 
 import static com.allanbank.mongodb.builder.QueryBuilder.where;
 
+import com.allanbank.mongodb.Callback;
 import com.allanbank.mongodb.Durability;
 import com.allanbank.mongodb.LockType;
 import com.allanbank.mongodb.MongoClient;
@@ -38,6 +39,7 @@ import com.allanbank.mongodb.builder.BatchedWrite;
 import com.allanbank.mongodb.builder.BatchedWriteMode;
 import com.allanbank.mongodb.builder.Find;
 import com.allanbank.mongodb.builder.Sort;
+import site.ycsb.AsyncDB;
 import site.ycsb.ByteIterator;
 import site.ycsb.DB;
 import site.ycsb.DBException;
@@ -49,6 +51,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -58,12 +61,17 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <p>
  * See the <code>README.md</code> for configuration information.
  * </p>
+ * <p>
+ * Reads, updates, unbatched inserts and deletes are also issued through the
+ * driver's callback API when the client thread keeps more than one operation
+ * in flight.
+ * </p>
  *
  * @author rjm
  * @see <a href="http://www.allanbank.com/mongodb-async-driver/">Asynchronous
  *      Java Driver</a>
  */
-public class AsyncMongoDbClient extends DB {
+public class AsyncMongoDbClient extends AsyncDB {
 
   /** Used to include a field in a response. */
   protected static final int INCLUDE = 1;
@@ -469,6 +477,142 @@ public class AsyncMongoDbClient extends DB {
     }
   }
 
+  @Override
+  public final CompletableFuture<Status> deleteAsync(final String table,
+      final String key) {
+    final CompletableFuture<Status> pending = new CompletableFuture<Status>();
+    try {
+      final MongoCollection collection = database.getCollection(table);
+      final Document q = BuilderFactory.start().add("_id", key).build();
+      collection.deleteAsync(new StatusCallback<Long>(pending) {
+        @Override
+        public void callback(final Long res) {
+          if (res.longValue() == 0) {
+            System.err.println("Nothing deleted for key " + key);
+            pending.complete(Status.NOT_FOUND);
+          } else {
+            pending.complete(Status.OK);
+          }
+        }
+      }, q, writeConcern);
+    } catch (final Exception e) {
+      System.err.println(e.toString());
+      pending.complete(Status.ERROR);
+    }
+    return pending;
+  }
+
+  @Override
+  public final CompletableFuture<Status> insertAsync(final String table,
+      final String key, final Map<String, ByteIterator> values) {
+    if (batchSize > 1) {
+      // The batched write is shared state; keep it on the calling thread.
+      return super.insertAsync(table, key, values);
+    }
+    final CompletableFuture<Status> pending = new CompletableFuture<Status>();
+    try {
+      final MongoCollection collection = database.getCollection(table);
+      final DocumentBuilder toInsert = BuilderFactory.start().add("_id", key);
+      final Document query = toInsert.build();
+      for (final Map.Entry<String, ByteIterator> entry : values.entrySet()) {
+        toInsert.add(entry.getKey(), entry.getValue().toArray());
+      }
+
+      if (useUpsert) {
+        collection.updateAsync(new StatusCallback<Long>(pending) {
+          @Override
+          public void callback(final Long result) {
+            pending.complete(
+                result.longValue() == 1 ? Status.OK : Status.NOT_FOUND);
+          }
+        }, query, toInsert.build(), /* multi= */false, /* upsert= */true,
+            writeConcern);
+      } else {
+        // Return is not stable pre-SERVER-4381. No exception is success.
+        collection.insertAsync(new StatusCallback<Integer>(pending) {
+          @Override
+          public void callback(final Integer result) {
+            pending.complete(Status.OK);
+          }
+        }, writeConcern, toInsert.build());
+      }
+    } catch (final Exception e) {
+      e.printStackTrace();
+      pending.complete(Status.ERROR);
+    }
+    return pending;
+  }
+
+  @Override
+  public final CompletableFuture<Status> readAsync(final String table,
+      final String key, final Set<String> fields,
+      final Map<String, ByteIterator> result) {
+    final CompletableFuture<Status> pending = new CompletableFuture<Status>();
+    try {
+      final MongoCollection collection = database.getCollection(table);
+      final Document query = BuilderFactory.start().add("_id", key).build();
+      final StatusCallback<Document> callback =
+          new StatusCallback<Document>(pending) {
+            @Override
+            public void callback(final Document queryResult) {
+              if (queryResult == null) {
+                pending.complete(Status.NOT_FOUND);
+                return;
+              }
+              fillMap(result, queryResult);
+              pending.complete(Status.OK);
+            }
+          };
+
+      if (fields != null) {
+        final DocumentBuilder fieldsToReturn = BuilderFactory.start();
+        for (final String field : fields) {
+          fieldsToReturn.add(field, INCLUDE);
+        }
+
+        final Find.Builder fb = new Find.Builder(query);
+        fb.projection(fieldsToReturn);
+        fb.setLimit(1);
+        fb.setBatchSize(1);
+        fb.readPreference(readPreference);
+        collection.findOneAsync(callback, fb.build());
+      } else {
+        collection.findOneAsync(callback, query);
+      }
+    } catch (final Exception e) {
+      System.err.println(e.toString());
+      pending.complete(Status.ERROR);
+    }
+    return pending;
+  }
+
+  @Override
+  public final CompletableFuture<Status> updateAsync(final String table,
+      final String key, final Map<String, ByteIterator> values) {
+    final CompletableFuture<Status> pending = new CompletableFuture<Status>();
+    try {
+      final MongoCollection collection = database.getCollection(table);
+      final DocumentBuilder query = BuilderFactory.start().add("_id", key);
+      final DocumentBuilder update = BuilderFactory.start();
+      final DocumentBuilder fieldsToSet = update.push("$set");
+
+      for (final Map.Entry<String, ByteIterator> entry : values.entrySet()) {
+        fieldsToSet.add(entry.getKey(), entry.getValue().toArray());
+      }
+      collection.updateAsync(new StatusCallback<Long>(pending) {
+        @Override
+        public void callback(final Long res) {
+          pending.complete(writeConcern == Durability.NONE
+              || res.longValue() == 1 ? Status.OK : Status.NOT_FOUND);
+        }
+      }, query, update, false, false, writeConcern);
+    } catch (final Exception e) {
+      System.err.println(e.toString());
+      pending.complete(Status.ERROR);
+    }
+    return pending;
+  }
+
   /**
    * Fills the map with the ByteIterators from the document.
    * 
@@ -487,6 +631,34 @@ public class AsyncMongoDbClient extends DB {
     }
   }
 
+  /**
+   * Base for the driver callbacks used by the asynchronous operations. Any
+   * failure completes the pending future with {@link Status#ERROR}.
+   * 
+   * @param <V>
+   *          The type of the driver's reply.
+   */
+  private abstract static class StatusCallback<V> implements Callback<V> {
+    /** The future to complete once the driver replies. */
+    private final CompletableFuture<Status> pending;
+
+    /**
+     * Creates a new StatusCallback.
+     * 
+     * @param pending
+     *          The future to complete once the driver replies.
+     */
+    StatusCallback(final CompletableFuture<Status> pending) {
+      this.pending = pending;
+    }
+
+    @Override
+    public void exception(final Throwable thrown) {
+      System.err.println(thrown.toString());
+      pending.complete(Status.ERROR);
+    }
+  }
+
   /**
    * BinaryByteArrayIterator provides an adapter from a {@link BinaryElement} to
    * a {@link ByteIterator}.
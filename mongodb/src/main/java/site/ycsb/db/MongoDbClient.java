@@ -46,6 +46,7 @@ import site.ycsb.ByteIterator;
 import site.ycsb.DB;
 import site.ycsb.DBException;
 import site.ycsb.Pair;
+import site.ycsb.RowConsumer;
 import site.ycsb.Status;
 
 import org.bson.Document;
@@ -380,6 +381,31 @@ public class MongoDbClient extends DB {
   @Override
   public Status scan(String table, String startkey, int recordcount,
       Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
+    result.ensureCapacity(recordcount);
+    return streamScan(table, startkey, recordcount, fields, RowConsumer.collectInto(result));
+  }
+
+  /**
+   * Perform a range scan for a set of records in the database, handing each
+   * record to the consumer as the cursor reads it. Ending the scan early
+   * closes the cursor.
+   *
+   * @param table
+   *          The name of the table
+   * @param startkey
+   *          The record key of the first record to read.
+   * @param recordcount
+   *          The number of records to read
+   * @param fields
+   *          The list of fields to read, or null for all of them
+   * @param consumer
+   *          Receives the field/value pairs of each record
+   * @return Zero on success, a non-zero error code on error. See the {@link DB}
+   *         class's description for a discussion of error codes.
+   */
+  @Override
+  public Status streamScan(String table, String startkey, int recordcount,
+      Set<String> fields, RowConsumer consumer) {
     MongoCursor<Document> cursor = null;
     try {
       MongoCollection<Document> collection = database.getCollection(table);
@@ -415,16 +441,14 @@ public class MongoDbClient extends DB {
         return Status.ERROR;
       }
 
-      result.ensureCapacity(recordcount);
-
+      HashMap<String, ByteIterator> resultMap =
+          new HashMap<String, ByteIterator>();
       while (cursor.hasNext()) {
-        HashMap<String, ByteIterator> resultMap =
-            new HashMap<String, ByteIterator>();
-
-        Document obj = cursor.next();
-        fillMap(resultMap, obj);
-
-        result.add(resultMap);
+        resultMap.clear();
+        fillMap(resultMap, cursor.next());
+        if (!consumer.accept(resultMap)) {
+          break;
+        }
       }
 
       return Status.OK;
@@ -528,6 +552,14 @@ public class MongoDbClient extends DB {
   @Override
   public Status scanWithCreatedTimeFilter(String table, String startRange, String endRange, int recordCount,
                                           Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
+    result.ensureCapacity(recordCount);
+    return streamScanWithCreatedTimeFilter(table, startRange, endRange, recordCount, fields,
+        RowConsumer.collectInto(result));
+  }
+
+  @Override
+  public Status streamScanWithCreatedTimeFilter(String table, String startRange, String endRange, int recordCount,
+                                                Set<String> fields, RowConsumer consumer) {
     Document query;
     if (startRange != null && endRange != null) {
       query = new Document("jobInfo.startTime", new Document("$gte", Integer.valueOf(startRange)).append("$lte", Integer.valueOf(endRange)));
@@ -543,13 +575,21 @@ public class MongoDbClient extends DB {
       return Status.BAD_REQUEST;
     }
 
-    return scanWithFilterHelper(query, table, "jobId", recordCount, result,
+    return scanWithFilterHelper(query, table, "jobId", recordCount, consumer,
         "scanWithCreatedTimeFilter");
   }
 
   @Override
   public Status scanWithNamespaceKeyFilter(String table, String startKey, String endKey, int recordCount,
                                            Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
+    result.ensureCapacity(recordCount);
+    return streamScanWithNamespaceKeyFilter(table, startKey, endKey, recordCount, fields,
+        RowConsumer.collectInto(result));
+  }
+
+  @Override
+  public Status streamScanWithNamespaceKeyFilter(String table, String startKey, String endKey, int recordCount,
+                                                 Set<String> fields, RowConsumer consumer) {
     Document query;
     if (startKey != null && endKey != null) {
       query = new Document("_id", new Document("$gte", startKey).append("$lte", endKey));
@@ -565,13 +605,13 @@ public class MongoDbClient extends DB {
       return Status.BAD_REQUEST;
     }
 
-    return scanWithFilterHelper(query, table, "pathKey", recordCount, result,
+    return scanWithFilterHelper(query, table, "pathKey", recordCount, consumer,
         "scanWithNamespaceKeyFilter");
   }
 
   //Scan with filter only supports selecting all fields (select *)
   private Status scanWithFilterHelper(Document query, String table, String sortField, int recordCount,
-                                      Vector<HashMap<String, ByteIterator>> result,
+                                      RowConsumer consumer,
                                       String operationName) {
     // For debugging queries
     // See MongoDB Java Client Doc: https://mongodb.github.io/mongo-java-driver/3.12/driver/
@@ -591,16 +631,14 @@ public class MongoDbClient extends DB {
         return Status.ERROR;
       }
 
-      result.ensureCapacity(recordCount);
-
+      HashMap<String, ByteIterator> resultMap =
+          new HashMap<String, ByteIterator>();
       while (cursor.hasNext()) {
-        HashMap<String, ByteIterator> resultMap =
-            new HashMap<String, ByteIterator>();
-
-        Document obj = cursor.next();
-        fillMap(resultMap, obj);
-
-        result.add(resultMap);
+        resultMap.clear();
+        fillMap(resultMap, cursor.next());
+        if (!consumer.accept(resultMap)) {
+          break;
+        }
       }
 
       return Status.OK;
@@ -233,6 +233,12 @@ public class RocksDBClient extends DB {
   @Override
   public Status scan(final String table, final String startkey, final int recordcount, final Set<String> fields,
         final Vector<HashMap<String, ByteIterator>> result) {
+    return streamScan(table, startkey, recordcount, fields, RowConsumer.collectInto(result));
+  }
+
+  @Override
+  public Status streamScan(final String table, final String startkey, final int recordcount,
+        final Set<String> fields, final RowConsumer consumer) {
     try {
       if (!COLUMN_FAMILIES.containsKey(table)) {
         createColumnFamily(table);
@@ -240,13 +246,16 @@ public class RocksDBClient extends DB {
 
       final ColumnFamilyHandle cf = COLUMN_FAMILIES.get(table).getHandle();
       try(final RocksIterator iterator = rocksDb.newIterator(cf)) {
+        final HashMap<String, ByteIterator> values = new HashMap<>();
         int iterations = 0;
         for (iterator.seek(startkey.getBytes(UTF_8)); iterator.isValid() && iterations < recordcount;
              iterator.next()) {
-          final HashMap<String, ByteIterator> values = new HashMap<>();
+          values.clear();
           deserializeValues(iterator.value(), fields, values);
-          result.add(values);
           iterations++;
+          if (!consumer.accept(values)) {
+            break;
+          }
         }
       }
 